@@ -0,0 +1,45 @@
+package io.github.elpis.reactive.websockets.context.codec;
+
+import io.github.elpis.reactive.websockets.codec.MessageCodec;
+import io.github.elpis.reactive.websockets.codec.MessageCodecs;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+
+/** JSON codec that counts the elements it encodes, registered through the service loader. */
+public class CountingMessageCodec implements MessageCodec {
+  public static final String NAME = "counting";
+
+  private static final AtomicInteger encoded = new AtomicInteger();
+
+  public static int getEncoded() {
+    return encoded.get();
+  }
+
+  public static void reset() {
+    encoded.set(0);
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public WebSocketMessage.Type getFrameType() {
+    return WebSocketMessage.Type.TEXT;
+  }
+
+  @Override
+  public DataBuffer encode(final Object value, final DataBufferFactory bufferFactory) {
+    encoded.incrementAndGet();
+
+    return MessageCodecs.json().encode(value, bufferFactory);
+  }
+
+  @Override
+  public <T> T decode(final DataBuffer payload, final Class<T> type) {
+    return MessageCodecs.json().decode(payload, type);
+  }
+}
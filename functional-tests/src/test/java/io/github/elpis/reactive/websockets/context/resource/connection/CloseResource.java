@@ -22,4 +22,9 @@ public class CloseResource {
         .then(Mono.fromRunnable(() -> session.close(CloseStatus.GOING_AWAY)))
         .subscribe();
   }
+
+  @OnMessage(value = "/byId", mode = Mode.BROADCAST)
+  public void byId() {
+    // Stays open until the test closes the session by id
+  }
 }
@@ -0,0 +1,41 @@
+package io.github.elpis.reactive.websockets.context.resource.data;
+
+import io.github.elpis.reactive.websockets.codec.EncodedMessage;
+import io.github.elpis.reactive.websockets.config.Mode;
+import io.github.elpis.reactive.websockets.context.codec.CountingMessageCodec;
+import io.github.elpis.reactive.websockets.context.model.TestMessage;
+import io.github.elpis.reactive.websockets.web.annotation.MessageEndpoint;
+import io.github.elpis.reactive.websockets.web.annotation.OnMessage;
+import org.springframework.web.bind.annotation.RequestBody;
+import reactor.core.publisher.Flux;
+
+@MessageEndpoint(value = "/codec", codec = "cbor")
+public class CodecResource {
+
+  @OnMessage(value = "/cbor", mode = Mode.SESSION)
+  public Flux<TestMessage> echo(@RequestBody final Flux<TestMessage> messages) {
+    return messages.map(
+        message -> new TestMessage(message.text().toUpperCase(), message.timestamp()));
+  }
+
+  @OnMessage(value = "/cbor/integer", mode = Mode.SESSION)
+  public Flux<Integer> doubled(@RequestBody final Flux<Integer> messages) {
+    return messages.map(number -> number * 2);
+  }
+
+  @OnMessage(value = "/json", mode = Mode.SESSION, codec = "json")
+  public Flux<TestMessage> echoJson(@RequestBody final Flux<TestMessage> messages) {
+    return messages;
+  }
+
+  @OnMessage(value = "/encoded", mode = Mode.BROADCAST)
+  public Flux<EncodedMessage> encoded(@RequestBody final Flux<Integer> messages) {
+    return messages.map(
+        number -> EncodedMessage.json(new TestMessage("encoded", number.longValue())));
+  }
+
+  @OnMessage(value = "/shared", mode = Mode.BROADCAST, codec = CountingMessageCodec.NAME)
+  public Flux<TestMessage> shared(@RequestBody final Flux<String> messages) {
+    return messages.map(text -> new TestMessage(text, 0L));
+  }
+}
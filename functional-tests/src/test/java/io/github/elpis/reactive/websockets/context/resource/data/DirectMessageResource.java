@@ -0,0 +1,16 @@
+package io.github.elpis.reactive.websockets.context.resource.data;
+
+import io.github.elpis.reactive.websockets.config.Mode;
+import io.github.elpis.reactive.websockets.web.annotation.MessageEndpoint;
+import io.github.elpis.reactive.websockets.web.annotation.OnMessage;
+import org.springframework.web.bind.annotation.RequestBody;
+import reactor.core.publisher.Flux;
+
+@MessageEndpoint("/direct")
+public class DirectMessageResource {
+
+  @OnMessage(value = "/listen", mode = Mode.SESSION)
+  public void listen(@RequestBody final Flux<String> messages) {
+    messages.subscribe();
+  }
+}
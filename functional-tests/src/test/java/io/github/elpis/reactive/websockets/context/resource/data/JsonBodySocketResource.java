@@ -71,6 +71,14 @@ public class JsonBodySocketResource {
         .map(msg -> "Single Message: " + msg);
   }
 
+  // Simple POJO - MessageDto mapped by the application ObjectMapper
+  @OnMessage(value = "/message/lenient", mode = Mode.BROADCAST)
+  public Mono<String> receiveLenientMessage(@RequestBody final Mono<TestMessage> message) {
+    return message
+        .doOnNext(msg -> log.info("Lenient Message: {}", msg))
+        .map(msg -> "Lenient Message: " + msg);
+  }
+
   // Nested POJO - UserMessageDto with Flux
   @OnMessage(value = "/user-message", mode = Mode.BROADCAST)
   public Flux<String> receiveUserMessage(@RequestBody final Flux<TestUserMessage> messages) {
@@ -0,0 +1,21 @@
+package io.github.elpis.reactive.websockets.context.resource.data;
+
+import io.github.elpis.reactive.websockets.config.Mode;
+import io.github.elpis.reactive.websockets.web.annotation.MessageEndpoint;
+import io.github.elpis.reactive.websockets.web.annotation.OnMessage;
+import org.springframework.web.bind.annotation.RequestBody;
+import reactor.core.publisher.Flux;
+
+@MessageEndpoint("/mode")
+public class SessionModeResource {
+
+  @OnMessage(value = "/session", mode = Mode.SESSION)
+  public Flux<String> echo(@RequestBody final Flux<String> messages) {
+    return messages.map(message -> "Echo: " + message);
+  }
+
+  @OnMessage(value = "/broadcast", mode = Mode.BROADCAST)
+  public Flux<String> broadcast(@RequestBody final Flux<String> messages) {
+    return messages.map(message -> "Echo: " + message);
+  }
+}
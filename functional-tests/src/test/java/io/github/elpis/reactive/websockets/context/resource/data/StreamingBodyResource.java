@@ -0,0 +1,22 @@
+package io.github.elpis.reactive.websockets.context.resource.data;
+
+import io.github.elpis.reactive.websockets.config.Mode;
+import io.github.elpis.reactive.websockets.context.model.TestMessage;
+import io.github.elpis.reactive.websockets.web.annotation.MessageEndpoint;
+import io.github.elpis.reactive.websockets.web.annotation.OnMessage;
+import org.springframework.web.bind.annotation.RequestBody;
+import reactor.core.publisher.Flux;
+
+@MessageEndpoint("/stream")
+public class StreamingBodyResource {
+
+  @OnMessage(value = "/messages", mode = Mode.SESSION, streaming = true)
+  public Flux<String> receiveMessages(@RequestBody final Flux<TestMessage> messages) {
+    return messages.map(message -> "Message: " + message);
+  }
+
+  @OnMessage(value = "/numbers", mode = Mode.SESSION, streaming = true)
+  public Flux<Integer> receiveNumbers(@RequestBody final Flux<Integer> numbers) {
+    return numbers.map(number -> number * 2);
+  }
+}
@@ -6,8 +6,10 @@ import io.github.elpis.reactive.websockets.web.annotation.Backpressure.Backpress
 import io.github.elpis.reactive.websockets.web.annotation.MessageEndpoint;
 import io.github.elpis.reactive.websockets.web.annotation.OnMessage;
 import java.time.Duration;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.RequestBody;
 import reactor.core.publisher.Flux;
 
 @MessageEndpoint("/backpressure")
@@ -99,4 +101,60 @@ public class BackpressureResource {
     log.info("High throughput backpressure endpoint called");
     return Flux.range(1, 1000).delayElements(Duration.ofMillis(1)).map(i -> "HighThroughput-" + i);
   }
+
+  /**
+   * Broadcast echo endpoint with DISCONNECT strategy. Every session receives the inbound messages
+   * of all sessions, buffers up to 10 of them and is closed once that buffer overflows.
+   */
+  @OnMessage(value = "/disconnect", mode = Mode.BROADCAST)
+  @Backpressure(strategy = BackpressureStrategy.DISCONNECT, bufferSize = 10, closeCode = 4000)
+  public Flux<String> disconnectStrategy(@RequestBody final Flux<String> messages) {
+    log.info("Disconnect backpressure endpoint called");
+    return messages.map(message -> "Disconnect-" + message);
+  }
+
+  /**
+   * Endpoint with CONFLATE strategy. Interleaves updates of two instruments, a slow client keeps
+   * only the newest pending update per instrument.
+   */
+  @OnMessage(value = "/conflate", mode = Mode.BROADCAST)
+  @Backpressure(
+      strategy = BackpressureStrategy.CONFLATE,
+      bufferSize = 16,
+      conflationKey = InstrumentKey.class)
+  public Flux<String> conflateStrategy() {
+    log.info("Conflate backpressure endpoint called");
+    return Flux.range(1, 200).map(i -> (i % 2 == 0 ? "EUR:" : "USD:") + ((i + 1) / 2));
+  }
+
+  /**
+   * Endpoint with ADAPTIVE strategy. Emits 500 messages at once, a slow client is moved to sampled
+   * and conflated delivery but always receives the last message.
+   */
+  @OnMessage(value = "/adaptive", mode = Mode.BROADCAST)
+  @Backpressure(strategy = BackpressureStrategy.ADAPTIVE, bufferSize = 32, maxLagMillis = 5)
+  public Flux<String> adaptiveStrategy() {
+    log.info("Adaptive backpressure endpoint called");
+    return Flux.range(1, 500).map(i -> "Adaptive-" + i);
+  }
+
+  /**
+   * Endpoint with a byte budget. Emits 200 messages of 1 KB at once, a session buffers at most 8 KB
+   * of them and drops the oldest beyond that.
+   */
+  @OnMessage(value = "/byte-budget", mode = Mode.BROADCAST)
+  @Backpressure(strategy = BackpressureStrategy.DROP_OLDEST, maxBufferedBytes = 8192)
+  public Flux<String> byteBudget() {
+    log.info("Byte budget backpressure endpoint called");
+    return Flux.range(1, 200).map(i -> String.format("ByteBudget-%-1013d", i));
+  }
+
+  /** Extracts the instrument of a conflated update. */
+  public static final class InstrumentKey implements Function<String, String> {
+
+    @Override
+    public String apply(final String update) {
+      return update.substring(0, update.indexOf(':'));
+    }
+  }
 }
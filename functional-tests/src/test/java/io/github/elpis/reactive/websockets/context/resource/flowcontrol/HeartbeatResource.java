@@ -12,4 +12,10 @@ public class HeartbeatResource {
   public void ping() {
     // Empty for test the Ping-Pong (now using Heartbeat)
   }
+
+  @OnMessage(value = "/ping/timeout", mode = Mode.BROADCAST)
+  @Heartbeat(interval = 1, timeout = 1)
+  public void pingTimeout() {
+    // Empty for test the heartbeat timeout, shorter than the interval is allowed
+  }
 }
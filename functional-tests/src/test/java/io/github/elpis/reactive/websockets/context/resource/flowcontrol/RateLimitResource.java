@@ -64,4 +64,17 @@ public class RateLimitResource {
     webSocketMessageFlux.subscribe(
         message -> log.info("Received message: {}", message.getPayloadAsText()));
   }
+
+  /** Endpoint with the built-in token bucket engine. Allows 3 messages per 10 seconds. */
+  @OnMessage(value = "/token-bucket", mode = Mode.BROADCAST)
+  @RateLimit(
+      limitForPeriod = 3,
+      limitRefreshPeriod = 10,
+      timeUnit = TimeUnit.SECONDS,
+      engine = RateLimit.RateLimitEngine.TOKEN_BUCKET)
+  public void tokenBucketRateLimit(
+      @RequestBody final Flux<WebSocketMessage> webSocketMessageFlux) {
+    webSocketMessageFlux.subscribe(
+        message -> log.info("Received message: {}", message.getPayloadAsText()));
+  }
 }
@@ -0,0 +1,128 @@
+package io.github.elpis.reactive.websockets.impl.backpressure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.elpis.reactive.websockets.handler.SessionWebSocketResourceHandler;
+import io.github.elpis.reactive.websockets.handler.config.BackpressureConfig;
+import io.github.elpis.reactive.websockets.handler.config.HeartbeatConfig;
+import io.github.elpis.reactive.websockets.handler.config.RateLimitConfig;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+
+/**
+ * Verifies that the backpressure strategies release the payloads of the messages they drop. The
+ * payloads are reference-counted Netty buffers, as the transport allocates them, and the client
+ * requests a single message while 100 are produced.
+ */
+class BackpressureLeakTest {
+  private static final int MESSAGES = 100;
+
+  private final NettyDataBufferFactory bufferFactory =
+      new NettyDataBufferFactory(new UnpooledByteBufAllocator(false));
+
+  @Test
+  void bufferReleasesOverflowTest() {
+    this.verifyReleased("BUFFER");
+  }
+
+  @Test
+  void dropOldestReleasesDroppedTest() {
+    this.verifyReleased("DROP_OLDEST");
+  }
+
+  @Test
+  void dropLatestReleasesDroppedTest() {
+    this.verifyReleased("DROP_LATEST");
+  }
+
+  @Test
+  void errorReleasesOverflowTest() {
+    this.verifyReleased("ERROR");
+  }
+
+  @Test
+  void disconnectReleasesOverflowTest() {
+    this.verifyReleased("DISCONNECT");
+  }
+
+  private void verifyReleased(final String strategy) {
+    // given
+    final LeakTestHandler handler = new LeakTestHandler(BackpressureConfig.of(strategy, 10));
+    final List<NettyDataBuffer> payloads = new ArrayList<>();
+    final Flux<WebSocketMessage> messages =
+        Flux.range(1, MESSAGES)
+            .map(
+                i -> {
+                  final byte[] bytes = ("message-" + i).getBytes(StandardCharsets.UTF_8);
+                  final NettyDataBuffer payload = this.bufferFactory.allocateBuffer(bytes.length);
+                  payload.write(bytes);
+                  payloads.add(payload);
+
+                  return new WebSocketMessage(WebSocketMessage.Type.TEXT, payload);
+                });
+    final SlowClient client = new SlowClient();
+
+    // test
+    handler.backpressure(messages).subscribe(client);
+    client.drain();
+
+    // verify
+    assertThat(payloads).hasSizeGreaterThan(client.received);
+    assertThat(payloads)
+        .allSatisfy(payload -> assertThat(payload.getNativeBuffer().refCnt()).isZero());
+  }
+
+  /** Client that reads one message, then everything left once the producer is done. */
+  private static final class SlowClient extends BaseSubscriber<WebSocketMessage> {
+    private int received;
+
+    @Override
+    protected void hookOnSubscribe(final Subscription subscription) {
+      subscription.request(1);
+    }
+
+    @Override
+    protected void hookOnNext(final WebSocketMessage message) {
+      this.received++;
+      DataBufferUtils.release(message.getPayload());
+    }
+
+    @Override
+    protected void hookOnError(final Throwable throwable) {
+      // overflow of the BUFFER, ERROR and DISCONNECT strategies
+    }
+
+    void drain() {
+      this.request(Long.MAX_VALUE);
+      this.dispose();
+    }
+  }
+
+  private static final class LeakTestHandler extends SessionWebSocketResourceHandler {
+
+    private LeakTestHandler(final BackpressureConfig backpressureConfig) {
+      super(
+          null,
+          null,
+          null,
+          "/leak",
+          HeartbeatConfig.disabled(),
+          RateLimitConfig.disabled(),
+          backpressureConfig);
+    }
+
+    Flux<WebSocketMessage> backpressure(final Flux<WebSocketMessage> messages) {
+      return this.applyBackpressure(messages);
+    }
+  }
+}
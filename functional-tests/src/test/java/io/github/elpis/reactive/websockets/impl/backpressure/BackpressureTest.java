@@ -5,14 +5,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 import io.github.elpis.reactive.websockets.BaseWebSocketTest;
 import io.github.elpis.reactive.websockets.context.BootStarter;
 import io.github.elpis.reactive.websockets.context.resource.flowcontrol.BackpressureResource;
+import io.github.elpis.reactive.websockets.handler.backpressure.BackpressureLagMetrics;
+import io.github.elpis.reactive.websockets.handler.backpressure.OutboundMemoryBudget;
 import java.time.Duration;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.reactive.socket.WebSocketMessage;
+import reactor.core.publisher.Mono;
 import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 
@@ -26,6 +30,9 @@ import reactor.test.StepVerifier;
  *   <li>DROP_OLDEST - Keeps only the latest message
  *   <li>DROP_LATEST - Drops new messages when overwhelmed
  *   <li>ERROR - Signals error when backpressure occurs
+ *   <li>DISCONNECT - Closes a session whose queue overflows
+ *   <li>CONFLATE - Keeps the newest pending message per key
+ *   <li>ADAPTIVE - Degrades delivery of lagging sessions and records lag histograms
  *   <li>DISABLED - No backpressure handling
  * </ul>
  */
@@ -38,6 +45,10 @@ public class BackpressureTest extends BaseWebSocketTest {
 
   private static final Logger log = LoggerFactory.getLogger(BackpressureTest.class);
 
+  @Autowired private BackpressureLagMetrics lagMetrics;
+
+  @Autowired private OutboundMemoryBudget memoryBudget;
+
   // Test constants
   private static final int EXPECTED_BUFFER_MESSAGES = 10; // Buffer size is 10 in resource
   private static final int EXPECTED_DISABLED_MESSAGES = 50; // All messages should arrive
@@ -386,4 +397,171 @@ public class BackpressureTest extends BaseWebSocketTest {
 
     log.info("Slow consumer test completed. Received 15+ messages with slow consumption");
   }
+
+  /**
+   * Test DISCONNECT strategy fan-out. A message sent by one session is broadcast through the queue
+   * of every session, so a listening session receives it as well.
+   */
+  @Test
+  public void testDisconnectStrategyFanOut() throws Exception {
+    log.info("Testing DISCONNECT backpressure strategy fan-out");
+
+    // given
+    final String path = "/backpressure/disconnect";
+    final Sinks.Many<String> sink = Sinks.many().replay().all();
+
+    // when
+    this.withClient(
+            path,
+            session ->
+                session
+                    .receive()
+                    .map(WebSocketMessage::getPayloadAsText)
+                    .doOnNext(sink::tryEmitNext)
+                    .then())
+        .subscribe();
+
+    // the second session joins once the first one listens
+    Mono.delay(Duration.ofMillis(500))
+        .then(
+            this.withClient(
+                path,
+                session ->
+                    session
+                        .send(Mono.just(session.textMessage("hello")))
+                        .thenMany(session.receive().take(1))
+                        .then()))
+        .subscribe();
+
+    // then
+    StepVerifier.create(sink.asFlux().next().timeout(Duration.ofSeconds(5)))
+        .expectNext("Disconnect-hello")
+        .verifyComplete();
+  }
+
+  /**
+   * Test CONFLATE strategy with slow consumer. Intermediate updates of an instrument may be
+   * conflated away, but the last update of every instrument is always delivered.
+   */
+  @Test
+  public void testConflateStrategy() throws Exception {
+    log.info("Testing CONFLATE backpressure strategy");
+
+    // given
+    final String path = "/backpressure/conflate";
+    final Sinks.Many<String> sink = Sinks.many().replay().all();
+
+    // when
+    this.withClient(
+            path,
+            session ->
+                session
+                    .receive()
+                    .map(WebSocketMessage::getPayloadAsText)
+                    .delayElements(Duration.ofMillis(5))
+                    .doOnNext(sink::tryEmitNext)
+                    .then())
+        .subscribe();
+
+    // then
+    StepVerifier.create(
+            sink.asFlux()
+                .filter(message -> message.endsWith(":100"))
+                .take(2)
+                .collectList()
+                .timeout(Duration.ofSeconds(10)))
+        .assertNext(
+            messages -> {
+              assertThat(messages).containsExactlyInAnyOrder("USD:100", "EUR:100");
+              log.info("CONFLATE strategy test completed");
+            })
+        .verifyComplete();
+  }
+
+  /**
+   * Test ADAPTIVE strategy with slow consumer. The last message is always delivered and the lag of
+   * the endpoint is recorded in its histogram.
+   */
+  @Test
+  public void testAdaptiveStrategy() throws Exception {
+    log.info("Testing ADAPTIVE backpressure strategy");
+
+    // given
+    final String path = "/backpressure/adaptive";
+    final Sinks.Many<String> sink = Sinks.many().replay().all();
+
+    // when
+    this.withClient(
+            path,
+            session ->
+                session
+                    .receive()
+                    .map(WebSocketMessage::getPayloadAsText)
+                    .delayElements(Duration.ofMillis(2))
+                    .doOnNext(sink::tryEmitNext)
+                    .then())
+        .subscribe();
+
+    // then
+    StepVerifier.create(
+            sink.asFlux()
+                .takeUntil(message -> message.equals("Adaptive-500"))
+                .collectList()
+                .timeout(Duration.ofSeconds(10)))
+        .assertNext(
+            messages -> {
+              assertThat(messages)
+                  .isNotEmpty()
+                  .allMatch(msg -> msg.startsWith("Adaptive-"))
+                  .last()
+                  .isEqualTo("Adaptive-500");
+              log.info("ADAPTIVE strategy test completed. Received {} messages", messages.size());
+            })
+        .verifyComplete();
+
+    assertThat(this.lagMetrics.getLagHistogram(path))
+        .hasValueSatisfying(histogram -> assertThat(histogram.getCount()).isPositive());
+  }
+
+  /**
+   * Test byte budget with slow consumer. The newest message is always delivered and the bytes
+   * reserved against the shared memory budget are released once the stream is sent.
+   */
+  @Test
+  public void testByteBudget() throws Exception {
+    log.info("Testing byte budget backpressure");
+
+    // given
+    final String path = "/backpressure/byte-budget";
+    final Sinks.Many<String> sink = Sinks.many().replay().all();
+
+    // when
+    this.withClient(
+            path,
+            session ->
+                session
+                    .receive()
+                    .map(WebSocketMessage::getPayloadAsText)
+                    .delayElements(Duration.ofMillis(2))
+                    .doOnNext(sink::tryEmitNext)
+                    .then())
+        .subscribe();
+
+    // then
+    StepVerifier.create(
+            sink.asFlux()
+                .takeUntil(message -> message.trim().equals("ByteBudget-200"))
+                .collectList()
+                .timeout(Duration.ofSeconds(10)))
+        .assertNext(
+            messages -> {
+              assertThat(messages)
+                  .isNotEmpty()
+                  .allMatch(msg -> msg.startsWith("ByteBudget-") && msg.length() == 1024);
+              log.info("Byte budget test completed. Received {} messages", messages.size());
+            })
+        .verifyComplete();
+
+    assertThat(this.memoryBudget.getReservedBytes()).isZero();
+  }
 }
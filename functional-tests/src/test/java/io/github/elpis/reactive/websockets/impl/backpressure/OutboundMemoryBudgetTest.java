@@ -0,0 +1,48 @@
+package io.github.elpis.reactive.websockets.impl.backpressure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.elpis.reactive.websockets.handler.backpressure.OutboundMemoryBudget;
+import org.junit.jupiter.api.Test;
+
+class OutboundMemoryBudgetTest {
+
+  @Test
+  void rejectsAboveCeilingTest() {
+    // given
+    final OutboundMemoryBudget budget = new OutboundMemoryBudget(1024);
+
+    // test
+    final boolean first = budget.tryReserve(600);
+    final boolean second = budget.tryReserve(600);
+    final boolean third = budget.tryReserve(424);
+
+    // verify
+    assertThat(first).isTrue();
+    assertThat(second).isFalse();
+    assertThat(third).isTrue();
+    assertThat(budget.getReservedBytes()).isEqualTo(1024);
+  }
+
+  @Test
+  void releaseFreesCapacityTest() {
+    // given
+    final OutboundMemoryBudget budget = new OutboundMemoryBudget(1024);
+    budget.tryReserve(1024);
+
+    // test
+    budget.release(512);
+
+    // verify
+    assertThat(budget.getReservedBytes()).isEqualTo(512);
+    assertThat(budget.tryReserve(512)).isTrue();
+    assertThat(budget.tryReserve(1)).isFalse();
+  }
+
+  @Test
+  void rejectsInvalidCeilingTest() {
+    assertThatThrownBy(() -> new OutboundMemoryBudget(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
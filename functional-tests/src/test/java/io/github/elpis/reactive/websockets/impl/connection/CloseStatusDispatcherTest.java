@@ -0,0 +1,91 @@
+package io.github.elpis.reactive.websockets.impl.connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.elpis.reactive.websockets.config.SessionCloseInfo;
+import io.github.elpis.reactive.websockets.context.connection.CloseStatusHandlers;
+import io.github.elpis.reactive.websockets.event.dispatcher.CloseStatusDispatcher;
+import io.github.elpis.reactive.websockets.event.model.impl.ClientSessionClosedEvent;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.web.reactive.socket.CloseStatus;
+
+/** Checks the close status dispatcher generated for {@link CloseStatusHandlers}. */
+class CloseStatusDispatcherTest {
+
+  @Test
+  void generatedDispatcherRegistersAllHandlerMethods() throws Exception {
+    // given
+    final StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    beanFactory.addBean("closeStatusHandlers", new CloseStatusHandlers());
+    final CloseStatusDispatcher dispatcher =
+        dispatcherOf(beanFactory.getBeanProvider(CloseStatusHandlers.class));
+    final Map<String, int[]> closeCodes = new HashMap<>();
+    final Map<String, Consumer<ClientSessionClosedEvent>> invokers = new HashMap<>();
+
+    // test
+    final boolean registered =
+        dispatcher.register(
+            (methodName, codes, eventSelector, blocking, invoker) -> {
+              assertThat(blocking).isTrue();
+              closeCodes.put(methodName, codes);
+              invokers.put(methodName, invoker);
+            });
+
+    // verify
+    assertThat(registered).isTrue();
+    assertThat(dispatcher.getHandlerType()).isEqualTo(CloseStatusHandlers.class);
+    assertThat(closeCodes)
+        .containsOnlyKeys(
+            "allCloseEventsHandle",
+            "goingAwayHandler",
+            "policyViolationHandler",
+            "customCodeHandler");
+    assertThat(closeCodes.get("allCloseEventsHandle")).containsExactly(0);
+    assertThat(closeCodes.get("goingAwayHandler")).containsExactly(1001);
+    assertThat(closeCodes.get("policyViolationHandler")).containsExactly(1008);
+    assertThat(closeCodes.get("customCodeHandler")).containsExactly(4567);
+
+    final ClientSessionClosedEvent event =
+        new ClientSessionClosedEvent(
+            SessionCloseInfo.builder().closeStatus(CloseStatus.GOING_AWAY).build());
+    invokers.values().forEach(invoker -> invoker.accept(event));
+  }
+
+  @Test
+  void generatedDispatcherSkipsMissingHandlerBean() throws Exception {
+    // given
+    final CloseStatusDispatcher dispatcher =
+        dispatcherOf(new StaticListableBeanFactory().getBeanProvider(CloseStatusHandlers.class));
+
+    // test
+    final boolean registered =
+        dispatcher.register(
+            (methodName, codes, eventSelector, blocking, invoker) -> {
+              throw new AssertionError("Unexpected registration of " + methodName);
+            });
+
+    // verify
+    assertThat(registered).isFalse();
+  }
+
+  private static CloseStatusDispatcher dispatcherOf(
+      final ObjectProvider<CloseStatusHandlers> handler) throws Exception {
+    final byte[] digest =
+        MessageDigest.getInstance("SHA-256")
+            .digest(CloseStatusHandlers.class.getName().getBytes(StandardCharsets.UTF_8));
+    final String name =
+        "io.github.elpis.reactive.websockets.generated.CloseStatusDispatcher$Generated_"
+            + new BigInteger(1, digest).toString(16);
+
+    return (CloseStatusDispatcher)
+        Class.forName(name).getConstructor(ObjectProvider.class).newInstance(handler);
+  }
+}
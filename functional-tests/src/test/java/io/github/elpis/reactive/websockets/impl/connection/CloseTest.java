@@ -1,14 +1,22 @@
 package io.github.elpis.reactive.websockets.impl.connection;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import io.github.elpis.reactive.websockets.BaseWebSocketTest;
 import io.github.elpis.reactive.websockets.context.BootStarter;
 import io.github.elpis.reactive.websockets.context.resource.connection.CloseResource;
 import io.github.elpis.reactive.websockets.context.resource.connection.CloseRoutingConfiguration;
+import io.github.elpis.reactive.websockets.session.ReactiveWebSocketSession;
+import io.github.elpis.reactive.websockets.session.WebSocketSessionRegistry;
+import java.time.Duration;
+import java.util.Collection;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.reactive.socket.CloseStatus;
+import reactor.core.publisher.Mono;
 import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 
@@ -22,6 +30,9 @@ import reactor.test.StepVerifier;
   CloseResource.class
 })
 public class CloseTest extends BaseWebSocketTest {
+  private static final String BY_ID_PATH = "/close/byId";
+
+  @Autowired private WebSocketSessionRegistry sessionRegistry;
 
   @Test
   void normalCloseFromServer() throws Exception {
@@ -70,4 +81,57 @@ public class CloseTest extends BaseWebSocketTest {
         .log()
         .verify(DEFAULT_GENERIC_TEST_FALLBACK);
   }
+
+  @Test
+  void closeByIdFromServer() throws Exception {
+    // given
+    final CloseStatus requested = new CloseStatus(4321, "Closed by id");
+    final Sinks.One<CloseStatus> closed = Sinks.one();
+    final Sinks.One<CloseStatus> other = Sinks.one();
+
+    this.connectTo(closed);
+    final String sessionId = this.awaitSessions(1).iterator().next().getSessionId();
+    this.connectTo(other);
+    final ReactiveWebSocketSession otherSession =
+        this.awaitSessions(2).stream()
+            .filter(session -> !session.getSessionId().equals(sessionId))
+            .findFirst()
+            .orElseThrow();
+
+    // test
+    this.sessionRegistry.get(sessionId).orElseThrow().close(requested);
+
+    // verify
+    StepVerifier.create(closed.asMono())
+        .assertNext(
+            closeStatus -> {
+              assertThat(closeStatus.getCode()).isEqualTo(requested.getCode());
+              assertThat(closeStatus.getReason()).isEqualTo(requested.getReason());
+            })
+        .expectComplete()
+        .verify(DEFAULT_GENERIC_TEST_FALLBACK);
+
+    // Only the session of the id is closed
+    assertThat(otherSession.isOpen()).isTrue();
+    otherSession.close();
+
+    StepVerifier.create(other.asMono())
+        .expectNext(CloseStatus.NORMAL)
+        .expectComplete()
+        .verify(DEFAULT_GENERIC_TEST_FALLBACK);
+  }
+
+  private void connectTo(final Sinks.One<CloseStatus> sink) throws Exception {
+    this.withClient(
+            BY_ID_PATH,
+            session -> session.closeStatus().doOnNext(sink::tryEmitValue).then())
+        .subscribe();
+  }
+
+  private Collection<ReactiveWebSocketSession> awaitSessions(final int count) {
+    return Mono.fromSupplier(() -> this.sessionRegistry.getByPathTemplate(BY_ID_PATH))
+        .filter(sessions -> sessions.size() >= count)
+        .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(50)))
+        .block(DEFAULT_GENERIC_TEST_FALLBACK);
+  }
 }
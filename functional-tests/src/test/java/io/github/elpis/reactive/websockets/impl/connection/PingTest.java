@@ -9,13 +9,19 @@ import io.github.elpis.reactive.websockets.context.resource.flowcontrol.Heartbea
 import java.time.Duration;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.socket.CloseStatus;
 import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.WebsocketClientSpec;
 import reactor.test.StepVerifier;
 
 @SpringBootTest(
@@ -68,4 +74,62 @@ public class PingTest extends BaseWebSocketTest {
 
     assertThat(pongs).hasPositiveValue();
   }
+
+  @Test
+  void heartbeatTimeoutClosesSilentSession() throws Exception {
+    // given
+    final String path = "/connection/ping/timeout";
+    final Sinks.One<CloseStatus> sink = Sinks.one();
+
+    // Handles pings itself and never answers them
+    final ReactorNettyWebSocketClient client =
+        new ReactorNettyWebSocketClient(
+            HttpClient.create(), () -> WebsocketClientSpec.builder().handlePing(true));
+
+    // test
+    client
+        .execute(
+            this.getUrl(path),
+            session ->
+                Mono.when(
+                    session.receive().then(),
+                    session.closeStatus().doOnNext(sink::tryEmitValue)))
+        .subscribe();
+
+    // verify
+    StepVerifier.create(sink.asMono())
+        .assertNext(
+            closeStatus -> {
+              assertThat(closeStatus.getCode()).isEqualTo(CloseStatus.GOING_AWAY.getCode());
+              assertThat(closeStatus.getReason()).isEqualTo("Heartbeat timeout");
+            })
+        .expectComplete()
+        .verify(DEFAULT_GENERIC_TEST_FALLBACK);
+  }
+
+  @Test
+  void heartbeatTimeoutKeepsAnsweringSession() throws Exception {
+    // given
+    final String path = "/connection/ping/timeout";
+    final AtomicReference<CloseStatus> closeStatus = new AtomicReference<>();
+
+    // test
+    // The close status is observed for a fixed window only, the client disconnects after it
+    final Mono<Void> chain =
+        this.withClient(
+            path,
+            session -> {
+              final Mono<Void> window =
+                  Mono.firstWithSignal(
+                      session.closeStatus().doOnNext(closeStatus::set).then(),
+                      Mono.delay(DEFAULT_FAST_TEST_FALLBACK).then());
+
+              return session.receive().takeUntilOther(window).then();
+            });
+
+    // verify
+    StepVerifier.create(chain).expectComplete().verify(DEFAULT_GENERIC_TEST_FALLBACK);
+
+    assertThat(closeStatus).hasNullValue();
+  }
 }
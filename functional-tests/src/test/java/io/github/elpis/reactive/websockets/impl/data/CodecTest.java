@@ -0,0 +1,289 @@
+package io.github.elpis.reactive.websockets.impl.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.github.elpis.reactive.websockets.BaseWebSocketTest;
+import io.github.elpis.reactive.websockets.codec.MessageCodec;
+import io.github.elpis.reactive.websockets.codec.MessageCodecs;
+import io.github.elpis.reactive.websockets.context.BootStarter;
+import io.github.elpis.reactive.websockets.context.codec.CountingMessageCodec;
+import io.github.elpis.reactive.websockets.context.model.TestMessage;
+import io.github.elpis.reactive.websockets.context.resource.data.CodecResource;
+import io.github.elpis.reactive.websockets.session.WebSocketSessionRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    classes = BootStarter.class)
+@ActiveProfiles({BaseWebSocketTest.DEFAULT_TEST_PROFILE})
+@Import({BaseWebSocketTest.PermitAllSecurityConfiguration.class, CodecResource.class})
+class CodecTest extends BaseWebSocketTest {
+  @Autowired private WebSocketSessionRegistry sessionRegistry;
+
+  private static final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+  @Test
+  void testCborMessageRoundTrip() throws Exception {
+    // given
+    final String path = "/codec/cbor";
+    final byte[] request = cborMapper.writeValueAsBytes(new TestMessage("hello", 42L));
+    final Sinks.One<WebSocketMessage.Type> frameType = Sinks.one();
+    final Sinks.One<TestMessage> sink = Sinks.one();
+
+    // test
+    this.withClient(
+            path,
+            session ->
+                session
+                    .send(Mono.just(session.binaryMessage(factory -> factory.wrap(request))))
+                    .thenMany(
+                        session
+                            .receive()
+                            .doOnNext(
+                                message -> {
+                                  frameType.tryEmitValue(message.getType());
+                                  sink.tryEmitValue(read(message, TestMessage.class));
+                                }))
+                    .then())
+        .subscribe();
+
+    // verify
+    StepVerifier.create(sink.asMono())
+        .expectNext(new TestMessage("HELLO", 42L))
+        .expectComplete()
+        .verify(DEFAULT_FAST_TEST_FALLBACK);
+
+    StepVerifier.create(frameType.asMono())
+        .expectNext(WebSocketMessage.Type.BINARY)
+        .expectComplete()
+        .verify(DEFAULT_FAST_TEST_FALLBACK);
+  }
+
+  @Test
+  void testCborSimpleTypeFrames() throws Exception {
+    // given
+    final String path = "/codec/cbor/integer";
+    final byte[] request = cborMapper.writeValueAsBytes(21);
+    final Sinks.Many<Integer> sink = Sinks.many().replay().all();
+
+    // test
+    this.withClient(
+            path,
+            session ->
+                session
+                    .send(
+                        Mono.just(session.binaryMessage(factory -> factory.wrap(request)))
+                            .concatWith(Mono.just(session.textMessage("50"))))
+                    .thenMany(
+                        session
+                            .receive()
+                            .doOnNext(message -> sink.tryEmitNext(read(message, Integer.class))))
+                    .then())
+        .subscribe();
+
+    // verify
+    StepVerifier.create(sink.asFlux().take(2))
+        .expectNext(42)
+        .expectNext(100)
+        .expectComplete()
+        .verify(DEFAULT_FAST_TEST_FALLBACK);
+  }
+
+  @Test
+  void testMethodCodecOverridesEndpointCodec() throws Exception {
+    // given
+    final String path = "/codec/json";
+    final Sinks.One<WebSocketMessage> sink = Sinks.one();
+
+    // test
+    this.withClient(
+            path,
+            session ->
+                session
+                    .send(Mono.just(session.textMessage("{\"text\":\"hello\",\"timestamp\":1}")))
+                    .thenMany(
+                        session
+                            .receive()
+                            .map(WebSocketMessage::retain)
+                            .doOnNext(sink::tryEmitValue))
+                    .then())
+        .subscribe();
+
+    // verify
+    StepVerifier.create(sink.asMono())
+        .assertNext(
+            message -> {
+              assertThat(message.getType()).isEqualTo(WebSocketMessage.Type.TEXT);
+              assertThat(message.getPayloadAsText())
+                  .isEqualTo("{\"text\":\"hello\",\"timestamp\":1}");
+              message.release();
+            })
+        .expectComplete()
+        .verify(DEFAULT_FAST_TEST_FALLBACK);
+  }
+
+  @Test
+  void testEncodedMessageIsSentAsIs() throws Exception {
+    // given
+    final String path = "/codec/encoded";
+    final byte[] request = cborBytes(3);
+    final Sinks.One<WebSocketMessage> sink = Sinks.one();
+
+    // test
+    this.withClient(
+            path,
+            session ->
+                session
+                    .send(Mono.just(session.binaryMessage(factory -> factory.wrap(request))))
+                    .thenMany(
+                        session
+                            .receive()
+                            .map(WebSocketMessage::retain)
+                            .doOnNext(sink::tryEmitValue))
+                    .then())
+        .subscribe();
+
+    // verify
+    StepVerifier.create(sink.asMono())
+        .assertNext(
+            message -> {
+              // Encoded upfront as JSON, not again with the CBOR codec of the endpoint
+              assertThat(message.getType()).isEqualTo(WebSocketMessage.Type.TEXT);
+              assertThat(message.getPayloadAsText())
+                  .isEqualTo("{\"text\":\"encoded\",\"timestamp\":3}");
+              message.release();
+            })
+        .expectComplete()
+        .verify(DEFAULT_FAST_TEST_FALLBACK);
+  }
+
+  @Test
+  void testBroadcastOutputIsEncodedOnce() throws Exception {
+    // given
+    final String path = "/codec/shared";
+    final int sessions = 3;
+    final Sinks.Many<String> sink = Sinks.many().replay().all();
+    final Sinks.One<String> upload = Sinks.one();
+    CountingMessageCodec.reset();
+
+    // test
+    this.withClient(
+            path,
+            session ->
+                Flux.merge(
+                        session.send(upload.asMono().map(session::textMessage)),
+                        this.receiveOne(session, sink))
+                    .then())
+        .subscribe();
+
+    for (int i = 1; i < sessions; i++) {
+      this.withClient(path, session -> this.receiveOne(session, sink)).subscribe();
+    }
+
+    this.awaitSessions(path, sessions);
+    upload.tryEmitValue("shared");
+
+    // verify
+    StepVerifier.create(sink.asFlux().take(sessions))
+        .expectNext("{\"text\":\"shared\",\"timestamp\":0}")
+        .expectNext("{\"text\":\"shared\",\"timestamp\":0}")
+        .expectNext("{\"text\":\"shared\",\"timestamp\":0}")
+        .expectComplete()
+        .verify(DEFAULT_FAST_TEST_FALLBACK);
+
+    assertThat(CountingMessageCodec.getEncoded()).isEqualTo(1);
+  }
+
+  @Test
+  void testBuiltInCodecs() {
+    // given
+    final MessageCodec json = MessageCodecs.get("json");
+    final MessageCodec cbor = MessageCodecs.get("cbor");
+    final TestMessage value = new TestMessage("codec", 7L);
+
+    // test
+    final DataBuffer encoded = cbor.encode(value, DefaultDataBufferFactory.sharedInstance);
+
+    // verify
+    assertThat(MessageCodecs.get("")).isSameAs(json);
+    assertThat(json.getFrameType()).isEqualTo(WebSocketMessage.Type.TEXT);
+    assertThat(cbor.getFrameType()).isEqualTo(WebSocketMessage.Type.BINARY);
+    assertThat(cbor.decode(encoded, TestMessage.class)).isEqualTo(value);
+    assertThat(cbor.encodeAsBytes(value)).isEqualTo(cborBytes(value));
+    assertThatThrownBy(() -> MessageCodecs.get("unknown"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("unknown");
+  }
+
+  @Test
+  void testBinaryCodecUsesApplicationMapper() {
+    // given
+    final MessageCodec cbor = MessageCodecs.get("cbor");
+    final Instant instant = Instant.parse("2024-01-01T12:00:00Z");
+
+    // test
+    final DataBuffer encoded = cbor.encode(instant, DefaultDataBufferFactory.sharedInstance);
+
+    // verify: java.time support comes from the modules of the application mapper
+    assertThat(cbor.decode(encoded, Instant.class)).isEqualTo(instant);
+  }
+
+  private Mono<Void> receiveOne(final WebSocketSession session, final Sinks.Many<String> sink) {
+    return session
+        .receive()
+        .take(1)
+        .map(WebSocketMessage::getPayloadAsText)
+        .doOnNext(
+            text ->
+                sink.emitNext(
+                    text, Sinks.EmitFailureHandler.busyLooping(DEFAULT_FAST_TEST_FALLBACK)))
+        .then();
+  }
+
+  // Frames sent before the server finished the upgrade may be lost, upload once it is registered
+  private void awaitSessions(final String path, final int count) {
+    Mono.fromSupplier(() -> this.sessionRegistry.getByPathTemplate(path))
+        .filter(found -> found.size() >= count)
+        .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(50)))
+        .block(DEFAULT_GENERIC_TEST_FALLBACK);
+  }
+
+  private static byte[] cborBytes(final Object value) {
+    try {
+      return cborMapper.writeValueAsBytes(value);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static <T> T read(final WebSocketMessage message, final Class<T> type) {
+    final DataBuffer payload = message.getPayload();
+    final byte[] bytes = new byte[payload.readableByteCount()];
+    payload.read(bytes);
+
+    try {
+      return cborMapper.readValue(bytes, type);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
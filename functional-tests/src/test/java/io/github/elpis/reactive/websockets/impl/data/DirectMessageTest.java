@@ -0,0 +1,102 @@
+package io.github.elpis.reactive.websockets.impl.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.elpis.reactive.websockets.BaseWebSocketTest;
+import io.github.elpis.reactive.websockets.context.BootStarter;
+import io.github.elpis.reactive.websockets.context.resource.data.DirectMessageResource;
+import io.github.elpis.reactive.websockets.session.ReactiveWebSocketSession;
+import io.github.elpis.reactive.websockets.session.WebSocketSessionRegistry;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    classes = BootStarter.class)
+@ActiveProfiles({BaseWebSocketTest.DEFAULT_TEST_PROFILE})
+@Import({BaseWebSocketTest.PermitAllSecurityConfiguration.class, DirectMessageResource.class})
+class DirectMessageTest extends BaseWebSocketTest {
+  private static final String PATH = "/direct/listen";
+
+  @Autowired private WebSocketSessionRegistry sessionRegistry;
+
+  @Test
+  void sendToSessionTest() throws Exception {
+    // given
+    final Sinks.Many<String> sink = Sinks.many().replay().all();
+    this.connect(sink);
+
+    // test
+    final ReactiveWebSocketSession session = this.awaitSessions(1).iterator().next();
+    final Sinks.EmitResult result = session.send(Map.of("greeting", "hello"));
+
+    // verify
+    assertThat(result).isEqualTo(Sinks.EmitResult.OK);
+
+    StepVerifier.create(sink.asFlux().take(1))
+        .expectNext("{\"greeting\":\"hello\"}")
+        .expectComplete()
+        .verify(DEFAULT_GENERIC_TEST_FALLBACK);
+  }
+
+  @Test
+  void sendToPathTemplateTest() throws Exception {
+    // given
+    final Sinks.Many<String> first = Sinks.many().replay().all();
+    final Sinks.Many<String> second = Sinks.many().replay().all();
+    this.connect(first);
+    this.connect(second);
+    this.awaitSessions(2);
+
+    // test
+    final long accepted = this.sessionRegistry.sendToPathTemplate(PATH, "to everyone");
+
+    // verify
+    assertThat(accepted).isGreaterThanOrEqualTo(2);
+
+    StepVerifier.create(first.asFlux().take(1))
+        .expectNext("to everyone")
+        .expectComplete()
+        .verify(DEFAULT_GENERIC_TEST_FALLBACK);
+
+    StepVerifier.create(second.asFlux().take(1))
+        .expectNext("to everyone")
+        .expectComplete()
+        .verify(DEFAULT_GENERIC_TEST_FALLBACK);
+  }
+
+  @Test
+  void sendToUnknownSessionTest() {
+    assertThat(this.sessionRegistry.send("unknown", "nothing"))
+        .isEqualTo(Sinks.EmitResult.FAIL_TERMINATED);
+  }
+
+  private void connect(final Sinks.Many<String> sink) throws Exception {
+    this.withClient(
+            PATH,
+            session ->
+                session
+                    .receive()
+                    .map(WebSocketMessage::getPayloadAsText)
+                    .doOnNext(sink::tryEmitNext)
+                    .then())
+        .subscribe();
+  }
+
+  private Collection<ReactiveWebSocketSession> awaitSessions(final int count) {
+    return Mono.fromSupplier(() -> this.sessionRegistry.getByPathTemplate(PATH))
+        .filter(sessions -> sessions.size() >= count)
+        .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(50)))
+        .block(DEFAULT_GENERIC_TEST_FALLBACK);
+  }
+}
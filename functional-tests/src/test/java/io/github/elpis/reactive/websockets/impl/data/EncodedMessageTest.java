@@ -0,0 +1,77 @@
+package io.github.elpis.reactive.websockets.impl.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import io.github.elpis.reactive.websockets.codec.EncodedMessage;
+import io.github.elpis.reactive.websockets.codec.MessageCodec;
+import io.github.elpis.reactive.websockets.codec.MessageCodecs;
+import io.github.elpis.reactive.websockets.context.model.TestMessage;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+
+class EncodedMessageTest {
+
+  @Test
+  void testMutationAfterEncodingIsNotSent() {
+    // given
+    final List<String> element = new ArrayList<>(List.of("first"));
+    final EncodedMessage encoded = EncodedMessage.json(element);
+
+    // test
+    element.add("second");
+    final EncodedMessage encodedAgain = EncodedMessage.json(element);
+
+    // verify
+    assertThat(text(encoded)).isEqualTo("[\"first\"]");
+    assertThat(text(encodedAgain)).isEqualTo("[\"first\",\"second\"]");
+  }
+
+  @Test
+  void testEverySessionGetsItsOwnBuffer() {
+    // given
+    final EncodedMessage encoded = EncodedMessage.json(new TestMessage("shared", 1L));
+
+    // test
+    final WebSocketMessage first = encoded.toMessage(DefaultDataBufferFactory.sharedInstance);
+    final WebSocketMessage second = encoded.toMessage(DefaultDataBufferFactory.sharedInstance);
+    final String firstText = first.getPayloadAsText();
+    first.getPayload().readPosition(first.getPayload().writePosition());
+
+    // verify
+    assertThat(first.getPayload()).isNotSameAs(second.getPayload());
+    assertThat(second.getPayloadAsText()).isEqualTo(firstText);
+    assertThat(second.getPayload().readableByteCount()).isEqualTo(encoded.getSize());
+    assertThat(second.getType()).isEqualTo(WebSocketMessage.Type.TEXT);
+  }
+
+  @Test
+  void testFrameTypeOfCodec() {
+    // given
+    final MessageCodec cbor = MessageCodecs.get("cbor");
+    final TestMessage value = new TestMessage("binary", 2L);
+
+    // test
+    final EncodedMessage encoded = EncodedMessage.of(cbor, value);
+    final WebSocketMessage message = encoded.toMessage(DefaultDataBufferFactory.sharedInstance);
+
+    // verify
+    assertThat(encoded.getType()).isEqualTo(WebSocketMessage.Type.BINARY);
+    assertThat(message.getType()).isEqualTo(WebSocketMessage.Type.BINARY);
+    assertThat(cbor.decode(message.getPayload(), TestMessage.class)).isEqualTo(value);
+  }
+
+  @Test
+  void testElementThatCannotBeEncoded() {
+    assertThatThrownBy(() -> EncodedMessage.json(new Object()))
+        .isInstanceOf(RuntimeJsonMappingException.class);
+  }
+
+  private static String text(final EncodedMessage encoded) {
+    return encoded.toMessage(DefaultDataBufferFactory.sharedInstance).getPayloadAsText();
+  }
+}
@@ -10,11 +10,14 @@ import io.github.elpis.reactive.websockets.context.model.TestChatMessage;
 import io.github.elpis.reactive.websockets.context.model.TestMessage;
 import io.github.elpis.reactive.websockets.context.model.TestUserMessage;
 import io.github.elpis.reactive.websockets.context.resource.data.JsonBodySocketResource;
+import io.github.elpis.reactive.websockets.mapper.JsonMapper;
+import io.github.elpis.reactive.websockets.session.WebSocketSessionRegistry;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import nl.altindag.log.LogCaptor;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
@@ -32,6 +35,47 @@ class JsonBodySocketTest extends BaseWebSocketTest {
 
   private static final ObjectMapper objectMapper = new ObjectMapper();
 
+  @Autowired private ObjectMapper applicationObjectMapper;
+
+  @Autowired private WebSocketSessionRegistry sessionRegistry;
+
+  @Test
+  void testApplicationObjectMapperIsUsed() throws Exception {
+    // given
+    final String path = "/json/message/lenient";
+    // Spring Boot configures its mapper to ignore unknown properties, a plain one fails on them
+    final String data = "{\"text\":\"Lenient\",\"timestamp\":1,\"extra\":true}";
+    final Sinks.One<String> upload = Sinks.one();
+    final Sinks.One<String> sink = Sinks.one();
+
+    assertThat(JsonMapper.getObjectMapper()).isSameAs(this.applicationObjectMapper);
+
+    // test
+    this.withClient(
+            path,
+            session ->
+                session
+                    .send(upload.asMono().map(session::textMessage))
+                    .and(
+                        session
+                            .receive()
+                            .doOnNext(value -> sink.tryEmitValue(value.getPayloadAsText()))))
+        .subscribe();
+
+    // Frames sent before the server finished the upgrade may be lost, upload once it is registered
+    Mono.fromSupplier(() -> this.sessionRegistry.getByPathTemplate(path))
+        .filter(sessions -> !sessions.isEmpty())
+        .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(50)))
+        .block(DEFAULT_GENERIC_TEST_FALLBACK);
+    upload.tryEmitValue(data);
+
+    // verify
+    StepVerifier.create(sink.asMono())
+        .expectNext("Lenient Message: TestMessage[text=Lenient, timestamp=1]")
+        .expectComplete()
+        .verify(DEFAULT_FAST_TEST_FALLBACK);
+  }
+
   @Test
   void testFluxStringDeserialization() throws Exception {
     // given
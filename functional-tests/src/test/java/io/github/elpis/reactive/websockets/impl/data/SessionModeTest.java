@@ -0,0 +1,88 @@
+package io.github.elpis.reactive.websockets.impl.data;
+
+import io.github.elpis.reactive.websockets.BaseWebSocketTest;
+import io.github.elpis.reactive.websockets.context.BootStarter;
+import io.github.elpis.reactive.websockets.context.resource.data.SessionModeResource;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    classes = BootStarter.class)
+@ActiveProfiles({BaseWebSocketTest.DEFAULT_TEST_PROFILE})
+@Import({BaseWebSocketTest.PermitAllSecurityConfiguration.class, SessionModeResource.class})
+class SessionModeTest extends BaseWebSocketTest {
+
+  @Test
+  void sessionModeEchoesOnlyToSenderTest() throws Exception {
+    // given
+    final String path = "/mode/session";
+    final Sinks.Many<String> first = Sinks.many().replay().all();
+    final Sinks.Many<String> second = Sinks.many().replay().all();
+
+    // test
+    this.connect(path, "first", first);
+    this.connect(path, "second", second);
+
+    // verify
+    StepVerifier.create(first.asFlux().timeout(DEFAULT_FAST_TEST_FALLBACK))
+        .expectNext("Echo: first")
+        .verifyError(TimeoutException.class);
+
+    StepVerifier.create(second.asFlux().timeout(DEFAULT_FAST_TEST_FALLBACK))
+        .expectNext("Echo: second")
+        .verifyError(TimeoutException.class);
+  }
+
+  @Test
+  void broadcastModeEchoesToEverySessionTest() throws Exception {
+    // given
+    final String path = "/mode/broadcast";
+    final Sinks.Many<String> listener = Sinks.many().replay().all();
+    final Sinks.Many<String> sender = Sinks.many().replay().all();
+
+    // test
+    this.withClient(
+            path,
+            session ->
+                session
+                    .receive()
+                    .map(WebSocketMessage::getPayloadAsText)
+                    .doOnNext(listener::tryEmitNext)
+                    .then())
+        .subscribe();
+
+    Mono.delay(Duration.ofMillis(500)).block();
+    this.connect(path, "broadcast", sender);
+
+    // verify
+    StepVerifier.create(listener.asFlux().take(1))
+        .expectNext("Echo: broadcast")
+        .expectComplete()
+        .verify(DEFAULT_GENERIC_TEST_FALLBACK);
+  }
+
+  private void connect(final String path, final String text, final Sinks.Many<String> sink)
+      throws Exception {
+    this.withClient(
+            path,
+            session ->
+                session
+                    .send(Mono.just(session.textMessage(text)))
+                    .thenMany(
+                        session
+                            .receive()
+                            .map(WebSocketMessage::getPayloadAsText)
+                            .doOnNext(sink::tryEmitNext))
+                    .then())
+        .subscribe();
+  }
+}
@@ -0,0 +1,111 @@
+package io.github.elpis.reactive.websockets.impl.data;
+
+import io.github.elpis.reactive.websockets.BaseWebSocketTest;
+import io.github.elpis.reactive.websockets.context.BootStarter;
+import io.github.elpis.reactive.websockets.context.resource.data.StreamingBodyResource;
+import io.github.elpis.reactive.websockets.session.WebSocketSessionRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    classes = BootStarter.class)
+@ActiveProfiles({BaseWebSocketTest.DEFAULT_TEST_PROFILE})
+@Import({BaseWebSocketTest.PermitAllSecurityConfiguration.class, StreamingBodyResource.class})
+class StreamingBodyTest extends BaseWebSocketTest {
+
+  @Autowired private WebSocketSessionRegistry sessionRegistry;
+
+  @Test
+  void testArrayElementsAreEmittedWhileUploading() throws Exception {
+    // given
+    final String path = "/stream/messages";
+    final Sinks.Many<String> upload = Sinks.many().unicast().onBackpressureBuffer();
+    final Sinks.Many<String> sink = Sinks.many().replay().all();
+    final int sessions = this.sessionRegistry.getByPathTemplate(path).size();
+
+    // test
+    this.withClient(
+            path,
+            session ->
+                session
+                    .send(upload.asFlux().map(session::textMessage))
+                    .and(
+                        session
+                            .receive()
+                            .doOnNext(value -> sink.tryEmitNext(value.getPayloadAsText()))))
+        .subscribe();
+    this.awaitSessions(path, sessions + 1);
+
+    // verify
+    // The first element is complete before the array is, it must not wait for the rest
+    upload.tryEmitNext("[{\"text\":\"first\",\"timestamp\":1},{\"te");
+    StepVerifier.create(sink.asFlux().take(1))
+        .expectNext("Message: TestMessage[text=first, timestamp=1]")
+        .expectComplete()
+        .verify(DEFAULT_FAST_TEST_FALLBACK);
+
+    upload.tryEmitNext("xt\":\"second\",\"timest");
+    upload.tryEmitNext("amp\":2},{\"text\":\"[third]\",\"timestamp\":3}]");
+    StepVerifier.create(sink.asFlux().take(3))
+        .expectNext("Message: TestMessage[text=first, timestamp=1]")
+        .expectNext("Message: TestMessage[text=second, timestamp=2]")
+        .expectNext("Message: TestMessage[text=[third], timestamp=3]")
+        .expectComplete()
+        .verify(DEFAULT_FAST_TEST_FALLBACK);
+
+    upload.tryEmitComplete();
+  }
+
+  @Test
+  void testRootValuesAreSplitAcrossMessages() throws Exception {
+    // given
+    final String path = "/stream/numbers";
+    final Sinks.Many<String> upload = Sinks.many().unicast().onBackpressureBuffer();
+    final Sinks.Many<Integer> sink = Sinks.many().replay().all();
+    final int sessions = this.sessionRegistry.getByPathTemplate(path).size();
+
+    // test
+    this.withClient(
+            path,
+            session ->
+                session
+                    .send(upload.asFlux().map(session::textMessage))
+                    .and(
+                        session
+                            .receive()
+                            .map(value -> Integer.valueOf(value.getPayloadAsText()))
+                            .doOnNext(sink::tryEmitNext)))
+        .subscribe();
+    this.awaitSessions(path, sessions + 1);
+
+    upload.tryEmitNext("1 2");
+    upload.tryEmitNext("0\n3");
+    upload.tryEmitNext(" 4");
+
+    // verify
+    StepVerifier.create(sink.asFlux().take(3))
+        .expectNext(2)
+        .expectNext(40)
+        .expectNext(6)
+        .expectComplete()
+        .verify(DEFAULT_FAST_TEST_FALLBACK);
+
+    upload.tryEmitComplete();
+  }
+
+  // Frames sent before the server finished the upgrade may be lost, upload once it is registered
+  private void awaitSessions(final String path, final int count) {
+    Mono.fromSupplier(() -> this.sessionRegistry.getByPathTemplate(path))
+        .filter(found -> found.size() >= count)
+        .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(50)))
+        .block(DEFAULT_GENERIC_TEST_FALLBACK);
+  }
+}
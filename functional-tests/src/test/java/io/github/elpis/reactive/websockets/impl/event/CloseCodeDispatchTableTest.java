@@ -0,0 +1,110 @@
+package io.github.elpis.reactive.websockets.impl.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.elpis.reactive.websockets.config.SessionCloseInfo;
+import io.github.elpis.reactive.websockets.config.WebSocketCloseStatus;
+import io.github.elpis.reactive.websockets.event.dispatcher.CloseCodeDispatchTable;
+import io.github.elpis.reactive.websockets.event.model.impl.ClientSessionClosedEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.socket.CloseStatus;
+
+class CloseCodeDispatchTableTest {
+
+  @Test
+  void testCodeHandlersAreCalledBeforeAllHandlers() {
+    // given
+    final List<String> calls = new ArrayList<>();
+    final CloseCodeDispatchTable table =
+        CloseCodeDispatchTable.of(
+            Map.of(
+                WebSocketCloseStatus.ALL.getStatusCode(),
+                List.of(recording(calls, "all")),
+                CloseStatus.GOING_AWAY.getCode(),
+                List.of(recording(calls, "goingAway"), recording(calls, "goingAwayAudit"))));
+
+    // test
+    table.dispatch(event(CloseStatus.GOING_AWAY));
+    table.dispatch(event(CloseStatus.NORMAL));
+
+    // verify
+    assertThat(calls).containsExactly("goingAway", "goingAwayAudit", "all", "all");
+    assertThat(table.handlerCount(CloseStatus.GOING_AWAY.getCode())).isEqualTo(3);
+    assertThat(table.handlerCount(CloseStatus.NORMAL.getCode())).isEqualTo(1);
+  }
+
+  @Test
+  void testCodeOutsideRangeOnlyReachesAllHandlers() {
+    // given
+    final List<String> calls = new ArrayList<>();
+    final CloseCodeDispatchTable table =
+        CloseCodeDispatchTable.of(
+            Map.of(
+                WebSocketCloseStatus.ALL.getStatusCode(),
+                List.of(recording(calls, "all")),
+                4999,
+                List.of(recording(calls, "custom"))));
+
+    // test
+    table.dispatch(event(null));
+    table.dispatch(event(new CloseStatus(4999)));
+
+    // verify
+    assertThat(calls).containsExactly("all", "custom", "all");
+    assertThat(table.handlerCount(4999)).isEqualTo(2);
+    assertThat(table.handlerCount(5000)).isEqualTo(1);
+    assertThat(table.handlerCount(999)).isEqualTo(1);
+  }
+
+  @Test
+  void testEmptyTable() {
+    // given
+    final CloseCodeDispatchTable table = CloseCodeDispatchTable.of(Map.of());
+
+    // test
+    table.dispatch(event(CloseStatus.NORMAL));
+
+    // verify
+    assertThat(table.handlerCount(CloseStatus.NORMAL.getCode())).isZero();
+    assertThat(table.handles(event(CloseStatus.NORMAL))).isFalse();
+  }
+
+  @Test
+  void testHandlesOnlyCodesWithHandlers() {
+    // given
+    final CloseCodeDispatchTable table =
+        CloseCodeDispatchTable.of(
+            Map.of(
+                CloseStatus.POLICY_VIOLATION.getCode(),
+                List.<Consumer<ClientSessionClosedEvent>>of(event -> {})));
+
+    // verify
+    assertThat(table.handles(event(CloseStatus.POLICY_VIOLATION))).isTrue();
+    assertThat(table.handles(event(CloseStatus.NORMAL))).isFalse();
+  }
+
+  @Test
+  void testInvalidCode() {
+    assertThatThrownBy(
+            () ->
+                CloseCodeDispatchTable.of(
+                    Map.of(5000, List.<Consumer<ClientSessionClosedEvent>>of(event -> {}))))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Close code 5000 is not valid. Valid error code range is from 1000 to 4999");
+  }
+
+  private static Consumer<ClientSessionClosedEvent> recording(
+      final List<String> calls, final String name) {
+    return event -> calls.add(name);
+  }
+
+  private static ClientSessionClosedEvent event(final CloseStatus closeStatus) {
+    return new ClientSessionClosedEvent(
+        SessionCloseInfo.builder().closeStatus(closeStatus).build());
+  }
+}
@@ -0,0 +1,83 @@
+package io.github.elpis.reactive.websockets.impl.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.elpis.reactive.websockets.config.SessionCloseInfo;
+import io.github.elpis.reactive.websockets.config.WebSocketCloseStatus;
+import io.github.elpis.reactive.websockets.config.event.ClosedConnectionHandlerConfiguration;
+import io.github.elpis.reactive.websockets.config.event.ClosedConnectionHandlerConfiguration.ClosedEventHandlers;
+import io.github.elpis.reactive.websockets.config.event.ClosedEventMetrics;
+import io.github.elpis.reactive.websockets.event.manager.EventManagers;
+import io.github.elpis.reactive.websockets.event.manager.WebSocketEventManager;
+import io.github.elpis.reactive.websockets.event.manager.WebSocketEventManagerFactory;
+import io.github.elpis.reactive.websockets.event.model.impl.ClientSessionClosedEvent;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.socket.CloseStatus;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+class ClosedEventSchedulerTest {
+
+  @Test
+  void testRejectedCloseEventsAreCounted() throws Exception {
+    // given
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch started = new CountDownLatch(1);
+    final AtomicInteger handled = new AtomicInteger();
+    final ClosedEventHandlers handlers = new ClosedEventHandlers();
+    handlers.add(
+        WebSocketCloseStatus.ALL.getStatusCode(),
+        event -> {
+          started.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+
+          handled.incrementAndGet();
+        },
+        true);
+
+    final WebSocketEventManager<ClientSessionClosedEvent> eventManager =
+        EventManagers.ringBuffer(16);
+    final WebSocketEventManagerFactory eventManagerFactory =
+        WebSocketEventManagerFactory.builder()
+            .register(ClientSessionClosedEvent.class, eventManager)
+            .build();
+    final ClosedEventMetrics metrics = new ClosedEventMetrics();
+    // One thread running the first event and room for one more queued
+    final Scheduler scheduler = Schedulers.newBoundedElastic(1, 1, "closed-event-test");
+
+    try {
+      new ClosedConnectionHandlerConfiguration()
+          .closedSessionListener(handlers, eventManagerFactory, scheduler, metrics)
+          .onApplicationEvent(null);
+
+      // test
+      eventManager.fire(event());
+      assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+      eventManager.fire(event());
+      eventManager.fire(event());
+      eventManager.fire(event());
+
+      // verify
+      assertThat(metrics.getRejectedCount()).isEqualTo(2);
+
+      release.countDown();
+      scheduler.disposeGracefully().block();
+      assertThat(handled).hasValue(2);
+    } finally {
+      release.countDown();
+      scheduler.dispose();
+    }
+  }
+
+  private static ClientSessionClosedEvent event() {
+    return new ClientSessionClosedEvent(
+        SessionCloseInfo.builder().closeStatus(CloseStatus.GOING_AWAY).build());
+  }
+}
@@ -12,11 +12,13 @@ import io.github.elpis.reactive.websockets.event.matcher.impl.ClosedSessionEvent
 import io.github.elpis.reactive.websockets.event.model.impl.ClientSessionClosedEvent;
 import io.github.elpis.reactive.websockets.session.ReactiveWebSocketSession;
 import java.util.UUID;
+import java.util.function.Predicate;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.expression.ParseException;
 import org.springframework.expression.spel.SpelEvaluationException;
 
 class ClosedSessionEventSelectorMatcherTest {
@@ -98,4 +100,46 @@ class ClosedSessionEventSelectorMatcherTest {
     Assertions.assertThrows(
         SpelEvaluationException.class, () -> eventSelectorMatcher.process(event, eventSelector));
   }
+
+  @Test
+  void testCompiledSelectorIsParsedOnce() {
+    // given
+    final ClientSessionClosedEvent matching = closedEvent(ID);
+    final ClientSessionClosedEvent other = closedEvent(UUID.randomUUID().toString());
+
+    // mock
+    when(eventSelector.value()).thenReturn("session.sessionId eq '" + ID + "'");
+
+    // test
+    final Predicate<ClientSessionClosedEvent> selector =
+        eventSelectorMatcher.compile(eventSelector);
+
+    // assert
+    // Enough evaluations for the SpEL compiler to take over from the interpreter
+    for (int i = 0; i < 500; i++) {
+      assertTrue(selector.test(matching));
+      assertFalse(selector.test(other));
+    }
+
+    // verify
+    verify(eventSelector, times(1)).value();
+  }
+
+  @Test
+  void testCompileInvalidSpelFormat() {
+    // mock
+    when(eventSelector.value()).thenReturn("session.sessionId eq");
+
+    // assert
+    Assertions.assertThrows(
+        ParseException.class, () -> eventSelectorMatcher.compile(eventSelector));
+  }
+
+  private static ClientSessionClosedEvent closedEvent(final String sessionId) {
+    final ReactiveWebSocketSession webSocketSessionInfo =
+        ReactiveWebSocketSession.builder().sessionId(sessionId).build();
+
+    return new ClientSessionClosedEvent(
+        SessionCloseInfo.builder().session(webSocketSessionInfo).build());
+  }
 }
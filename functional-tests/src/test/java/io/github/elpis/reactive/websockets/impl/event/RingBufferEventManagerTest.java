@@ -0,0 +1,261 @@
+package io.github.elpis.reactive.websockets.impl.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.elpis.reactive.websockets.event.manager.EventManagers;
+import io.github.elpis.reactive.websockets.event.manager.impl.RingBufferEventManager;
+import io.github.elpis.reactive.websockets.event.manager.impl.RingBufferEventManager.OverflowPolicy;
+import io.github.elpis.reactive.websockets.event.model.impl.SessionConnectedEvent;
+import io.github.elpis.reactive.websockets.session.ReactiveWebSocketSession;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Sinks;
+
+class RingBufferEventManagerTest {
+
+  @Test
+  void testConcurrentProducersLoseNoEvent() throws Exception {
+    // given
+    final int producers = 8;
+    final int eventsPerProducer = 10_000;
+    final RingBufferEventManager<SessionConnectedEvent> eventManager =
+        EventManagers.ringBuffer(64, OverflowPolicy.SPILL, producers * eventsPerProducer);
+    final Queue<String> received = new ConcurrentLinkedQueue<>();
+    eventManager.asFlux().subscribe(event -> received.add(event.payload().getSessionId()));
+
+    // test
+    final ExecutorService executor = Executors.newFixedThreadPool(producers);
+    final CountDownLatch start = new CountDownLatch(1);
+    final Queue<Sinks.EmitResult> results = new ConcurrentLinkedQueue<>();
+    try {
+      for (int producer = 0; producer < producers; producer++) {
+        final int id = producer;
+        executor.execute(
+            () -> {
+              try {
+                start.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+
+              for (int index = 0; index < eventsPerProducer; index++) {
+                results.add(eventManager.fire(event(id + "-" + index)));
+              }
+            });
+      }
+
+      start.countDown();
+    } finally {
+      executor.shutdown();
+      assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+    }
+
+    // verify
+    assertThat(results).hasSize(producers * eventsPerProducer).containsOnly(Sinks.EmitResult.OK);
+    assertThat(received).hasSize(producers * eventsPerProducer).doesNotHaveDuplicates();
+    assertThat(eventManager.getDroppedCount()).isZero();
+    assertThat(eventManager.getPendingCount()).isZero();
+  }
+
+  @Test
+  void testSlowListenerDoesNotStallOthers() {
+    // given
+    final RingBufferEventManager<SessionConnectedEvent> eventManager = EventManagers.ringBuffer(4);
+    final List<String> slowReceived = new ArrayList<>();
+    final List<String> fastReceived = new ArrayList<>();
+    final AtomicReference<BaseSubscriber<SessionConnectedEvent>> slowSubscriber =
+        new AtomicReference<>();
+
+    // test
+    eventManager.fire(event("before-subscribe"));
+    eventManager
+        .asFlux()
+        .subscribe(
+            new BaseSubscriber<>() {
+              @Override
+              protected void hookOnSubscribe(final Subscription subscription) {
+                slowSubscriber.set(this);
+              }
+
+              @Override
+              protected void hookOnNext(final SessionConnectedEvent value) {
+                slowReceived.add(value.payload().getSessionId());
+              }
+            });
+    eventManager.asFlux().subscribe(event -> fastReceived.add(event.payload().getSessionId()));
+    eventManager.fire(event("first"));
+    eventManager.fire(event("second"));
+
+    // verify
+    assertThat(slowReceived).isEmpty();
+    assertThat(fastReceived).containsExactly("first", "second");
+    assertThat(eventManager.getPendingCount()).isZero();
+
+    slowSubscriber.get().request(2);
+    assertThat(slowReceived).containsExactly("before-subscribe", "first");
+
+    slowSubscriber.get().request(Long.MAX_VALUE);
+    assertThat(slowReceived).containsExactly("before-subscribe", "first", "second");
+  }
+
+  @Test
+  void testLaggingListenerDropsLatestForItself() {
+    // given
+    final RingBufferEventManager<SessionConnectedEvent> eventManager = EventManagers.ringBuffer(4);
+    final List<String> slowReceived = new ArrayList<>();
+    final List<String> fastReceived = new ArrayList<>();
+    final BaseSubscriber<SessionConnectedEvent> slowSubscriber =
+        new RecordingSubscriber(slowReceived);
+    eventManager.asFlux().subscribe(slowSubscriber);
+    eventManager.asFlux().subscribe(event -> fastReceived.add(event.payload().getSessionId()));
+
+    // test
+    for (int index = 0; index < 10; index++) {
+      eventManager.fire(event("event-" + index));
+    }
+
+    // verify
+    assertThat(fastReceived).hasSize(10);
+    assertThat(eventManager.getDroppedCount()).isEqualTo(6);
+    assertThat(eventManager.getPendingCount()).isZero();
+
+    slowSubscriber.request(Long.MAX_VALUE);
+    assertThat(slowReceived).containsExactly("event-0", "event-1", "event-2", "event-3");
+  }
+
+  @Test
+  void testLaggingListenerHoldsBackSpill() {
+    // given
+    final RingBufferEventManager<SessionConnectedEvent> eventManager =
+        EventManagers.ringBuffer(2, OverflowPolicy.SPILL, 2);
+    final List<String> slowReceived = new ArrayList<>();
+    final List<String> fastReceived = new ArrayList<>();
+    final BaseSubscriber<SessionConnectedEvent> slowSubscriber =
+        new RecordingSubscriber(slowReceived);
+    eventManager.asFlux().subscribe(slowSubscriber);
+    eventManager.asFlux().subscribe(event -> fastReceived.add(event.payload().getSessionId()));
+
+    // test
+    final List<Sinks.EmitResult> results = new ArrayList<>();
+    for (int index = 0; index < 7; index++) {
+      results.add(eventManager.fire(event("event-" + index)));
+    }
+
+    // verify
+    assertThat(results.subList(0, 6)).containsOnly(Sinks.EmitResult.OK);
+    assertThat(results.get(6)).isEqualTo(Sinks.EmitResult.FAIL_OVERFLOW);
+    assertThat(fastReceived).containsExactly("event-0", "event-1");
+    assertThat(eventManager.getPendingCount()).isEqualTo(4);
+    assertThat(eventManager.getDroppedCount()).isEqualTo(1);
+
+    slowSubscriber.request(Long.MAX_VALUE);
+    assertThat(slowReceived)
+        .containsExactly("event-0", "event-1", "event-2", "event-3", "event-4", "event-5");
+    assertThat(fastReceived).isEqualTo(slowReceived);
+    assertThat(eventManager.getPendingCount()).isZero();
+  }
+
+  @Test
+  void testDropLatestWhenFull() {
+    // given
+    final RingBufferEventManager<SessionConnectedEvent> eventManager = EventManagers.ringBuffer(2);
+
+    // test
+    final List<Sinks.EmitResult> results =
+        List.of(
+            eventManager.fire(event("first")),
+            eventManager.fire(event("second")),
+            eventManager.fire(event("third")));
+
+    // verify
+    assertThat(results)
+        .containsExactly(
+            Sinks.EmitResult.OK, Sinks.EmitResult.OK, Sinks.EmitResult.FAIL_OVERFLOW);
+    assertThat(eventManager.getCapacity()).isEqualTo(2);
+    assertThat(eventManager.getDroppedCount()).isEqualTo(1);
+
+    final List<String> received = new ArrayList<>();
+    eventManager.asFlux().subscribe(event -> received.add(event.payload().getSessionId()));
+    assertThat(received).containsExactly("first", "second");
+  }
+
+  @Test
+  void testSpillKeepsEventsFiredWhileFull() {
+    // given
+    final RingBufferEventManager<SessionConnectedEvent> eventManager =
+        EventManagers.ringBuffer(1, OverflowPolicy.SPILL, 2);
+    final List<String> received = new ArrayList<>();
+    eventManager
+        .asFlux()
+        .subscribe(
+            event -> {
+              received.add(event.payload().getSessionId());
+              // Fired while the slot of the first event is still taken by the running drain
+              if (event.payload().getSessionId().equals("first")) {
+                assertThat(eventManager.fire(event("second"))).isEqualTo(Sinks.EmitResult.OK);
+                assertThat(eventManager.fire(event("third"))).isEqualTo(Sinks.EmitResult.OK);
+                assertThat(eventManager.getPendingCount()).isEqualTo(3);
+              }
+            });
+
+    // test
+    eventManager.fire(event("first"));
+    eventManager.fire(event("fourth"));
+
+    // verify
+    assertThat(received).containsExactly("first", "second", "third", "fourth");
+    assertThat(eventManager.getDroppedCount()).isZero();
+    assertThat(eventManager.getPendingCount()).isZero();
+  }
+
+  @Test
+  void testSpillDropsWithoutListeners() {
+    // given
+    final RingBufferEventManager<SessionConnectedEvent> eventManager =
+        EventManagers.ringBuffer(1, OverflowPolicy.SPILL);
+    eventManager.fire(event("first"));
+
+    // test
+    final Sinks.EmitResult result = eventManager.fire(event("second"));
+
+    // verify
+    assertThat(result).isEqualTo(Sinks.EmitResult.FAIL_OVERFLOW);
+    assertThat(eventManager.getDroppedCount()).isEqualTo(1);
+    assertThat(eventManager.getPendingCount()).isEqualTo(1);
+  }
+
+  /** Listener that requests nothing until the test does. */
+  private static final class RecordingSubscriber extends BaseSubscriber<SessionConnectedEvent> {
+    private final List<String> received;
+
+    private RecordingSubscriber(final List<String> received) {
+      this.received = received;
+    }
+
+    @Override
+    protected void hookOnSubscribe(final Subscription subscription) {
+      // requested by the test
+    }
+
+    @Override
+    protected void hookOnNext(final SessionConnectedEvent value) {
+      this.received.add(value.payload().getSessionId());
+    }
+  }
+
+  private static SessionConnectedEvent event(final String sessionId) {
+    return SessionConnectedEvent.builder()
+        .webSocketSessionInfo(ReactiveWebSocketSession.builder().sessionId(sessionId).build())
+        .build();
+  }
+}
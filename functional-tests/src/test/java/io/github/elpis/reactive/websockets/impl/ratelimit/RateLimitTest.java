@@ -5,7 +5,6 @@ import static org.assertj.core.api.Assertions.assertThat;
 import io.github.elpis.reactive.websockets.BaseWebSocketTest;
 import io.github.elpis.reactive.websockets.context.BootStarter;
 import io.github.elpis.reactive.websockets.context.resource.flowcontrol.RateLimitResource;
-import io.github.elpis.reactive.websockets.handler.BroadcastWebSocketResourceHandler;
 import java.time.Duration;
 import java.util.concurrent.TimeoutException;
 import nl.altindag.log.LogCaptor;
@@ -23,6 +22,8 @@ import reactor.test.StepVerifier;
 @ActiveProfiles({BaseWebSocketTest.DEFAULT_TEST_PROFILE})
 @Import({BaseWebSocketTest.PermitAllSecurityConfiguration.class, RateLimitResource.class})
 public class RateLimitTest extends BaseWebSocketTest {
+  /** Rate limit warnings are logged by the generated handler of the endpoint. */
+  private static final String GENERATED_HANDLERS = "io.github.elpis.reactive.websockets.generated";
 
   // Test constants for rate limits
   private static final int NO_RATE_LIMIT_MESSAGE_COUNT = 20;
@@ -43,7 +44,7 @@ public class RateLimitTest extends BaseWebSocketTest {
     final String path = "/ratelimit/default";
     final Sinks.Many<String> sink = Sinks.many().replay().all();
 
-    final LogCaptor logCaptor = LogCaptor.forClass(BroadcastWebSocketResourceHandler.class);
+    final LogCaptor logCaptor = LogCaptor.forName(GENERATED_HANDLERS);
 
     // test
     this.withClient(
@@ -77,7 +78,7 @@ public class RateLimitTest extends BaseWebSocketTest {
     final String path = "/ratelimit/custom";
     final Sinks.Many<String> sink = Sinks.many().replay().all();
 
-    final LogCaptor logCaptor = LogCaptor.forClass(BroadcastWebSocketResourceHandler.class);
+    final LogCaptor logCaptor = LogCaptor.forName(GENERATED_HANDLERS);
 
     // test
     this.withClient(
@@ -111,7 +112,7 @@ public class RateLimitTest extends BaseWebSocketTest {
     final String path = "/ratelimit/disabled";
     final Sinks.Many<String> sink = Sinks.many().replay().all();
 
-    final LogCaptor logCaptor = LogCaptor.forClass(BroadcastWebSocketResourceHandler.class);
+    final LogCaptor logCaptor = LogCaptor.forName(GENERATED_HANDLERS);
 
     // test
     this.withClient(
@@ -144,7 +145,7 @@ public class RateLimitTest extends BaseWebSocketTest {
     final String path = "/ratelimit/by-user";
     final Sinks.Many<String> sink = Sinks.many().replay().all();
 
-    final LogCaptor logCaptor = LogCaptor.forClass(BroadcastWebSocketResourceHandler.class);
+    final LogCaptor logCaptor = LogCaptor.forName(GENERATED_HANDLERS);
 
     // test
     this.withClient(
@@ -183,7 +184,7 @@ public class RateLimitTest extends BaseWebSocketTest {
     final String path = "/ratelimit/by-ip";
     final Sinks.Many<String> sink = Sinks.many().replay().all();
 
-    final LogCaptor logCaptor = LogCaptor.forClass(BroadcastWebSocketResourceHandler.class);
+    final LogCaptor logCaptor = LogCaptor.forName(GENERATED_HANDLERS);
 
     // test - connect from localhost (127.0.0.1 or similar)
     this.withClient(
@@ -219,7 +220,7 @@ public class RateLimitTest extends BaseWebSocketTest {
     final Sinks.Many<String> sink1 = Sinks.many().replay().all();
     final Sinks.Many<String> sink2 = Sinks.many().replay().all();
 
-    final LogCaptor logCaptor = LogCaptor.forClass(BroadcastWebSocketResourceHandler.class);
+    final LogCaptor logCaptor = LogCaptor.forName(GENERATED_HANDLERS);
 
     // First connection - send 3 messages (within limit)
     final Flux<String> data1 =
@@ -264,4 +265,36 @@ public class RateLimitTest extends BaseWebSocketTest {
     assertThat(logCaptor.getWarnLogs())
         .anySatisfy(log -> assertThat(log).contains("Rate limit exceeded"));
   }
+
+  @Test
+  public void testTokenBucketRateLimit() throws Exception {
+    // given - token bucket allows 3 messages per 10 seconds
+    final Flux<String> data =
+        Flux.interval(Duration.ofMillis(50)).map(i -> "Token bucket: " + (i + 1)).take(6);
+
+    final String path = "/ratelimit/token-bucket";
+    final Sinks.Many<String> sink = Sinks.many().replay().all();
+
+    final LogCaptor logCaptor = LogCaptor.forName(GENERATED_HANDLERS);
+
+    // test
+    this.withClient(
+            path,
+            session ->
+                session
+                    .send(data.map(session::textMessage))
+                    .thenMany(
+                        session
+                            .receive()
+                            .doOnNext(value -> sink.tryEmitNext(value.getPayloadAsText())))
+                    .then())
+        .subscribe();
+
+    // verify
+    StepVerifier.create(sink.asFlux().timeout(DEFAULT_FAST_TEST_FALLBACK))
+        .verifyError(TimeoutException.class);
+
+    assertThat(logCaptor.getWarnLogs())
+        .anySatisfy(log -> assertThat(log).contains("Rate limit exceeded"));
+  }
 }
@@ -0,0 +1,105 @@
+package io.github.elpis.reactive.websockets.impl.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.elpis.reactive.websockets.handler.ratelimit.RateLimiterService;
+import io.github.elpis.reactive.websockets.handler.ratelimit.RateLimiterStore;
+import io.github.elpis.reactive.websockets.handler.ratelimit.TokenBucketRateLimiter;
+import io.github.elpis.reactive.websockets.web.annotation.RateLimit.RateLimitScope;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterServiceTest {
+
+  @Test
+  void sameConfigurationSharesStoreTest() {
+    // given
+    final RateLimiterService service = new RateLimiterService();
+
+    // test
+    final RateLimiterStore<RateLimiter> first =
+        service.getRateLimiterStore("/chat", 5, 1, TimeUnit.SECONDS, 25L, RateLimitScope.SESSION);
+    final RateLimiterStore<RateLimiter> second =
+        service.getRateLimiterStore("/chat", 5, 1, TimeUnit.SECONDS, 25L, RateLimitScope.SESSION);
+    final RateLimiterStore<RateLimiter> other =
+        service.getRateLimiterStore("/feed", 5, 1, TimeUnit.SECONDS, 25L, RateLimitScope.SESSION);
+
+    // verify
+    assertThat(first).isSameAs(second);
+    assertThat(first).isNotSameAs(other);
+  }
+
+  @Test
+  void sessionScopedLimiterRemovedOnReleaseTest() {
+    // given
+    final RateLimiterStore<TokenBucketRateLimiter> store =
+        new RateLimiterService()
+            .getTokenBucketStore("/chat", 5, 1, TimeUnit.SECONDS, RateLimitScope.SESSION);
+
+    // test
+    final TokenBucketRateLimiter limiter = store.acquire("session-1");
+    final TokenBucketRateLimiter sameLimiter = store.acquire("session-1");
+
+    // verify
+    assertThat(limiter).isSameAs(sameLimiter);
+    assertThat(store.size()).isEqualTo(1);
+
+    store.release("session-1");
+    assertThat(store.size()).isEqualTo(1);
+
+    store.release("session-1");
+    assertThat(store.size()).isZero();
+  }
+
+  @Test
+  void userScopedLimiterSurvivesReleaseTest() {
+    // given
+    final RateLimiterStore<TokenBucketRateLimiter> store =
+        new RateLimiterService()
+            .getTokenBucketStore("/chat", 5, 1, TimeUnit.SECONDS, RateLimitScope.USER);
+
+    // test
+    final TokenBucketRateLimiter limiter = store.acquire("/chat:fry");
+    store.release("/chat:fry");
+
+    // verify
+    assertThat(store.size()).isEqualTo(1);
+    assertThat(store.acquire("/chat:fry")).isSameAs(limiter);
+  }
+
+  @Test
+  void idleLimitersEvictedTest() throws Exception {
+    // given
+    final RateLimiterStore<TokenBucketRateLimiter> store =
+        new RateLimiterService(1000, Duration.ofMillis(50))
+            .getTokenBucketStore("/chat", 5, 1, TimeUnit.MILLISECONDS, RateLimitScope.IP);
+
+    store.acquire("10.0.0.1");
+    store.release("10.0.0.1");
+    store.acquire("10.0.0.2");
+
+    // test
+    Thread.sleep(150);
+    store.acquire("10.0.0.3");
+
+    // verify - the unused limiter is gone, the referenced one is kept
+    assertThat(store.size()).isEqualTo(2);
+  }
+
+  @Test
+  void overflowEvictsLeastRecentlyUsedTest() {
+    // given
+    final RateLimiterStore<TokenBucketRateLimiter> store =
+        new RateLimiterService(100, Duration.ofHours(1))
+            .getTokenBucketStore("/chat", 5, 1, TimeUnit.SECONDS, RateLimitScope.IP);
+
+    // test
+    IntStream.range(0, 500).mapToObj(i -> "10.0.0." + i).forEach(store::get);
+
+    // verify
+    assertThat(store.size()).isLessThan(500);
+  }
+}
@@ -0,0 +1,112 @@
+package io.github.elpis.reactive.websockets.impl.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.elpis.reactive.websockets.handler.ratelimit.TokenBucketRateLimiter;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTest {
+
+  @Test
+  void rejectsAboveLimitTest() {
+    // given
+    final TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(3, Duration.ofHours(1));
+
+    // test
+    final boolean first = rateLimiter.tryAcquire();
+    final boolean second = rateLimiter.tryAcquire();
+    final boolean third = rateLimiter.tryAcquire();
+    final boolean fourth = rateLimiter.tryAcquire();
+
+    // verify
+    assertThat(first).isTrue();
+    assertThat(second).isTrue();
+    assertThat(third).isTrue();
+    assertThat(fourth).isFalse();
+    assertThat(rateLimiter.getAvailablePermits()).isZero();
+  }
+
+  @Test
+  void refillsOnNextPeriodTest() throws Exception {
+    // given
+    final TokenBucketRateLimiter rateLimiter =
+        new TokenBucketRateLimiter(1, Duration.ofMillis(100));
+
+    // test
+    assertThat(rateLimiter.tryAcquire()).isTrue();
+    assertThat(rateLimiter.tryAcquire()).isFalse();
+
+    Thread.sleep(250);
+
+    // verify
+    assertThat(rateLimiter.getAvailablePermits()).isEqualTo(1);
+    assertThat(rateLimiter.tryAcquire()).isTrue();
+  }
+
+  @Test
+  void refillsContinuouslyTest() throws Exception {
+    // given
+    final TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(2, Duration.ofSeconds(1));
+
+    // test
+    assertThat(rateLimiter.tryAcquire()).isTrue();
+    assertThat(rateLimiter.tryAcquire()).isTrue();
+    assertThat(rateLimiter.tryAcquire()).isFalse();
+
+    // One permit comes back every half period, not the whole limit at a window boundary
+    Thread.sleep(650);
+
+    // verify
+    assertThat(rateLimiter.getAvailablePermits()).isEqualTo(1);
+    assertThat(rateLimiter.tryAcquire()).isTrue();
+    assertThat(rateLimiter.tryAcquire()).isFalse();
+  }
+
+  @Test
+  void concurrentAcquireNeverExceedsLimitTest() throws Exception {
+    // given
+    final int limit = 1000;
+    final int threads = 8;
+    final TokenBucketRateLimiter rateLimiter =
+        new TokenBucketRateLimiter(limit, Duration.ofHours(1));
+    final AtomicInteger granted = new AtomicInteger();
+    final CountDownLatch start = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    // test
+    for (int i = 0; i < threads; i++) {
+      executor.submit(
+          () -> {
+            start.await();
+            for (int j = 0; j < limit; j++) {
+              if (rateLimiter.tryAcquire()) {
+                granted.incrementAndGet();
+              }
+            }
+            return null;
+          });
+    }
+
+    start.countDown();
+    executor.shutdown();
+
+    // verify
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(granted).hasValue(limit);
+  }
+
+  @Test
+  void invalidConfigurationTest() {
+    assertThatThrownBy(() -> new TokenBucketRateLimiter(0, Duration.ofSeconds(1)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new TokenBucketRateLimiter(1, Duration.ZERO))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,80 @@
+package io.github.elpis.reactive.websockets.impl.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.elpis.reactive.websockets.handler.route.PathTemplateMatcher;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.util.UriTemplate;
+
+class PathTemplateMatcherTest {
+
+  @Test
+  void literalTemplateTest() {
+    // given
+    final PathTemplateMatcher matcher = PathTemplateMatcher.compile("/chat/room");
+
+    // verify
+    assertThat(matcher.matches("/chat/room")).isTrue();
+    assertThat(matcher.matches("/chat/room/")).isFalse();
+    assertThat(matcher.matches("/chat")).isFalse();
+    assertThat(matcher.match("/chat/room")).isEmpty();
+  }
+
+  @Test
+  void variableCaptureTest() {
+    // given
+    final PathTemplateMatcher matcher = PathTemplateMatcher.compile("/chat/{room}/user/{user_id}");
+
+    // test
+    final Map<String, String> variables = matcher.match("/chat/general/user/42");
+
+    // verify
+    assertThat(variables).containsEntry("room", "general").containsEntry("user_id", "42");
+    assertThat(variables.keySet()).containsExactly("room", "user_id");
+    assertThat(matcher.matches("/chat/general/user/42")).isTrue();
+  }
+
+  @Test
+  void mismatchReturnsEmptyMapTest() {
+    // given
+    final PathTemplateMatcher matcher = PathTemplateMatcher.compile("/chat/{room}");
+
+    // verify
+    assertThat(matcher.match("/feed/general")).isEmpty();
+    assertThat(matcher.match("/chat")).isEmpty();
+    assertThat(matcher.match("/chat/general/more")).isEmpty();
+    assertThat(matcher.match("chat/general")).isEmpty();
+    assertThat(matcher.match("")).isEmpty();
+  }
+
+  @Test
+  void sameResultAsUriTemplateTest() {
+    // given
+    final String[][] cases = {
+      {"/path/{id}", "/path/123"},
+      {"/path/{id}/static", "/path/abc/static"},
+      {"/{first}/{second}", "/one/two"},
+      {"/ws/messages/{name}", "/ws/messages/fry"},
+    };
+
+    // verify
+    for (final String[] testCase : cases) {
+      assertThat(PathTemplateMatcher.compile(testCase[0]).match(testCase[1]))
+          .isEqualTo(new UriTemplate(testCase[0]).match(testCase[1]));
+    }
+  }
+
+  @Test
+  void complexTemplateFallsBackToUriTemplateTest() {
+    // given
+    final PathTemplateMatcher matcher = PathTemplateMatcher.compile("/files/{name}.{extension}");
+
+    // test
+    final Map<String, String> variables = matcher.match("/files/report.pdf");
+
+    // verify
+    assertThat(PathTemplateMatcher.parse("/files/{name}.{extension}")).isNull();
+    assertThat(variables).containsEntry("name", "report").containsEntry("extension", "pdf");
+  }
+}
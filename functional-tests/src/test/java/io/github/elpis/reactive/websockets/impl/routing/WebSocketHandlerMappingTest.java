@@ -0,0 +1,145 @@
+package io.github.elpis.reactive.websockets.impl.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.elpis.reactive.websockets.exception.WebSocketMappingException;
+import io.github.elpis.reactive.websockets.handler.route.WebSocketHandlerMapping;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+
+class WebSocketHandlerMappingTest {
+  private final WebSocketHandler chat = session -> Mono.empty();
+  private final WebSocketHandler chatRoom = session -> Mono.empty();
+  private final WebSocketHandler chatRoomUsers = session -> Mono.empty();
+  private final WebSocketHandler chatGeneral = session -> Mono.empty();
+  private final WebSocketHandler files = session -> Mono.empty();
+
+  @Test
+  void literalAndVariableLookupTest() {
+    // given
+    final WebSocketHandlerMapping mapping = this.mapping();
+
+    // verify
+    assertThat(this.lookup(mapping, "/chat")).isSameAs(this.chat);
+    assertThat(this.lookup(mapping, "/chat/random")).isSameAs(this.chatRoom);
+    assertThat(this.lookup(mapping, "/chat/random/users")).isSameAs(this.chatRoomUsers);
+    assertThat(this.lookup(mapping, "/chat/general")).isSameAs(this.chatGeneral);
+    assertThat(this.lookup(mapping, "/chat/general/users")).isSameAs(this.chatRoomUsers);
+  }
+
+  @Test
+  void missingPathTest() {
+    // given
+    final WebSocketHandlerMapping mapping = this.mapping();
+
+    // verify
+    assertThat(this.lookup(mapping, "/")).isNull();
+    assertThat(this.lookup(mapping, "/feed")).isNull();
+    assertThat(this.lookup(mapping, "/chat/")).isNull();
+    assertThat(this.lookup(mapping, "/chat/random/users/1")).isNull();
+  }
+
+  @Test
+  void patternFallbackTest() {
+    // given
+    final WebSocketHandlerMapping mapping = this.mapping();
+
+    // verify
+    assertThat(this.lookup(mapping, "/files/report.pdf")).isSameAs(this.files);
+    assertThat(this.lookup(mapping, "/files/report.txt")).isNull();
+  }
+
+  @Test
+  void handlerMapContainsAllTemplatesTest() {
+    // given
+    final WebSocketHandlerMapping mapping = this.mapping();
+
+    // verify
+    assertThat(mapping.getHandlerMap().keySet())
+        .containsExactlyInAnyOrder(
+            "/chat", "/chat/{room}", "/chat/{room}/users", "/chat/general", "/files/{name}.pdf");
+  }
+
+  @Test
+  void matchAttributesTest() {
+    // given
+    final WebSocketHandlerMapping mapping = this.mapping();
+    final MockServerWebExchange exchange =
+        MockServerWebExchange.from(MockServerHttpRequest.get("/chat/random/users"));
+
+    // test
+    final Object handler = mapping.getHandler(exchange).block();
+
+    // verify
+    assertThat(handler).isSameAs(this.chatRoomUsers);
+    assertThat(exchange.<Object>getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE))
+        .isSameAs(this.chatRoomUsers);
+    assertThat(exchange.<PathPattern>getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE))
+        .extracting(PathPattern::getPatternString)
+        .isEqualTo("/chat/{room}/users");
+    assertThat(
+            exchange.<PathContainer>getAttribute(
+                HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE))
+        .extracting(PathContainer::value)
+        .isEqualTo("random/users");
+    assertThat(
+            exchange.<Map<String, String>>getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE))
+        .containsExactly(Map.entry("room", "random"));
+  }
+
+  @Test
+  void patternFallbackMatchAttributesTest() {
+    // given
+    final WebSocketHandlerMapping mapping = this.mapping();
+    final MockServerWebExchange exchange =
+        MockServerWebExchange.from(MockServerHttpRequest.get("/files/report.pdf"));
+
+    // test
+    final Object handler = mapping.getHandler(exchange).block();
+
+    // verify
+    assertThat(handler).isSameAs(this.files);
+    assertThat(
+            exchange.<Map<String, String>>getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE))
+        .containsExactly(Map.entry("name", "report"));
+  }
+
+  @Test
+  void ambiguousTemplatesTest() {
+    // given
+    final Map<String, WebSocketHandler> handlers = new LinkedHashMap<>();
+    handlers.put("/chat/{room}", this.chatRoom);
+    handlers.put("/chat/{name}", this.chatGeneral);
+
+    // verify
+    assertThatThrownBy(() -> new WebSocketHandlerMapping(handlers, 10))
+        .isInstanceOf(WebSocketMappingException.class)
+        .hasMessageContaining("/chat/{name}");
+  }
+
+  private WebSocketHandlerMapping mapping() {
+    final Map<String, WebSocketHandler> handlers = new LinkedHashMap<>();
+    handlers.put("/chat", this.chat);
+    handlers.put("/chat/{room}", this.chatRoom);
+    handlers.put("/chat/{room}/users", this.chatRoomUsers);
+    handlers.put("/chat/general", this.chatGeneral);
+    handlers.put("/files/{name}.pdf", this.files);
+
+    return new WebSocketHandlerMapping(handlers, 10);
+  }
+
+  private WebSocketHandler lookup(final WebSocketHandlerMapping mapping, final String path) {
+    return mapping.lookupHandler(PathContainer.parsePath(path));
+  }
+}
@@ -0,0 +1,228 @@
+package io.github.elpis.reactive.websockets.impl.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.elpis.reactive.websockets.session.ReactiveWebSocketSession;
+import io.github.elpis.reactive.websockets.session.WebSocketSessionRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Sinks;
+
+class WebSocketSessionRegistryTest {
+
+  @Test
+  void removeDeletesSessionTest() {
+    // given
+    final WebSocketSessionRegistry registry = new WebSocketSessionRegistry();
+    final ReactiveWebSocketSession session = this.session("1", "fry", "10.0.0.1", "/chat");
+
+    // test
+    registry.save(session);
+    final var removed = registry.remove("1");
+
+    // verify
+    assertThat(removed).contains(session);
+    assertThat(registry.get("1")).isEmpty();
+    assertThat(registry.size()).isZero();
+    assertThat(registry.remove("1")).isEmpty();
+  }
+
+  @Test
+  void secondaryIndexesTest() {
+    // given
+    final WebSocketSessionRegistry registry = new WebSocketSessionRegistry();
+    final ReactiveWebSocketSession first = this.session("1", "fry", "10.0.0.1", "/chat");
+    final ReactiveWebSocketSession second = this.session("2", "fry", "10.0.0.2", "/chat");
+    final ReactiveWebSocketSession third = this.session("3", "leela", "10.0.0.1", "/feed");
+
+    // test
+    registry.save(first);
+    registry.save(second);
+    registry.save(third);
+
+    // verify
+    assertThat(registry.getByPrincipal("fry")).containsExactlyInAnyOrder(first, second);
+    assertThat(registry.getByPrincipal("leela")).containsExactly(third);
+    assertThat(registry.getByRemoteAddress("10.0.0.1")).containsExactlyInAnyOrder(first, third);
+    assertThat(registry.getByPathTemplate("/chat")).containsExactlyInAnyOrder(first, second);
+    assertThat(registry.getByPrincipal("bender")).isEmpty();
+    assertThat(registry.getByPrincipal(null)).isEmpty();
+  }
+
+  @Test
+  void removeCleansSecondaryIndexesTest() {
+    // given
+    final WebSocketSessionRegistry registry = new WebSocketSessionRegistry();
+    final ReactiveWebSocketSession first = this.session("1", "fry", "10.0.0.1", "/chat");
+    final ReactiveWebSocketSession second = this.session("2", "fry", "10.0.0.1", "/chat");
+
+    registry.save(first);
+    registry.save(second);
+
+    // test
+    registry.remove("1");
+
+    // verify
+    assertThat(registry.getByPrincipal("fry")).containsExactly(second);
+
+    registry.remove("2");
+
+    assertThat(registry.getByPrincipal("fry")).isEmpty();
+    assertThat(registry.getByRemoteAddress("10.0.0.1")).isEmpty();
+    assertThat(registry.getByPathTemplate("/chat")).isEmpty();
+  }
+
+  @Test
+  void anonymousSessionIsNotIndexedByPrincipalTest() {
+    // given
+    final WebSocketSessionRegistry registry = new WebSocketSessionRegistry();
+    final ReactiveWebSocketSession session = this.session("1", null, null, "/chat");
+
+    // test
+    registry.save(session);
+
+    // verify
+    assertThat(registry.get("1")).contains(session);
+    assertThat(registry.getByPathTemplate("/chat")).containsExactly(session);
+  }
+
+  @Test
+  void iterationVisitsEveryShardTest() {
+    // given
+    final WebSocketSessionRegistry registry = new WebSocketSessionRegistry(4);
+    final List<String> ids =
+        IntStream.range(0, 1000).mapToObj(String::valueOf).collect(Collectors.toList());
+
+    // test
+    ids.forEach(id -> registry.save(this.session(id, "fry", "10.0.0.1", "/chat")));
+
+    // verify
+    final List<String> visited = new ArrayList<>();
+    registry.forEach(session -> visited.add(session.getSessionId()));
+
+    assertThat(registry.size()).isEqualTo(1000);
+    assertThat(visited).containsExactlyInAnyOrderElementsOf(ids);
+    assertThat(registry.stream().count()).isEqualTo(1000L);
+    assertThat(registry.getByPrincipal("fry")).hasSize(1000);
+  }
+
+  @Test
+  void sendRoutesToIndexedSessionsTest() {
+    // given
+    final WebSocketSessionRegistry registry = new WebSocketSessionRegistry();
+    final List<String> fryMessages = new ArrayList<>();
+    final List<String> leelaMessages = new ArrayList<>();
+
+    registry.save(this.session("1", "fry", "/chat", fryMessages));
+    registry.save(this.session("2", "fry", "/feed", fryMessages));
+    registry.save(this.session("3", "leela", "/chat", leelaMessages));
+
+    // test
+    final long toFry = registry.sendToPrincipal("fry", "fry");
+    final long toChat = registry.sendToPathTemplate("/chat", "chat");
+    final Sinks.EmitResult toLeela = registry.send("3", "leela");
+    final Sinks.EmitResult toUnknown = registry.send("4", "unknown");
+    final long toAll = registry.sendAll("all");
+
+    // verify
+    assertThat(toFry).isEqualTo(2L);
+    assertThat(toChat).isEqualTo(2L);
+    assertThat(toLeela).isEqualTo(Sinks.EmitResult.OK);
+    assertThat(toUnknown).isEqualTo(Sinks.EmitResult.FAIL_TERMINATED);
+    assertThat(toAll).isEqualTo(3L);
+    assertThat(fryMessages).containsExactly("fry", "fry", "chat", "all", "all");
+    assertThat(leelaMessages).containsExactly("chat", "leela", "all");
+  }
+
+  @Test
+  void sendEncodesOncePerEndpointTest() {
+    // given
+    final WebSocketSessionRegistry registry = new WebSocketSessionRegistry();
+    final AtomicInteger chatEncodes = new AtomicInteger();
+    final AtomicInteger feedEncodes = new AtomicInteger();
+    final Function<Object, Object> chatEncoder =
+        message -> "chat:" + message + "#" + chatEncodes.incrementAndGet();
+    final Function<Object, Object> feedEncoder =
+        message -> "feed:" + message + "#" + feedEncodes.incrementAndGet();
+    final List<Object> received = new ArrayList<>();
+
+    IntStream.range(0, 10)
+        .forEach(
+            index ->
+                registry.save(
+                    ReactiveWebSocketSession.builder()
+                        .sessionId(String.valueOf(index))
+                        .principalName("fry")
+                        .pathTemplate(index < 7 ? "/chat" : "/feed")
+                        .encoder(index < 7 ? chatEncoder : feedEncoder)
+                        .sender(
+                            message -> {
+                              received.add(message);
+                              return Sinks.EmitResult.OK;
+                            })
+                        .build()));
+
+    // test
+    final long toAll = registry.sendAll("all");
+    final long toChat = registry.sendToPathTemplate("/chat", "chat");
+    final long toSome = registry.sendAll(List.of("1", "8", "9"), "some");
+
+    // verify
+    assertThat(toAll).isEqualTo(10L);
+    assertThat(toChat).isEqualTo(7L);
+    assertThat(toSome).isEqualTo(3L);
+    assertThat(chatEncodes).hasValue(3);
+    assertThat(feedEncodes).hasValue(2);
+    assertThat(received)
+        .filteredOn(message -> ((String) message).contains(":all#"))
+        .hasSize(10)
+        .containsOnly("chat:all#1", "feed:all#1");
+    assertThat(received)
+        .filteredOn(message -> ((String) message).contains(":some#"))
+        .containsExactlyInAnyOrder("chat:some#3", "feed:some#2", "feed:some#2");
+  }
+
+  @Test
+  void invalidShardNumberTest() {
+    assertThatThrownBy(() -> new WebSocketSessionRegistry(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private ReactiveWebSocketSession session(
+      final String sessionId,
+      final String principalName,
+      final String pathTemplate,
+      final List<String> messages) {
+
+    return ReactiveWebSocketSession.builder()
+        .sessionId(sessionId)
+        .principalName(principalName)
+        .pathTemplate(pathTemplate)
+        .sender(
+            message -> {
+              messages.add((String) message);
+              return Sinks.EmitResult.OK;
+            })
+        .build();
+  }
+
+  private ReactiveWebSocketSession session(
+      final String sessionId,
+      final String principalName,
+      final String remoteAddress,
+      final String pathTemplate) {
+
+    return ReactiveWebSocketSession.builder()
+        .sessionId(sessionId)
+        .principalName(principalName)
+        .remoteAddress(remoteAddress)
+        .pathTemplate(pathTemplate)
+        .build();
+  }
+}
@@ -0,0 +1,253 @@
+package io.github.elpis.reactive.websockets.impl.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonFormat.Shape;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.github.elpis.reactive.websockets.context.model.TestChatMessage;
+import io.github.elpis.reactive.websockets.context.model.TestMessage;
+import io.github.elpis.reactive.websockets.context.model.TestUserMessage;
+import io.github.elpis.reactive.websockets.mapper.JsonAdapter;
+import io.github.elpis.reactive.websockets.mapper.JsonMapper;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+/** Checks the JSON adapters generated for the DTOs of the test endpoints against Jackson. */
+class JsonAdapterTest {
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void generatedAdapterWritesSameJsonAsJackson() throws Exception {
+    final JsonAdapter<TestMessage> adapter = adapterOf(TestMessage.class);
+
+    for (final TestMessage message :
+        List.of(new TestMessage("hello \"world\"", 42L), new TestMessage(null, null))) {
+      assertThat(write(adapter, message)).isEqualTo(objectMapper.writeValueAsString(message));
+    }
+  }
+
+  @Test
+  void generatedAdapterReadsSameValueAsJackson() throws Exception {
+    final JsonAdapter<TestMessage> adapter = adapterOf(TestMessage.class);
+
+    for (final String json :
+        List.of(
+            "{\"text\":\"hello\",\"timestamp\":42}",
+            "{\"timestamp\":\"42\",\"text\":null}",
+            "{}")) {
+      assertThat(read(adapter, json)).isEqualTo(objectMapper.readValue(json, TestMessage.class));
+    }
+  }
+
+  @Test
+  void generatedAdapterHandlesNestedAndGenericComponents() throws Exception {
+    final TestUserMessage userMessage = new TestUserMessage("user", new TestMessage("hi", 1L));
+    final TestChatMessage chatMessage =
+        new TestChatMessage("chat", List.of("first", "second"), "hello");
+
+    assertThat(write(adapterOf(TestUserMessage.class), userMessage))
+        .isEqualTo(objectMapper.writeValueAsString(userMessage));
+    assertThat(read(adapterOf(TestUserMessage.class), objectMapper.writeValueAsString(userMessage)))
+        .isEqualTo(userMessage);
+    assertThat(read(adapterOf(TestChatMessage.class), objectMapper.writeValueAsString(chatMessage)))
+        .isEqualTo(chatMessage);
+  }
+
+  @Test
+  void generatedAdapterRejectsUnknownProperties() throws Exception {
+    final JsonAdapter<TestMessage> adapter = adapterOf(TestMessage.class);
+    JsonMapper.registerAdapter(adapter);
+
+    withObjectMapper(
+        objectMapper,
+        () ->
+            assertThatThrownBy(
+                    () ->
+                        JsonMapper.deserialize(
+                            "{\"text\":\"a\",\"unknown\":1}", TestMessage.class))
+                .isInstanceOf(RuntimeJsonMappingException.class)
+                .hasMessageContaining("unknown"));
+  }
+
+  @Test
+  void registeredAdapterIsBypassedForIncompatibleMapper() throws Exception {
+    JsonMapper.registerAdapter(adapterOf(TestMessage.class));
+    final ObjectMapper upperCamelCase =
+        new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategies.UPPER_CAMEL_CASE);
+    final TestMessage message = new TestMessage("renamed", 5L);
+
+    withObjectMapper(
+        upperCamelCase,
+        () -> {
+          final String json = new String(JsonMapper.applyAsBytes(message), StandardCharsets.UTF_8);
+
+          assertThat(json).isEqualTo("{\"Text\":\"renamed\",\"Timestamp\":5}");
+          assertThat(JsonMapper.deserialize(json, TestMessage.class)).isEqualTo(message);
+        });
+  }
+
+  @Test
+  void registeredAdapterIsBypassedForModuleSerializer() throws Exception {
+    JsonMapper.registerAdapter(adapterOf(TestMessage.class));
+    final SimpleModule module =
+        new SimpleModule()
+            .addSerializer(
+                TestMessage.class,
+                new StdSerializer<>(TestMessage.class) {
+                  @Override
+                  public void serialize(
+                      final TestMessage value,
+                      final JsonGenerator generator,
+                      final SerializerProvider provider)
+                      throws IOException {
+                    generator.writeString(value.text() + "@" + value.timestamp());
+                  }
+                });
+    final ObjectMapper customized = new ObjectMapper().registerModule(module);
+    final TestMessage message = new TestMessage("module", 3L);
+
+    withObjectMapper(
+        customized,
+        () ->
+            assertThat(new String(JsonMapper.applyAsBytes(message), StandardCharsets.UTF_8))
+                .isEqualTo("\"module@3\""));
+  }
+
+  @Test
+  void registeredAdapterIsBypassedForComponentFormat() throws Exception {
+    JsonMapper.registerAdapter(adapterOf(TestMessage.class));
+    final ObjectMapper customized = new ObjectMapper();
+    customized.configOverride(Long.class).setFormat(JsonFormat.Value.forShape(Shape.STRING));
+    final TestMessage message = new TestMessage("format", 9L);
+
+    withObjectMapper(
+        customized,
+        () ->
+            assertThat(new String(JsonMapper.applyAsBytes(message), StandardCharsets.UTF_8))
+                .isEqualTo("{\"text\":\"format\",\"timestamp\":\"9\"}"));
+  }
+
+  @Test
+  void registeredAdapterIsBypassedForCaseInsensitiveProperties() throws Exception {
+    JsonMapper.registerAdapter(adapterOf(TestMessage.class));
+    final ObjectMapper caseInsensitive =
+        com.fasterxml.jackson.databind.json.JsonMapper.builder()
+            .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES)
+            .build();
+
+    withObjectMapper(
+        caseInsensitive,
+        () ->
+            assertThat(
+                    JsonMapper.deserialize(
+                        "{\"TEXT\":\"upper\",\"TimeStamp\":4}", TestMessage.class))
+                .isEqualTo(new TestMessage("upper", 4L)));
+  }
+
+  @Test
+  void registeredAdapterIsUsedByJsonMapper() throws Exception {
+    JsonMapper.registerAdapter(adapterOf(TestMessage.class));
+    final TestMessage message = new TestMessage("registered", 7L);
+    final String json = objectMapper.writeValueAsString(message);
+
+    final DataBuffer buffer =
+        JsonMapper.applyAsDataBuffer(message, DefaultDataBufferFactory.sharedInstance);
+
+    assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo(json);
+    assertThat(new String(JsonMapper.applyAsBytes(message), StandardCharsets.UTF_8))
+        .isEqualTo(json);
+    assertThat(JsonMapper.deserialize(buffer, TestMessage.class)).isEqualTo(message);
+    assertThat(JsonMapper.deserialize(json, TestMessage.class)).isEqualTo(message);
+  }
+
+  @Test
+  void registeredAdapterIsUsedForPlainRecord() {
+    JsonMapper.registerAdapter(new MarkingAdapter());
+
+    withObjectMapper(
+        objectMapper,
+        () ->
+            assertThat(
+                    new String(
+                        JsonMapper.applyAsBytes(new Marked("plain", 1L)), StandardCharsets.UTF_8))
+                .isEqualTo("\"adapted\""));
+  }
+
+  private static void withObjectMapper(final ObjectMapper mapper, final Runnable assertions) {
+    final ObjectMapper previous = JsonMapper.getObjectMapper();
+    JsonMapper.setObjectMapper(mapper);
+    try {
+      assertions.run();
+    } finally {
+      JsonMapper.setObjectMapper(previous);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> JsonAdapter<T> adapterOf(final Class<T> type) throws Exception {
+    final byte[] digest =
+        MessageDigest.getInstance("SHA-256")
+            .digest(type.getName().getBytes(StandardCharsets.UTF_8));
+    final String name =
+        "io.github.elpis.reactive.websockets.generated.JsonAdapter$Generated_"
+            + new BigInteger(1, digest).toString(16);
+
+    return (JsonAdapter<T>) Class.forName(name).getDeclaredConstructor().newInstance();
+  }
+
+  private static <T> String write(final JsonAdapter<T> adapter, final T value) throws Exception {
+    final StringWriter writer = new StringWriter();
+    try (JsonGenerator generator = objectMapper.createGenerator(writer)) {
+      adapter.write(generator, value);
+    }
+
+    return writer.toString();
+  }
+
+  private static <T> T read(final JsonAdapter<T> adapter, final String json) throws Exception {
+    try (JsonParser parser = objectMapper.createParser(json)) {
+      parser.nextToken();
+
+      return adapter.read(parser);
+    }
+  }
+
+  /** Record mapped as a bean by a plain mapper, written by {@link MarkingAdapter}. */
+  public record Marked(String text, Long timestamp) {}
+
+  /** Adapter that marks what it writes, to tell it apart from the reflective mapping. */
+  private static final class MarkingAdapter implements JsonAdapter<Marked> {
+
+    @Override
+    public Class<Marked> getType() {
+      return Marked.class;
+    }
+
+    @Override
+    public void write(final JsonGenerator generator, final Marked value) throws IOException {
+      generator.writeString("adapted");
+    }
+
+    @Override
+    public Marked read(final JsonParser parser) throws IOException {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
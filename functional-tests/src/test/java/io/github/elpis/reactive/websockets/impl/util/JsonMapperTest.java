@@ -3,11 +3,19 @@ package io.github.elpis.reactive.websockets.impl.util;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import io.github.elpis.reactive.websockets.mapper.JsonMapper;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -54,6 +62,37 @@ public class JsonMapperTest {
         .hasMessageContaining("UnserializableObject");
   }
 
+  @Test
+  public void applyAsDataBuffer_shouldSerializeMap() {
+    final DataBuffer buffer =
+        JsonMapper.applyAsDataBuffer(
+            Map.of("test", "test"), DefaultDataBufferFactory.sharedInstance);
+
+    assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo("{\"test\":\"test\"}");
+  }
+
+  @Test
+  public void applyAsDataBuffer_shouldEncodeStringAsIs() {
+    final DataBuffer buffer =
+        JsonMapper.applyAsDataBuffer(
+            "\u017c\u00f3\u0142w", DefaultDataBufferFactory.sharedInstance);
+
+    assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo("\u017c\u00f3\u0142w");
+  }
+
+  @Test
+  public void applyAsDataBuffer_shouldThrowExceptionWhenCannotSerialize() {
+    final UnserializableObject unserializable = new UnserializableObject();
+
+    assertThatThrownBy(
+            () ->
+                JsonMapper.applyAsDataBuffer(
+                    unserializable, DefaultDataBufferFactory.sharedInstance))
+        .isInstanceOf(RuntimeJsonMappingException.class)
+        .hasMessageContaining("Unable to translate")
+        .hasMessageContaining("UnserializableObject");
+  }
+
   @Test
   public void applyWithDefault_shouldSerializeObject() {
     final String result = JsonMapper.applyWithDefault(Map.of("key", "value"), "default");
@@ -174,6 +213,54 @@ public class JsonMapperTest {
     assertThat(result.getLocation()).isEqualTo("NYC");
   }
 
+  @Test
+  public void deserialize_shouldDeserializeFromDataBuffer() {
+    final String text = "{\"name\":\"Alice\",\"age\":25,\"hobbies\":[\"music\"]}";
+    final byte[] json = text.getBytes(StandardCharsets.UTF_8);
+    final DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(json);
+
+    final TestPojo result = JsonMapper.deserialize(buffer, TestPojo.class);
+
+    assertThat(result.getName()).isEqualTo("Alice");
+    assertThat(result.getAge()).isEqualTo(25);
+    assertThat(result.getHobbies()).containsExactly("music");
+    assertThat(buffer.readableByteCount()).isEqualTo(json.length);
+  }
+
+  @Test
+  public void deserialize_shouldDeserializeFromNettyDataBuffer() {
+    final String text = "{\"name\":\"Bob\",\"age\":40,\"hobbies\":[]}";
+    final byte[] json = text.getBytes(StandardCharsets.UTF_8);
+    final DataBuffer buffer =
+        new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT).wrap(json);
+
+    final TestPojo first = JsonMapper.deserialize(buffer, TestPojo.class);
+    final TestPojo second = JsonMapper.deserialize(buffer, TestPojo.class);
+
+    assertThat(first.getName()).isEqualTo("Bob");
+    assertThat(second.getName()).isEqualTo("Bob");
+  }
+
+  @Test
+  public void deserialize_shouldDecodeDataBufferForStringClass() {
+    final DataBuffer buffer =
+        DefaultDataBufferFactory.sharedInstance.wrap("plain text".getBytes(StandardCharsets.UTF_8));
+
+    final String result = JsonMapper.deserialize(buffer, String.class);
+
+    assertThat(result).isEqualTo("plain text");
+  }
+
+  @Test
+  public void deserialize_shouldThrowExceptionForInvalidJsonInDataBuffer() {
+    final DataBuffer buffer =
+        DefaultDataBufferFactory.sharedInstance.wrap("{invalid".getBytes(StandardCharsets.UTF_8));
+
+    assertThatThrownBy(() -> JsonMapper.deserialize(buffer, TestPojo.class))
+        .isInstanceOf(RuntimeJsonMappingException.class)
+        .hasMessageContaining("Unable to deserialize JSON to TestPojo");
+  }
+
   @Test
   public void deserialize_shouldThrowExceptionForInvalidJson() {
     final String invalidJson = "{invalid json}";
@@ -330,6 +417,42 @@ public class JsonMapperTest {
         .verifyComplete();
   }
 
+  // ========== Mapper Configuration Tests ==========
+
+  @Test
+  public void setObjectMapper_shouldApplyMapperConfiguration() {
+    final ObjectMapper previous = JsonMapper.getObjectMapper();
+    final ObjectMapper snakeCase =
+        new ObjectMapper()
+            .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    // Caches of the previous mapper must not leak into the new one
+    JsonMapper.writerFor(TestPojo.class);
+    JsonMapper.setObjectMapper(snakeCase);
+    try {
+      assertThat(JsonMapper.getObjectMapper()).isSameAs(snakeCase);
+      assertThat(JsonMapper.applyWithFallback(Map.of("someKey", 1))).isEqualTo("{\"someKey\":1}");
+      assertThat(JsonMapper.applyWithFallback(new CamelCasePojo("value")))
+          .isEqualTo("{\"first_name\":\"value\"}");
+
+      final CamelCasePojo pojo =
+          JsonMapper.deserialize("{\"first_name\":\"read\",\"other\":1}", CamelCasePojo.class);
+      assertThat(pojo.getFirstName()).isEqualTo("read");
+    } finally {
+      JsonMapper.setObjectMapper(previous);
+    }
+
+    assertThat(JsonMapper.applyWithFallback(new CamelCasePojo("value")))
+        .isEqualTo("{\"firstName\":\"value\"}");
+  }
+
+  @Test
+  public void readerFor_shouldCacheReaderAndWriterPerType() {
+    assertThat(JsonMapper.readerFor(TestPojo.class)).isSameAs(JsonMapper.readerFor(TestPojo.class));
+    assertThat(JsonMapper.writerFor(TestPojo.class)).isSameAs(JsonMapper.writerFor(TestPojo.class));
+  }
+
   // ========== Test POJOs ==========
 
   /** Test class that cannot be serialized by Jackson ObjectMapper. */
@@ -338,6 +461,25 @@ public class JsonMapperTest {
     private final UnserializableObject self = this;
   }
 
+  /** POJO with a property name that differs between naming strategies. */
+  public static class CamelCasePojo {
+    private String firstName;
+
+    public CamelCasePojo() {}
+
+    public CamelCasePojo(String firstName) {
+      this.firstName = firstName;
+    }
+
+    public String getFirstName() {
+      return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+      this.firstName = firstName;
+    }
+  }
+
   /** Simple POJO for testing serialization and deserialization. */
   public static class TestPojo {
     private String name;
@@ -0,0 +1,90 @@
+package io.github.elpis.reactive.websockets.impl.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import io.github.elpis.reactive.websockets.context.model.TestMessage;
+import io.github.elpis.reactive.websockets.mapper.JsonStreamDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+class JsonStreamDecoderTest {
+
+  @Test
+  void decode_shouldEmitArrayElementsFedByteByByte() {
+    final JsonStreamDecoder<TestMessage> decoder = new JsonStreamDecoder<>(TestMessage.class);
+    final byte[] json =
+        "[{\"text\":\"a\",\"timestamp\":1}, {\"text\":\"{b}\",\"timestamp\":2}]"
+            .getBytes(StandardCharsets.UTF_8);
+    final List<TestMessage> values = new ArrayList<>();
+    final List<Integer> completedAt = new ArrayList<>();
+
+    for (int i = 0; i < json.length; i++) {
+      final List<TestMessage> decoded = decoder.decode(buffer(new byte[] {json[i]}));
+      if (!decoded.isEmpty()) {
+        completedAt.add(i);
+      }
+      values.addAll(decoded);
+    }
+    values.addAll(decoder.complete());
+
+    assertThat(values).containsExactly(new TestMessage("a", 1L), new TestMessage("{b}", 2L));
+    // Each element is emitted with its closing brace, not with the closing bracket of the array
+    assertThat(completedAt).containsExactly(26, 56);
+  }
+
+  @Test
+  void decode_shouldEmitNestedContainersAsElements() {
+    final JsonStreamDecoder<Object> decoder = new JsonStreamDecoder<>(Object.class);
+
+    final List<Object> values =
+        new ArrayList<>(decoder.decode(buffer("[[1,2],{\"k\":[3]},\"s\"]")));
+    values.addAll(decoder.complete());
+
+    assertThat(values).containsExactly(List.of(1, 2), Map.of("k", List.of(3)), "s");
+  }
+
+  @Test
+  void decode_shouldEmitRootValuesOfSeveralArrays() {
+    final JsonStreamDecoder<Integer> decoder = new JsonStreamDecoder<>(Integer.class);
+
+    final List<Integer> values = new ArrayList<>(decoder.decode(buffer("[1,2] [3")));
+    values.addAll(decoder.decode(buffer("] 4")));
+    values.addAll(decoder.complete());
+
+    assertThat(values).containsExactly(1, 2, 3, 4);
+  }
+
+  @Test
+  void complete_shouldFailInsideValue() {
+    final JsonStreamDecoder<TestMessage> decoder = new JsonStreamDecoder<>(TestMessage.class);
+    decoder.decode(buffer("[{\"text\":\"a\""));
+
+    assertThatThrownBy(decoder::complete)
+        .isInstanceOf(RuntimeJsonMappingException.class)
+        .hasMessageContaining("Unable to deserialize JSON stream to TestMessage");
+  }
+
+  @Test
+  void decode_shouldFailOnInvalidJson() {
+    final JsonStreamDecoder<TestMessage> decoder = new JsonStreamDecoder<>(TestMessage.class);
+
+    assertThatThrownBy(() -> decoder.decode(buffer("[{invalid}]")))
+        .isInstanceOf(RuntimeJsonMappingException.class)
+        .hasMessageContaining("Unable to deserialize JSON stream to TestMessage");
+  }
+
+  private static DataBuffer buffer(final String json) {
+    return buffer(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static DataBuffer buffer(final byte[] bytes) {
+    return DefaultDataBufferFactory.sharedInstance.wrap(bytes);
+  }
+}
@@ -14,11 +14,14 @@ import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 import com.squareup.javapoet.WildcardTypeName;
 import io.github.elpis.reactive.websockets.config.Mode;
+import io.github.elpis.reactive.websockets.event.annotation.CloseStatusHandler;
+import io.github.elpis.reactive.websockets.processor.event.CloseStatusDispatcherGenerator;
 import io.github.elpis.reactive.websockets.processor.exception.WebSocketProcessorException;
 import io.github.elpis.reactive.websockets.processor.flowcontrol.BackpressureFlowController;
 import io.github.elpis.reactive.websockets.processor.flowcontrol.HeartbeatFlowController;
 import io.github.elpis.reactive.websockets.processor.flowcontrol.RateLimitFlowController;
 import io.github.elpis.reactive.websockets.processor.resolver.SocketAnnotationResolverFactory;
+import io.github.elpis.reactive.websockets.processor.serializer.JsonAdapterGenerator;
 import io.github.elpis.reactive.websockets.session.WebSocketSessionContext;
 import io.github.elpis.reactive.websockets.util.TypeUtils;
 import io.github.elpis.reactive.websockets.web.annotation.MessageEndpoint;
@@ -34,6 +37,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
 import javax.annotation.processing.SupportedSourceVersion;
@@ -43,17 +47,39 @@ import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
 import org.reactivestreams.Publisher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.reactive.socket.WebSocketMessage;
 import reactor.core.publisher.Flux;
 
-@SupportedAnnotationTypes({"io.github.elpis.reactive.websockets.web.annotation.MessageEndpoint"})
+@SupportedAnnotationTypes({
+  "io.github.elpis.reactive.websockets.web.annotation.MessageEndpoint",
+  "io.github.elpis.reactive.websockets.event.annotation.CloseStatusHandler"
+})
 @SupportedSourceVersion(SourceVersion.RELEASE_17)
 public class WebSocketHandlerAutoProcessor extends AbstractProcessor {
+  private static final String DEFAULT_CODEC = "json";
+  private static final String GENERATED_PACKAGE = "io.github.elpis.reactive.websockets.generated";
+
+  private JsonAdapterGenerator jsonAdapterGenerator;
+  private CloseStatusDispatcherGenerator closeStatusDispatcherGenerator;
+
+  @Override
+  public synchronized void init(final ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+    this.jsonAdapterGenerator =
+        new JsonAdapterGenerator(processingEnv.getElementUtils(), processingEnv.getTypeUtils());
+    this.closeStatusDispatcherGenerator =
+        new CloseStatusDispatcherGenerator(
+            processingEnv.getElementUtils(), processingEnv.getTypeUtils());
+  }
 
   @Override
   public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
@@ -61,25 +87,29 @@ public class WebSocketHandlerAutoProcessor extends AbstractProcessor {
       final MessageEndpoint messageEndpoint = element.getAnnotation(MessageEndpoint.class);
       this.createMapping(element, messageEndpoint).stream()
           .map(this::getClassDefinition)
-          .map(
-              classBuilder ->
-                  JavaFile.builder(
-                          "io.github.elpis.reactive.websockets.generated", classBuilder.build())
-                      .build())
-          .forEach(
-              javaFile -> {
-                try {
-                  javaFile.writeTo(processingEnv.getFiler());
-                } catch (IOException e) {
-                  throw new WebSocketProcessorException(
-                      "Cannot initiate new class: %s", e.getMessage());
-                }
-              });
+          .map(TypeSpec.Builder::build)
+          .forEach(this::write);
+    }
+
+    this.jsonAdapterGenerator.drainPending().forEach(this::write);
+
+    for (Element element : roundEnv.getElementsAnnotatedWith(CloseStatusHandler.class)) {
+      if (element instanceof TypeElement handler) {
+        this.closeStatusDispatcherGenerator.generate(handler).ifPresent(this::write);
+      }
     }
 
     return true;
   }
 
+  private void write(final TypeSpec typeSpec) {
+    try {
+      JavaFile.builder(GENERATED_PACKAGE, typeSpec).build().writeTo(processingEnv.getFiler());
+    } catch (IOException e) {
+      throw new WebSocketProcessorException("Cannot initiate new class: %s", e.getMessage());
+    }
+  }
+
   private List<WebHandlerResourceDescriptor> createMapping(
       final Element element, final MessageEndpoint messageEndpoint) {
     return element.getEnclosedElements().stream()
@@ -120,23 +150,80 @@ public class WebSocketHandlerAutoProcessor extends AbstractProcessor {
                     .build())
             .addParameter(TypeName.get(descriptor.clazz().asType()), "socketResource")
             .addStatement(
-                "super(eventFactory, sessionRegistry, rateLimiterService, $S, $L, $L, $L)",
+                "super(eventFactory, sessionRegistry, rateLimiterService, $S, $L, $L, $L, $T.get($S))",
                 descriptor.pathTemplate(),
                 generateHeartbeatConfig(descriptor),
                 generateRateLimitConfig(descriptor),
-                generateBackpressureConfig(descriptor))
+                generateBackpressureConfig(descriptor),
+                ClassName.bestGuess("io.github.elpis.reactive.websockets.codec.MessageCodecs"),
+                descriptor.codec())
             .addStatement("this.socketResource = socketResource")
             .build();
 
     final MethodSpec suitableMethod = this.getSuitableMethod(descriptor);
 
-    return TypeSpec.classBuilder("WebSocketHandler$Generated_" + descriptor.getPostfix())
-        .superclass(ClassName.bestGuess(this.getHandlerType(descriptor.mode())))
-        .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
-        .addAnnotation(Component.class)
-        .addField(injectedField)
-        .addMethod(constructor)
-        .addMethod(suitableMethod);
+    final TypeSpec.Builder classBuilder =
+        TypeSpec.classBuilder("WebSocketHandler$Generated_" + descriptor.getPostfix())
+            .superclass(ClassName.bestGuess(this.getHandlerType(descriptor.mode())))
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addAnnotation(Component.class)
+            .addField(injectedField)
+            .addMethod(constructor)
+            .addMethod(suitableMethod);
+
+    if (this.hasSharedOutput(descriptor)) {
+      classBuilder.addMethod(
+          MethodSpec.methodBuilder("hasSharedOutput")
+              .addAnnotation(Override.class)
+              .addModifiers(Modifier.PROTECTED)
+              .returns(boolean.class)
+              .addStatement("return true")
+              .build());
+    }
+
+    if (!descriptor.jsonAdapters().isEmpty()) {
+      final CodeBlock.Builder registration = CodeBlock.builder();
+      descriptor
+          .jsonAdapters()
+          .forEach(
+              adapter ->
+                  registration.addStatement(
+                      "$T.registerAdapter(new $T())",
+                      ClassName.bestGuess("io.github.elpis.reactive.websockets.mapper.JsonMapper"),
+                      adapter));
+      classBuilder.addStaticBlock(registration.build());
+    }
+
+    return classBuilder;
+  }
+
+  /**
+   * Whether all sessions of a broadcast method can share its output: the method returns a
+   * publisher, receives the broadcast messages as a {@code Flux} request body and resolves no other
+   * parameter from the session.
+   */
+  private boolean hasSharedOutput(final WebHandlerResourceDescriptor descriptor) {
+    if (descriptor.mode() != Mode.BROADCAST || !descriptor.useReturn()) {
+      return false;
+    }
+
+    final List<? extends VariableElement> parameters = descriptor.method().getParameters();
+
+    return parameters.stream().anyMatch(this::isRequestBodyFlux)
+        && parameters.stream()
+            .allMatch(
+                parameter ->
+                    this.isRequestBodyFlux(parameter)
+                        || SocketAnnotationResolverFactory.findResolver(parameter).isEmpty());
+  }
+
+  private boolean isRequestBodyFlux(final VariableElement parameter) {
+    final Types types = processingEnv.getTypeUtils();
+    final TypeMirror flux =
+        processingEnv.getElementUtils().getTypeElement(Flux.class.getCanonicalName()).asType();
+
+    return parameter.getAnnotation(RequestBody.class) != null
+        && types.isSameType(types.erasure(parameter.asType()), types.erasure(flux));
   }
 
   private MethodSpec getSuitableMethod(WebHandlerResourceDescriptor descriptor) {
@@ -231,6 +318,16 @@ public class WebSocketHandlerAutoProcessor extends AbstractProcessor {
         RateLimitFlowController.resolveRateLimitConfig(method, clazz);
     final BackpressureConfigData backpressureConfig =
         BackpressureFlowController.resolveBackpressureConfig(method, clazz);
+    final String codec = this.resolveCodec(resource, onMessage, method);
+    if (onMessage.streaming() && !DEFAULT_CODEC.equals(codec)) {
+      throw new WebSocketProcessorException(
+          "Cannot register method `@OnMessage %s()`. Reason: streaming requires the `%s` codec, "
+              + "found `%s`",
+          method.getSimpleName(), DEFAULT_CODEC, codec);
+    }
+
+    final List<ClassName> jsonAdapters =
+        DEFAULT_CODEC.equals(codec) ? this.resolveJsonAdapters(method) : List.of();
 
     final WebHandlerResourceDescriptor descriptor =
         new WebHandlerResourceDescriptor(
@@ -241,7 +338,9 @@ public class WebSocketHandlerAutoProcessor extends AbstractProcessor {
             onMessage.mode(),
             heartbeatConfig,
             rateLimitConfig,
-            backpressureConfig);
+            backpressureConfig,
+            codec,
+            jsonAdapters);
 
     final TypeMirror returnType = method.getReturnType();
 
@@ -261,6 +360,50 @@ public class WebSocketHandlerAutoProcessor extends AbstractProcessor {
     return descriptor;
   }
 
+  /**
+   * Resolves the message codec name of the method: {@link OnMessage#codec()} if set, otherwise
+   * {@link MessageEndpoint#codec()}, otherwise {@code "json"}. The codec itself is looked up when
+   * the handler is created, so codecs registered at runtime can be used.
+   */
+  private String resolveCodec(
+      final MessageEndpoint resource, final OnMessage onMessage, final ExecutableElement method) {
+    final String codec = !onMessage.codec().isEmpty() ? onMessage.codec() : resource.codec();
+    if (codec.isEmpty()) {
+      return DEFAULT_CODEC;
+    }
+
+    if (!codec.strip().equals(codec)) {
+      throw new WebSocketProcessorException(
+          "Cannot register method `@OnMessage %s()`. Reason: invalid codec name `%s`",
+          method.getSimpleName(), codec);
+    }
+
+    return codec;
+  }
+
+  /**
+   * Resolves the generated JSON adapters of the DTO types the method receives through {@link
+   * RequestBody @RequestBody} and returns, generating the adapters not generated yet.
+   */
+  private List<ClassName> resolveJsonAdapters(final ExecutableElement method) {
+    final List<TypeMirror> dtoTypes = new ArrayList<>();
+    method.getParameters().stream()
+        .filter(parameter -> parameter.getAnnotation(RequestBody.class) != null)
+        .forEach(parameter -> this.addPublisherElementType(parameter.asType(), dtoTypes));
+    this.addPublisherElementType(method.getReturnType(), dtoTypes);
+
+    return dtoTypes.stream()
+        .flatMap(type -> this.jsonAdapterGenerator.resolve(type).stream())
+        .distinct()
+        .toList();
+  }
+
+  private void addPublisherElementType(final TypeMirror type, final List<TypeMirror> dtoTypes) {
+    if (type instanceof DeclaredType declaredType && declaredType.getTypeArguments().size() == 1) {
+      dtoTypes.add(declaredType.getTypeArguments().get(0));
+    }
+  }
+
   /**
    * Generates code block for HeartbeatConfig creation. Delegates to {@link
    * HeartbeatFlowController}.
@@ -288,9 +431,20 @@ public class WebSocketHandlerAutoProcessor extends AbstractProcessor {
   public record HeartbeatConfigData(long interval, long timeout) {}
 
   public record RateLimitConfigData(
-      int limitForPeriod, long limitRefreshPeriod, String timeUnit, long timeout, String scope) {}
-
-  public record BackpressureConfigData(String strategy, int bufferSize) {}
+      int limitForPeriod,
+      long limitRefreshPeriod,
+      String timeUnit,
+      long timeout,
+      String scope,
+      String engine) {}
+
+  public record BackpressureConfigData(
+      String strategy,
+      int bufferSize,
+      int closeCode,
+      String conflationKey,
+      long maxLagMillis,
+      long maxBufferedBytes) {}
 
   private record WebHandlerResourceDescriptor(
       ExecutableElement method,
@@ -300,7 +454,9 @@ public class WebSocketHandlerAutoProcessor extends AbstractProcessor {
       Mode mode,
       HeartbeatConfigData heartbeatConfig,
       RateLimitConfigData rateLimitConfig,
-      BackpressureConfigData backpressureConfig) {
+      BackpressureConfigData backpressureConfig,
+      String codec,
+      List<ClassName> jsonAdapters) {
 
     private String getPostfix() {
       final String uniqueKey =
@@ -0,0 +1,256 @@
+package io.github.elpis.reactive.websockets.processor.event;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+import io.github.elpis.reactive.websockets.config.WebSocketCloseStatus;
+import io.github.elpis.reactive.websockets.event.annotation.EventSelector;
+import io.github.elpis.reactive.websockets.event.annotation.SessionCloseStatus;
+import io.github.elpis.reactive.websockets.event.model.impl.ClientSessionClosedEvent;
+import io.github.elpis.reactive.websockets.processor.exception.WebSocketProcessorException;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Generates a {@code CloseStatusDispatcher} bean for a {@code @CloseStatusHandler} class, which
+ * calls its {@link SessionCloseStatus @SessionCloseStatus} methods directly instead of through
+ * reflection.
+ *
+ * <p>Close codes and {@link EventSelector @EventSelector} expressions are resolved at compile time
+ * and validated the same way they are at runtime for handlers without a dispatcher. Only public
+ * methods are dispatched, as only those are found at runtime. Classes that cannot be referenced
+ * from the {@code generated} package, i.e. non-public or inner ones, get no dispatcher and are
+ * left to the runtime fallback.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+public final class CloseStatusDispatcherGenerator {
+  private static final String DISPATCHER_PACKAGE =
+      "io.github.elpis.reactive.websockets.event.dispatcher";
+
+  private static final ClassName CLOSE_STATUS_DISPATCHER =
+      ClassName.get(DISPATCHER_PACKAGE, "CloseStatusDispatcher");
+  private static final ClassName REGISTRAR = CLOSE_STATUS_DISPATCHER.nestedClass("Registrar");
+  private static final ClassName OBJECT_PROVIDER =
+      ClassName.get("org.springframework.beans.factory", "ObjectProvider");
+
+  private final Elements elements;
+  private final Types types;
+
+  public CloseStatusDispatcherGenerator(final Elements elements, final Types types) {
+    this.elements = elements;
+    this.types = types;
+  }
+
+  /**
+   * Generates the dispatcher of a {@code @CloseStatusHandler} class.
+   *
+   * @param handler the handler class
+   * @return the dispatcher type, empty if the class cannot be dispatched directly
+   * @throws WebSocketProcessorException if a {@code @SessionCloseStatus} method is invalid
+   */
+  public Optional<TypeSpec> generate(final TypeElement handler) {
+    if (handler.getKind() != ElementKind.CLASS || !this.isAccessible(handler)) {
+      return Optional.empty();
+    }
+
+    final TypeName handlerType = TypeName.get(this.types.erasure(handler.asType()));
+    final CodeBlock.Builder registrations = CodeBlock.builder();
+    ElementFilter.methodsIn(this.elements.getAllMembers(handler)).stream()
+        .filter(method -> method.getAnnotation(SessionCloseStatus.class) != null)
+        .filter(method -> method.getModifiers().contains(Modifier.PUBLIC))
+        .forEach(method -> registrations.add(this.registration(handler, handlerType, method)));
+
+    final TypeName handlerProvider = ParameterizedTypeName.get(OBJECT_PROVIDER, handlerType);
+    final MethodSpec constructor =
+        MethodSpec.constructorBuilder()
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(Autowired.class)
+            .addParameter(handlerProvider, "handler", Modifier.FINAL)
+            .addStatement("this.handler = handler")
+            .build();
+
+    final MethodSpec getHandlerType =
+        MethodSpec.methodBuilder("getHandlerType")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(
+                ParameterizedTypeName.get(
+                    ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class)))
+            .addStatement("return $T.class", handlerType)
+            .build();
+
+    final MethodSpec register =
+        MethodSpec.methodBuilder("register")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .addParameter(REGISTRAR, "registrar", Modifier.FINAL)
+            .returns(boolean.class)
+            .addStatement("final $T handler = this.handler.getIfUnique()", handlerType)
+            .beginControlFlow("if (handler == null)")
+            .addStatement("return false")
+            .endControlFlow()
+            .addCode(registrations.build())
+            .addStatement("return true")
+            .build();
+
+    return Optional.of(
+        TypeSpec.classBuilder(
+                "CloseStatusDispatcher$Generated_" + hash(handler.getQualifiedName().toString()))
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addSuperinterface(CLOSE_STATUS_DISPATCHER)
+            .addAnnotation(Component.class)
+            .addField(
+                FieldSpec.builder(handlerProvider, "handler", Modifier.PRIVATE, Modifier.FINAL)
+                    .build())
+            .addMethod(constructor)
+            .addMethod(getHandlerType)
+            .addMethod(register)
+            .build());
+  }
+
+  private CodeBlock registration(
+      final TypeElement handler, final TypeName handlerType, final ExecutableElement method) {
+    final String methodName = method.getSimpleName().toString();
+    if (method.getParameters().size() > 1) {
+      throw new WebSocketProcessorException(
+          "Found two or more parameters on "
+              + "@SessionCloseStatus `%s.%s(...)` - one or none are only supported",
+          handler.getSimpleName(), methodName);
+    }
+
+    final TypeMirror eventType =
+        this.elements.getTypeElement(ClientSessionClosedEvent.class.getCanonicalName()).asType();
+    final boolean withEvent = method.getParameters().size() == 1;
+    if (withEvent && !this.types.isAssignable(eventType, method.getParameters().get(0).asType())) {
+      throw new WebSocketProcessorException(
+          "Cannot register @SessionCloseStatus `%s.%s(...)` "
+              + "- parameter of type %s does not accept %s",
+          handler.getSimpleName(), methodName, method.getParameters().get(0).asType(), eventType);
+    }
+
+    final SessionCloseStatus sessionCloseStatus = method.getAnnotation(SessionCloseStatus.class);
+    final String closeCodes =
+        IntStream.of(this.getCloseCodes(sessionCloseStatus))
+            .mapToObj(String::valueOf)
+            .collect(Collectors.joining(", "));
+
+    final EventSelector eventSelector = method.getAnnotation(EventSelector.class);
+    final CodeBlock selector =
+        eventSelector != null ? CodeBlock.of("$S", eventSelector.value()) : CodeBlock.of("null");
+
+    final CodeBlock target =
+        method.getModifiers().contains(Modifier.STATIC)
+            ? CodeBlock.of("$T", handlerType)
+            : CodeBlock.of("handler");
+    final CodeBlock call =
+        CodeBlock.of("$L.$L($L)", target, methodName, withEvent ? "event" : "");
+
+    final CodeBlock invoker =
+        method.getThrownTypes().isEmpty()
+            ? CodeBlock.of("event -> $L", call)
+            : CodeBlock.builder()
+                .add("event -> {\n")
+                .indent()
+                .beginControlFlow("try")
+                .addStatement("$L", call)
+                .nextControlFlow("catch ($T exception)", RuntimeException.class)
+                .addStatement("throw exception")
+                .nextControlFlow("catch ($T exception)", Exception.class)
+                .addStatement("throw new $T(exception)", UndeclaredThrowableException.class)
+                .endControlFlow()
+                .unindent()
+                .add("}")
+                .build();
+
+    return CodeBlock.builder()
+        .add("registrar.register(\n")
+        .indent()
+        .add(
+            "$S,\nnew int[] {$L},\n$L,\n$L,\n$L",
+            methodName,
+            closeCodes,
+            selector,
+            sessionCloseStatus.blocking(),
+            invoker)
+        .unindent()
+        .add(");\n")
+        .build();
+  }
+
+  private int[] getCloseCodes(final SessionCloseStatus sessionCloseStatus) {
+    final int[] manualCodes = sessionCloseStatus.code();
+    if (manualCodes.length > 0) {
+      IntStream.of(manualCodes)
+          .filter(code -> !WebSocketCloseStatus.isValidCode(code))
+          .findFirst()
+          .ifPresent(
+              code -> {
+                throw new WebSocketProcessorException(
+                    "Cannot process `@SessionCloseStatus({%s})` "
+                        + "- code %s is not valid. Valid error code range is from 1000 to 4999",
+                    Arrays.toString(manualCodes), code);
+              });
+
+      return manualCodes;
+    } else if (sessionCloseStatus.value().length > 0) {
+      return Stream.of(sessionCloseStatus.value())
+          .mapToInt(WebSocketCloseStatus::getStatusCode)
+          .toArray();
+    }
+
+    return new int[] {WebSocketCloseStatus.ALL.getStatusCode()};
+  }
+
+  /** Whether the class and all classes enclosing it are public and static where nested. */
+  private boolean isAccessible(final TypeElement type) {
+    Element current = type;
+    while (current instanceof TypeElement element) {
+      if (!element.getModifiers().contains(Modifier.PUBLIC)
+          || (element.getNestingKind().isNested()
+              && !element.getModifiers().contains(Modifier.STATIC))) {
+        return false;
+      }
+
+      current = element.getEnclosingElement();
+    }
+
+    return true;
+  }
+
+  private static String hash(final String value) {
+    try {
+      final byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+
+      return new BigInteger(1, digest).toString(16);
+    } catch (NoSuchAlgorithmException e) {
+      throw new WebSocketProcessorException(e.getMessage());
+    }
+  }
+}
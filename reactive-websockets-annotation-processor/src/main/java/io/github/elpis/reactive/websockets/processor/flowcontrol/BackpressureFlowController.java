@@ -1,8 +1,17 @@
 package io.github.elpis.reactive.websockets.processor.flowcontrol;
 
+import io.github.elpis.reactive.websockets.config.WebSocketCloseStatus;
 import io.github.elpis.reactive.websockets.processor.WebSocketHandlerAutoProcessor.BackpressureConfigData;
+import io.github.elpis.reactive.websockets.processor.exception.WebSocketProcessorException;
 import io.github.elpis.reactive.websockets.web.annotation.Backpressure;
+import io.github.elpis.reactive.websockets.web.annotation.Backpressure.NoConflationKey;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.util.ElementFilter;
 
 /**
  * Controller for resolving and generating backpressure configuration during annotation processing.
@@ -67,7 +76,86 @@ public final class BackpressureFlowController {
    */
   private static BackpressureConfigData createBackpressureConfigData(
       final Backpressure backpressure) {
-    return new BackpressureConfigData(backpressure.strategy().name(), backpressure.bufferSize());
+    if (!WebSocketCloseStatus.isValidCode(backpressure.closeCode())) {
+      throw new WebSocketProcessorException(
+          "Cannot process `@Backpressure(closeCode = %s)` - valid close code range is from 1000 to 4999",
+          backpressure.closeCode());
+    }
+
+    if (backpressure.maxLagMillis() < 1) {
+      throw new WebSocketProcessorException(
+          "Cannot process `@Backpressure(maxLagMillis = %s)` - target lag must be positive",
+          backpressure.maxLagMillis());
+    }
+
+    if (backpressure.maxBufferedBytes() < 0) {
+      throw new WebSocketProcessorException(
+          "Cannot process `@Backpressure(maxBufferedBytes = %s)` - byte budget must not be negative",
+          backpressure.maxBufferedBytes());
+    }
+
+    final String conflationKey =
+        switch (backpressure.strategy()) {
+          case CONFLATE -> resolveConflationKey(backpressure, true);
+          case ADAPTIVE -> resolveConflationKey(backpressure, false);
+          default -> null;
+        };
+
+    return new BackpressureConfigData(
+        backpressure.strategy().name(),
+        backpressure.bufferSize(),
+        backpressure.closeCode(),
+        conflationKey,
+        backpressure.maxLagMillis(),
+        backpressure.maxBufferedBytes());
+  }
+
+  /**
+   * Resolves the qualified name of the conflation key extractor. The class is not loadable during
+   * annotation processing, so it is read from the mirrored type.
+   *
+   * @param backpressure the backpressure annotation
+   * @param required whether the strategy requires a key extractor
+   * @return the qualified class name of the key extractor, or null if unset and not required
+   */
+  private static String resolveConflationKey(
+      final Backpressure backpressure, final boolean required) {
+    final TypeElement keyElement;
+    try {
+      backpressure.conflationKey();
+      throw new WebSocketProcessorException(
+          "Cannot process `@Backpressure(conflationKey)` - key extractor type is not resolvable");
+    } catch (MirroredTypeException e) {
+      keyElement = (TypeElement) ((DeclaredType) e.getTypeMirror()).asElement();
+    }
+
+    if (keyElement.getQualifiedName().contentEquals(NoConflationKey.class.getCanonicalName())) {
+      if (!required) {
+        return null;
+      }
+
+      throw new WebSocketProcessorException(
+          "Cannot process `@Backpressure(strategy = CONFLATE)` - conflationKey is required");
+    }
+
+    final boolean instantiable =
+        !keyElement.getModifiers().contains(Modifier.ABSTRACT)
+            && keyElement.getModifiers().contains(Modifier.PUBLIC)
+            && (keyElement.getNestingKind() != NestingKind.MEMBER
+                || keyElement.getModifiers().contains(Modifier.STATIC))
+            && ElementFilter.constructorsIn(keyElement.getEnclosedElements()).stream()
+                .anyMatch(
+                    constructor ->
+                        constructor.getParameters().isEmpty()
+                            && constructor.getModifiers().contains(Modifier.PUBLIC));
+
+    if (!instantiable) {
+      throw new WebSocketProcessorException(
+          "Cannot process `@Backpressure(conflationKey = %s.class)` - key extractor must be a public concrete class with a public no-argument constructor",
+          keyElement.getSimpleName());
+    }
+
+    return keyElement.getQualifiedName().toString();
   }
 
   /**
@@ -81,7 +169,12 @@ public final class BackpressureFlowController {
       return "io.github.elpis.reactive.websockets.handler.config.BackpressureConfig.disabled()";
     }
     return String.format(
-        "io.github.elpis.reactive.websockets.handler.config.BackpressureConfig.of(\"%s\", %d)",
-        config.strategy(), config.bufferSize());
+        "io.github.elpis.reactive.websockets.handler.config.BackpressureConfig.of(\"%s\", %d, %d, %s, %dL, %dL)",
+        config.strategy(),
+        config.bufferSize(),
+        config.closeCode(),
+        config.conflationKey() != null ? "new " + config.conflationKey() + "()" : "null",
+        config.maxLagMillis(),
+        config.maxBufferedBytes());
   }
 }
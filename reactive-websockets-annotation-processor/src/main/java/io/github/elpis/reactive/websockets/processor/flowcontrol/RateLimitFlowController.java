@@ -71,7 +71,8 @@ public final class RateLimitFlowController {
         rateLimit.limitRefreshPeriod(),
         rateLimit.timeUnit().name(),
         rateLimit.timeoutDuration(),
-        rateLimit.scope().name());
+        rateLimit.scope().name(),
+        rateLimit.engine().name());
   }
 
   /**
@@ -85,11 +86,12 @@ public final class RateLimitFlowController {
       return "io.github.elpis.reactive.websockets.handler.config.RateLimitConfig.disabled()";
     }
     return String.format(
-        "io.github.elpis.reactive.websockets.handler.config.RateLimitConfig.of(%d, %dL, \"%s\", %dL, \"%s\")",
+        "io.github.elpis.reactive.websockets.handler.config.RateLimitConfig.of(%d, %dL, \"%s\", %dL, \"%s\", \"%s\")",
         config.limitForPeriod(),
         config.limitRefreshPeriod(),
         config.timeUnit(),
         config.timeout(),
-        config.scope());
+        config.scope(),
+        config.engine());
   }
 }
@@ -7,6 +7,7 @@ import com.squareup.javapoet.TypeName;
 import io.github.elpis.reactive.websockets.processor.exception.WebSocketResolverException;
 import io.github.elpis.reactive.websockets.processor.util.TypeCategoryResolver;
 import io.github.elpis.reactive.websockets.processor.util.TypeCategoryResolver.TypeCategory;
+import io.github.elpis.reactive.websockets.web.annotation.OnMessage;
 import java.util.List;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.VariableElement;
@@ -48,6 +49,12 @@ public class RequestBodyResolver extends SocketApiAnnotationResolver<RequestBody
     final TypeCategory category =
         TypeCategoryResolver.categorize(genericType, getElements(), getTypes());
 
+    // A streaming body is decoded across message boundaries
+    final OnMessage onMessage = parameter.getEnclosingElement().getAnnotation(OnMessage.class);
+    if (onMessage != null && onMessage.streaming() && category != TypeCategory.WEBSOCKET_MESSAGE) {
+      return generateStreamingCode(parameter, publisherType, genericType);
+    }
+
     // Generate appropriate code based on category
     return switch (category) {
       case WEBSOCKET_MESSAGE -> generateWebSocketMessageCode(parameter, publisherType);
@@ -128,7 +135,8 @@ public class RequestBodyResolver extends SocketApiAnnotationResolver<RequestBody
   }
 
   /**
-   * Generates code for simple types using TypeUtils.
+   * Generates code for simple types. Text frames are converted with TypeUtils, binary frames are
+   * decoded with the message codec of the endpoint.
    *
    * @param parameter the parameter element
    * @param publisherType the publisher type
@@ -140,15 +148,17 @@ public class RequestBodyResolver extends SocketApiAnnotationResolver<RequestBody
       final VariableElement parameter,
       final PublisherType publisherType,
       final TypeMirror genericType) {
+    final TypeName genericTypeName = TypeName.get(genericType);
+
     return generateMappingCode(
         parameter,
         publisherType,
-        genericType,
-        "io.github.elpis.reactive.websockets.util.TypeUtils.convert(text, $T.class)");
+        CodeBlock.of(".map(message -> this.convert(message, $T.class));\n", genericTypeName));
   }
 
   /**
-   * Generates code for complex types using JsonMapper.
+   * Generates code for complex types using the message codec of the endpoint, JSON unless
+   * configured otherwise. The payload bytes are parsed in place, no intermediate String is decoded.
    *
    * @param parameter the parameter element
    * @param publisherType the publisher type
@@ -160,11 +170,41 @@ public class RequestBodyResolver extends SocketApiAnnotationResolver<RequestBody
       final VariableElement parameter,
       final PublisherType publisherType,
       final TypeMirror genericType) {
+    final TypeName genericTypeName = TypeName.get(genericType);
+
     return generateMappingCode(
         parameter,
         publisherType,
-        genericType,
-        "io.github.elpis.reactive.websockets.mapper.JsonMapper.deserialize(text, $T.class)");
+        CodeBlock.of(".map(message -> this.decode(message, $T.class));\n", genericTypeName));
+  }
+
+  /**
+   * Generates code for a streaming body, which feeds the payloads of all messages to one
+   * incremental JSON decoder of the generated handler.
+   *
+   * @param parameter the parameter element
+   * @param publisherType the publisher type, must be Flux
+   * @param genericType the generic type
+   * @return the generated code block
+   * @throws WebSocketResolverException if the parameter is a Mono
+   * @since 1.0.0
+   */
+  private CodeBlock generateStreamingCode(
+      final VariableElement parameter,
+      final PublisherType publisherType,
+      final TypeMirror genericType) {
+    if (publisherType != PublisherType.FLUX) {
+      throw new WebSocketResolverException(
+          "Streaming @RequestBody must be used with Flux type. Found: %s", parameter.asType());
+    }
+
+    final String paramName = parameter.getSimpleName().toString() + VARIABLE_SUFFIX;
+
+    return CodeBlock.of(
+        "final $T $L = this.decodeStream(messages, $T.class);\n",
+        parameter.asType(),
+        paramName,
+        TypeName.get(genericType));
   }
 
   /**
@@ -172,18 +212,15 @@ public class RequestBodyResolver extends SocketApiAnnotationResolver<RequestBody
    *
    * @param parameter the parameter element
    * @param publisherType the publisher type (Flux or Mono)
-   * @param genericType the generic type
-   * @param mapperExpression the mapper expression to use (e.g., TypeUtils.convert or
-   *     JsonMapper.deserialize)
+   * @param mappingChain the operators mapping a WebSocketMessage to the parameter type (e.g.,
+   *     convert or decode of the generated handler)
    * @return the generated code block
    * @since 1.0.0
    */
   private CodeBlock generateMappingCode(
       final VariableElement parameter,
       final PublisherType publisherType,
-      final TypeMirror genericType,
-      final String mapperExpression) {
-    final TypeName genericTypeName = TypeName.get(genericType);
+      final CodeBlock mappingChain) {
     final String paramName = parameter.getSimpleName().toString() + VARIABLE_SUFFIX;
     final String sourceExpression =
         publisherType == PublisherType.FLUX ? "messages" : "messages.next()";
@@ -191,8 +228,7 @@ public class RequestBodyResolver extends SocketApiAnnotationResolver<RequestBody
     return CodeBlock.builder()
         .add("final $T $L = $L\n", parameter.asType(), paramName, sourceExpression)
         .indent()
-        .add(".map(org.springframework.web.reactive.socket.WebSocketMessage::getPayloadAsText)\n")
-        .add(".map(text -> $L);\n", CodeBlock.of(mapperExpression, genericTypeName))
+        .add(mappingChain)
         .unindent()
         .build();
   }
@@ -0,0 +1,457 @@
+package io.github.elpis.reactive.websockets.processor.serializer;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import io.github.elpis.reactive.websockets.processor.exception.WebSocketProcessorException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Generates reflection-free JSON adapters for the DTO types of {@code @OnMessage} methods.
+ *
+ * <p>An adapter is generated for public, non-generic records that carry no Jackson annotations and
+ * expose no bean getters besides their components, since only for those the generated mapping is
+ * guaranteed to match the one Jackson would build by reflection. The adapter reads and writes the
+ * components of the record in declaration order on the streaming API, String, {@code int}, {@code
+ * long}, {@code double} and {@code boolean} components and their wrappers are handled inline, any
+ * other component goes through {@code JsonMapper}, which uses the adapter of a nested record if
+ * generated and the reflective mapping otherwise. Types not supported are left to {@code
+ * JsonMapper} as a whole.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+public final class JsonAdapterGenerator {
+  private static final String GENERATED_PACKAGE = "io.github.elpis.reactive.websockets.generated";
+  private static final String JACKSON_PACKAGE = "com.fasterxml.jackson.";
+
+  private static final ClassName JSON_ADAPTER =
+      ClassName.get("io.github.elpis.reactive.websockets.mapper", "JsonAdapter");
+  private static final ClassName JSON_MAPPER =
+      ClassName.get("io.github.elpis.reactive.websockets.mapper", "JsonMapper");
+  private static final ClassName JSON_GENERATOR =
+      ClassName.get("com.fasterxml.jackson.core", "JsonGenerator");
+  private static final ClassName JSON_PARSER =
+      ClassName.get("com.fasterxml.jackson.core", "JsonParser");
+  private static final ClassName JSON_TOKEN =
+      ClassName.get("com.fasterxml.jackson.core", "JsonToken");
+  private static final ClassName SERIALIZED_STRING =
+      ClassName.get("com.fasterxml.jackson.core.io", "SerializedString");
+  private static final ClassName TYPE_REFERENCE =
+      ClassName.get("com.fasterxml.jackson.core.type", "TypeReference");
+  private static final ClassName JAVA_TYPE =
+      ClassName.get("com.fasterxml.jackson.databind", "JavaType");
+  private static final ClassName MISMATCHED_INPUT_EXCEPTION =
+      ClassName.get("com.fasterxml.jackson.databind.exc", "MismatchedInputException");
+  private static final ClassName IO_EXCEPTION = ClassName.get("java.io", "IOException");
+
+  private static final Set<String> OBJECT_GETTERS = Set.of("getClass");
+
+  private final Elements elements;
+  private final Types types;
+
+  private final Map<String, ClassName> adapters = new HashMap<>();
+  private final List<TypeSpec> pending = new ArrayList<>();
+
+  public JsonAdapterGenerator(final Elements elements, final Types types) {
+    this.elements = elements;
+    this.types = types;
+  }
+
+  /**
+   * Returns the adapters to register for a DTO type: the adapter of the type itself and those of
+   * the records nested in its components. Adapters not generated before are queued for {@link
+   * #drainPending()}.
+   *
+   * @param type the DTO type
+   * @return adapter class names, empty if the type is not supported
+   */
+  public List<ClassName> resolve(final TypeMirror type) {
+    final List<ClassName> resolved = new ArrayList<>();
+    this.collect(type, resolved);
+
+    return resolved;
+  }
+
+  /**
+   * Returns the adapters generated since the last call.
+   *
+   * @return generated adapter types, to be written to the {@code generated} package
+   */
+  public List<TypeSpec> drainPending() {
+    final List<TypeSpec> drained = List.copyOf(this.pending);
+    this.pending.clear();
+
+    return drained;
+  }
+
+  private void collect(final TypeMirror type, final List<ClassName> resolved) {
+    if (type.getKind() != TypeKind.DECLARED
+        || !(this.types.asElement(type) instanceof TypeElement record)
+        || !this.isSupported(record)) {
+      return;
+    }
+
+    final String qualifiedName = record.getQualifiedName().toString();
+    final ClassName known = this.adapters.get(qualifiedName);
+    if (known != null) {
+      if (!resolved.contains(known)) {
+        resolved.add(known);
+      }
+
+      return;
+    }
+
+    final ClassName adapter =
+        ClassName.get(GENERATED_PACKAGE, "JsonAdapter$Generated_" + hash(qualifiedName));
+    this.adapters.put(qualifiedName, adapter);
+    resolved.add(adapter);
+
+    this.pending.add(this.generate(record, adapter));
+
+    record
+        .getRecordComponents()
+        .forEach(component -> this.collect(component.asType(), resolved));
+  }
+
+  private boolean isSupported(final TypeElement record) {
+    if (record.getKind() != ElementKind.RECORD || !record.getTypeParameters().isEmpty()) {
+      return false;
+    }
+
+    if (!isPublic(record) || hasJacksonAnnotation(record)) {
+      return false;
+    }
+
+    final Set<String> accessors =
+        record.getRecordComponents().stream()
+            .map(component -> component.getAccessor().getSimpleName().toString())
+            .collect(Collectors.toSet());
+
+    for (Element member : record.getEnclosedElements()) {
+      if (hasJacksonAnnotation(member)
+          || (member instanceof ExecutableElement executable
+              && executable.getParameters().stream()
+                  .anyMatch(JsonAdapterGenerator::hasJacksonAnnotation))) {
+        return false;
+      }
+    }
+
+    // The adapter lives in another package, every component type must be visible from there
+    if (!record.getRecordComponents().stream()
+        .allMatch(component -> this.isAccessible(component.asType()))) {
+      return false;
+    }
+
+    // Jackson serializes bean getters of records as properties too
+    return ElementFilter.methodsIn(this.elements.getAllMembers(record)).stream()
+        .filter(method -> method.getModifiers().contains(Modifier.PUBLIC))
+        .filter(method -> !method.getModifiers().contains(Modifier.STATIC))
+        .filter(method -> method.getParameters().isEmpty())
+        .map(method -> method.getSimpleName().toString())
+        .filter(name -> !accessors.contains(name) && !OBJECT_GETTERS.contains(name))
+        .noneMatch(JsonAdapterGenerator::isGetterName);
+  }
+
+  private boolean isAccessible(final TypeMirror type) {
+    return switch (type.getKind()) {
+      case DECLARED ->
+          isPublic(this.types.asElement(type))
+              && ((DeclaredType) type)
+                  .getTypeArguments().stream().allMatch(this::isAccessible);
+      case ARRAY -> this.isAccessible(((ArrayType) type).getComponentType());
+      case WILDCARD -> {
+        final WildcardType wildcard = (WildcardType) type;
+        yield (wildcard.getExtendsBound() == null || this.isAccessible(wildcard.getExtendsBound()))
+            && (wildcard.getSuperBound() == null || this.isAccessible(wildcard.getSuperBound()));
+      }
+      default -> type.getKind().isPrimitive();
+    };
+  }
+
+  private TypeSpec generate(final TypeElement record, final ClassName adapter) {
+    final TypeName recordType = ClassName.get(record);
+    final List<? extends RecordComponentElement> components = record.getRecordComponents();
+
+    final TypeSpec.Builder builder =
+        TypeSpec.classBuilder(adapter)
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addSuperinterface(ParameterizedTypeName.get(JSON_ADAPTER, recordType))
+            .addMethod(
+                MethodSpec.methodBuilder("getType")
+                    .addAnnotation(Override.class)
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(ParameterizedTypeName.get(ClassName.get(Class.class), recordType))
+                    .addStatement("return $T.class", recordType)
+                    .build());
+
+    final MethodSpec.Builder write =
+        MethodSpec.methodBuilder("write")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .addParameter(JSON_GENERATOR, "generator")
+            .addParameter(recordType, "value")
+            .addException(IO_EXCEPTION)
+            .addStatement("generator.writeStartObject(value)");
+
+    final MethodSpec.Builder read =
+        MethodSpec.methodBuilder("read")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .addParameter(JSON_PARSER, "parser")
+            .returns(recordType)
+            .addException(IO_EXCEPTION)
+            .addStatement("final $T start = parser.currentToken()", JSON_TOKEN)
+            .beginControlFlow("if (start == $T.VALUE_NULL)", JSON_TOKEN)
+            .addStatement("return null")
+            .endControlFlow()
+            .beginControlFlow("if (start != $T.START_OBJECT)", JSON_TOKEN)
+            .addStatement(
+                "throw $T.from(parser, $T.class, $S + start)",
+                MISMATCHED_INPUT_EXCEPTION,
+                recordType,
+                "Cannot deserialize " + record.getSimpleName() + " from ")
+            .endControlFlow();
+
+    final CodeBlock.Builder cases = CodeBlock.builder();
+    final List<String> arguments = new ArrayList<>();
+
+    for (int index = 0; index < components.size(); index++) {
+      final RecordComponentElement component = components.get(index);
+      final String name = component.getSimpleName().toString();
+      final String accessor = "value." + component.getAccessor().getSimpleName() + "()";
+      final String local = name + "Value";
+      final TypeMirror type = component.asType();
+
+      final String fieldName = "FIELD_" + index;
+      builder.addField(
+          FieldSpec.builder(
+                  SERIALIZED_STRING, fieldName, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+              .initializer("new $T($S)", SERIALIZED_STRING, name)
+              .build());
+
+      write.addStatement("generator.writeFieldName($L)", fieldName);
+      write.addCode(this.writeCode(type, accessor));
+
+      read.addStatement("$T $L = $L", TypeName.get(type), local, defaultValue(type));
+      cases
+          .add("case $S:\n", name)
+          .indent()
+          .addStatement("$L = $L", local, this.readCode(type, index, builder))
+          .addStatement("break")
+          .unindent();
+
+      arguments.add(local);
+    }
+
+    cases
+        .add("default:\n")
+        .indent()
+        .addStatement("$T.handleUnknownProperty(parser, $T.class, field)", JSON_MAPPER, recordType)
+        .unindent();
+
+    write.addStatement("generator.writeEndObject()");
+
+    read.beginControlFlow(
+            "for (String field = parser.nextFieldName(); "
+                + "field != null; "
+                + "field = parser.nextFieldName())")
+        .addStatement("final $T token = parser.nextToken()", JSON_TOKEN)
+        .beginControlFlow("switch (field)")
+        .addCode(cases.build())
+        .endControlFlow()
+        .endControlFlow()
+        .addStatement("return new $T($L)", recordType, String.join(", ", arguments));
+
+    return builder.addMethod(write.build()).addMethod(read.build()).build();
+  }
+
+  private CodeBlock writeCode(final TypeMirror type, final String accessor) {
+    final TypeKind kind = type.getKind();
+    if (kind == TypeKind.BOOLEAN) {
+      return CodeBlock.of("generator.writeBoolean($L);\n", accessor);
+    }
+
+    if (kind.isPrimitive() && kind != TypeKind.CHAR) {
+      return CodeBlock.of("generator.writeNumber($L);\n", accessor);
+    }
+
+    final String typeName = kind == TypeKind.DECLARED ? this.qualifiedName(type) : "";
+    final String method =
+        switch (typeName) {
+          case "java.lang.String" -> "writeString";
+          case "java.lang.Integer", "java.lang.Long", "java.lang.Double" -> "writeNumber";
+          case "java.lang.Boolean" -> "writeBoolean";
+          default -> null;
+        };
+
+    if (method == null) {
+      return CodeBlock.of("$T.writeValue(generator, $L);\n", JSON_MAPPER, accessor);
+    }
+
+    // writeString writes null itself, the wrappers are unboxed
+    if ("writeString".equals(method)) {
+      return CodeBlock.of("generator.writeString($L);\n", accessor);
+    }
+
+    return CodeBlock.builder()
+        .beginControlFlow("if ($L == null)", accessor)
+        .addStatement("generator.writeNull()")
+        .nextControlFlow("else")
+        .addStatement("generator.$L($L)", method, accessor)
+        .endControlFlow()
+        .build();
+  }
+
+  private CodeBlock readCode(
+      final TypeMirror type, final int index, final TypeSpec.Builder builder) {
+    final TypeName typeName = TypeName.get(type);
+    final CodeBlock fallback =
+        CodeBlock.of("$T.readValue(parser, $T.class)", JSON_MAPPER, this.types.erasure(type));
+
+    return switch (type.getKind()) {
+      case INT ->
+          CodeBlock.of(
+              "token == $T.VALUE_NUMBER_INT ? parser.getIntValue() : $L", JSON_TOKEN, fallback);
+      case LONG ->
+          CodeBlock.of(
+              "token == $T.VALUE_NUMBER_INT ? parser.getLongValue() : $L", JSON_TOKEN, fallback);
+      case DOUBLE -> CodeBlock.of("token.isNumeric() ? parser.getDoubleValue() : $L", fallback);
+      case BOOLEAN ->
+          CodeBlock.of("token.isBoolean() ? token == $T.VALUE_TRUE : $L", JSON_TOKEN, fallback);
+      case DECLARED -> this.readDeclaredCode((DeclaredType) type, typeName, index, builder);
+      default -> fallback;
+    };
+  }
+
+  private CodeBlock readDeclaredCode(
+      final DeclaredType type,
+      final TypeName typeName,
+      final int index,
+      final TypeSpec.Builder builder) {
+    if (!type.getTypeArguments().isEmpty()) {
+      final String typeField = "TYPE_" + index;
+      builder.addField(
+          FieldSpec.builder(JAVA_TYPE, typeField, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+              .initializer(
+                  "$T.constructType(new $T<$T>() {})", JSON_MAPPER, TYPE_REFERENCE, typeName)
+              .build());
+
+      return CodeBlock.of("$T.readValue(parser, $L)", JSON_MAPPER, typeField);
+    }
+
+    final CodeBlock fallback =
+        CodeBlock.of("$T.readValue(parser, $T.class)", JSON_MAPPER, typeName);
+
+    return switch (this.qualifiedName(type)) {
+      case "java.lang.String" ->
+          CodeBlock.of(
+              "token == $T.VALUE_STRING ? parser.getText() : $L", JSON_TOKEN, fallback);
+      case "java.lang.Integer" ->
+          CodeBlock.of(
+              "token == $T.VALUE_NUMBER_INT ? Integer.valueOf(parser.getIntValue()) : $L",
+              JSON_TOKEN,
+              fallback);
+      case "java.lang.Long" ->
+          CodeBlock.of(
+              "token == $T.VALUE_NUMBER_INT ? Long.valueOf(parser.getLongValue()) : $L",
+              JSON_TOKEN,
+              fallback);
+      case "java.lang.Double" ->
+          CodeBlock.of(
+              "token.isNumeric() ? Double.valueOf(parser.getDoubleValue()) : $L", fallback);
+      case "java.lang.Boolean" ->
+          CodeBlock.of(
+              "token.isBoolean() ? Boolean.valueOf(token == $T.VALUE_TRUE) : $L",
+              JSON_TOKEN,
+              fallback);
+      default -> fallback;
+    };
+  }
+
+  private String qualifiedName(final TypeMirror type) {
+    return this.types.asElement(type) instanceof TypeElement element
+        ? element.getQualifiedName().toString()
+        : type.toString();
+  }
+
+  private static String defaultValue(final TypeMirror type) {
+    return switch (type.getKind()) {
+      case BOOLEAN -> "false";
+      case CHAR -> "'\\0'";
+      case BYTE, SHORT, INT -> "0";
+      case LONG -> "0L";
+      case FLOAT -> "0F";
+      case DOUBLE -> "0D";
+      default -> "null";
+    };
+  }
+
+  private static boolean isGetterName(final String name) {
+    return (name.startsWith("get") && name.length() > 3)
+        || (name.startsWith("is") && name.length() > 2);
+  }
+
+  private static boolean isPublic(final Element type) {
+    for (Element element = type;
+        element != null && element.getKind() != ElementKind.PACKAGE;
+        element = element.getEnclosingElement()) {
+      if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static boolean hasJacksonAnnotation(final Element element) {
+    for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+      final Element annotationType = annotation.getAnnotationType().asElement();
+      if (annotationType instanceof TypeElement typeElement
+          && typeElement.getQualifiedName().toString().startsWith(JACKSON_PACKAGE)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static String hash(final String value) {
+    try {
+      final byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+
+      return new BigInteger(1, digest).toString(16);
+    } catch (NoSuchAlgorithmException e) {
+      throw new WebSocketProcessorException(e.getMessage());
+    }
+  }
+}
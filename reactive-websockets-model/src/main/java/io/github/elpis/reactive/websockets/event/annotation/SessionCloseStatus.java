@@ -48,4 +48,15 @@ public @interface SessionCloseStatus {
    * @since 1.0.0
    */
   int[] code() default {};
+
+  /**
+   * Whether the annotated method may block, e.g. on I/O. Blocking methods run on the close event
+   * scheduler, the blocking methods of one close event one after another in a single task.
+   *
+   * <p>Methods that neither block nor take long may set this to {@code false}. They are then called
+   * right away on the thread publishing the close event, before the blocking ones.
+   *
+   * @since 1.0.0
+   */
+  boolean blocking() default true;
 }
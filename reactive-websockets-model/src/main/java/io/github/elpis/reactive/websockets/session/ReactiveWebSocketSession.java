@@ -4,24 +4,41 @@ import java.time.Instant;
 import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 import org.springframework.web.reactive.socket.CloseStatus;
+import reactor.core.publisher.Sinks;
 
 public class ReactiveWebSocketSession {
   private final String sessionId;
+  private final String principalName;
+  private final String remoteAddress;
+  private final String pathTemplate;
 
   private final BooleanSupplier isOpen;
   private final BiConsumer<String, CloseStatus> onClose;
+  private final Function<Object, Sinks.EmitResult> sender;
+  private final Function<Object, Object> encoder;
 
   private final Instant timestamp = Instant.now();
 
   private ReactiveWebSocketSession(
       final String sessionId,
+      final String principalName,
+      final String remoteAddress,
+      final String pathTemplate,
       final BooleanSupplier isOpen,
-      final BiConsumer<String, CloseStatus> onClose) {
+      final BiConsumer<String, CloseStatus> onClose,
+      final Function<Object, Sinks.EmitResult> sender,
+      final Function<Object, Object> encoder) {
 
     this.sessionId = sessionId;
+    this.principalName = principalName;
+    this.remoteAddress = remoteAddress;
+    this.pathTemplate = pathTemplate;
     this.isOpen = isOpen;
     this.onClose = onClose;
+    this.sender = sender;
+    this.encoder = encoder;
   }
 
   public boolean isOpen() {
@@ -36,10 +53,45 @@ public class ReactiveWebSocketSession {
     this.onClose.accept(this.sessionId, closeStatus);
   }
 
+  /**
+   * Puts the message straight into the outbound queue of this session. The message is encoded the
+   * same way as the endpoint output.
+   *
+   * @param message message to send
+   * @return {@link Sinks.EmitResult} - result code signaling about success/failure of queueing the
+   *     message
+   */
+  public Sinks.EmitResult send(final Object message) {
+    return this.sender.apply(message);
+  }
+
+  /**
+   * Returns the encoder of the endpoint of this session. It turns a message into one that is
+   * encoded already, so the message is encoded once and then sent to many sessions sharing the
+   * encoder. Messages it cannot encode are returned as they are.
+   *
+   * @return the encoder, shared by all sessions of the endpoint
+   */
+  public Function<Object, Object> getEncoder() {
+    return encoder;
+  }
+
   public String getSessionId() {
     return sessionId;
   }
 
+  public String getPrincipalName() {
+    return principalName;
+  }
+
+  public String getRemoteAddress() {
+    return remoteAddress;
+  }
+
+  public String getPathTemplate() {
+    return pathTemplate;
+  }
+
   public Instant getTimestamp() {
     return timestamp;
   }
@@ -51,7 +103,12 @@ public class ReactiveWebSocketSession {
   public static class Builder {
     private BooleanSupplier isOpen = () -> true;
     private BiConsumer<String, CloseStatus> onClose;
+    private Function<Object, Sinks.EmitResult> sender = message -> Sinks.EmitResult.FAIL_TERMINATED;
+    private Function<Object, Object> encoder = Function.identity();
     private String sessionId;
+    private String principalName;
+    private String remoteAddress;
+    private String pathTemplate;
 
     public Builder isOpen(BooleanSupplier isOpen) {
       this.isOpen = Optional.ofNullable(isOpen).orElseGet(() -> () -> true);
@@ -64,13 +121,49 @@ public class ReactiveWebSocketSession {
       return this;
     }
 
+    public Builder principalName(final String principalName) {
+      this.principalName = principalName;
+      return this;
+    }
+
+    public Builder remoteAddress(final String remoteAddress) {
+      this.remoteAddress = remoteAddress;
+      return this;
+    }
+
+    public Builder pathTemplate(final String pathTemplate) {
+      this.pathTemplate = pathTemplate;
+      return this;
+    }
+
     public Builder onClose(final BiConsumer<String, CloseStatus> onClose) {
       this.onClose = onClose;
       return this;
     }
 
+    public Builder sender(final Function<Object, Sinks.EmitResult> sender) {
+      this.sender =
+          Optional.ofNullable(sender).orElseGet(() -> message -> Sinks.EmitResult.FAIL_TERMINATED);
+
+      return this;
+    }
+
+    public Builder encoder(final Function<Object, Object> encoder) {
+      this.encoder = Optional.ofNullable(encoder).orElseGet(Function::identity);
+
+      return this;
+    }
+
     public ReactiveWebSocketSession build() {
-      return new ReactiveWebSocketSession(this.sessionId, this.isOpen, this.onClose);
+      return new ReactiveWebSocketSession(
+          this.sessionId,
+          this.principalName,
+          this.remoteAddress,
+          this.pathTemplate,
+          this.isOpen,
+          this.onClose,
+          this.sender,
+          this.encoder);
     }
   }
 }
@@ -5,20 +5,29 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.function.Function;
 
 /**
  * Backpressure configuration for WebSocket endpoints. Controls behavior when clients are slow to
  * consume messages in high-throughput streams.
  *
- * <p>Provides four strategies for handling backpressure:
+ * <p>Provides seven strategies for handling backpressure:
  *
  * <ul>
  *   <li>BUFFER - Buffer messages up to a configurable size
  *   <li>DROP_OLDEST - Keep only the latest message when overwhelmed
  *   <li>DROP_LATEST - Drop new messages when overwhelmed
  *   <li>ERROR - Propagate error when backpressure occurs
+ *   <li>DISCONNECT - Close the session with {@link #closeCode()} once its buffer is full
+ *   <li>CONFLATE - Keep only the newest pending message per {@link #conflationKey() key}
+ *   <li>ADAPTIVE - Switch each session between full, sampled and conflated delivery by its lag
  * </ul>
  *
+ * <p>On {@link io.github.elpis.reactive.websockets.config.Mode#BROADCAST BROADCAST} endpoints every
+ * session reads the shared inbound messages through a queue of its own, so a slow session never
+ * holds back the other sessions. That queue is lossless, the strategy bounds the outbound messages
+ * of the session only. Without a strategy a slow session buffers without bound.
+ *
  * <p>Can be applied at:
  *
  * <ul>
@@ -51,6 +60,12 @@ import java.lang.annotation.Target;
  *   public Flux<String> realTimeUpdates() {
  *     return eventStream.asFlux();
  *   }
+ *
+ *   @OnMessage
+ *   @Backpressure(strategy = BackpressureStrategy.CONFLATE, conflationKey = QuoteSymbol.class)
+ *   public Flux<Quote> quotes() {
+ *     return quoteStream.asFlux();
+ *   }
  * }
  * }</pre>
  *
@@ -81,6 +96,51 @@ public @interface Backpressure {
    */
   int bufferSize() default 256;
 
+  /**
+   * The close code sent to a session that is disconnected by the DISCONNECT or ERROR strategy.
+   * Valid codes range from 1000 to 4999.
+   *
+   * <p>Default is {@code 1008} (policy violation).
+   *
+   * @return the close code
+   */
+  int closeCode() default 1008;
+
+  /**
+   * The function extracting the conflation key from an outbound element, required by the CONFLATE
+   * strategy and ignored by the others. The class must have a public no-argument constructor, its
+   * instance is shared by all sessions of the endpoint.
+   *
+   * @return the conflation key extractor
+   */
+  Class<? extends Function<?, ?>> conflationKey() default NoConflationKey.class;
+
+  /**
+   * The outbound lag a session may build up before the ADAPTIVE strategy degrades its delivery, in
+   * milliseconds. The lag is the time a message waits until the session socket is ready for it.
+   * This setting is ignored for other strategies.
+   *
+   * <p>Default is 250 milliseconds.
+   *
+   * @return the target lag in milliseconds
+   */
+  long maxLagMillis() default 250;
+
+  /**
+   * The encoded bytes a session may buffer, instead of the message count of {@link #bufferSize()}.
+   * Applies to the BUFFER, DROP_OLDEST, DROP_LATEST, ERROR and DISCONNECT strategies: the encoded
+   * size of every message is accounted as it is buffered and the strategy decides what happens
+   * when the next message does not fit. BUFFER and ERROR fail the session, DISCONNECT closes it.
+   *
+   * <p>The buffers of all sessions together are additionally bounded by the {@code
+   * OutboundMemoryBudget} of the application.
+   *
+   * <p>Default is {@code 0}, which keeps the buffer bounded by message count.
+   *
+   * @return the byte budget of a session, or {@code 0} to count messages
+   */
+  long maxBufferedBytes() default 0;
+
   /**
    * Whether backpressure handling is enabled.
    *
@@ -98,6 +158,9 @@ public @interface Backpressure {
    *   <li>DROP_OLDEST: {@code onBackpressureLatest()} - keeps only latest
    *   <li>DROP_LATEST: {@code onBackpressureDrop()} - drops new messages
    *   <li>ERROR: {@code onBackpressureError()} - propagates exception
+   *   <li>DISCONNECT: {@code onBackpressureBuffer(bufferSize)} - closes the session on overflow
+   *   <li>CONFLATE: keyed conflation map of bufferSize keys - keeps the newest message per key
+   *   <li>ADAPTIVE: conflation map of bufferSize slots - slots chosen by the lag of the session
    * </ul>
    */
   enum BackpressureStrategy {
@@ -139,6 +202,54 @@ public @interface Backpressure {
      *
      * <p>Memory impact: None
      */
-    ERROR
+    ERROR,
+
+    /**
+     * Buffer messages up to bufferSize and close the session with {@link Backpressure#closeCode()}
+     * once the buffer is full. The session lags too far behind to be worth serving.
+     *
+     * <p>Use when: A slow client should reconnect and resynchronize rather than receive stale or
+     * incomplete data.
+     *
+     * <p>Memory impact: Bounded (bufferSize * avg message size)
+     */
+    DISCONNECT,
+
+    /**
+     * Keep only the newest pending message per key, where the key is extracted by {@link
+     * Backpressure#conflationKey()}. Pending keys are delivered in the order they first became
+     * pending. At most bufferSize keys are pending, beyond that the oldest pending key is dropped.
+     *
+     * <p>Use when: The stream multiplexes independent states (e.g., prices of many instruments)
+     * and only the latest state of each matters.
+     *
+     * <p>Memory impact: Bounded (bufferSize * avg message size)
+     */
+    CONFLATE,
+
+    /**
+     * Measure the outbound lag and queue depth of every session and move it between full-rate,
+     * sampled and conflated delivery. A session that lags beyond {@link
+     * Backpressure#maxLagMillis()} first receives only the newest of every few messages, a session
+     * that falls further behind only the newest message per {@link Backpressure#conflationKey()}
+     * (or only the newest message without a key). Sessions recover once they catch up. Lag
+     * histograms are recorded per endpoint.
+     *
+     * <p>Use when: The same endpoint serves clients on very different networks and no single
+     * buffer size fits all of them.
+     *
+     * <p>Memory impact: Bounded (bufferSize * avg message size)
+     */
+    ADAPTIVE
+  }
+
+  /** Marker for an unset {@link #conflationKey()}. */
+  final class NoConflationKey implements Function<Object, Object> {
+    private NoConflationKey() {}
+
+    @Override
+    public Object apply(final Object element) {
+      throw new UnsupportedOperationException("No conflation key configured");
+    }
   }
 }
@@ -40,4 +40,13 @@ public @interface MessageEndpoint {
    */
   @AliasFor(annotation = Component.class)
   String value() default "";
+
+  /**
+   * Name of the message codec used by all the included {@link OnMessage @OnMessage} annotated
+   * methods that do not declare their own. Defaults to {@code "json"}.
+   *
+   * @see OnMessage#codec()
+   * @since 1.0.0
+   */
+  String codec() default "";
 }
@@ -20,4 +20,27 @@ public @interface OnMessage {
    * @since 1.0.0
    */
   Mode mode() default Mode.BROADCAST;
+
+  /**
+   * Name of the message codec that decodes the inbound and encodes the outbound messages of this
+   * endpoint. Built-in codecs are {@code "json"}, sent as {@code TEXT} frames, and the binary
+   * {@code "cbor"}, {@code "smile"} and {@code "msgpack"}, sent as {@code BINARY} frames - the
+   * binary ones need their Jackson data format module on the classpath. Further codecs are
+   * registered through {@link java.util.ServiceLoader}. Defaults to the codec of the enclosing
+   * {@link MessageEndpoint @MessageEndpoint}.
+   *
+   * @since 1.0.0
+   */
+  String codec() default "";
+
+  /**
+   * Whether the {@code @RequestBody Flux<T>} of this endpoint is decoded as one continuous JSON
+   * stream instead of one document per message. The payloads of the inbound messages are fed to an
+   * incremental parser as they arrive and every element of a top-level array, or every root-level
+   * value, is emitted as soon as it is complete, so a large upload split over several messages is
+   * never buffered as a whole. Requires the {@code "json"} codec. Defaults to {@code false}.
+   *
+   * @since 1.0.0
+   */
+  boolean streaming() default false;
 }
@@ -11,8 +11,9 @@ import java.util.concurrent.TimeUnit;
  * Rate limiting configuration for WebSocket endpoints. Limits the number of messages that can be
  * processed within a specified time period per user/IP address.
  *
- * <p>Uses Resilience4j rate limiter to prevent abuse and DoS attacks. When the rate limit is
- * exceeded, an error response is sent to the client.
+ * <p>Uses Resilience4j rate limiter to prevent abuse and DoS attacks, or the built-in token bucket
+ * if {@link #engine()} is {@link RateLimitEngine#TOKEN_BUCKET}. When the rate limit is exceeded,
+ * an error response is sent to the client.
  *
  * <p>Can be applied at:
  *
@@ -80,6 +81,13 @@ public @interface RateLimit {
    */
   RateLimitScope scope() default RateLimitScope.SESSION;
 
+  /**
+   * The rate limiter implementation used to grant permissions.
+   *
+   * @return the rate limit engine
+   */
+  RateLimitEngine engine() default RateLimitEngine.RESILIENCE4J;
+
   /** Enum defining the scope of rate limiting. */
   enum RateLimitScope {
     /** Rate limit per WebSocket session. */
@@ -91,4 +99,19 @@ public @interface RateLimit {
     /** Inherit rate limit configuration from @MessageEndpoint (only valid in @OnMessage). */
     INHERIT
   }
+
+  /** Enum defining the rate limiter implementation. */
+  enum RateLimitEngine {
+    /**
+     * Resilience4j rate limiter, waits up to {@link RateLimit#timeoutDuration()} for a permission.
+     */
+    RESILIENCE4J,
+    /**
+     * Built-in lock-free token bucket holding up to {@link RateLimit#limitForPeriod()} permits,
+     * refilled continuously over the refresh period. A permission costs one compare-and-set and
+     * messages above the limit are rejected right away, {@link RateLimit#timeoutDuration()} is
+     * ignored.
+     */
+    TOKEN_BUCKET
+  }
 }
@@ -0,0 +1,88 @@
+package io.github.elpis.reactive.websockets.codec;
+
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import java.nio.charset.StandardCharsets;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+
+/**
+ * Output element encoded once, before it is sent to many sessions.
+ *
+ * <p>The output of a broadcast endpoint computed from the broadcast messages alone is encoded once
+ * for all sessions. Other endpoint output is encoded separately for every session it reaches. An
+ * element such an endpoint publishes to all of its sessions, e.g. through a shared hot publisher,
+ * can be encoded once instead by emitting it as an {@code EncodedMessage}: every session wraps the
+ * same bytes into its own frame without encoding them again. The bytes are copied when the message
+ * is created, so mutating the element afterwards does not change what is sent.
+ *
+ * @author Phillip J. Fry
+ * @see MessageCodec
+ * @since 1.0.0
+ */
+public final class EncodedMessage {
+  private final WebSocketMessage.Type type;
+  private final byte[] payload;
+
+  private EncodedMessage(final WebSocketMessage.Type type, final byte[] payload) {
+    this.type = type;
+    this.payload = payload;
+  }
+
+  /**
+   * Encodes the element with the given codec, into a frame of the type the codec declares.
+   *
+   * @param codec the codec of the endpoint the message is sent from
+   * @param value the element to encode
+   * @return the encoded message
+   * @throws RuntimeJsonMappingException if the element cannot be encoded
+   */
+  public static EncodedMessage of(final MessageCodec codec, final Object value) {
+    return new EncodedMessage(codec.getFrameType(), codec.encodeAsBytes(value));
+  }
+
+  /**
+   * Encodes the element with the default JSON codec.
+   *
+   * @param value the element to encode
+   * @return the encoded message
+   * @throws RuntimeJsonMappingException if the element cannot be encoded
+   */
+  public static EncodedMessage json(final Object value) {
+    return of(MessageCodecs.json(), value);
+  }
+
+  /**
+   * Returns the type of the frames the message is sent in.
+   *
+   * @return the frame type
+   */
+  public WebSocketMessage.Type getType() {
+    return this.type;
+  }
+
+  /**
+   * Returns the number of encoded bytes.
+   *
+   * @return the payload size
+   */
+  public int getSize() {
+    return this.payload.length;
+  }
+
+  /**
+   * Creates the frame of one session. The frame wraps the encoded bytes without copying them.
+   *
+   * @param bufferFactory the buffer factory of the session
+   * @return a new message, owned by the caller
+   */
+  public WebSocketMessage toMessage(final DataBufferFactory bufferFactory) {
+    return new WebSocketMessage(this.type, bufferFactory.wrap(this.payload));
+  }
+
+  @Override
+  public String toString() {
+    return this.type == WebSocketMessage.Type.TEXT
+        ? new String(this.payload, StandardCharsets.UTF_8)
+        : "EncodedMessage[type=" + this.type + ", size=" + this.payload.length + "]";
+  }
+}
@@ -0,0 +1,143 @@
+package io.github.elpis.reactive.websockets.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import io.github.elpis.reactive.websockets.mapper.JsonMapper;
+import java.io.IOException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+
+/**
+ * Codec for a binary data format backed by a Jackson {@link JsonFactory}, such as CBOR, Smile or
+ * MessagePack. Payloads are sent in {@code BINARY} frames, {@link String} values are encoded as
+ * strings of the format like any other value.
+ *
+ * <p>A codec created for a factory maps with a copy of the {@link JsonMapper#getObjectMapper()
+ * application mapper} built on that factory, so modules and features configured for JSON apply to
+ * the binary format as well. The copy is made on first use and again whenever the application
+ * mapper is replaced.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+public class JacksonMessageCodec implements MessageCodec {
+  private static final int INITIAL_BUFFER_CAPACITY = 256;
+
+  private final String name;
+  private final JsonFactory factory;
+
+  private volatile Mapping mapping;
+
+  /**
+   * Creates a codec encoding with the given mapper.
+   *
+   * @param name the name the codec is selected by
+   * @param objectMapper the mapper built on the factory of the binary format
+   */
+  public JacksonMessageCodec(final String name, final ObjectMapper objectMapper) {
+    this.name = name;
+    this.factory = null;
+    this.mapping = new Mapping(null, objectMapper);
+  }
+
+  /**
+   * Creates a codec encoding with a copy of the application mapper built on the given factory.
+   *
+   * @param name the name the codec is selected by
+   * @param factory the factory of the binary format
+   */
+  public JacksonMessageCodec(final String name, final JsonFactory factory) {
+    this.name = name;
+    this.factory = factory;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public WebSocketMessage.Type getFrameType() {
+    return WebSocketMessage.Type.BINARY;
+  }
+
+  @Override
+  public DataBuffer encode(final Object value, final DataBufferFactory bufferFactory) {
+    final DataBuffer buffer = bufferFactory.allocateBuffer(INITIAL_BUFFER_CAPACITY);
+    try {
+      this.mapping().objectMapper.writeValue(buffer.asOutputStream(), value);
+
+      return buffer;
+    } catch (IOException | RuntimeException e) {
+      DataBufferUtils.release(buffer);
+      throw new RuntimeJsonMappingException(
+          "Unable to translate " + value.getClass() + " instance to " + this.name);
+    }
+  }
+
+  @Override
+  public byte[] encodeAsBytes(final Object value) {
+    try {
+      return this.mapping().objectMapper.writeValueAsBytes(value);
+    } catch (IOException e) {
+      throw new RuntimeJsonMappingException(
+          "Unable to translate " + value.getClass() + " instance to " + this.name);
+    }
+  }
+
+  @Override
+  public <T> T decode(final DataBuffer payload, final Class<T> type) {
+    try {
+      return JsonMapper.readValue(this.mapping().readers.get(type), payload);
+    } catch (IOException e) {
+      throw new RuntimeJsonMappingException(
+          "Unable to deserialize "
+              + this.name
+              + " to "
+              + type.getSimpleName()
+              + ": "
+              + e.getMessage());
+    }
+  }
+
+  private Mapping mapping() {
+    final Mapping current = this.mapping;
+    if (this.factory == null) {
+      return current;
+    }
+
+    final ObjectMapper applicationMapper = JsonMapper.getObjectMapper();
+    if (current != null && current.source == applicationMapper) {
+      return current;
+    }
+
+    final Mapping updated =
+        new Mapping(applicationMapper, applicationMapper.copyWith(this.factory));
+    this.mapping = updated;
+
+    return updated;
+  }
+
+  /** The mapper of the format together with its cached readers, replaced as a whole. */
+  private static final class Mapping {
+    private final ObjectMapper source;
+    private final ObjectMapper objectMapper;
+
+    private final ClassValue<ObjectReader> readers =
+        new ClassValue<>() {
+          @Override
+          protected ObjectReader computeValue(final Class<?> type) {
+            return Mapping.this.objectMapper.readerFor(type);
+          }
+        };
+
+    private Mapping(final ObjectMapper source, final ObjectMapper objectMapper) {
+      this.source = source;
+      this.objectMapper = objectMapper;
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package io.github.elpis.reactive.websockets.codec;
+
+import io.github.elpis.reactive.websockets.mapper.JsonMapper;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+
+/**
+ * The default codec, sending UTF-8 encoded JSON in {@code TEXT} frames through {@link JsonMapper}.
+ * {@link String} values are sent and received as they are.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+final class JsonMessageCodec implements MessageCodec {
+  static final String NAME = "json";
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public WebSocketMessage.Type getFrameType() {
+    return WebSocketMessage.Type.TEXT;
+  }
+
+  @Override
+  public DataBuffer encode(final Object value, final DataBufferFactory bufferFactory) {
+    return JsonMapper.applyAsDataBuffer(value, bufferFactory);
+  }
+
+  @Override
+  public byte[] encodeAsBytes(final Object value) {
+    return JsonMapper.applyAsBytes(value);
+  }
+
+  @Override
+  public <T> T decode(final DataBuffer payload, final Class<T> type) {
+    return JsonMapper.deserialize(payload, type);
+  }
+}
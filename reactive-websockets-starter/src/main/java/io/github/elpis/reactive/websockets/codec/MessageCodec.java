@@ -0,0 +1,83 @@
+package io.github.elpis.reactive.websockets.codec;
+
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+
+/**
+ * Converts endpoint input and output objects from and to WebSocket message payloads.
+ *
+ * <p>A codec is selected by its {@link #getName() name} with {@link
+ * io.github.elpis.reactive.websockets.web.annotation.OnMessage#codec() @OnMessage.codec} or {@link
+ * io.github.elpis.reactive.websockets.web.annotation.MessageEndpoint#codec()
+ * @MessageEndpoint.codec}. Besides the built-in codecs of {@link MessageCodecs}, implementations
+ * are discovered with {@link java.util.ServiceLoader} - list them in {@code
+ * META-INF/services/io.github.elpis.reactive.websockets.codec.MessageCodec}. Implementations must
+ * be thread-safe, one instance serves all sessions.
+ *
+ * @author Phillip J. Fry
+ * @see MessageCodecs
+ * @since 1.0.0
+ */
+public interface MessageCodec {
+
+  /**
+   * Returns the name the codec is selected by, e.g. {@code "cbor"}.
+   *
+   * @return the codec name
+   */
+  String getName();
+
+  /**
+   * Returns the type of the frames encoded payloads are sent in, {@link WebSocketMessage.Type#TEXT}
+   * for textual formats and {@link WebSocketMessage.Type#BINARY} for binary ones.
+   *
+   * @return the outbound frame type
+   */
+  WebSocketMessage.Type getFrameType();
+
+  /**
+   * Encodes the object into a buffer allocated from the given factory.
+   *
+   * @param value the object to encode
+   * @param bufferFactory the factory to allocate the buffer from
+   * @return the buffer holding the encoded object, owned by the caller
+   * @throws RuntimeJsonMappingException if the object cannot be encoded
+   */
+  DataBuffer encode(Object value, DataBufferFactory bufferFactory);
+
+  /**
+   * Encodes the object into a byte array. Used where one encoded payload is shared by several
+   * sessions.
+   *
+   * @param value the object to encode
+   * @return the encoded object
+   * @throws RuntimeJsonMappingException if the object cannot be encoded
+   */
+  default byte[] encodeAsBytes(final Object value) {
+    final DataBuffer buffer = this.encode(value, DefaultDataBufferFactory.sharedInstance);
+    try {
+      final byte[] bytes = new byte[buffer.readableByteCount()];
+      buffer.read(bytes);
+
+      return bytes;
+    } finally {
+      DataBufferUtils.release(buffer);
+    }
+  }
+
+  /**
+   * Decodes the readable bytes of the buffer to the specified type. The read position of the buffer
+   * is left untouched.
+   *
+   * @param payload the buffer holding the encoded object
+   * @param type the target class type
+   * @param <T> the type of the decoded object
+   * @return the decoded object
+   * @throws RuntimeJsonMappingException if the payload cannot be decoded
+   */
+  <T> T decode(DataBuffer payload, Class<T> type);
+}
@@ -0,0 +1,100 @@
+package io.github.elpis.reactive.websockets.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Registry of the message codecs handlers are created with.
+ *
+ * <p>Built-in codecs are {@code "json"} and, when their Jackson data format module is on the
+ * classpath, the binary {@code "cbor"} ({@code jackson-dataformat-cbor}), {@code "smile"} ({@code
+ * jackson-dataformat-smile}) and {@code "msgpack"} ({@code
+ * org.msgpack:jackson-dataformat-msgpack}). Codecs found with {@link ServiceLoader} are registered
+ * on first use and take precedence over a built-in codec of the same name.
+ *
+ * @author Phillip J. Fry
+ * @see MessageCodec
+ * @since 1.0.0
+ */
+public final class MessageCodecs {
+  private static final MessageCodec JSON = new JsonMessageCodec();
+
+  private static final Map<String, String> BINARY_FACTORIES =
+      Map.of(
+          "cbor", "com.fasterxml.jackson.dataformat.cbor.CBORFactory",
+          "smile", "com.fasterxml.jackson.dataformat.smile.SmileFactory",
+          "msgpack", "org.msgpack.jackson.dataformat.MessagePackFactory");
+
+  private static final Map<String, MessageCodec> codecs = new ConcurrentHashMap<>();
+
+  static {
+    codecs.put(JSON.getName(), JSON);
+    ServiceLoader.load(MessageCodec.class, MessageCodecs.class.getClassLoader())
+        .forEach(codec -> codecs.put(codec.getName(), codec));
+  }
+
+  private MessageCodecs() {}
+
+  /**
+   * Returns the default JSON codec.
+   *
+   * @return the JSON codec
+   */
+  public static MessageCodec json() {
+    return JSON;
+  }
+
+  /**
+   * Returns the codec of the given name, an empty name stands for the default JSON codec.
+   *
+   * @param name the codec name
+   * @return the codec, shared by all callers
+   * @throws IllegalArgumentException if no such codec is registered, or its data format module is
+   *     missing from the classpath
+   */
+  public static MessageCodec get(final String name) {
+    if (name == null || name.isEmpty()) {
+      return JSON;
+    }
+
+    return codecs.computeIfAbsent(name, MessageCodecs::createBinaryCodec);
+  }
+
+  /**
+   * Registers a codec under its name, replacing any codec registered before.
+   *
+   * @param codec the codec to register
+   */
+  public static void register(final MessageCodec codec) {
+    codecs.put(codec.getName(), codec);
+  }
+
+  private static MessageCodec createBinaryCodec(final String name) {
+    final String factoryClassName = BINARY_FACTORIES.get(name);
+    if (factoryClassName == null) {
+      throw new IllegalArgumentException("Unknown message codec: " + name);
+    }
+
+    final ClassLoader classLoader = MessageCodecs.class.getClassLoader();
+    if (!ClassUtils.isPresent(factoryClassName, classLoader)) {
+      throw new IllegalArgumentException(
+          "Message codec '" + name + "' requires " + factoryClassName + " on the classpath");
+    }
+
+    try {
+      final JsonFactory factory =
+          (JsonFactory)
+              ClassUtils.forName(factoryClassName, classLoader)
+                  .getDeclaredConstructor()
+                  .newInstance();
+
+      return new JacksonMessageCodec(name, factory);
+    } catch (ReflectiveOperationException | LinkageError e) {
+      throw new IllegalArgumentException(
+          "Unable to create message codec '" + name + "': " + e.getMessage(), e);
+    }
+  }
+}
@@ -1,26 +1,32 @@
 package io.github.elpis.reactive.websockets.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.elpis.reactive.websockets.config.event.WebSocketEventConfiguration;
 import io.github.elpis.reactive.websockets.config.handler.route.WebSocketRouteConfiguration;
 import io.github.elpis.reactive.websockets.exception.WebSocketMappingException;
 import io.github.elpis.reactive.websockets.handler.BaseWebSocketHandler;
+import io.github.elpis.reactive.websockets.handler.HeartbeatScheduler;
+import io.github.elpis.reactive.websockets.handler.backpressure.BackpressureLagMetrics;
+import io.github.elpis.reactive.websockets.handler.backpressure.OutboundMemoryBudget;
 import io.github.elpis.reactive.websockets.handler.ratelimit.RateLimiterService;
 import io.github.elpis.reactive.websockets.handler.route.WebSocketHandlerFunction;
 import io.github.elpis.reactive.websockets.handler.route.WebSocketHandlerFunctions;
+import io.github.elpis.reactive.websockets.handler.route.WebSocketHandlerMapping;
 import io.github.elpis.reactive.websockets.handler.route.WebSocketHandlerRouteResolver;
+import io.github.elpis.reactive.websockets.mapper.JsonMapper;
 import io.github.elpis.reactive.websockets.session.WebSocketSessionRegistry;
 import io.github.elpis.reactive.websockets.web.annotation.OnMessage;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.web.reactive.HandlerMapping;
-import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
 import org.springframework.web.reactive.socket.WebSocketHandler;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebSession;
@@ -40,18 +46,46 @@ import reactor.util.context.Context;
   WebSocketEventConfiguration.class,
   WebSocketRouteConfiguration.class,
   RateLimiterService.class,
+  BackpressureLagMetrics.class,
 })
 @ComponentScan("io.github.elpis.reactive.websockets.generated")
 public class WebSocketConfiguration {
 
   private static final int HANDLER_ORDER = 10;
 
+  /**
+   * Hands the {@link ObjectMapper} of the application context, if there is exactly one, to {@link
+   * JsonMapper}, so WebSocket payloads are mapped with the same modules and features as the rest of
+   * the application.
+   *
+   * @param objectMapper the application mapper
+   * @since 1.0.0
+   */
+  public WebSocketConfiguration(final ObjectProvider<ObjectMapper> objectMapper) {
+    objectMapper.ifUnique(JsonMapper::setObjectMapper);
+  }
+
   @Bean
   @ConditionalOnMissingBean(WebSocketHandlerFunction.class)
   public WebSocketHandlerFunction webSocketRouterFunction() {
     return WebSocketHandlerFunctions.empty();
   }
 
+  @Bean
+  @ConditionalOnMissingBean(OutboundMemoryBudget.class)
+  public OutboundMemoryBudget outboundMemoryBudget() {
+    return new OutboundMemoryBudget();
+  }
+
+  /**
+   * Heartbeat timing wheel shared by all endpoints, its worker thread is stopped with the
+   * application context.
+   */
+  @Bean(destroyMethod = "dispose")
+  public HeartbeatScheduler heartbeatScheduler() {
+    return new HeartbeatScheduler();
+  }
+
   @Bean
   public WebFilter sessionFilter() {
     return (exchange, chain) ->
@@ -69,7 +103,10 @@ public class WebSocketConfiguration {
   @Bean
   public HandlerMapping handlerMapping(
       final List<BaseWebSocketHandler> annotatedHandlers,
-      final WebSocketHandlerRouteResolver routeResolver) {
+      final WebSocketHandlerRouteResolver routeResolver,
+      final BackpressureLagMetrics lagMetrics,
+      final OutboundMemoryBudget memoryBudget,
+      final HeartbeatScheduler heartbeatScheduler) {
 
     final Map<String, WebSocketHandler> handlerMap = new HashMap<>();
 
@@ -82,8 +119,14 @@ public class WebSocketConfiguration {
                     "WebSocketHandler with path %s was already registered",
                     handler.getPathTemplate());
               }
+
+              handler.setOutboundMemoryBudget(memoryBudget);
+              handler.setHeartbeatScheduler(heartbeatScheduler);
+              if (handler.getLagHistogram() != null) {
+                lagMetrics.register(handler.getPathTemplate(), handler.getLagHistogram());
+              }
             });
 
-    return new SimpleUrlHandlerMapping(handlerMap, HANDLER_ORDER);
+    return new WebSocketHandlerMapping(handlerMap, HANDLER_ORDER);
   }
 }
@@ -4,30 +4,45 @@ import io.github.elpis.reactive.websockets.config.WebSocketCloseStatus;
 import io.github.elpis.reactive.websockets.event.annotation.CloseStatusHandler;
 import io.github.elpis.reactive.websockets.event.annotation.EventSelector;
 import io.github.elpis.reactive.websockets.event.annotation.SessionCloseStatus;
+import io.github.elpis.reactive.websockets.event.dispatcher.CloseCodeDispatchTable;
+import io.github.elpis.reactive.websockets.event.dispatcher.CloseStatusDispatcher;
 import io.github.elpis.reactive.websockets.event.manager.WebSocketEventManagerFactory;
 import io.github.elpis.reactive.websockets.event.matcher.EventSelectorMatcher;
 import io.github.elpis.reactive.websockets.event.matcher.impl.ClosedSessionEventSelectorMatcher;
 import io.github.elpis.reactive.websockets.event.model.impl.ClientSessionClosedEvent;
 import io.github.elpis.reactive.websockets.exception.WebSocketConfigurationException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
-import java.util.Optional;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.expression.ParseException;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
-import reactor.util.concurrent.Queues;
 
 /**
  * Configuration support {@link ClientSessionClosedEvent} handling for {@link
@@ -40,11 +55,41 @@ import reactor.util.concurrent.Queues;
  */
 @Configuration
 public class ClosedConnectionHandlerConfiguration {
+  public static final String CLOSED_EVENT_SCHEDULER = "closedEventScheduler";
+  public static final String CLOSED_EVENT_QUEUE_SIZE =
+      "spring.reactive.websocket.closedEventQueueSize";
+
   private static final Logger log =
       LoggerFactory.getLogger(ClosedConnectionHandlerConfiguration.class);
 
-  private final ExecutorService executorService =
-      Executors.newFixedThreadPool(Queues.XS_BUFFER_SIZE);
+  /**
+   * Scheduler running the blocking {@link SessionCloseStatus @SessionCloseStatus} methods. It is
+   * bounded like {@link Schedulers#boundedElastic()}, so a burst of closed sessions queues tasks
+   * instead of spawning threads, and it is disposed with the application context.
+   *
+   * <p>The number of queued tasks is capped by {@code
+   * spring.reactive.websocket.closedEventQueueSize}, {@link
+   * Schedulers#DEFAULT_BOUNDED_ELASTIC_QUEUESIZE} by default. The close events rejected once it is
+   * full are counted in {@link ClosedEventMetrics#getRejectedCount()}.
+   *
+   * <p>Declare a {@link Scheduler} bean with the same name to replace it, e.g. one on virtual
+   * threads on Java 21 and later: {@code
+   * Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor())}.
+   */
+  @Bean(destroyMethod = "dispose")
+  @ConditionalOnMissingBean(name = CLOSED_EVENT_SCHEDULER)
+  public Scheduler closedEventScheduler(final Environment environment) {
+    return Schedulers.newBoundedElastic(
+        Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+        environment.getProperty(
+            CLOSED_EVENT_QUEUE_SIZE, Integer.class, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE),
+        "closed-event-handler");
+  }
+
+  @Bean
+  public ClosedEventMetrics closedEventMetrics() {
+    return new ClosedEventMetrics();
+  }
 
   @Bean
   public EventSelectorMatcher<ClientSessionClosedEvent> closedEventSelectorMatcher() {
@@ -52,98 +97,235 @@ public class ClosedConnectionHandlerConfiguration {
   }
 
   @Bean
-  public ClosedEventHandlers closedEventHandlers(final ApplicationContext context) {
+  public ClosedEventHandlers closedEventHandlers(
+      final ApplicationContext context, final ObjectProvider<CloseStatusDispatcher> dispatchers) {
     final ClosedEventHandlers handlers = new ClosedEventHandlers();
+    final EventSelectorMatcher<ClientSessionClosedEvent> selectorMatcher =
+        this.closedEventSelectorMatcher();
+    final Set<Class<?>> dispatchedTypes = new HashSet<>();
 
-    context
-        .getBeansWithAnnotation(CloseStatusHandler.class)
-        .values()
+    dispatchers
+        .orderedStream()
         .forEach(
-            closeStatusHandler ->
-                Stream.of(closeStatusHandler.getClass().getMethods())
-                    .filter(method -> method.isAnnotationPresent(SessionCloseStatus.class))
-                    .forEach(
-                        method -> {
-                          if (method.getParameterCount() > 1) {
-                            throw new WebSocketConfigurationException(
-                                "Found two or more parameters on "
-                                    + "@SessionCloseStatus `%s.%s(...)` - one or none are only supported",
-                                closeStatusHandler.getClass().getSimpleName(), method.getName());
-                          }
-
-                          final SessionCloseStatus sessionCloseStatus =
-                              method.getAnnotation(SessionCloseStatus.class);
-                          final int[] closeCodes =
-                              this.getWebSocketCloseCodes(
-                                  sessionCloseStatus.value(), sessionCloseStatus.code());
-
-                          IntStream.of(closeCodes)
-                              .forEach(
-                                  closeCode ->
-                                      handlers.add(
-                                          closeCode,
-                                          this.getClientSessionClosedEventFunction(
-                                              closeStatusHandler, method)));
-                        }));
+            dispatcher -> {
+              final String handlerName = dispatcher.getHandlerType().getSimpleName();
+
+              final boolean registered =
+                  dispatcher.register(
+                      (methodName, closeCodes, expression, blocking, invoker) -> {
+                        final EventSelector eventSelector =
+                            expression != null
+                                ? AnnotationUtils.synthesizeAnnotation(
+                                    Map.of("value", expression), EventSelector.class, null)
+                                : null;
+                        final Consumer<ClientSessionClosedEvent> handler =
+                            this.getClientSessionClosedEventFunction(
+                                handlerName,
+                                methodName,
+                                this.getEventSelector(
+                                    selectorMatcher, eventSelector, handlerName, methodName),
+                                invoker);
+
+                        IntStream.of(closeCodes)
+                            .forEach(closeCode -> handlers.add(closeCode, handler, blocking));
+                      });
+              if (registered) {
+                dispatchedTypes.add(dispatcher.getHandlerType());
+              }
+            });
+
+    // Handlers compiled without the annotation processor have no generated dispatcher
+    for (final String beanName : context.getBeanNamesForAnnotation(CloseStatusHandler.class)) {
+      final Class<?> beanType = context.getType(beanName);
+      if (beanType == null || !dispatchedTypes.contains(ClassUtils.getUserClass(beanType))) {
+        this.addReflectedHandlers(handlers, selectorMatcher, context.getBean(beanName));
+      }
+    }
 
     return handlers;
   }
 
+  private void addReflectedHandlers(
+      final ClosedEventHandlers handlers,
+      final EventSelectorMatcher<ClientSessionClosedEvent> selectorMatcher,
+      final Object closeStatusHandler) {
+    final String handlerName = closeStatusHandler.getClass().getSimpleName();
+
+    Stream.of(closeStatusHandler.getClass().getMethods())
+        .filter(method -> method.isAnnotationPresent(SessionCloseStatus.class))
+        .forEach(
+            method -> {
+              if (method.getParameterCount() > 1) {
+                throw new WebSocketConfigurationException(
+                    "Found two or more parameters on "
+                        + "@SessionCloseStatus `%s.%s(...)` - one or none are only supported",
+                    handlerName, method.getName());
+              }
+
+              final SessionCloseStatus sessionCloseStatus =
+                  method.getAnnotation(SessionCloseStatus.class);
+              final int[] closeCodes =
+                  this.getWebSocketCloseCodes(
+                      sessionCloseStatus.value(), sessionCloseStatus.code());
+
+              final Consumer<ClientSessionClosedEvent> handler =
+                  this.getClientSessionClosedEventFunction(
+                      handlerName,
+                      method.getName(),
+                      this.getEventSelector(
+                          selectorMatcher,
+                          method.getAnnotation(EventSelector.class),
+                          handlerName,
+                          method.getName()),
+                      this.createInvoker(closeStatusHandler, method));
+
+              IntStream.of(closeCodes)
+                  .forEach(
+                      closeCode ->
+                          handlers.add(closeCode, handler, sessionCloseStatus.blocking()));
+            });
+  }
+
+  /**
+   * Dispatches every close event to its non-blocking handlers on the publishing thread and then
+   * submits one task calling its blocking handlers in order, so the handlers of a session never run
+   * concurrently or out of order. A rejected task is counted in {@link ClosedEventMetrics}.
+   */
   @Bean
   public ApplicationListener<ApplicationReadyEvent> closedSessionListener(
       final ClosedEventHandlers closedEventHandlers,
-      final WebSocketEventManagerFactory eventManagerFactory) {
+      final WebSocketEventManagerFactory eventManagerFactory,
+      @Qualifier(CLOSED_EVENT_SCHEDULER) final Scheduler closedEventScheduler,
+      final ClosedEventMetrics closedEventMetrics) {
+
+    final CloseCodeDispatchTable nonBlockingHandlers =
+        CloseCodeDispatchTable.of(closedEventHandlers.getNonBlocking());
+    final CloseCodeDispatchTable blockingHandlers = CloseCodeDispatchTable.of(closedEventHandlers);
 
     return event ->
         eventManagerFactory
             .getEventManager(ClientSessionClosedEvent.class)
             .asFlux()
-            .parallel()
-            .runOn(Schedulers.fromExecutorService(executorService))
             .subscribe(
-                clientSessionClosedEvent -> {
-                  Optional.ofNullable(
-                          closedEventHandlers.get(
-                              clientSessionClosedEvent.payload().getCloseStatus().getCode()))
-                      .ifPresent(
-                          functions ->
-                              functions.forEach(
-                                  clientSessionClosedEventConsumer ->
-                                      clientSessionClosedEventConsumer.accept(
-                                          clientSessionClosedEvent)));
-
-                  Optional.ofNullable(
-                          closedEventHandlers.get(WebSocketCloseStatus.ALL.getStatusCode()))
-                      .ifPresent(
-                          functions ->
-                              functions.forEach(
-                                  clientSessionClosedEventConsumer ->
-                                      clientSessionClosedEventConsumer.accept(
-                                          clientSessionClosedEvent)));
+                closedEvent -> {
+                  nonBlockingHandlers.dispatch(closedEvent);
+
+                  if (blockingHandlers.handles(closedEvent)) {
+                    try {
+                      closedEventScheduler.schedule(() -> blockingHandlers.dispatch(closedEvent));
+                    } catch (RejectedExecutionException exception) {
+                      final long rejected = closedEventMetrics.rejected();
+                      // Logs the 1st, 2nd, 4th, 8th... rejection not to flood the log under load
+                      if ((rejected & (rejected - 1)) == 0) {
+                        log.error(
+                            "Cannot schedule close event handlers, the scheduler is full or "
+                                + "disposed, {} close event(s) rejected",
+                            rejected,
+                            exception);
+                      }
+                    }
+                  }
                 });
   }
 
-  private Consumer<ClientSessionClosedEvent> getClientSessionClosedEventFunction(
+  /**
+   * Parses the {@link EventSelector @EventSelector} of the method once, while the handlers are
+   * built, so an invalid selector fails on startup instead of on every close event.
+   */
+  private Predicate<ClientSessionClosedEvent> getEventSelector(
+      final EventSelectorMatcher<ClientSessionClosedEvent> selectorMatcher,
+      final EventSelector eventSelector,
+      final String handlerName,
+      final String methodName) {
+    if (eventSelector == null) {
+      return event -> true;
+    }
+
+    try {
+      return selectorMatcher.compile(eventSelector);
+    } catch (ParseException exception) {
+      throw new WebSocketConfigurationException(
+          "Cannot parse `@EventSelector(\"%s\")` on `%s.%s(...)`: %s",
+          eventSelector.value(), handlerName, methodName, exception.getMessage());
+    }
+  }
+
+  /**
+   * Creates a direct invoker of the handler method with {@link LambdaMetafactory}, defined in the
+   * handler class so it sees the same classes as the handler. Falls back to {@link Method#invoke}
+   * if the method cannot be bound that way.
+   */
+  @SuppressWarnings("unchecked")
+  private Consumer<ClientSessionClosedEvent> createInvoker(
       final Object closeStatusHandler, final Method method) {
-    return event -> {
-      try {
-        final boolean isValid =
-            !method.isAnnotationPresent(EventSelector.class)
-                || this.closedEventSelectorMatcher()
-                    .process(event, method.getAnnotation(EventSelector.class));
+    final Class<?> handlerType = method.getDeclaringClass();
+    try {
+      final MethodHandles.Lookup lookup =
+          MethodHandles.privateLookupIn(handlerType, MethodHandles.lookup());
+      final MethodHandle target = lookup.unreflect(method);
+
+      if (method.getParameterCount() == 0) {
+        final Runnable invoker =
+            (Runnable)
+                LambdaMetafactory.metafactory(
+                        lookup,
+                        "run",
+                        MethodType.methodType(Runnable.class, handlerType),
+                        MethodType.methodType(void.class),
+                        target,
+                        MethodType.methodType(void.class))
+                    .getTarget()
+                    .invoke(closeStatusHandler);
 
-        if (isValid) {
+        return event -> invoker.run();
+      }
+
+      return (Consumer<ClientSessionClosedEvent>)
+          LambdaMetafactory.metafactory(
+                  lookup,
+                  "accept",
+                  MethodType.methodType(Consumer.class, handlerType),
+                  MethodType.methodType(void.class, Object.class),
+                  target,
+                  MethodType.methodType(void.class, method.getParameterTypes()[0]))
+              .getTarget()
+              .invoke(closeStatusHandler);
+    } catch (Throwable exception) {
+      log.debug(
+          "Cannot bind `@SessionCloseStatus {}.{}()`, calling it reflectively",
+          handlerType.getSimpleName(),
+          method.getName(),
+          exception);
+
+      return event -> {
+        try {
           if (method.getParameterCount() == 0) {
             method.invoke(closeStatusHandler);
           } else {
             method.invoke(closeStatusHandler, event);
           }
+        } catch (IllegalAccessException | InvocationTargetException invocationException) {
+          throw new IllegalStateException(invocationException);
         }
-      } catch (IllegalAccessException | InvocationTargetException exception) {
+      };
+    }
+  }
+
+  private Consumer<ClientSessionClosedEvent> getClientSessionClosedEventFunction(
+      final String handlerName,
+      final String methodName,
+      final Predicate<ClientSessionClosedEvent> eventSelector,
+      final Consumer<ClientSessionClosedEvent> invoker) {
+    return event -> {
+      try {
+        if (eventSelector.test(event)) {
+          invoker.accept(event);
+        }
+      } catch (Exception exception) {
         log.error(
             String.format(
                 "Cannot call `@SessionCloseStatus %s.%s()` due occurred exception",
-                closeStatusHandler.getClass().getSimpleName(), method.getName()),
+                handlerName, methodName),
             exception);
       }
     };
@@ -173,8 +355,28 @@ public class ClosedConnectionHandlerConfiguration {
     return new int[] {WebSocketCloseStatus.ALL.getStatusCode()};
   }
 
+  /**
+   * Handlers by close code. The map holds the handlers that may block, the ones declared with
+   * {@code @SessionCloseStatus(blocking = false)} are kept apart in {@link #getNonBlocking()}.
+   */
   public static class ClosedEventHandlers
       extends LinkedMultiValueMap<Integer, Consumer<ClientSessionClosedEvent>> {
-    // Shortener
+    private final LinkedMultiValueMap<Integer, Consumer<ClientSessionClosedEvent>> nonBlocking =
+        new LinkedMultiValueMap<>();
+
+    public void add(
+        final int closeCode,
+        final Consumer<ClientSessionClosedEvent> handler,
+        final boolean blocking) {
+      if (blocking) {
+        this.add(closeCode, handler);
+      } else {
+        this.nonBlocking.add(closeCode, handler);
+      }
+    }
+
+    public LinkedMultiValueMap<Integer, Consumer<ClientSessionClosedEvent>> getNonBlocking() {
+      return this.nonBlocking;
+    }
   }
 }
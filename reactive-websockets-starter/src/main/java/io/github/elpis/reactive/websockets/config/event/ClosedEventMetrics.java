@@ -0,0 +1,29 @@
+package io.github.elpis.reactive.websockets.config.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the blocking {@link
+ * io.github.elpis.reactive.websockets.event.annotation.SessionCloseStatus @SessionCloseStatus}
+ * handlers run on the {@code closedEventScheduler}.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+public class ClosedEventMetrics {
+  private final AtomicLong rejectedCount = new AtomicLong();
+
+  /**
+   * Returns the number of close events whose blocking handlers were not run, because the
+   * scheduler queue was full or the scheduler was disposed.
+   *
+   * @return rejected close event count
+   */
+  public long getRejectedCount() {
+    return this.rejectedCount.get();
+  }
+
+  long rejected() {
+    return this.rejectedCount.incrementAndGet();
+  }
+}
@@ -3,6 +3,7 @@ package io.github.elpis.reactive.websockets.config.event;
 import io.github.elpis.reactive.websockets.event.manager.EventManagers;
 import io.github.elpis.reactive.websockets.event.manager.WebSocketEventManager;
 import io.github.elpis.reactive.websockets.event.manager.WebSocketEventManagerFactory;
+import io.github.elpis.reactive.websockets.event.manager.impl.RingBufferEventManager.OverflowPolicy;
 import io.github.elpis.reactive.websockets.event.model.impl.ClientSessionClosedEvent;
 import io.github.elpis.reactive.websockets.event.model.impl.ServerSessionClosedEvent;
 import io.github.elpis.reactive.websockets.event.model.impl.SessionConnectedEvent;
@@ -20,22 +21,31 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class EventManagerConfiguration {
 
-  /** {@link WebSocketEventManager} to observe {@link SessionConnectedEvent}. */
+  /**
+   * {@link WebSocketEventManager} to observe {@link SessionConnectedEvent}. Events fired while the
+   * buffer is full overflow instead of being dropped, up to as many events again.
+   */
   @Bean
   public WebSocketEventManager<SessionConnectedEvent> connectedEventWebSocketEventManager() {
-    return EventManagers.multicast();
+    return EventManagers.ringBuffer(
+        WebSocketEventManager.LARGE_EVENT_QUEUE_SIZE, OverflowPolicy.SPILL);
   }
 
   /** {@link WebSocketEventManager} to observe {@link ClientSessionClosedEvent}. */
   @Bean
   public WebSocketEventManager<ClientSessionClosedEvent> clientClosedEventWebSocketEventManager() {
-    return EventManagers.multicast(WebSocketEventManager.MEDIUM_EVENT_QUEUE_SIZE);
+    return EventManagers.ringBuffer(
+        WebSocketEventManager.LARGE_EVENT_QUEUE_SIZE, OverflowPolicy.SPILL);
   }
 
-  /** {@link WebSocketEventManager} to observe {@link ServerSessionClosedEvent}. */
+  /**
+   * {@link WebSocketEventManager} to observe {@link ServerSessionClosedEvent}. Sessions closed by
+   * the server, heartbeat timeouts included, overflow like the connected ones.
+   */
   @Bean
   public WebSocketEventManager<ServerSessionClosedEvent> serverClosedEventWebSocketEventManager() {
-    return EventManagers.multicast(WebSocketEventManager.MEDIUM_EVENT_QUEUE_SIZE);
+    return EventManagers.ringBuffer(
+        WebSocketEventManager.LARGE_EVENT_QUEUE_SIZE, OverflowPolicy.SPILL);
   }
 
   @Bean
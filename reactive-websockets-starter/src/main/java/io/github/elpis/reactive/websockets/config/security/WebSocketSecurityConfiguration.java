@@ -1,5 +1,6 @@
 package io.github.elpis.reactive.websockets.config.security;
 
+import io.github.elpis.reactive.websockets.handler.route.WebSocketHandlerMapping;
 import io.github.elpis.reactive.websockets.security.SocketHandshakeService;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -12,7 +13,6 @@ import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.security.web.server.util.matcher.NegatedServerWebExchangeMatcher;
 import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
-import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
 import org.springframework.web.reactive.socket.server.support.WebSocketHandlerAdapter;
 
 /**
@@ -55,7 +55,7 @@ public class WebSocketSecurityConfiguration {
 
   /**
    * Setups a {@link SecurityWebFilterChain} that allows all websocket connections per {@link
-   * SimpleUrlHandlerMapping} paths registered. Disabled by default. If needed to be enabled set:
+   * WebSocketHandlerMapping} paths registered. Disabled by default. If needed to be enabled set:
    * {@code spring.reactive.websocket.security.excludeWebFilterChains = true} at your .properties
    * file or at .yml:
    *
@@ -75,14 +75,14 @@ public class WebSocketSecurityConfiguration {
       havingValue = "true")
   public SecurityWebFilterChain defaultWebSocketFilterChain(
       final ServerHttpSecurity security, final ApplicationContext context) {
-    final SimpleUrlHandlerMapping handlerMapping =
-        context.getBean("handlerMapping", SimpleUrlHandlerMapping.class);
+    final WebSocketHandlerMapping handlerMapping =
+        context.getBean("handlerMapping", WebSocketHandlerMapping.class);
 
     return security
         .securityMatcher(
             new NegatedServerWebExchangeMatcher(
                 ServerWebExchangeMatchers.pathMatchers(
-                    handlerMapping.getUrlMap().keySet().stream()
+                    handlerMapping.getHandlerMap().keySet().stream()
                         .map(url -> url + "/**")
                         .toArray(String[]::new))))
         .build();
@@ -0,0 +1,135 @@
+package io.github.elpis.reactive.websockets.event.dispatcher;
+
+import io.github.elpis.reactive.websockets.config.WebSocketCloseStatus;
+import io.github.elpis.reactive.websockets.event.model.impl.ClientSessionClosedEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.springframework.web.reactive.socket.CloseStatus;
+
+/**
+ * Immutable lookup table of the close event handlers, indexed by close code.
+ *
+ * <p>Every valid close code, from 1000 to 4999, has its own slot. The handlers of {@link
+ * WebSocketCloseStatus#ALL} are merged into every slot when the table is built, after the
+ * handlers of the code itself. A close event is dispatched with a single array access, without
+ * boxing the code or hashing it. Codes outside the valid range only reach the {@code ALL}
+ * handlers.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+public final class CloseCodeDispatchTable {
+  private static final int MIN_CODE = 1000;
+  private static final int MAX_CODE = 4999;
+
+  private final Consumer<ClientSessionClosedEvent>[][] slots;
+  private final Consumer<ClientSessionClosedEvent>[] fallback;
+
+  private CloseCodeDispatchTable(
+      final Consumer<ClientSessionClosedEvent>[][] slots,
+      final Consumer<ClientSessionClosedEvent>[] fallback) {
+    this.slots = slots;
+    this.fallback = fallback;
+  }
+
+  /**
+   * Builds the table from handlers grouped by close code.
+   *
+   * @param handlers the handlers by close code, {@link WebSocketCloseStatus#ALL} included
+   * @return the dispatch table
+   * @throws IllegalArgumentException if a code is neither valid nor {@code ALL}
+   */
+  public static CloseCodeDispatchTable of(
+      final Map<Integer, ? extends List<Consumer<ClientSessionClosedEvent>>> handlers) {
+    final List<Consumer<ClientSessionClosedEvent>> codeAllHandlers =
+        handlers.get(WebSocketCloseStatus.ALL.getStatusCode());
+    final List<Consumer<ClientSessionClosedEvent>> allHandlers =
+        codeAllHandlers != null ? codeAllHandlers : Collections.emptyList();
+    final Consumer<ClientSessionClosedEvent>[] fallback = toArray(allHandlers);
+
+    final Consumer<ClientSessionClosedEvent>[][] slots = newSlots();
+    handlers.forEach(
+        (code, codeHandlers) -> {
+          if (code == WebSocketCloseStatus.ALL.getStatusCode()) {
+            return;
+          }
+
+          if (!WebSocketCloseStatus.isValidCode(code)) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "Close code %s is not valid. Valid error code range is from %s to %s",
+                    code, MIN_CODE, MAX_CODE));
+          }
+
+          final List<Consumer<ClientSessionClosedEvent>> merged =
+              new ArrayList<>(codeHandlers.size() + allHandlers.size());
+          merged.addAll(codeHandlers);
+          merged.addAll(allHandlers);
+          slots[code - MIN_CODE] = toArray(merged);
+        });
+
+    // Codes without own handlers share the array of the ALL handlers
+    for (int index = 0; index < slots.length; index++) {
+      if (slots[index] == null) {
+        slots[index] = fallback;
+      }
+    }
+
+    return new CloseCodeDispatchTable(slots, fallback);
+  }
+
+  /**
+   * Calls the handlers of the close code of the event, followed by the {@code ALL} handlers.
+   *
+   * @param event the close event
+   */
+  public void dispatch(final ClientSessionClosedEvent event) {
+    for (final Consumer<ClientSessionClosedEvent> handler : this.handlersOf(event)) {
+      handler.accept(event);
+    }
+  }
+
+  /**
+   * Checks whether the event is dispatched to any handler.
+   *
+   * @param event the close event
+   * @return {@code true} if {@link #dispatch} would call at least one handler
+   */
+  public boolean handles(final ClientSessionClosedEvent event) {
+    return this.handlersOf(event).length > 0;
+  }
+
+  /**
+   * Returns the number of handlers a close code is dispatched to.
+   *
+   * @param code the close code
+   * @return the handler count, {@code ALL} handlers included
+   */
+  public int handlerCount(final int code) {
+    return this.handlersOf(code).length;
+  }
+
+  private Consumer<ClientSessionClosedEvent>[] handlersOf(final ClientSessionClosedEvent event) {
+    final CloseStatus closeStatus = event.payload().getCloseStatus();
+
+    return closeStatus != null ? this.handlersOf(closeStatus.getCode()) : this.fallback;
+  }
+
+  private Consumer<ClientSessionClosedEvent>[] handlersOf(final int code) {
+    return code >= MIN_CODE && code <= MAX_CODE ? this.slots[code - MIN_CODE] : this.fallback;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Consumer<ClientSessionClosedEvent>[][] newSlots() {
+    return new Consumer[MAX_CODE - MIN_CODE + 1][];
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Consumer<ClientSessionClosedEvent>[] toArray(
+      final List<Consumer<ClientSessionClosedEvent>> handlers) {
+    return handlers.toArray(new Consumer[0]);
+  }
+}
@@ -0,0 +1,61 @@
+package io.github.elpis.reactive.websockets.event.dispatcher;
+
+import io.github.elpis.reactive.websockets.event.model.impl.ClientSessionClosedEvent;
+import java.util.function.Consumer;
+
+/**
+ * Calls the {@link io.github.elpis.reactive.websockets.event.annotation.SessionCloseStatus
+ * @SessionCloseStatus} methods of one {@link
+ * io.github.elpis.reactive.websockets.event.annotation.CloseStatusHandler @CloseStatusHandler} bean
+ * directly, without reflection.
+ *
+ * <p>Implementations are generated at compile time for every {@code @CloseStatusHandler} class and
+ * registered as beans, the handler bean is looked up from them. Handlers compiled without the
+ * annotation processor, or not dispatched because their bean is not unique, are invoked through
+ * {@link java.lang.invoke.LambdaMetafactory} instead.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+public interface CloseStatusDispatcher {
+
+  /**
+   * Returns the {@code @CloseStatusHandler} class whose methods are dispatched.
+   *
+   * @return the handler class
+   */
+  Class<?> getHandlerType();
+
+  /**
+   * Registers an invoker for every {@code @SessionCloseStatus} method of the handler.
+   *
+   * @param registrar the registrar to add the invokers to
+   * @return {@code false} if there is no unique handler bean and nothing was registered
+   */
+  boolean register(Registrar registrar);
+
+  /**
+   * Receives the invokers of a dispatcher.
+   *
+   * @since 1.0.0
+   */
+  @FunctionalInterface
+  interface Registrar {
+
+    /**
+     * Registers the invoker of one {@code @SessionCloseStatus} method.
+     *
+     * @param methodName the name of the handler method, used for logging
+     * @param closeCodes the handled close codes, {@code 0} standing for all of them
+     * @param eventSelector the {@code @EventSelector} expression, {@code null} if none
+     * @param blocking whether the handler method may block
+     * @param invoker calls the handler method
+     */
+    void register(
+        String methodName,
+        int[] closeCodes,
+        String eventSelector,
+        boolean blocking,
+        Consumer<ClientSessionClosedEvent> invoker);
+  }
+}
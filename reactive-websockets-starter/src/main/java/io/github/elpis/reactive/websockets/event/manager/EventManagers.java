@@ -1,6 +1,8 @@
 package io.github.elpis.reactive.websockets.event.manager;
 
 import io.github.elpis.reactive.websockets.event.manager.impl.MulticastEventManager;
+import io.github.elpis.reactive.websockets.event.manager.impl.RingBufferEventManager;
+import io.github.elpis.reactive.websockets.event.manager.impl.RingBufferEventManager.OverflowPolicy;
 import io.github.elpis.reactive.websockets.event.model.WebSocketEvent;
 
 /**
@@ -35,4 +37,39 @@ public class EventManagers {
       final int eventQueueSize) {
     return new MulticastEventManager<>(eventQueueSize) {};
   }
+
+  /**
+   * Creates {@link RingBufferEventManager} of custom capacity that drops events fired while it is
+   * full.
+   *
+   * @return {@link RingBufferEventManager}
+   * @since 1.0.0
+   */
+  public static <T extends WebSocketEvent<?>> RingBufferEventManager<T> ringBuffer(
+      final int capacity) {
+    return ringBuffer(capacity, OverflowPolicy.DROP_LATEST);
+  }
+
+  /**
+   * Creates {@link RingBufferEventManager} of custom capacity and overflow policy.
+   *
+   * @return {@link RingBufferEventManager}
+   * @since 1.0.0
+   */
+  public static <T extends WebSocketEvent<?>> RingBufferEventManager<T> ringBuffer(
+      final int capacity, final OverflowPolicy overflowPolicy) {
+    return new RingBufferEventManager<>(capacity, overflowPolicy) {};
+  }
+
+  /**
+   * Creates {@link RingBufferEventManager} of custom capacity and overflow policy, with the number
+   * of events {@link OverflowPolicy#SPILL} queues once the buffer is full.
+   *
+   * @return {@link RingBufferEventManager}
+   * @since 1.0.0
+   */
+  public static <T extends WebSocketEvent<?>> RingBufferEventManager<T> ringBuffer(
+      final int capacity, final OverflowPolicy overflowPolicy, final int spillCapacity) {
+    return new RingBufferEventManager<>(capacity, overflowPolicy, spillCapacity) {};
+  }
 }
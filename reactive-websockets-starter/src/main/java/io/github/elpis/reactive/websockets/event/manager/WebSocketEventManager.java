@@ -14,6 +14,7 @@ import reactor.core.publisher.Sinks;
  */
 public interface WebSocketEventManager<T extends WebSocketEvent<?>> {
   int MEDIUM_EVENT_QUEUE_SIZE = 256;
+  int LARGE_EVENT_QUEUE_SIZE = 8192;
 
   /**
    * Takes any {@link WebSocketEvent} and shares for all listeners.
@@ -0,0 +1,377 @@
+package io.github.elpis.reactive.websockets.event.manager.impl;
+
+import io.github.elpis.reactive.websockets.event.manager.WebSocketEventManager;
+import io.github.elpis.reactive.websockets.event.model.WebSocketEvent;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.Context;
+
+/**
+ * Abstract implementation of {@link WebSocketEventManager} that queues events in a preallocated
+ * ring buffer shared by all producing threads.
+ *
+ * <p>Producers claim a slot with a single compare-and-set, they never fail because of each other
+ * as {@link MulticastEventManager} does with {@link Sinks.EmitResult#FAIL_NON_SERIALIZED}. The
+ * events are drained in batches by one thread at a time, the producer that finds no drain running,
+ * and emitted to all listeners. Events fired before the first listener subscribes stay queued and
+ * are delivered to it.
+ *
+ * <p>Every listener reads through its own queue, bounded by the capacity of the buffer. The {@link
+ * OverflowPolicy} of the manager decides about the events fired while the buffer is full, and
+ * about the events a listener lags behind once its queue is full. Producers never wait for a free
+ * slot, they are usually I/O threads. Dropped events are counted in {@link #getDroppedCount()} and
+ * logged.
+ *
+ * @author Phillip J. Fry
+ * @see MulticastEventManager
+ * @see WebSocketEventManager
+ * @since 1.0.0
+ */
+public abstract class RingBufferEventManager<T extends WebSocketEvent<?>>
+    implements WebSocketEventManager<T> {
+  private static final Logger log = LoggerFactory.getLogger(RingBufferEventManager.class);
+
+  /** Events emitted before the freed slots are handed back to the producers. */
+  private static final int DRAIN_BATCH_SIZE = 64;
+
+  private final AtomicReferenceArray<T> buffer;
+  private final int mask;
+  private final OverflowPolicy overflowPolicy;
+  private final int spillCapacity;
+
+  private final AtomicLong producerIndex = new AtomicLong();
+  private final AtomicLong consumerIndex = new AtomicLong();
+  private final AtomicInteger drainRequests = new AtomicInteger();
+  private final AtomicLong droppedCount = new AtomicLong();
+
+  private final Queue<T> overflow = new ConcurrentLinkedQueue<>();
+  private final AtomicLong overflowCount = new AtomicLong();
+
+  private final Sinks.Many<T> sink = Sinks.unsafe().many().multicast().directAllOrNothing();
+  private final Flux<T> events;
+
+  /**
+   * Sets buffer of custom capacity, {@link OverflowPolicy#SPILL} overflows up to the same capacity.
+   *
+   * @param capacity minimal number of queued events, rounded up to a power of two
+   * @param overflowPolicy what to do with events fired while the buffer is full
+   * @since 1.0.0
+   */
+  protected RingBufferEventManager(final int capacity, final OverflowPolicy overflowPolicy) {
+    this(capacity, overflowPolicy, capacity);
+  }
+
+  /**
+   * Sets buffer of custom capacity and the number of events {@link OverflowPolicy#SPILL} queues
+   * once the buffer is full.
+   *
+   * @param capacity minimal number of queued events, rounded up to a power of two
+   * @param overflowPolicy what to do with events fired while the buffer is full
+   * @param spillCapacity maximal number of overflowed events, ignored by other policies
+   * @since 1.0.0
+   */
+  protected RingBufferEventManager(
+      final int capacity, final OverflowPolicy overflowPolicy, final int spillCapacity) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Capacity must be between 1 and 2^30, got " + capacity);
+    }
+
+    if (spillCapacity < 0) {
+      throw new IllegalArgumentException(
+          "Spill capacity must not be negative, got " + spillCapacity);
+    }
+
+    final int size = 1 << (32 - Integer.numberOfLeadingZeros(capacity - 1));
+    this.buffer = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+    this.overflowPolicy = overflowPolicy;
+    this.spillCapacity = spillCapacity;
+    this.events =
+        Flux.from(
+            subscriber -> {
+              this.listener().subscribe(subscriber);
+              // The sink registers the listener only after its subscription, drain once it can
+              // receive the events queued before
+              this.drain();
+            });
+  }
+
+  /**
+   * See {@link WebSocketEventManager#fire(WebSocketEvent)}
+   *
+   * @return {@link Sinks.EmitResult#OK} once the event is queued, {@link
+   *     Sinks.EmitResult#FAIL_OVERFLOW} if it was dropped
+   * @since 1.0.0
+   */
+  @Override
+  public Sinks.EmitResult fire(final T t) {
+    // Once events overflowed, the next ones follow them until they are drained to keep the order
+    final boolean queued = this.overflowCount.get() == 0 && this.offer(t) || this.spill(t);
+    if (!queued) {
+      this.dropped(t);
+
+      return Sinks.EmitResult.FAIL_OVERFLOW;
+    }
+
+    this.drain();
+
+    return Sinks.EmitResult.OK;
+  }
+
+  /**
+   * See {@link WebSocketEventManager#listen()}
+   *
+   * @since 1.0.0
+   */
+  @Override
+  public Publisher<T> listen() {
+    return this.events;
+  }
+
+  /**
+   * Returns the number of events dropped because the buffer was full or the manager terminated.
+   *
+   * @return dropped event count
+   * @since 1.0.0
+   */
+  public long getDroppedCount() {
+    return this.droppedCount.get();
+  }
+
+  /**
+   * Returns the number of events queued but not emitted yet, overflowed events included.
+   *
+   * @return pending event count
+   * @since 1.0.0
+   */
+  public long getPendingCount() {
+    return Math.max(0, this.producerIndex.get() - this.consumerIndex.get())
+        + this.overflowCount.get();
+  }
+
+  /**
+   * Returns the number of slots of the buffer.
+   *
+   * @return buffer capacity
+   * @since 1.0.0
+   */
+  public int getCapacity() {
+    return this.mask + 1;
+  }
+
+  /** Bounds the events queued for one listener, see {@link OverflowPolicy}. */
+  private Flux<T> listener() {
+    final int size = this.getCapacity();
+    if (this.overflowPolicy == OverflowPolicy.SPILL) {
+      // Requests what the queue of the listener can hold, the sink does not emit while it is full
+      return this.sink
+          .asFlux()
+          .transform(
+              Operators.<T, T>lift((scannable, subscriber) -> new DrainingSubscriber(subscriber)))
+          .limitRate(size);
+    }
+
+    // Requests everything, the events a lagging listener has no room for are dropped for it only
+    return this.sink
+        .asFlux()
+        .onBackpressureBuffer(size, this::dropped, BufferOverflowStrategy.DROP_LATEST);
+  }
+
+  private boolean offer(final T event) {
+    long index;
+    do {
+      index = this.producerIndex.get();
+      if (index - this.consumerIndex.get() > this.mask) {
+        return false;
+      }
+    } while (!this.producerIndex.compareAndSet(index, index + 1));
+
+    // The slot is published once written, the consumer waits for it if it is behind
+    this.buffer.lazySet((int) index & this.mask, event);
+
+    return true;
+  }
+
+  private boolean spill(final T event) {
+    // Without listeners nobody drains the overflow queue, it would only grow
+    if (this.overflowPolicy != OverflowPolicy.SPILL || this.sink.currentSubscriberCount() == 0) {
+      return false;
+    }
+
+    if (this.overflowCount.incrementAndGet() > this.spillCapacity) {
+      this.overflowCount.decrementAndGet();
+
+      return false;
+    }
+
+    this.overflow.offer(event);
+
+    return true;
+  }
+
+  private void dropped(final T event) {
+    final long dropped = this.droppedCount.incrementAndGet();
+    // Logs the 1st, 2nd, 4th, 8th... drop not to flood the log under load
+    if ((dropped & (dropped - 1)) == 0) {
+      log.warn(
+          "Dropped {} event(s) of {}, event queue of {} is full",
+          dropped,
+          event.getClass().getSimpleName(),
+          this.getCapacity());
+    }
+  }
+
+  private void drain() {
+    if (this.drainRequests.getAndIncrement() != 0) {
+      return;
+    }
+
+    int missed = 1;
+    do {
+      while (this.drainBatch()) {
+        // keep draining while full batches were emitted
+      }
+
+      this.drainOverflow();
+      missed = this.drainRequests.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  /** Emits up to one batch of events and returns whether the batch was full. */
+  private boolean drainBatch() {
+    final long start = this.consumerIndex.get();
+    long index = start;
+    try {
+      while (index - start < DRAIN_BATCH_SIZE) {
+        final int offset = (int) index & this.mask;
+        final T event = this.buffer.get(offset);
+        if (event == null) {
+          // Empty, or the producer of the slot has not written it yet and drains after it
+          return false;
+        }
+
+        if (!this.emit(event)) {
+          return false;
+        }
+
+        this.buffer.lazySet(offset, null);
+        index++;
+      }
+
+      return true;
+    } finally {
+      if (index != start) {
+        this.consumerIndex.lazySet(index);
+      }
+    }
+  }
+
+  /** Emits the overflowed events, they are newer than the ones in the buffer. */
+  private void drainOverflow() {
+    T event;
+    while ((event = this.overflow.peek()) != null) {
+      if (!this.emit(event)) {
+        return;
+      }
+
+      this.overflow.poll();
+      this.overflowCount.decrementAndGet();
+    }
+  }
+
+  /** Emits the event and returns whether it left the queue, emitted or dropped. */
+  private boolean emit(final T event) {
+    final Sinks.EmitResult result = this.sink.tryEmitNext(event);
+    if (result == Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER
+        || result == Sinks.EmitResult.FAIL_OVERFLOW) {
+      // Retried once a listener subscribes, or once a lagging listener requests more
+      return false;
+    } else if (result.isFailure()) {
+      this.dropped(event);
+    }
+
+    return true;
+  }
+
+  /** Requests more events of the sink, then drains the ones it could not emit before. */
+  private final class DrainingSubscriber implements CoreSubscriber<T>, Subscription {
+    private final CoreSubscriber<? super T> actual;
+    private Subscription subscription;
+
+    private DrainingSubscriber(final CoreSubscriber<? super T> actual) {
+      this.actual = actual;
+    }
+
+    @Override
+    public void onSubscribe(final Subscription subscription) {
+      this.subscription = subscription;
+      this.actual.onSubscribe(this);
+    }
+
+    @Override
+    public void onNext(final T event) {
+      this.actual.onNext(event);
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+      this.actual.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      this.actual.onComplete();
+    }
+
+    @Override
+    public Context currentContext() {
+      return this.actual.currentContext();
+    }
+
+    @Override
+    public void request(final long n) {
+      this.subscription.request(n);
+      RingBufferEventManager.this.drain();
+    }
+
+    @Override
+    public void cancel() {
+      this.subscription.cancel();
+    }
+  }
+
+  /**
+   * Policy applied to events fired while the buffer of a {@link RingBufferEventManager} is full,
+   * and to events a listener lags behind once its queue is full.
+   *
+   * @since 1.0.0
+   */
+  public enum OverflowPolicy {
+    /**
+     * The fired event is dropped right away. A lagging listener misses the events it has no room
+     * for, the other listeners still receive them.
+     */
+    DROP_LATEST,
+
+    /**
+     * The fired event is queued in a bounded overflow queue, emitted after the events of the
+     * buffer. A lagging listener holds back the others until it requests more, the events wait in
+     * the buffer and the overflow queue meanwhile. No event is lost while there are listeners and
+     * the overflow queue has room, the events fired once it is full or while nobody listens are
+     * dropped.
+     */
+    SPILL
+  }
+}
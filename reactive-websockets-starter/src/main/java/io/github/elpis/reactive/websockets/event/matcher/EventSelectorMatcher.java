@@ -3,6 +3,7 @@ package io.github.elpis.reactive.websockets.event.matcher;
 import io.github.elpis.reactive.websockets.event.EventSelectorProcessor;
 import io.github.elpis.reactive.websockets.event.annotation.EventSelector;
 import io.github.elpis.reactive.websockets.event.model.WebSocketEvent;
+import java.util.function.Predicate;
 
 /**
  * Extension of {@link EventSelectorProcessor} with {@link Boolean} result returned by default.
@@ -14,4 +15,17 @@ import io.github.elpis.reactive.websockets.event.model.WebSocketEvent;
  * @since 1.0.0
  */
 public interface EventSelectorMatcher<E extends WebSocketEvent<?>>
-    extends EventSelectorProcessor<E, Boolean> {}
+    extends EventSelectorProcessor<E, Boolean> {
+
+  /**
+   * Prepares the selector once, so events can be matched without processing the annotation again.
+   * Implementations should parse or compile the selector here and fail on an invalid one.
+   *
+   * @param eventSelector EventSelector annotation from annotated method
+   * @return the predicate matching events against the selector
+   * @since 1.0.0
+   */
+  default Predicate<E> compile(final EventSelector eventSelector) {
+    return event -> Boolean.TRUE.equals(this.process(event, eventSelector));
+  }
+}
@@ -4,26 +4,63 @@ import io.github.elpis.reactive.websockets.config.SessionCloseInfo;
 import io.github.elpis.reactive.websockets.event.annotation.EventSelector;
 import io.github.elpis.reactive.websockets.event.matcher.EventSelectorMatcher;
 import io.github.elpis.reactive.websockets.event.model.impl.ClientSessionClosedEvent;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.SimpleEvaluationContext;
 
+/**
+ * Matches {@link ClientSessionClosedEvent} against the SpEL expression of {@link
+ * EventSelector @EventSelector}, evaluated on the closed session.
+ *
+ * <p>Every expression is parsed once and cached by its text. Evaluation shares one read-only
+ * evaluation context, the root object is passed per event. Expressions are interpreted for their
+ * first evaluations and compiled to bytecode by the SpEL compiler once the types they work on are
+ * known; an expression that cannot be compiled stays interpreted.
+ *
+ * @author Phillip J. Fry
+ * @see EventSelector
+ * @since 1.0.0
+ */
 public class ClosedSessionEventSelectorMatcher
     implements EventSelectorMatcher<ClientSessionClosedEvent> {
-  private final ExpressionParser expressionParser = new SpelExpressionParser();
+  private final ExpressionParser expressionParser =
+      new SpelExpressionParser(
+          new SpelParserConfiguration(
+              SpelCompilerMode.MIXED, ClosedSessionEventSelectorMatcher.class.getClassLoader()));
+
+  private final EvaluationContext evaluationContext =
+      SimpleEvaluationContext.forReadWriteDataBinding().withAssignmentDisabled().build();
+
+  private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
 
   @Override
   public Boolean process(final ClientSessionClosedEvent event, final EventSelector annotation) {
-    final SessionCloseInfo sessionCloseInfo = event.payload();
-    final Expression expression = expressionParser.parseExpression(annotation.value());
-    final SimpleEvaluationContext context =
-        SimpleEvaluationContext.forReadWriteDataBinding()
-            .withAssignmentDisabled()
-            .withRootObject(
-                SessionCloseInfo.builder().session(sessionCloseInfo.getSession()).build())
-            .build();
-
-    return expression.getValue(context, Boolean.class);
+    return this.matches(this.parse(annotation.value()), event);
+  }
+
+  @Override
+  public Predicate<ClientSessionClosedEvent> compile(final EventSelector annotation) {
+    final Expression expression = this.parse(annotation.value());
+
+    return event -> this.matches(expression, event);
+  }
+
+  private Expression parse(final String expression) {
+    return this.expressions.computeIfAbsent(expression, this.expressionParser::parseExpression);
+  }
+
+  private boolean matches(final Expression expression, final ClientSessionClosedEvent event) {
+    final SessionCloseInfo rootObject =
+        SessionCloseInfo.builder().session(event.payload().getSession()).build();
+
+    return Boolean.TRUE.equals(
+        expression.getValue(this.evaluationContext, rootObject, Boolean.class));
   }
 }
@@ -0,0 +1,113 @@
+package io.github.elpis.reactive.websockets.handler;
+
+import io.github.elpis.reactive.websockets.handler.backpressure.LagHistogram;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Conflation policy of the {@code ADAPTIVE} backpressure strategy, one per session.
+ *
+ * <p>The policy tracks a moving average of the outbound lag of the session, the time an element
+ * waits until the socket asks for it, together with the queue depth, and moves the session between
+ * three delivery modes:
+ *
+ * <ul>
+ *   <li>FULL - every element is delivered
+ *   <li>SAMPLED - of every {@value #SAMPLE_RATE} consecutive elements only the newest is delivered
+ *   <li>CONFLATED - only the newest element per conflation key is delivered, or only the newest
+ *       element at all without a key
+ * </ul>
+ *
+ * <p>A session degrades one mode when its lag exceeds the target lag or its queue is half full, and
+ * further when the lag exceeds four times the target or the queue is three quarters full. It
+ * recovers one mode once the lag is below half the target and the queue is at most a quarter full.
+ *
+ * @param <T> the element type
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+final class AdaptiveBackpressure<T> implements KeyConflation.Policy<T> {
+  private static final Logger log = LoggerFactory.getLogger(AdaptiveBackpressure.class);
+
+  private static final int SAMPLE_RATE = 4;
+  private static final int EWMA_SHIFT = 3;
+  private static final Object LATEST = new Object();
+
+  private final String sessionId;
+  private final Function<? super T, ?> conflationKey;
+  private final int capacity;
+  private final long maxLagNanos;
+  private final LagHistogram histogram;
+
+  private Mode mode = Mode.FULL;
+  private long lagNanos;
+  private long sequence;
+
+  AdaptiveBackpressure(
+      final String sessionId,
+      final Function<? super T, ?> conflationKey,
+      final int capacity,
+      final long maxLagNanos,
+      final LagHistogram histogram) {
+    this.sessionId = sessionId;
+    this.conflationKey = conflationKey;
+    this.capacity = Math.max(1, capacity);
+    this.maxLagNanos = Math.max(1L, maxLagNanos);
+    this.histogram = histogram;
+  }
+
+  @Override
+  public Object slot(final T element, final int depth) {
+    this.adapt(depth);
+
+    final long position = this.sequence++;
+    return switch (this.mode) {
+      case FULL -> new Slot(Mode.FULL, position);
+      case SAMPLED -> new Slot(Mode.SAMPLED, position / SAMPLE_RATE);
+      case CONFLATED ->
+          new Slot(
+              Mode.CONFLATED,
+              this.conflationKey != null ? this.conflationKey.apply(element) : LATEST);
+    };
+  }
+
+  @Override
+  public void dequeued(final long lagNanos, final int depth) {
+    this.histogram.record(lagNanos);
+    this.lagNanos += (lagNanos - this.lagNanos) >> EWMA_SHIFT;
+    this.adapt(depth);
+  }
+
+  private void adapt(final int depth) {
+    final Mode next;
+    if (this.lagNanos > 4 * this.maxLagNanos || depth * 4 >= this.capacity * 3) {
+      next = Mode.CONFLATED;
+    } else if (this.lagNanos > this.maxLagNanos || depth * 2 >= this.capacity) {
+      next = this.mode == Mode.CONFLATED ? Mode.CONFLATED : Mode.SAMPLED;
+    } else if (this.lagNanos < this.maxLagNanos / 2 && depth * 4 <= this.capacity) {
+      next = this.mode == Mode.FULL ? Mode.FULL : Mode.values()[this.mode.ordinal() - 1];
+    } else {
+      next = this.mode;
+    }
+
+    if (next != this.mode) {
+      log.debug(
+          "Session {} switched from {} to {} delivery, lag {} us, {} pending",
+          this.sessionId,
+          this.mode,
+          next,
+          this.lagNanos / 1_000,
+          depth);
+      this.mode = next;
+    }
+  }
+
+  private enum Mode {
+    FULL,
+    SAMPLED,
+    CONFLATED
+  }
+
+  private record Slot(Mode mode, Object key) {}
+}
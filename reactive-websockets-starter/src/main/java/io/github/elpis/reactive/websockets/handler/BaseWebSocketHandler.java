@@ -1,5 +1,9 @@
 package io.github.elpis.reactive.websockets.handler;
 
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import io.github.elpis.reactive.websockets.codec.EncodedMessage;
+import io.github.elpis.reactive.websockets.codec.MessageCodec;
+import io.github.elpis.reactive.websockets.codec.MessageCodecs;
 import io.github.elpis.reactive.websockets.config.CloseInitiator;
 import io.github.elpis.reactive.websockets.config.SessionCloseInfo;
 import io.github.elpis.reactive.websockets.event.manager.WebSocketEventManager;
@@ -7,56 +11,151 @@ import io.github.elpis.reactive.websockets.event.manager.WebSocketEventManagerFa
 import io.github.elpis.reactive.websockets.event.model.impl.ClientSessionClosedEvent;
 import io.github.elpis.reactive.websockets.event.model.impl.ServerSessionClosedEvent;
 import io.github.elpis.reactive.websockets.event.model.impl.SessionConnectedEvent;
+import io.github.elpis.reactive.websockets.exception.RateLimitExceededException;
+import io.github.elpis.reactive.websockets.handler.backpressure.LagHistogram;
+import io.github.elpis.reactive.websockets.handler.backpressure.OutboundMemoryBudget;
 import io.github.elpis.reactive.websockets.handler.config.BackpressureConfig;
 import io.github.elpis.reactive.websockets.handler.config.HeartbeatConfig;
 import io.github.elpis.reactive.websockets.handler.config.RateLimitConfig;
-import io.github.elpis.reactive.websockets.mapper.JsonMapper;
+import io.github.elpis.reactive.websockets.handler.ratelimit.RateLimiterService;
+import io.github.elpis.reactive.websockets.handler.ratelimit.RateLimiterStore;
+import io.github.elpis.reactive.websockets.handler.ratelimit.TokenBucketRateLimiter;
+import io.github.elpis.reactive.websockets.handler.route.PathTemplateMatcher;
+import io.github.elpis.reactive.websockets.mapper.JsonStreamDecoder;
 import io.github.elpis.reactive.websockets.security.principal.Anonymous;
 import io.github.elpis.reactive.websockets.session.ReactiveWebSocketSession;
 import io.github.elpis.reactive.websockets.session.WebSocketSessionContext;
 import io.github.elpis.reactive.websockets.session.WebSocketSessionRegistry;
+import io.github.elpis.reactive.websockets.util.TypeUtils;
+import io.github.elpis.reactive.websockets.web.annotation.Backpressure.BackpressureStrategy;
+import io.github.elpis.reactive.websockets.web.annotation.RateLimit;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.github.resilience4j.reactor.ratelimiter.operator.RateLimiterOperator;
 import java.io.InputStream;
+import java.net.InetSocketAddress;
 import java.nio.channels.Channels;
 import java.security.Principal;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.web.reactive.socket.CloseStatus;
 import org.springframework.web.reactive.socket.HandshakeInfo;
 import org.springframework.web.reactive.socket.WebSocketHandler;
 import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
 import org.springframework.web.util.UriComponentsBuilder;
-import org.springframework.web.util.UriTemplate;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
 
 public abstract class BaseWebSocketHandler implements WebSocketHandler {
   private final Logger log = LoggerFactory.getLogger(this.getClass());
 
   private final WebSocketEventManagerFactory eventManagerFactory;
   private final WebSocketSessionRegistry sessionRegistry;
+  private final RateLimiterService rateLimiterService;
 
   private final String pathTemplate;
+  private final PathTemplateMatcher pathTemplateMatcher;
   private final HeartbeatConfig heartbeatConfig;
   private final RateLimitConfig rateLimitConfig;
   private final BackpressureConfig backpressureConfig;
+  private final MessageCodec messageCodec;
+
+  private final RateLimiterStore<RateLimiter> rateLimiters;
+  private final RateLimiterStore<TokenBucketRateLimiter> tokenBuckets;
+  private final LagHistogram lagHistogram;
+
+  private volatile OutboundMemoryBudget memoryBudget = DEFAULT_MEMORY_BUDGET;
+  private volatile HeartbeatScheduler heartbeatScheduler;
+
+  private static final int DIRECT_MESSAGE_QUEUE_SIZE = Queues.SMALL_BUFFER_SIZE;
+  private static final String TOKEN_BUCKET_ENGINE = RateLimit.RateLimitEngine.TOKEN_BUCKET.name();
+  private static final String CONFLATE_STRATEGY = BackpressureStrategy.CONFLATE.name();
+  private static final String ADAPTIVE_STRATEGY = BackpressureStrategy.ADAPTIVE.name();
+  private static final OutboundMemoryBudget DEFAULT_MEMORY_BUDGET = new OutboundMemoryBudget();
+  private static final byte[] PING_PAYLOAD = new byte[0];
+  private static final CloseStatus HEARTBEAT_TIMEOUT =
+      CloseStatus.GOING_AWAY.withReason("Heartbeat timeout");
+
+  private final SessionCloseDispatcher closeDispatcher = new SessionCloseDispatcher();
+  private final Function<Object, Object> sharedEncoder = this::encodeShared;
 
   protected BaseWebSocketHandler(
       final WebSocketEventManagerFactory eventManagerFactory,
       final WebSocketSessionRegistry sessionRegistry,
+      final RateLimiterService rateLimiterService,
       final String pathTemplate,
       final HeartbeatConfig heartbeatConfig,
       final RateLimitConfig rateLimitConfig,
       final BackpressureConfig backpressureConfig) {
+    this(
+        eventManagerFactory,
+        sessionRegistry,
+        rateLimiterService,
+        pathTemplate,
+        heartbeatConfig,
+        rateLimitConfig,
+        backpressureConfig,
+        MessageCodecs.json());
+  }
+
+  protected BaseWebSocketHandler(
+      final WebSocketEventManagerFactory eventManagerFactory,
+      final WebSocketSessionRegistry sessionRegistry,
+      final RateLimiterService rateLimiterService,
+      final String pathTemplate,
+      final HeartbeatConfig heartbeatConfig,
+      final RateLimitConfig rateLimitConfig,
+      final BackpressureConfig backpressureConfig,
+      final MessageCodec messageCodec) {
 
     this.eventManagerFactory = eventManagerFactory;
     this.sessionRegistry = sessionRegistry;
+    this.rateLimiterService = rateLimiterService;
     this.pathTemplate = pathTemplate;
+    this.pathTemplateMatcher = PathTemplateMatcher.compile(pathTemplate);
     this.heartbeatConfig = heartbeatConfig;
     this.rateLimitConfig = rateLimitConfig;
     this.backpressureConfig = backpressureConfig;
+    this.messageCodec = messageCodec;
+
+    final boolean useRateLimiter = rateLimiterService != null && rateLimitConfig.isEnabled();
+    final boolean useTokenBucket = TOKEN_BUCKET_ENGINE.equals(rateLimitConfig.getEngine());
+    this.rateLimiters =
+        useRateLimiter && !useTokenBucket
+            ? rateLimiterService.getRateLimiterStore(
+                pathTemplate,
+                rateLimitConfig.getLimitForPeriod(),
+                rateLimitConfig.getLimitRefreshPeriod(),
+                TimeUnit.valueOf(rateLimitConfig.getTimeUnit()),
+                rateLimitConfig.getTimeout(),
+                RateLimit.RateLimitScope.valueOf(rateLimitConfig.getScope()))
+            : null;
+    this.tokenBuckets =
+        useRateLimiter && useTokenBucket
+            ? rateLimiterService.getTokenBucketStore(
+                pathTemplate,
+                rateLimitConfig.getLimitForPeriod(),
+                rateLimitConfig.getLimitRefreshPeriod(),
+                TimeUnit.valueOf(rateLimitConfig.getTimeUnit()),
+                RateLimit.RateLimitScope.valueOf(rateLimitConfig.getScope()))
+            : null;
+
+    this.lagHistogram =
+        backpressureConfig.isEnabled()
+                && ADAPTIVE_STRATEGY.equals(backpressureConfig.getStrategy())
+            ? new LagHistogram()
+            : null;
   }
 
   @Override
@@ -68,6 +167,8 @@ public abstract class BaseWebSocketHandler implements WebSocketHandler {
     final WebSocketEventManager<SessionConnectedEvent> sessionConnectedEventManager =
         this.eventManagerFactory.getEventManager(SessionConnectedEvent.class);
 
+    this.closeDispatcher.listen(serverSessionClosedEventManager.asFlux());
+
     return Mono.deferContextual(Mono::just)
         .flatMap(contextView -> (Mono<String>) contextView.get("sessionId"))
         .flatMap(
@@ -80,53 +181,13 @@ public abstract class BaseWebSocketHandler implements WebSocketHandler {
                   handshakeInfo.getUri(),
                   handshakeInfo.getRemoteAddress());
 
-              final ReactiveWebSocketSession reactiveWebSocketSession =
-                  ReactiveWebSocketSession.builder()
-                      .isOpen(session::isOpen)
-                      .sessionId(sessionId)
-                      .onClose(
-                          (eventSessionId, closeStatus) -> {
-                            final ServerSessionClosedEvent event =
-                                this.getServerClosedEvent(eventSessionId, closeStatus);
-                            serverSessionClosedEventManager.fire(event);
-                          })
-                      .build();
-
-              sessionConnectedEventManager.fire(
-                  SessionConnectedEvent.builder()
-                      .webSocketSessionInfo(reactiveWebSocketSession)
-                      .build());
-
-              this.sessionRegistry.save(reactiveWebSocketSession);
-
-              final Mono<Void> clientClosedSessionListener =
-                  session
-                      .closeStatus()
-                      .doOnNext(
-                          closeStatus -> {
-                            this.sessionRegistry.remove(sessionId);
-
-                            final SessionCloseInfo sessionCloseInfo =
-                                SessionCloseInfo.builder()
-                                    .closeStatus(closeStatus)
-                                    .session(reactiveWebSocketSession)
-                                    .build();
-                            final ClientSessionClosedEvent event =
-                                new ClientSessionClosedEvent(sessionCloseInfo);
-
-                            closedEventManager.fire(event);
-                          })
-                      .then();
-
-              final Flux<Void> serverClosedSessionListener =
-                  serverSessionClosedEventManager
-                      .asFlux()
-                      .map(ServerSessionClosedEvent::payload)
-                      .filter(
-                          sessionCloseInfo ->
-                              sessionCloseInfo.getSession().getSessionId().equals(sessionId))
-                      .flatMap(
-                          sessionCloseInfo -> session.close(sessionCloseInfo.getCloseStatus()));
+              final Mono<Void> serverClosedSessionListener =
+                  this.closeDispatcher.register(sessionId).flatMap(session::close);
+
+              final Sinks.Many<Object> directMessages =
+                  Sinks.many()
+                      .unicast()
+                      .onBackpressureBuffer(Queues.get(DIRECT_MESSAGE_QUEUE_SIZE).get());
 
               return session
                   .getHandshakeInfo()
@@ -134,20 +195,131 @@ public abstract class BaseWebSocketHandler implements WebSocketHandler {
                   .switchIfEmpty(Mono.just(new Anonymous()))
                   .flatMapMany(
                       principal -> {
+                        final ReactiveWebSocketSession reactiveWebSocketSession =
+                            ReactiveWebSocketSession.builder()
+                                .isOpen(session::isOpen)
+                                .sessionId(sessionId)
+                                .principalName(principal.getName())
+                                .remoteAddress(this.getRemoteAddress(handshakeInfo))
+                                .pathTemplate(pathTemplate)
+                                .sender(message -> emitDirectMessage(directMessages, message))
+                                .encoder(this.sharedEncoder)
+                                .onClose(
+                                    (eventSessionId, closeStatus) -> {
+                                      final ServerSessionClosedEvent event =
+                                          this.getServerClosedEvent(eventSessionId, closeStatus);
+                                      serverSessionClosedEventManager.fire(event);
+                                    })
+                                .build();
+
+                        sessionConnectedEventManager.fire(
+                            SessionConnectedEvent.builder()
+                                .webSocketSessionInfo(reactiveWebSocketSession)
+                                .build());
+
+                        this.sessionRegistry.save(reactiveWebSocketSession);
+
+                        final HeartbeatScheduler.Heartbeat heartbeat =
+                            this.startHeartbeat(session, reactiveWebSocketSession, directMessages);
+
+                        final Mono<Void> clientClosedSessionListener =
+                            session
+                                .closeStatus()
+                                .doOnNext(
+                                    closeStatus -> {
+                                      this.sessionRegistry.remove(sessionId);
+                                      this.closeDispatcher.unregister(sessionId);
+
+                                      final SessionCloseInfo sessionCloseInfo =
+                                          SessionCloseInfo.builder()
+                                              .closeStatus(closeStatus)
+                                              .session(reactiveWebSocketSession)
+                                              .build();
+                                      final ClientSessionClosedEvent event =
+                                          new ClientSessionClosedEvent(sessionCloseInfo);
+
+                                      closedEventManager.fire(event);
+                                    })
+                                .then();
+
                         final WebSocketSessionContext webSocketSessionContext =
-                            this.getSessionContext(
-                                pathTemplate, sessionId, handshakeInfo, principal);
-                        final Flux<Void> chain = this.buildChain(session, webSocketSessionContext);
+                            this.getSessionContext(sessionId, handshakeInfo, principal);
+                        final Flux<Void> chain =
+                            this.buildChain(
+                                session,
+                                webSocketSessionContext,
+                                this.receive(session, heartbeat),
+                                this.mapDirectOutput(session, directMessages.asFlux()));
 
                         return Flux.merge(
-                            chain, clientClosedSessionListener, serverClosedSessionListener);
+                                chain, clientClosedSessionListener, serverClosedSessionListener)
+                            .doFinally(
+                                signalType -> {
+                                  if (heartbeat != null) {
+                                    heartbeat.cancel();
+                                  }
+                                });
                       })
                   .takeUntil(nothing -> session.isOpen())
                   .doOnError(throwable -> log.error(throwable.getMessage()))
+                  .doFinally(
+                      signalType -> {
+                        this.sessionRegistry.remove(sessionId);
+                        this.closeDispatcher.unregister(sessionId);
+                        directMessages.tryEmitComplete();
+                      })
                   .then();
             });
   }
 
+  /**
+   * Registers the session in the shared {@link HeartbeatScheduler}. Pings are queued with the
+   * direct messages of the session, a session that does not answer a ping within the heartbeat
+   * timeout is closed with {@code 1001 Going Away}.
+   *
+   * @return the heartbeat entry, or {@code null} if heartbeat is disabled
+   */
+  private HeartbeatScheduler.Heartbeat startHeartbeat(
+      final org.springframework.web.reactive.socket.WebSocketSession session,
+      final ReactiveWebSocketSession reactiveWebSocketSession,
+      final Sinks.Many<Object> directMessages) {
+    if (!this.isHeartbeatEnabled()) {
+      return null;
+    }
+
+    final HeartbeatScheduler scheduler = this.heartbeatScheduler;
+    if (scheduler == null) {
+      throw new IllegalStateException(
+          "No HeartbeatScheduler set on the handler of " + this.pathTemplate);
+    }
+
+    return scheduler
+        .register(
+            this.getHeartbeatInterval(),
+            this.getHeartbeatTimeout(),
+            () ->
+                emitDirectMessage(
+                    directMessages,
+                    session.pingMessage(factory -> factory.wrap(PING_PAYLOAD))),
+            () -> {
+              log.debug(
+                  "Heartbeat timeout, closing WebSocketSession: id => {}",
+                  reactiveWebSocketSession.getSessionId());
+              reactiveWebSocketSession.close(HEARTBEAT_TIMEOUT);
+            });
+  }
+
+  private String getRemoteAddress(final HandshakeInfo handshakeInfo) {
+    final InetSocketAddress remoteAddress = handshakeInfo.getRemoteAddress();
+    if (remoteAddress == null) {
+      return null;
+    }
+
+    return remoteAddress.getAddress() != null
+        ? remoteAddress.getAddress().getHostAddress()
+        : remoteAddress.getHostString();
+  }
+
   private ServerSessionClosedEvent getServerClosedEvent(
       final String sessionId, final CloseStatus closeStatus) {
     final ReactiveWebSocketSession webSocketSession =
@@ -163,26 +335,248 @@ public abstract class BaseWebSocketHandler implements WebSocketHandler {
     return new ServerSessionClosedEvent(sessionCloseInfo);
   }
 
+  private static Sinks.EmitResult emitDirectMessage(
+      final Sinks.Many<Object> directMessages, final Object message) {
+    Sinks.EmitResult result;
+    do {
+      result = directMessages.tryEmitNext(message);
+    } while (result == Sinks.EmitResult.FAIL_NON_SERIALIZED);
+
+    return result;
+  }
+
+  /**
+   * Maps endpoint output to WebSocket messages, encoding elements through {@link #encode}.
+   *
+   * @param session the WebSocket session
+   * @param publisher endpoint output
+   * @return outbound messages
+   */
   Flux<WebSocketMessage> mapOutput(
       final org.springframework.web.reactive.socket.WebSocketSession session,
       final Publisher<?> publisher) {
+    return this.mapOutput(session.bufferFactory(), publisher, Queues.SMALL_BUFFER_SIZE);
+  }
+
+  /**
+   * Maps endpoint output that is not bound to one session, encoding elements into buffers of the
+   * given factory.
+   *
+   * @param bufferFactory the factory to allocate encoded payloads from
+   * @param publisher endpoint output
+   * @return outbound messages
+   */
+  Flux<WebSocketMessage> mapOutput(
+      final DataBufferFactory bufferFactory, final Publisher<?> publisher) {
+    return this.mapOutput(bufferFactory, publisher, Queues.SMALL_BUFFER_SIZE);
+  }
+
+  /**
+   * Maps the endpoint output of a session to outbound messages with the configured backpressure
+   * strategy applied. The CONFLATE and ADAPTIVE strategies work on the output elements, so they are
+   * applied before encoding and the elements are encoded one at a time to keep them conflatable
+   * until sent. A byte budget works on the encoded messages instead.
+   *
+   * @param session the WebSocket session
+   * @param publisher the endpoint output
+   * @return outbound messages
+   */
+  Flux<WebSocketMessage> mapOutputWithBackpressure(
+      final org.springframework.web.reactive.socket.WebSocketSession session,
+      final Publisher<?> publisher) {
+    final Function<Object, ?> conflationKey = this.backpressureConfig.getConflationKey();
+    final DataBufferFactory bufferFactory = session.bufferFactory();
+    if (this.lagHistogram != null) {
+      final AdaptiveBackpressure<Object> policy =
+          new AdaptiveBackpressure<>(
+              session.getId(),
+              conflationKey,
+              this.backpressureConfig.getBufferSize(),
+              TimeUnit.MILLISECONDS.toNanos(this.backpressureConfig.getMaxLagMillis()),
+              this.lagHistogram);
+
+      return this.mapOutput(
+          bufferFactory,
+          KeyConflation.conflate(publisher, policy, this.backpressureConfig.getBufferSize()),
+          1);
+    }
+
+    if (this.backpressureConfig.isEnabled()
+        && CONFLATE_STRATEGY.equals(this.backpressureConfig.getStrategy())
+        && conflationKey != null) {
+      return this.mapOutput(
+          bufferFactory,
+          KeyConflation.conflate(publisher, conflationKey, this.backpressureConfig.getBufferSize()),
+          1);
+    }
+
+    return this.applyOutboundBackpressure(session, this.mapOutput(bufferFactory, publisher));
+  }
+
+  /**
+   * Applies the configured byte budget or backpressure strategy to encoded outbound messages of a
+   * session.
+   *
+   * @param session the WebSocket session
+   * @param messages the encoded outbound messages
+   * @return outbound messages
+   */
+  Flux<WebSocketMessage> applyOutboundBackpressure(
+      final org.springframework.web.reactive.socket.WebSocketSession session,
+      final Flux<WebSocketMessage> messages) {
+    if (this.backpressureConfig.isEnabled() && this.backpressureConfig.getMaxBufferedBytes() > 0) {
+      return this.applyByteBudget(session, messages);
+    }
+
+    return this.applyBackpressure(session, messages);
+  }
+
+  /**
+   * Returns whether the backpressure strategy works on output elements rather than encoded
+   * messages, so every session has to encode the output elements it sends itself.
+   *
+   * @return {@code true} for the ADAPTIVE strategy and the CONFLATE strategy with a key
+   */
+  boolean conflatesOutputElements() {
+    return this.lagHistogram != null
+        || (this.backpressureConfig.isEnabled()
+            && CONFLATE_STRATEGY.equals(this.backpressureConfig.getStrategy())
+            && this.backpressureConfig.getConflationKey() != null);
+  }
+
+  /**
+   * Maps messages sent directly to the session. They are encoded like endpoint output, but no
+   * backpressure strategy of the endpoint applies to them.
+   *
+   * @param session the WebSocket session
+   * @param publisher messages sent to the session
+   * @return outbound messages
+   */
+  Flux<WebSocketMessage> mapDirectOutput(
+      final org.springframework.web.reactive.socket.WebSocketSession session,
+      final Publisher<?> publisher) {
+    return this.mapOutput(session, publisher);
+  }
+
+  private Flux<WebSocketMessage> mapOutput(
+      final DataBufferFactory bufferFactory, final Publisher<?> publisher, final int concurrency) {
     return Flux.from(publisher)
         .flatMap(
             any -> {
               if (any instanceof WebSocketMessage webSocketMessage) {
                 return Flux.just(webSocketMessage);
+              } else if (any instanceof EncodedMessage encodedMessage) {
+                return Mono.just(encodedMessage.toMessage(bufferFactory));
               } else if (any instanceof byte[] binary) {
-                return Mono.just(session.binaryMessage(factory -> factory.wrap(binary)));
+                return Mono.just(
+                    new WebSocketMessage(WebSocketMessage.Type.BINARY, bufferFactory.wrap(binary)));
               } else if (InputStream.class.isAssignableFrom(any.getClass())) {
                 return DataBufferUtils.readByteChannel(
                         () -> Channels.newChannel((InputStream) any),
                         DefaultDataBufferFactory.sharedInstance,
                         4096)
-                    .map(dataBuffer -> session.binaryMessage(factory -> dataBuffer));
+                    .map(
+                        dataBuffer -> new WebSocketMessage(WebSocketMessage.Type.BINARY, dataBuffer));
               }
 
-              return JsonMapper.applyWithFlux(any).map(session::textMessage);
-            });
+              return this.encode(bufferFactory, any);
+            },
+            concurrency);
+  }
+
+  /**
+   * Encodes an output element that is neither a ready {@link WebSocketMessage}, an {@link
+   * EncodedMessage} nor binary content with the codec of the endpoint, into a frame of the type the
+   * codec declares. Elements that cannot be serialized are skipped.
+   *
+   * @param bufferFactory the factory to allocate the payload from
+   * @param any the output element
+   * @return a publisher of at most one message
+   */
+  private Publisher<WebSocketMessage> encode(
+      final DataBufferFactory bufferFactory, final Object any) {
+    final DataBuffer payload;
+    try {
+      payload = this.messageCodec.encode(any, bufferFactory);
+    } catch (RuntimeJsonMappingException e) {
+      return Mono.empty();
+    }
+
+    return Mono.just(new WebSocketMessage(this.messageCodec.getFrameType(), payload));
+  }
+
+  /**
+   * Encodes a message sent to many sessions of this endpoint once, into an {@link EncodedMessage}
+   * every session only wraps. Messages {@link #mapOutput} sends without encoding, and the ones
+   * that cannot be serialized, are returned as they are.
+   *
+   * @param message the message to send
+   * @return the encoded message, or the message itself
+   */
+  private Object encodeShared(final Object message) {
+    if (message instanceof WebSocketMessage
+        || message instanceof EncodedMessage
+        || message instanceof byte[]
+        || message instanceof InputStream) {
+      return message;
+    }
+
+    try {
+      return EncodedMessage.of(this.messageCodec, message);
+    } catch (RuntimeJsonMappingException e) {
+      return message;
+    }
+  }
+
+  /**
+   * Decodes the payload of an inbound message to a request body element with the codec of the
+   * endpoint. Called from the generated handlers.
+   *
+   * @param message the inbound message
+   * @param type the request body element type
+   * @param <T> the request body element type
+   * @return the decoded element
+   */
+  protected <T> T decode(final WebSocketMessage message, final Class<T> type) {
+    return this.messageCodec.decode(message.getPayload(), type);
+  }
+
+  /**
+   * Converts an inbound message to a simple request body element, such as a number or a string.
+   * Text frames are converted from their text, binary frames are decoded with the codec of the
+   * endpoint. Called from the generated handlers.
+   *
+   * @param message the inbound message
+   * @param type the request body element type
+   * @param <T> the request body element type
+   * @return the converted element
+   */
+  protected <T> T convert(final WebSocketMessage message, final Class<T> type) {
+    return message.getType() == WebSocketMessage.Type.BINARY
+        ? this.messageCodec.decode(message.getPayload(), type)
+        : TypeUtils.convert(message.getPayloadAsText(), type);
+  }
+
+  /**
+   * Decodes the payloads of the inbound messages as one continuous JSON stream, so a large
+   * document may be uploaded in several messages. Every element of a top-level array, or every
+   * root-level value, is emitted as soon as its bytes arrived, payloads are released once fed.
+   * Called from the generated handlers of {@code @OnMessage(streaming = true)} endpoints.
+   *
+   * @param messages the inbound messages
+   * @param type the request body element type
+   * @param <T> the request body element type
+   * @return the decoded elements, completing after the inbound messages
+   */
+  protected <T> Flux<T> decodeStream(final Flux<WebSocketMessage> messages, final Class<T> type) {
+    return Flux.defer(
+        () -> {
+          final JsonStreamDecoder<T> decoder = new JsonStreamDecoder<>(type);
+
+          return messages
+              .concatMapIterable(message -> decoder.decode(message.getPayload()))
+              .concatWith(Flux.defer(() -> Flux.fromIterable(decoder.complete())));
+        });
   }
 
   public Publisher<?> apply(
@@ -197,18 +591,17 @@ public abstract class BaseWebSocketHandler implements WebSocketHandler {
 
   abstract Flux<Void> buildChain(
       final org.springframework.web.reactive.socket.WebSocketSession webSocketSession,
-      final WebSocketSessionContext webSocketSessionContext);
+      final WebSocketSessionContext webSocketSessionContext,
+      final Flux<WebSocketMessage> inboundMessages,
+      final Flux<WebSocketMessage> directMessages);
 
   private WebSocketSessionContext getSessionContext(
-      final String pathTemplate,
       final String sessionId,
       final HandshakeInfo handshakeInfo,
       final Principal principal) {
 
     final String uriPath = handshakeInfo.getUri().getPath();
-    final UriTemplate uriTemplate = new UriTemplate(pathTemplate);
-
-    final var pathParameters = uriTemplate.match(uriPath);
+    final var pathParameters = this.pathTemplateMatcher.match(uriPath);
     final var queryParameters =
         UriComponentsBuilder.fromUri(handshakeInfo.getUri()).build().getQueryParams();
     final var headers = handshakeInfo.getHeaders();
@@ -234,7 +627,6 @@ public abstract class BaseWebSocketHandler implements WebSocketHandler {
     return heartbeatConfig.getInterval();
   }
 
-  @SuppressWarnings("unused")
   public long getHeartbeatTimeout() {
     return heartbeatConfig.getTimeout();
   }
@@ -243,6 +635,10 @@ public abstract class BaseWebSocketHandler implements WebSocketHandler {
     return sessionRegistry;
   }
 
+  protected RateLimiterService getRateLimiterService() {
+    return rateLimiterService;
+  }
+
   @SuppressWarnings("unused")
   protected HeartbeatConfig getHeartbeatConfig() {
     return heartbeatConfig;
@@ -267,6 +663,198 @@ public abstract class BaseWebSocketHandler implements WebSocketHandler {
     return backpressureConfig.isEnabled();
   }
 
+  protected MessageCodec getMessageCodec() {
+    return messageCodec;
+  }
+
+  /**
+   * Returns the outbound lag histogram of this endpoint.
+   *
+   * @return the lag histogram, or {@code null} unless the ADAPTIVE strategy is configured
+   */
+  public LagHistogram getLagHistogram() {
+    return lagHistogram;
+  }
+
+  /**
+   * Sets the memory budget shared by the byte-accounted outbound buffers of all sessions. Meant to
+   * be called once while the handler is registered, before it serves sessions.
+   *
+   * @param memoryBudget the shared memory budget
+   */
+  public void setOutboundMemoryBudget(final OutboundMemoryBudget memoryBudget) {
+    this.memoryBudget = memoryBudget;
+  }
+
+  /**
+   * Sets the scheduler driving the heartbeat of all sessions. Meant to be called once while the
+   * handler is registered, before it serves sessions.
+   *
+   * @param heartbeatScheduler the shared heartbeat scheduler
+   */
+  public void setHeartbeatScheduler(final HeartbeatScheduler heartbeatScheduler) {
+    this.heartbeatScheduler = heartbeatScheduler;
+  }
+
+  /**
+   * Returns inbound data messages of the session. Pongs are recorded on the heartbeat of the
+   * session, other control frames are handled by the transport.
+   *
+   * <p>The heartbeat timeout is enforced only once the inbound messages are subscribed, since pongs
+   * cannot be observed before that.
+   *
+   * @param session the WebSocket session
+   * @param heartbeat the heartbeat entry of the session, or {@code null} if disabled
+   * @return inbound {@code TEXT} and {@code BINARY} messages
+   */
+  private Flux<WebSocketMessage> receive(
+      final org.springframework.web.reactive.socket.WebSocketSession session,
+      final HeartbeatScheduler.Heartbeat heartbeat) {
+    final Flux<WebSocketMessage> inbound = session.receive();
+
+    return (heartbeat == null
+            ? inbound
+            : inbound
+                .doOnSubscribe(subscription -> heartbeat.track())
+                .doOnNext(
+                    webSocketMessage -> {
+                      if (webSocketMessage.getType() == WebSocketMessage.Type.PONG) {
+                        heartbeat.pong();
+                      }
+                    }))
+        .filter(
+            webSocketMessage ->
+                webSocketMessage.getType() == WebSocketMessage.Type.TEXT
+                    || webSocketMessage.getType() == WebSocketMessage.Type.BINARY);
+  }
+
+  /**
+   * Applies the configured rate limit to inbound messages. Messages above the limit are logged and
+   * dropped.
+   *
+   * @param session the WebSocket session
+   * @param webSocketSessionContext the WebSocket session context
+   * @param incomingMessages inbound messages of the session
+   * @return the rate limited inbound messages, or the original Flux if disabled
+   */
+  Flux<WebSocketMessage> applyRateLimiting(
+      final org.springframework.web.reactive.socket.WebSocketSession session,
+      final WebSocketSessionContext webSocketSessionContext,
+      final Flux<WebSocketMessage> incomingMessages) {
+
+    if (!this.isRateLimitEnabled() || (this.rateLimiters == null && this.tokenBuckets == null)) {
+      return incomingMessages;
+    }
+
+    final String rateLimiterId = this.getRateLimiterIdentifier(session, webSocketSessionContext);
+
+    log.debug(
+        "Rate limiting enabled for path: {}, identifier: {}, limit: {}/{} {}, engine: {}",
+        this.getPathTemplate(),
+        rateLimiterId,
+        this.getRateLimitForPeriod(),
+        this.getRateLimitRefreshPeriod(),
+        this.getRateLimitTimeUnit(),
+        this.getRateLimitEngine());
+
+    // The limiter is referenced while the inbound messages are subscribed, a SESSION scoped one
+    // is dropped from the store as soon as the session stops reading
+    if (this.tokenBuckets != null) {
+      return Flux.using(
+          () -> this.tokenBuckets.acquire(rateLimiterId),
+          rateLimiter -> this.applyTokenBucket(rateLimiterId, rateLimiter, incomingMessages),
+          rateLimiter -> this.tokenBuckets.release(rateLimiterId));
+    }
+
+    return Flux.using(
+        () -> this.rateLimiters.acquire(rateLimiterId),
+        rateLimiter -> this.applyRateLimiter(rateLimiterId, rateLimiter, incomingMessages),
+        rateLimiter -> this.rateLimiters.release(rateLimiterId));
+  }
+
+  private Flux<WebSocketMessage> applyRateLimiter(
+      final String rateLimiterId,
+      final RateLimiter rateLimiter,
+      final Flux<WebSocketMessage> incomingMessages) {
+    return incomingMessages.flatMap(
+        msg ->
+            Mono.fromCallable(() -> msg)
+                .transformDeferred(RateLimiterOperator.of(rateLimiter))
+                .onErrorMap(
+                    RequestNotPermitted.class,
+                    ex ->
+                        new RateLimitExceededException(
+                            String.format(
+                                "Rate limit exceeded for %s. Maximum %d requests per %d %s allowed.",
+                                rateLimiterId,
+                                this.getRateLimitForPeriod(),
+                                this.getRateLimitRefreshPeriod(),
+                                this.getRateLimitTimeUnit().toLowerCase())))
+                .doOnError(
+                    RateLimitExceededException.class,
+                    ex -> log.warn("Rate limit exceeded: {}", ex.getMessage()))
+                .onErrorResume(RateLimitExceededException.class, ex -> Mono.empty()));
+  }
+
+  /**
+   * Applies the built-in token bucket. Every message costs one permission check on the shared
+   * bucket, no publisher is created per message.
+   */
+  private Flux<WebSocketMessage> applyTokenBucket(
+      final String rateLimiterId,
+      final TokenBucketRateLimiter rateLimiter,
+      final Flux<WebSocketMessage> incomingMessages) {
+    return incomingMessages.filter(
+        msg -> {
+          if (rateLimiter.tryAcquire()) {
+            return true;
+          }
+
+          log.warn(
+              "Rate limit exceeded for {}. Maximum {} requests per {} {} allowed.",
+              rateLimiterId,
+              this.getRateLimitForPeriod(),
+              this.getRateLimitRefreshPeriod(),
+              this.getRateLimitTimeUnit().toLowerCase());
+          return false;
+        });
+  }
+
+  /**
+   * Determines the rate limiter identifier based on the configured scope.
+   *
+   * @param session the WebSocket session
+   * @param context the WebSocket session context
+   * @return the identifier for rate limiting
+   */
+  private String getRateLimiterIdentifier(
+      final WebSocketSession session, final WebSocketSessionContext context) {
+    final RateLimit.RateLimitScope scope =
+        RateLimit.RateLimitScope.valueOf(this.getRateLimitScope());
+
+    return switch (scope) {
+      case SESSION -> context.getSessionId();
+      case USER -> {
+        final String principalName =
+            context.getAuthentication() != null
+                    && !(context.getAuthentication() instanceof Anonymous)
+                ? context.getAuthentication().getName()
+                : "anonymous";
+        yield this.getPathTemplate() + ":" + principalName;
+      }
+      case IP -> {
+        final String ipAddress =
+            session.getHandshakeInfo().getRemoteAddress() != null
+                ? session.getHandshakeInfo().getRemoteAddress().getAddress().getHostAddress()
+                : "unknown";
+        yield this.getPathTemplate() + ":" + ipAddress;
+      }
+      case INHERIT ->
+          throw new IllegalStateException(
+              "INHERIT scope should be resolved during annotation processing and never reach runtime");
+    };
+  }
+
   /**
    * Applies the configured backpressure strategy to the given Flux.
    *
@@ -275,6 +863,23 @@ public abstract class BaseWebSocketHandler implements WebSocketHandler {
    * @return the Flux with backpressure applied, or the original Flux if disabled
    */
   protected <T> Flux<T> applyBackpressure(final Flux<T> flux) {
+    return this.applyBackpressure(null, flux);
+  }
+
+  /**
+   * Applies the configured backpressure strategy to the outbound Flux of a session. The DISCONNECT
+   * strategy closes the session with the configured close code once the buffer overflows; without a
+   * session the overflow error is propagated instead.
+   *
+   * <p>Messages the strategy drops, or leaves buffered when the session ends, are discarded with
+   * their payload released, as it may be a pooled buffer of the transport.
+   *
+   * @param session the session receiving the Flux, may be {@code null}
+   * @param flux the Flux to apply backpressure to
+   * @param <T> the type of elements in the Flux
+   * @return the Flux with backpressure applied, or the original Flux if disabled
+   */
+  protected <T> Flux<T> applyBackpressure(final WebSocketSession session, final Flux<T> flux) {
     if (!backpressureConfig.isEnabled()) {
       return flux;
     }
@@ -282,16 +887,60 @@ public abstract class BaseWebSocketHandler implements WebSocketHandler {
     final String strategy = backpressureConfig.getStrategy();
     final int bufferSize = backpressureConfig.getBufferSize();
 
-    return switch (strategy) {
-      case "BUFFER" -> flux.onBackpressureBuffer(bufferSize);
-      case "DROP_OLDEST" -> flux.onBackpressureLatest();
-      case "DROP_LATEST" -> flux.onBackpressureDrop();
-      case "ERROR" -> flux.onBackpressureError();
-      default -> {
-        log.warn("Unknown backpressure strategy: {}. No backpressure applied.", strategy);
-        yield flux;
-      }
-    };
+    final Flux<T> applied =
+        switch (strategy) {
+          case "BUFFER" -> flux.onBackpressureBuffer(bufferSize);
+          case "DROP_OLDEST" -> flux.onBackpressureLatest();
+          case "DROP_LATEST" -> flux.onBackpressureDrop();
+          // Conflation by key happens before encoding, without a key every element shares one
+          case "CONFLATE", "ADAPTIVE" -> flux.onBackpressureLatest();
+          case "ERROR" -> flux.onBackpressureError();
+          case "DISCONNECT" -> this.closeOnOverflow(session, flux.onBackpressureBuffer(bufferSize));
+          default -> {
+            log.warn("Unknown backpressure strategy: {}. No backpressure applied.", strategy);
+            yield flux;
+          }
+        };
+
+    // Dropping operators hand what they drop to the discard hook, so releasing there frees every
+    // dropped payload exactly once
+    return applied.doOnDiscard(
+        WebSocketMessage.class, message -> DataBufferUtils.release(message.getPayload()));
+  }
+
+  /**
+   * Buffers the outbound messages of a session within the byte budget of the session and the
+   * memory budget shared by all sessions.
+   */
+  private Flux<WebSocketMessage> applyByteBudget(
+      final WebSocketSession session, final Flux<WebSocketMessage> messages) {
+    final String strategy = backpressureConfig.getStrategy();
+    final ByteBudgetBuffer.Overflow overflow =
+        switch (strategy) {
+          case "DROP_OLDEST" -> ByteBudgetBuffer.Overflow.DROP_OLDEST;
+          case "DROP_LATEST" -> ByteBudgetBuffer.Overflow.DROP_LATEST;
+          default -> ByteBudgetBuffer.Overflow.ERROR;
+        };
+
+    final Flux<WebSocketMessage> buffered =
+        ByteBudgetBuffer.buffer(
+            messages, backpressureConfig.getMaxBufferedBytes(), this.memoryBudget, overflow);
+
+    return "DISCONNECT".equals(strategy) ? this.closeOnOverflow(session, buffered) : buffered;
+  }
+
+  /** Closes the session with the configured close code once the Flux signals an overflow. */
+  private <T> Flux<T> closeOnOverflow(final WebSocketSession session, final Flux<T> flux) {
+    if (session == null) {
+      return flux;
+    }
+
+    return flux.onErrorResume(
+        Exceptions::isOverflow,
+        e ->
+            session
+                .close(new CloseStatus(backpressureConfig.getCloseCode(), "Backpressure overflow"))
+                .then(Mono.empty()));
   }
 
   protected int getRateLimitForPeriod() {
@@ -313,4 +962,8 @@ public abstract class BaseWebSocketHandler implements WebSocketHandler {
   protected String getRateLimitScope() {
     return rateLimitConfig.getScope();
   }
+
+  protected String getRateLimitEngine() {
+    return rateLimitConfig.getEngine();
+  }
 }
@@ -0,0 +1,72 @@
+package io.github.elpis.reactive.websockets.handler;
+
+import java.nio.ByteBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Fans the inbound messages of a broadcast handler out to all of its sessions.
+ *
+ * <p>The shared multicast sink only advances as fast as its slowest subscriber, so every session
+ * reads it through a queue of its own that always requests unbounded demand upstream. A session
+ * that falls behind only grows its own queue, the other sessions keep receiving at their own pace.
+ * The queue never drops a message: the {@code @Backpressure} strategy of the endpoint bounds what
+ * a session buffers, in one place, on its outbound messages.
+ *
+ * <p>Queued messages are read after the transport released the inbound frame, so the payload is
+ * copied once when it is published and every session reads it through a buffer of its own.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+final class BroadcastFanOut {
+  private static final Logger log = LoggerFactory.getLogger(BroadcastFanOut.class);
+
+  /** Emits are serialized by {@link #emit}, so the sink does not need to detect concurrent ones. */
+  private final Sinks.Many<Inbound> sink = Sinks.unsafe().many().multicast().onBackpressureBuffer();
+
+  /**
+   * Publishes an inbound message to all sessions. Safe to call from the inbound threads of
+   * different sessions at once, concurrent callers publish one after the other.
+   *
+   * @param message the inbound message
+   */
+  void emit(final WebSocketMessage message) {
+    final DataBuffer payload = message.getPayload();
+    final byte[] bytes = new byte[payload.readableByteCount()];
+    payload.toByteBuffer(payload.readPosition(), ByteBuffer.wrap(bytes), 0, bytes.length);
+
+    final Sinks.EmitResult result;
+    synchronized (this.sink) {
+      result = this.sink.tryEmitNext(new Inbound(message.getType(), bytes));
+    }
+
+    if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+      log.debug("Broadcast message dropped: {}", result);
+    }
+  }
+
+  /**
+   * Returns the messages of one session, read through the unbounded queue of that session.
+   *
+   * @return the messages of the session
+   */
+  Flux<WebSocketMessage> subscribe() {
+    return this.sink
+        .asFlux()
+        .map(
+            inbound ->
+                new WebSocketMessage(
+                    inbound.type(),
+                    DefaultDataBufferFactory.sharedInstance.wrap(inbound.payload())))
+        .onBackpressureBuffer();
+  }
+
+  /** Inbound message detached from the transport buffer it was received in. */
+  private record Inbound(WebSocketMessage.Type type, byte[] payload) {}
+}
@@ -1,39 +1,46 @@
 package io.github.elpis.reactive.websockets.handler;
 
+import io.github.elpis.reactive.websockets.codec.MessageCodec;
+import io.github.elpis.reactive.websockets.codec.MessageCodecs;
 import io.github.elpis.reactive.websockets.event.manager.WebSocketEventManagerFactory;
-import io.github.elpis.reactive.websockets.exception.RateLimitExceededException;
 import io.github.elpis.reactive.websockets.handler.config.BackpressureConfig;
 import io.github.elpis.reactive.websockets.handler.config.HeartbeatConfig;
 import io.github.elpis.reactive.websockets.handler.config.RateLimitConfig;
 import io.github.elpis.reactive.websockets.handler.ratelimit.RateLimiterService;
-import io.github.elpis.reactive.websockets.security.principal.Anonymous;
 import io.github.elpis.reactive.websockets.session.WebSocketSessionContext;
 import io.github.elpis.reactive.websockets.session.WebSocketSessionRegistry;
-import io.github.elpis.reactive.websockets.web.annotation.RateLimit;
-import io.github.resilience4j.ratelimiter.RateLimiter;
-import io.github.resilience4j.ratelimiter.RequestNotPermitted;
-import io.github.resilience4j.reactor.ratelimiter.operator.RateLimiterOperator;
-import java.time.Duration;
-import java.util.concurrent.TimeUnit;
 import org.reactivestreams.Publisher;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.web.reactive.socket.WebSocketMessage;
 import org.springframework.web.reactive.socket.WebSocketSession;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.Sinks;
 
 public abstract class BroadcastWebSocketResourceHandler extends BaseWebSocketHandler {
-  private static final Logger log =
-      LoggerFactory.getLogger(BroadcastWebSocketResourceHandler.class);
+  private static final WebSocketSessionContext SHARED_CONTEXT =
+      WebSocketSessionContext.builder().build();
 
-  private final Sinks.Many<WebSocketMessage> sink = Sinks.many().multicast().onBackpressureBuffer();
+  private final BroadcastFanOut fanOut;
+  private final SharedOutput sharedOutput;
 
-  private final Sinks.Many<WebSocketMessage> pongMessages =
-      Sinks.many().multicast().onBackpressureBuffer();
+  protected BroadcastWebSocketResourceHandler(
+      final WebSocketEventManagerFactory eventManagerFactory,
+      final WebSocketSessionRegistry webSocketSessionRegistry,
+      final RateLimiterService rateLimiterService,
+      final String pathTemplate,
+      final HeartbeatConfig heartbeatConfig,
+      final RateLimitConfig rateLimitConfig,
+      final BackpressureConfig backpressureConfig) {
 
-  private final RateLimiterService rateLimiterService;
+    this(
+        eventManagerFactory,
+        webSocketSessionRegistry,
+        rateLimiterService,
+        pathTemplate,
+        heartbeatConfig,
+        rateLimitConfig,
+        backpressureConfig,
+        MessageCodecs.json());
+  }
 
   protected BroadcastWebSocketResourceHandler(
       final WebSocketEventManagerFactory eventManagerFactory,
@@ -42,85 +49,59 @@ public abstract class BroadcastWebSocketResourceHandler extends BaseWebSocketHan
       final String pathTemplate,
       final HeartbeatConfig heartbeatConfig,
       final RateLimitConfig rateLimitConfig,
-      final BackpressureConfig backpressureConfig) {
+      final BackpressureConfig backpressureConfig,
+      final MessageCodec messageCodec) {
 
     super(
         eventManagerFactory,
         webSocketSessionRegistry,
+        rateLimiterService,
         pathTemplate,
         heartbeatConfig,
         rateLimitConfig,
-        backpressureConfig);
-    this.rateLimiterService = rateLimiterService;
+        backpressureConfig,
+        messageCodec);
+
+    this.fanOut = new BroadcastFanOut();
+    this.sharedOutput =
+        this.hasSharedOutput() && !this.conflatesOutputElements()
+            ? new SharedOutput(
+                bufferFactory ->
+                    this.mapOutput(
+                        bufferFactory, this.apply(SHARED_CONTEXT, this.fanOut.subscribe())))
+            : null;
+  }
+
+  /**
+   * Returns whether the endpoint output is computed from the broadcast messages alone, without
+   * anything resolved from the session. Such output is applied once for all sessions and every
+   * element is encoded once. Overridden by the generated handlers.
+   *
+   * @return {@code true} if all sessions can share the endpoint output
+   */
+  protected boolean hasSharedOutput() {
+    return false;
   }
 
   @Override
   protected Flux<Void> buildChain(
-      WebSocketSession session, WebSocketSessionContext webSocketSessionContext) {
-    final Flux<WebSocketMessage> socketMessageFlux = this.sink.asFlux().share();
+      WebSocketSession session,
+      WebSocketSessionContext webSocketSessionContext,
+      Flux<WebSocketMessage> inboundMessages,
+      Flux<WebSocketMessage> directMessages) {
     final Flux<WebSocketMessage> messages =
-        this.getMessages(session, webSocketSessionContext, socketMessageFlux);
-
-    Flux<WebSocketMessage> incomingMessages =
-        session
-            .receive()
-            .filter(
-                webSocketMessage ->
-                    webSocketMessage.getType() != WebSocketMessage.Type.PING
-                        && webSocketMessage.getType() != WebSocketMessage.Type.PONG);
+        this.sharedOutput != null
+            ? this.applyOutboundBackpressure(session, this.sharedOutput.subscribe(session))
+            : this.getMessages(session, webSocketSessionContext, this.fanOut.subscribe());
 
-    incomingMessages = applyRateLimiting(session, webSocketSessionContext, incomingMessages);
+    final Flux<WebSocketMessage> incomingMessages =
+        this.applyRateLimiting(session, webSocketSessionContext, inboundMessages);
 
-    final Mono<Void> input = incomingMessages.doOnNext(sink::tryEmitNext).then();
+    final Mono<Void> input = incomingMessages.doOnNext(this.fanOut::emit).then();
 
-    return messages != null ? Flux.merge(input, session.send(messages)) : input.flux();
-  }
-
-  private Flux<WebSocketMessage> applyRateLimiting(
-      final WebSocketSession session,
-      final WebSocketSessionContext webSocketSessionContext,
-      final Flux<WebSocketMessage> incomingMessages) {
-
-    if (!this.isRateLimitEnabled()) {
-      return incomingMessages;
-    }
-
-    final String rateLimiterId = this.getRateLimiterIdentifier(session, webSocketSessionContext);
-    final RateLimiter rateLimiter =
-        rateLimiterService.getRateLimiter(
-            this.getPathTemplate(),
-            this.getRateLimitForPeriod(),
-            this.getRateLimitRefreshPeriod(),
-            TimeUnit.valueOf(this.getRateLimitTimeUnit()),
-            this.getRateLimitTimeout(),
-            rateLimiterId);
-
-    log.debug(
-        "Rate limiting enabled for path: {}, identifier: {}, limit: {}/{} {}",
-        this.getPathTemplate(),
-        rateLimiterId,
-        this.getRateLimitForPeriod(),
-        this.getRateLimitRefreshPeriod(),
-        this.getRateLimitTimeUnit());
-
-    return incomingMessages.flatMap(
-        msg ->
-            Mono.fromCallable(() -> msg)
-                .transformDeferred(RateLimiterOperator.of(rateLimiter))
-                .onErrorMap(
-                    RequestNotPermitted.class,
-                    ex ->
-                        new RateLimitExceededException(
-                            String.format(
-                                "Rate limit exceeded for %s. Maximum %d requests per %d %s allowed.",
-                                rateLimiterId,
-                                this.getRateLimitForPeriod(),
-                                this.getRateLimitRefreshPeriod(),
-                                this.getRateLimitTimeUnit().toLowerCase())))
-                .doOnError(
-                    RateLimitExceededException.class,
-                    ex -> log.warn("Rate limit exceeded: {}", ex.getMessage()))
-                .onErrorResume(RateLimitExceededException.class, ex -> Mono.empty()));
+    return Flux.merge(
+        input,
+        session.send(messages != null ? Flux.merge(messages, directMessages) : directMessages));
   }
 
   private Flux<WebSocketMessage> getMessages(
@@ -128,67 +109,15 @@ public abstract class BroadcastWebSocketResourceHandler extends BaseWebSocketHan
       final WebSocketSessionContext webSocketSessionContext,
       final Flux<WebSocketMessage> socketMessageFlux) {
 
-    final Publisher<?> publisher =
-        this.apply(
-            webSocketSessionContext,
-            socketMessageFlux.filter(
-                webSocketMessage ->
-                    webSocketMessage.getType() == WebSocketMessage.Type.TEXT
-                        || webSocketMessage.getType() == WebSocketMessage.Type.BINARY));
-
-    final Flux<WebSocketMessage> serverPings =
-        Flux.interval(Duration.ofSeconds(this.getHeartbeatInterval()))
-            .map(
-                aLong ->
-                    session.pingMessage(
-                        dataBufferFactory -> session.bufferFactory().allocateBuffer(256)));
-    final Flux<WebSocketMessage> pongs = this.pongMessages.asFlux();
-    if (publisher != null) {
-      Flux<WebSocketMessage> messages = this.mapOutput(session, publisher);
-
-      // Apply backpressure strategy to outgoing messages
-      messages = this.applyBackpressure(messages);
-
-      return this.isHeartbeatEnabled() ? Flux.merge(messages, serverPings, pongs) : messages;
-    } else {
+    final Publisher<?> publisher = this.apply(webSocketSessionContext, socketMessageFlux);
+
+    if (publisher == null) {
       this.run(webSocketSessionContext, socketMessageFlux);
-    }
 
-    return this.isHeartbeatEnabled() ? Flux.merge(serverPings, pongs) : null;
-  }
+      return null;
+    }
 
-  /**
-   * Determines the rate limiter identifier based on the configured scope.
-   *
-   * @param session the WebSocket session
-   * @param context the WebSocket session context
-   * @return the identifier for rate limiting
-   */
-  private String getRateLimiterIdentifier(
-      final WebSocketSession session, final WebSocketSessionContext context) {
-    final RateLimit.RateLimitScope scope =
-        RateLimit.RateLimitScope.valueOf(this.getRateLimitScope());
-
-    return switch (scope) {
-      case SESSION -> context.getSessionId();
-      case USER -> {
-        final String principalName =
-            context.getAuthentication() != null
-                    && !(context.getAuthentication() instanceof Anonymous)
-                ? context.getAuthentication().getName()
-                : "anonymous";
-        yield this.getPathTemplate() + ":" + principalName;
-      }
-      case IP -> {
-        final String ipAddress =
-            session.getHandshakeInfo().getRemoteAddress() != null
-                ? session.getHandshakeInfo().getRemoteAddress().getAddress().getHostAddress()
-                : "unknown";
-        yield this.getPathTemplate() + ":" + ipAddress;
-      }
-      case INHERIT ->
-          throw new IllegalStateException(
-              "INHERIT scope should be resolved during annotation processing and never reach runtime");
-    };
+    // Apply backpressure strategy to outgoing messages
+    return this.mapOutputWithBackpressure(session, publisher);
   }
 }
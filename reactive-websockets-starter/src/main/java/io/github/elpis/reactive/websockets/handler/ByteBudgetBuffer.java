@@ -0,0 +1,203 @@
+package io.github.elpis.reactive.websockets.handler;
+
+import io.github.elpis.reactive.websockets.handler.backpressure.OutboundMemoryBudget;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+/**
+ * Outbound buffer of one session bounded by the encoded size of its messages rather than their
+ * count.
+ *
+ * <p>The source is consumed without backpressure. Every message reserves its payload size against
+ * the byte budget of the session and the {@link OutboundMemoryBudget} shared by all sessions, the
+ * reservation is released once the message is requested by the socket or dropped. When a message
+ * does not fit, the overflow policy drops the oldest buffered messages until it fits, drops the
+ * message itself, or fails the session with an overflow error. Dropped payloads are released.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+final class ByteBudgetBuffer {
+  private final long maxBytes;
+  private final OutboundMemoryBudget globalBudget;
+  private final Overflow overflow;
+  private final FluxSink<WebSocketMessage> sink;
+
+  // Guards the buffered messages and the reserved bytes of the session
+  private final Deque<Buffered> buffered = new ArrayDeque<>();
+  private final AtomicInteger wip = new AtomicInteger();
+
+  private long bufferedBytes;
+  private boolean cleared;
+  private volatile boolean done;
+
+  private ByteBudgetBuffer(
+      final long maxBytes,
+      final OutboundMemoryBudget globalBudget,
+      final Overflow overflow,
+      final FluxSink<WebSocketMessage> sink) {
+    this.maxBytes = maxBytes;
+    this.globalBudget = globalBudget;
+    this.overflow = overflow;
+    this.sink = sink;
+  }
+
+  /**
+   * Buffers the outbound messages of one session within a byte budget.
+   *
+   * @param source the outbound messages
+   * @param maxBytes the bytes the session may buffer
+   * @param globalBudget the budget shared by all sessions
+   * @param overflow the policy applied to a message that does not fit
+   * @return the buffered messages
+   */
+  static Flux<WebSocketMessage> buffer(
+      final Publisher<WebSocketMessage> source,
+      final long maxBytes,
+      final OutboundMemoryBudget globalBudget,
+      final Overflow overflow) {
+    return Flux.create(
+        sink -> {
+          final ByteBudgetBuffer buffer =
+              new ByteBudgetBuffer(maxBytes, globalBudget, overflow, sink);
+          sink.onRequest(requested -> buffer.drain());
+          final Disposable subscription =
+              Flux.from(source).subscribe(buffer::offer, sink::error, buffer::complete);
+          sink.onDispose(
+              () -> {
+                subscription.dispose();
+                buffer.clear();
+              });
+        });
+  }
+
+  private void offer(final WebSocketMessage message) {
+    final long size = message.getPayload().readableByteCount();
+
+    boolean accepted;
+    final boolean live;
+    synchronized (this.buffered) {
+      live = !this.cleared;
+      accepted = live && this.reserve(size);
+      while (!accepted
+          && live
+          && this.overflow == Overflow.DROP_OLDEST
+          && !this.buffered.isEmpty()) {
+        this.discard(this.buffered.pollFirst());
+        accepted = this.reserve(size);
+      }
+
+      if (accepted) {
+        this.buffered.offerLast(new Buffered(message, size));
+      }
+    }
+
+    if (!accepted) {
+      DataBufferUtils.release(message.getPayload());
+
+      if (live && this.overflow == Overflow.ERROR) {
+        this.sink.error(
+            Exceptions.failWithOverflow(
+                "Outbound buffer exceeded its byte budget of " + this.maxBytes + " bytes"));
+        return;
+      }
+    }
+
+    this.drain();
+  }
+
+  private boolean reserve(final long size) {
+    if (this.bufferedBytes + size > this.maxBytes || !this.globalBudget.tryReserve(size)) {
+      return false;
+    }
+
+    this.bufferedBytes += size;
+    return true;
+  }
+
+  private void discard(final Buffered dropped) {
+    this.bufferedBytes -= dropped.size;
+    this.globalBudget.release(dropped.size);
+    DataBufferUtils.release(dropped.message.getPayload());
+  }
+
+  private void complete() {
+    this.done = true;
+    this.drain();
+  }
+
+  private void drain() {
+    if (this.wip.getAndIncrement() != 0) {
+      return;
+    }
+
+    int missed = 1;
+    do {
+      long requested = this.sink.requestedFromDownstream();
+      while (requested > 0) {
+        final WebSocketMessage next = this.poll();
+        if (next == null) {
+          break;
+        }
+
+        this.sink.next(next);
+        requested--;
+      }
+
+      if (this.done && this.isEmpty()) {
+        this.sink.complete();
+      }
+
+      missed = this.wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private WebSocketMessage poll() {
+    synchronized (this.buffered) {
+      final Buffered next = this.buffered.pollFirst();
+      if (next == null) {
+        return null;
+      }
+
+      this.bufferedBytes -= next.size;
+      this.globalBudget.release(next.size);
+
+      return next.message;
+    }
+  }
+
+  private boolean isEmpty() {
+    synchronized (this.buffered) {
+      return this.buffered.isEmpty();
+    }
+  }
+
+  /** Releases the reservations and payloads of messages never handed to the socket. */
+  private void clear() {
+    synchronized (this.buffered) {
+      this.cleared = true;
+
+      Buffered dropped;
+      while ((dropped = this.buffered.pollFirst()) != null) {
+        this.discard(dropped);
+      }
+    }
+  }
+
+  /** What happens to a message that does not fit the byte budget. */
+  enum Overflow {
+    DROP_OLDEST,
+    DROP_LATEST,
+    ERROR
+  }
+
+  private record Buffered(WebSocketMessage message, long size) {}
+}
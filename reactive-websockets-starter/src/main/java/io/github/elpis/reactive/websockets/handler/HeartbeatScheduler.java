@@ -0,0 +1,249 @@
+package io.github.elpis.reactive.websockets.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Hashed timing wheel that drives heartbeat pings of all sessions from one thread.
+ *
+ * <p>Every registered session gets a {@link Heartbeat} entry sitting in one bucket of the wheel.
+ * The worker advances one bucket per tick and fires the entries whose deadline has come: it sends a
+ * ping when the interval has passed and closes the session when no pong was seen within the
+ * timeout. Registration goes through a lock-free queue that only the worker drains, so the buckets
+ * are never shared between threads and idle sessions cost no timer of their own.
+ *
+ * <p>One scheduler is shared by all handlers of the application context. Its worker thread starts
+ * with the first registered session and is stopped by {@link #dispose()} when the context closes.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+public final class HeartbeatScheduler {
+  private static final Logger log = LoggerFactory.getLogger(HeartbeatScheduler.class);
+
+  private static final long TICK_MILLIS = 100L;
+  private static final int WHEEL_SIZE = 512;
+  private static final int MASK = WHEEL_SIZE - 1;
+
+  private final long tickNanos = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+  private final Queue<Heartbeat> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean started = new AtomicBoolean();
+  private Scheduler worker;
+  private boolean disposed;
+
+  @SuppressWarnings("unchecked")
+  private final List<Heartbeat>[] wheel = new List[WHEEL_SIZE];
+
+  private List<Heartbeat> spare = new ArrayList<>();
+  private long tick;
+
+  public HeartbeatScheduler() {
+    for (int i = 0; i < WHEEL_SIZE; i++) {
+      this.wheel[i] = new ArrayList<>();
+    }
+  }
+
+  /**
+   * Stops the worker thread. Heartbeats registered afterwards never fire.
+   *
+   * @since 1.0.0
+   */
+  public synchronized void dispose() {
+    this.disposed = true;
+    if (this.worker != null) {
+      this.worker.dispose();
+    }
+  }
+
+  /**
+   * Starts the heartbeat of one session. The first ping is sent one interval after registration,
+   * the session is closed when a ping is not answered by a pong within the timeout.
+   *
+   * @param intervalSeconds interval between pings in seconds
+   * @param timeoutSeconds time a ping may stay unanswered before the session is closed, in seconds
+   * @param ping sends one ping to the session
+   * @param onTimeout closes the session
+   * @return the heartbeat entry of the session
+   */
+  Heartbeat register(
+      final long intervalSeconds,
+      final long timeoutSeconds,
+      final Runnable ping,
+      final Runnable onTimeout) {
+    final Heartbeat heartbeat =
+        new Heartbeat(
+            TimeUnit.SECONDS.toNanos(Math.max(1L, intervalSeconds)),
+            TimeUnit.SECONDS.toNanos(Math.max(0L, timeoutSeconds)),
+            ping,
+            onTimeout);
+
+    this.pending.offer(heartbeat);
+    this.start();
+
+    return heartbeat;
+  }
+
+  private void start() {
+    if (this.started.get()) {
+      return;
+    }
+
+    synchronized (this) {
+      if (!this.disposed && this.started.compareAndSet(false, true)) {
+        this.worker = Schedulers.newSingle("reactive-websockets-heartbeat", true);
+        this.worker.schedulePeriodically(
+            this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  private void tick() {
+    final long now = System.nanoTime();
+    this.tick++;
+
+    final int slot = (int) (this.tick & MASK);
+    final List<Heartbeat> due = this.wheel[slot];
+    this.wheel[slot] = this.spare;
+
+    // Drained after the swap, so an entry due a whole wheel turn from now is not fired right away
+    Heartbeat registered;
+    while ((registered = this.pending.poll()) != null) {
+      if (!registered.cancelled) {
+        this.place(registered, registered.nextPing, now);
+      }
+    }
+
+    for (final Heartbeat heartbeat : due) {
+      if (heartbeat.cancelled) {
+        continue;
+      }
+
+      if (heartbeat.rounds > 0) {
+        heartbeat.rounds--;
+        this.wheel[slot].add(heartbeat);
+        continue;
+      }
+
+      final long next = heartbeat.fire(now);
+      if (next != Heartbeat.DONE) {
+        this.place(heartbeat, next, now);
+      }
+    }
+
+    due.clear();
+    this.spare = due;
+  }
+
+  private void place(final Heartbeat heartbeat, final long fireAt, final long now) {
+    final long ticks = Math.max(1L, (fireAt - now + this.tickNanos - 1) / this.tickNanos);
+
+    heartbeat.rounds = (ticks - 1) / WHEEL_SIZE;
+    this.wheel[(int) ((this.tick + ticks) & MASK)].add(heartbeat);
+  }
+
+  /**
+   * Heartbeat state of one session. Pongs are recorded from the inbound thread of the session, the
+   * rest of the state belongs to the wheel worker.
+   */
+  static final class Heartbeat {
+    private static final long DONE = Long.MIN_VALUE;
+
+    private final long intervalNanos;
+    private final long timeoutNanos;
+    private final Runnable ping;
+    private final Runnable onTimeout;
+
+    private volatile long lastPong = System.nanoTime();
+    private volatile boolean tracking;
+    private volatile boolean cancelled;
+
+    private long nextPing;
+    private long unansweredPing;
+    private boolean awaitingPong;
+    private long rounds;
+
+    private Heartbeat(
+        final long intervalNanos,
+        final long timeoutNanos,
+        final Runnable ping,
+        final Runnable onTimeout) {
+      this.intervalNanos = intervalNanos;
+      this.timeoutNanos = timeoutNanos;
+      this.ping = ping;
+      this.onTimeout = onTimeout;
+      this.nextPing = System.nanoTime() + intervalNanos;
+    }
+
+    /**
+     * Enables the timeout. Until this is called pongs cannot be observed, so the session is only
+     * pinged and never closed for being silent. Pings sent before count as answered.
+     */
+    void track() {
+      this.lastPong = System.nanoTime();
+      this.tracking = true;
+    }
+
+    /** Records a pong received from the client. */
+    void pong() {
+      this.lastPong = System.nanoTime();
+    }
+
+    /** Stops the heartbeat, the entry is dropped from the wheel on its next turn. */
+    void cancel() {
+      this.cancelled = true;
+    }
+
+    /** Pings or closes the session and returns the next time it is due, or {@link #DONE}. */
+    private long fire(final long now) {
+      if (this.awaitingPong && this.lastPong - this.unansweredPing >= 0) {
+        this.awaitingPong = false;
+      }
+
+      if (this.timesOut() && now - this.timeoutDeadline() >= 0) {
+        this.cancelled = true;
+        this.run(this.onTimeout);
+
+        return DONE;
+      }
+
+      if (now - this.nextPing >= 0) {
+        this.run(this.ping);
+        this.nextPing = now + this.intervalNanos;
+
+        if (!this.awaitingPong) {
+          this.awaitingPong = true;
+          this.unansweredPing = now;
+        }
+      }
+
+      return this.timesOut() && this.timeoutDeadline() - this.nextPing < 0
+          ? this.timeoutDeadline()
+          : this.nextPing;
+    }
+
+    private boolean timesOut() {
+      return this.tracking && this.timeoutNanos > 0 && this.awaitingPong;
+    }
+
+    /** The timeout runs from the oldest unanswered ping, a silent client gets a full timeout. */
+    private long timeoutDeadline() {
+      return this.unansweredPing + this.timeoutNanos;
+    }
+
+    private void run(final Runnable action) {
+      try {
+        action.run();
+      } catch (RuntimeException e) {
+        log.error("Heartbeat action failed: {}", e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,186 @@
+package io.github.elpis.reactive.websockets.handler;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+/**
+ * Keyed conflation of the outbound elements of one session.
+ *
+ * <p>The source is consumed without backpressure into a fixed-size map of pending elements keyed by
+ * the conflation key. A newer element replaces the pending element of the same key but keeps its
+ * place, so every key is delivered once with its newest value, in the order the keys first became
+ * pending. When the map holds {@code maxKeys} keys and an element of a new key arrives, the oldest
+ * pending key is dropped. Elements are only handed downstream on demand, a lagging session
+ * therefore loses intermediate updates per key rather than whole streams.
+ *
+ * <p>The slot of an element may also be chosen by a {@link Policy} that observes the queue depth
+ * and the time each element waited before it was requested, which lets the policy switch between
+ * delivering every element and conflating them.
+ *
+ * @param <T> the element type
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+final class KeyConflation<T> {
+  private final Policy<? super T> policy;
+  private final int maxKeys;
+  private final FluxSink<T> sink;
+
+  // Guards the pending elements and the state of the policy
+  private final Map<Object, Pending<T>> pending = new LinkedHashMap<>();
+  private final AtomicInteger wip = new AtomicInteger();
+
+  private volatile boolean done;
+
+  private KeyConflation(
+      final Policy<? super T> policy, final int maxKeys, final FluxSink<T> sink) {
+    this.policy = policy;
+    this.maxKeys = Math.max(1, maxKeys);
+    this.sink = sink;
+  }
+
+  /**
+   * Conflates the source by key.
+   *
+   * @param source the elements to conflate
+   * @param keyExtractor extracts the conflation key of an element
+   * @param maxKeys maximum number of pending keys
+   * @param <T> the element type
+   * @return the conflated elements
+   */
+  static <T> Flux<T> conflate(
+      final Publisher<? extends T> source,
+      final Function<? super T, ?> keyExtractor,
+      final int maxKeys) {
+    return conflate(source, (element, depth) -> keyExtractor.apply(element), maxKeys);
+  }
+
+  /**
+   * Conflates the source by the slots chosen by the policy.
+   *
+   * @param source the elements to conflate
+   * @param policy chooses the slot of every element
+   * @param maxKeys maximum number of pending slots
+   * @param <T> the element type
+   * @return the conflated elements
+   */
+  static <T> Flux<T> conflate(
+      final Publisher<? extends T> source, final Policy<? super T> policy, final int maxKeys) {
+    return Flux.create(
+        sink -> {
+          final KeyConflation<T> conflation = new KeyConflation<>(policy, maxKeys, sink);
+          sink.onRequest(requested -> conflation.drain());
+          sink.onDispose(
+              Flux.from(source)
+                  .subscribe(conflation::offer, sink::error, conflation::complete));
+        });
+  }
+
+  private void offer(final T element) {
+    final long now = System.nanoTime();
+
+    synchronized (this.pending) {
+      final Object key = this.policy.slot(element, this.pending.size());
+      if (this.pending.size() >= this.maxKeys && !this.pending.containsKey(key)) {
+        final Iterator<Pending<T>> eldest = this.pending.values().iterator();
+        eldest.next();
+        eldest.remove();
+      }
+
+      // A replaced element keeps the enqueue time of the first element of its slot
+      this.pending.compute(
+          key,
+          (slot, current) -> new Pending<>(element, current != null ? current.enqueuedAt : now));
+    }
+
+    this.drain();
+  }
+
+  private void complete() {
+    this.done = true;
+    this.drain();
+  }
+
+  private void drain() {
+    if (this.wip.getAndIncrement() != 0) {
+      return;
+    }
+
+    int missed = 1;
+    do {
+      long requested = this.sink.requestedFromDownstream();
+      while (requested > 0) {
+        final T next = this.poll();
+        if (next == null) {
+          break;
+        }
+
+        this.sink.next(next);
+        requested--;
+      }
+
+      if (this.done && this.isEmpty()) {
+        this.sink.complete();
+      }
+
+      missed = this.wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private T poll() {
+    synchronized (this.pending) {
+      final Iterator<Pending<T>> eldest = this.pending.values().iterator();
+      if (!eldest.hasNext()) {
+        return null;
+      }
+
+      final Pending<T> next = eldest.next();
+      eldest.remove();
+      this.policy.dequeued(System.nanoTime() - next.enqueuedAt, this.pending.size());
+
+      return next.element;
+    }
+  }
+
+  private boolean isEmpty() {
+    synchronized (this.pending) {
+      return this.pending.isEmpty();
+    }
+  }
+
+  /**
+   * Chooses the slot of every element. Elements of equal slots are conflated. Both methods are
+   * called under the lock of the pending elements, so the policy needs no synchronization of its
+   * own.
+   *
+   * @param <T> the element type
+   */
+  @FunctionalInterface
+  interface Policy<T> {
+
+    /**
+     * Returns the slot of an element about to be enqueued.
+     *
+     * @param element the element
+     * @param depth the number of pending slots
+     * @return the slot, elements of equal slots are conflated
+     */
+    Object slot(T element, int depth);
+
+    /**
+     * Called when an element is handed downstream.
+     *
+     * @param lagNanos time the element waited in the queue
+     * @param depth the number of slots still pending
+     */
+    default void dequeued(final long lagNanos, final int depth) {}
+  }
+
+  private record Pending<T>(T element, long enqueuedAt) {}
+}
@@ -0,0 +1,81 @@
+package io.github.elpis.reactive.websockets.handler;
+
+import io.github.elpis.reactive.websockets.config.SessionCloseInfo;
+import io.github.elpis.reactive.websockets.event.model.impl.ServerSessionClosedEvent;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.socket.CloseStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Index of the sessions opened by one handler, used to route {@link ServerSessionClosedEvent} to
+ * the affected session only. A single subscription per handler looks the session up by id, so a
+ * server-side close costs one map lookup instead of a predicate evaluation on every open session.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+final class SessionCloseDispatcher {
+  private static final Logger log = LoggerFactory.getLogger(SessionCloseDispatcher.class);
+
+  private final Map<String, Sinks.One<CloseStatus>> closeSignals = new ConcurrentHashMap<>();
+  private final AtomicBoolean listening = new AtomicBoolean();
+
+  /**
+   * Subscribes to server closed events once, subsequent calls are ignored.
+   *
+   * @param events server closed events
+   */
+  void listen(final Flux<ServerSessionClosedEvent> events) {
+    if (this.listening.compareAndSet(false, true)) {
+      events
+          .map(ServerSessionClosedEvent::payload)
+          .subscribe(
+              this::dispatch,
+              throwable -> log.error("Server close dispatch failed: {}", throwable.getMessage()));
+    }
+  }
+
+  /**
+   * Registers the session and returns its close signal. The signal emits the requested {@link
+   * CloseStatus} on server-side close or completes empty once the session is unregistered.
+   *
+   * @param sessionId id of the session
+   * @return close signal of the session
+   */
+  Mono<CloseStatus> register(final String sessionId) {
+    final Sinks.One<CloseStatus> closeSignal = Sinks.one();
+    this.closeSignals.put(sessionId, closeSignal);
+
+    return closeSignal.asMono();
+  }
+
+  /**
+   * Removes the session from the index and completes its close signal.
+   *
+   * @param sessionId id of the session
+   */
+  void unregister(final String sessionId) {
+    final Sinks.One<CloseStatus> closeSignal = this.closeSignals.remove(sessionId);
+    if (closeSignal != null) {
+      closeSignal.tryEmitEmpty();
+    }
+  }
+
+  void dispatch(final SessionCloseInfo sessionCloseInfo) {
+    final Sinks.One<CloseStatus> closeSignal =
+        this.closeSignals.remove(sessionCloseInfo.getSession().getSessionId());
+
+    if (closeSignal != null) {
+      closeSignal.tryEmitValue(
+          sessionCloseInfo.getCloseStatus() != null
+              ? sessionCloseInfo.getCloseStatus()
+              : CloseStatus.NORMAL);
+    }
+  }
+}
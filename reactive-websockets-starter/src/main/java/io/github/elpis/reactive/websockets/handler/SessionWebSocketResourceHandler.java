@@ -0,0 +1,91 @@
+package io.github.elpis.reactive.websockets.handler;
+
+import io.github.elpis.reactive.websockets.codec.MessageCodec;
+import io.github.elpis.reactive.websockets.codec.MessageCodecs;
+import io.github.elpis.reactive.websockets.event.manager.WebSocketEventManagerFactory;
+import io.github.elpis.reactive.websockets.handler.config.BackpressureConfig;
+import io.github.elpis.reactive.websockets.handler.config.HeartbeatConfig;
+import io.github.elpis.reactive.websockets.handler.config.RateLimitConfig;
+import io.github.elpis.reactive.websockets.handler.ratelimit.RateLimiterService;
+import io.github.elpis.reactive.websockets.session.WebSocketSessionContext;
+import io.github.elpis.reactive.websockets.session.WebSocketSessionRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+
+/**
+ * Handler engine for {@link io.github.elpis.reactive.websockets.config.Mode#SESSION} endpoints.
+ * Every connection gets its own inbound {@link Flux} that is passed straight to the endpoint, so
+ * messages of one client never reach the pipelines of other clients and sessions do not contend
+ * on a shared sink.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+public abstract class SessionWebSocketResourceHandler extends BaseWebSocketHandler {
+
+  protected SessionWebSocketResourceHandler(
+      final WebSocketEventManagerFactory eventManagerFactory,
+      final WebSocketSessionRegistry webSocketSessionRegistry,
+      final RateLimiterService rateLimiterService,
+      final String pathTemplate,
+      final HeartbeatConfig heartbeatConfig,
+      final RateLimitConfig rateLimitConfig,
+      final BackpressureConfig backpressureConfig) {
+
+    this(
+        eventManagerFactory,
+        webSocketSessionRegistry,
+        rateLimiterService,
+        pathTemplate,
+        heartbeatConfig,
+        rateLimitConfig,
+        backpressureConfig,
+        MessageCodecs.json());
+  }
+
+  protected SessionWebSocketResourceHandler(
+      final WebSocketEventManagerFactory eventManagerFactory,
+      final WebSocketSessionRegistry webSocketSessionRegistry,
+      final RateLimiterService rateLimiterService,
+      final String pathTemplate,
+      final HeartbeatConfig heartbeatConfig,
+      final RateLimitConfig rateLimitConfig,
+      final BackpressureConfig backpressureConfig,
+      final MessageCodec messageCodec) {
+
+    super(
+        eventManagerFactory,
+        webSocketSessionRegistry,
+        rateLimiterService,
+        pathTemplate,
+        heartbeatConfig,
+        rateLimitConfig,
+        backpressureConfig,
+        messageCodec);
+  }
+
+  @Override
+  protected Flux<Void> buildChain(
+      WebSocketSession session,
+      WebSocketSessionContext webSocketSessionContext,
+      Flux<WebSocketMessage> inboundMessages,
+      Flux<WebSocketMessage> directMessages) {
+    final Flux<WebSocketMessage> incomingMessages =
+        this.applyRateLimiting(session, webSocketSessionContext, inboundMessages);
+
+    final Publisher<?> publisher = this.apply(webSocketSessionContext, incomingMessages);
+
+    if (publisher == null) {
+      this.run(webSocketSessionContext, incomingMessages);
+
+      return session.send(directMessages).flux();
+    }
+
+    // Apply backpressure strategy to outgoing messages
+    final Flux<WebSocketMessage> messages = this.mapOutputWithBackpressure(session, publisher);
+
+    return session.send(Flux.merge(messages, directMessages)).flux();
+  }
+}
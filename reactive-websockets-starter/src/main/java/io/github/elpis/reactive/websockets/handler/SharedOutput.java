@@ -0,0 +1,152 @@
+package io.github.elpis.reactive.websockets.handler;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import org.reactivestreams.Subscription;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Output of a broadcast endpoint that does not depend on the session, shared by all sessions.
+ *
+ * <p>The endpoint output is subscribed once and every element is encoded once, into a single
+ * reference-counted buffer. Every session receives a retained slice of that buffer, so the bytes
+ * are neither encoded nor copied per session, and the buffer is freed once the last session sent
+ * or dropped its slice. Slices are queued per session without bound, the {@code @Backpressure}
+ * strategy of the endpoint bounds them like any other outbound message.
+ *
+ * <p>The output is subscribed when the first session joins and cancelled when the last one
+ * leaves, a session joining later receives the elements emitted from then on. Once the output
+ * terminates, the sessions reading it are completed and the next session to join subscribes it
+ * again.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+final class SharedOutput {
+  private final Function<DataBufferFactory, Flux<WebSocketMessage>> source;
+  private final List<Sinks.Many<WebSocketMessage>> sessions = new CopyOnWriteArrayList<>();
+
+  private volatile Connection connection;
+
+  /**
+   * Creates the shared output.
+   *
+   * @param source the encoded endpoint output, allocated from the given buffer factory
+   */
+  SharedOutput(final Function<DataBufferFactory, Flux<WebSocketMessage>> source) {
+    this.source = source;
+  }
+
+  /**
+   * Returns the messages of one session, each holding a retained slice of the shared payload.
+   *
+   * @param session the session reading the output
+   * @return the messages of the session
+   */
+  Flux<WebSocketMessage> subscribe(final WebSocketSession session) {
+    return Flux.defer(
+        () -> {
+          final Sinks.Many<WebSocketMessage> sink = Sinks.many().unicast().onBackpressureBuffer();
+          this.join(sink, session.bufferFactory());
+
+          return sink.asFlux()
+              .doOnDiscard(WebSocketMessage.class, SharedOutput::release)
+              .doFinally(signalType -> this.leave(sink));
+        });
+  }
+
+  private synchronized void join(
+      final Sinks.Many<WebSocketMessage> sink, final DataBufferFactory bufferFactory) {
+    this.sessions.add(sink);
+
+    if (this.connection == null) {
+      // Assigned before subscribing, the output may terminate while it is subscribed
+      this.connection = new Connection();
+      this.source
+          .apply(bufferFactory)
+          .doOnDiscard(WebSocketMessage.class, SharedOutput::release)
+          .subscribe(this.connection);
+    }
+  }
+
+  private synchronized void leave(final Sinks.Many<WebSocketMessage> sink) {
+    this.sessions.remove(sink);
+
+    if (this.sessions.isEmpty() && this.connection != null) {
+      this.connection.dispose();
+      this.connection = null;
+    }
+  }
+
+  private synchronized List<Sinks.Many<WebSocketMessage>> terminate(final Connection connection) {
+    if (this.connection != connection) {
+      return List.of();
+    }
+
+    this.connection = null;
+    final List<Sinks.Many<WebSocketMessage>> terminated = List.copyOf(this.sessions);
+    this.sessions.clear();
+
+    return terminated;
+  }
+
+  /** Hands every session a retained slice of the payload, then releases the payload itself. */
+  @SuppressWarnings("deprecation")
+  private void publish(final WebSocketMessage message) {
+    final DataBuffer payload = message.getPayload();
+    try {
+      for (final Sinks.Many<WebSocketMessage> sink : this.sessions) {
+        final WebSocketMessage slice =
+            new WebSocketMessage(
+                message.getType(),
+                payload.retainedSlice(payload.readPosition(), payload.readableByteCount()));
+
+        if (sink.tryEmitNext(slice).isFailure()) {
+          release(slice);
+        }
+      }
+    } finally {
+      DataBufferUtils.release(payload);
+    }
+  }
+
+  private static void release(final WebSocketMessage message) {
+    DataBufferUtils.release(message.getPayload());
+  }
+
+  /** Subscription to the endpoint output, shared by the sessions that joined while it lasts. */
+  private final class Connection extends BaseSubscriber<WebSocketMessage> {
+
+    @Override
+    protected void hookOnSubscribe(final Subscription subscription) {
+      subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    protected void hookOnNext(final WebSocketMessage message) {
+      if (connection == this) {
+        publish(message);
+      } else {
+        release(message);
+      }
+    }
+
+    @Override
+    protected void hookOnComplete() {
+      terminate(this).forEach(Sinks.Many::tryEmitComplete);
+    }
+
+    @Override
+    protected void hookOnError(final Throwable throwable) {
+      terminate(this).forEach(sink -> sink.tryEmitError(throwable));
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package io.github.elpis.reactive.websockets.handler.backpressure;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Service;
+
+/**
+ * Outbound lag histograms of all endpoints with {@code ADAPTIVE} backpressure, keyed by the path
+ * template of the endpoint.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+@Service
+public class BackpressureLagMetrics {
+  private final Map<String, LagHistogram> histograms = new ConcurrentHashMap<>();
+
+  /**
+   * Registers the lag histogram of an endpoint.
+   *
+   * @param pathTemplate the path template of the endpoint
+   * @param histogram the lag histogram of the endpoint
+   */
+  public void register(final String pathTemplate, final LagHistogram histogram) {
+    this.histograms.put(pathTemplate, histogram);
+  }
+
+  /**
+   * Returns the lag histogram of an endpoint.
+   *
+   * @param pathTemplate the path template of the endpoint
+   * @return the lag histogram, empty if the endpoint has no adaptive backpressure
+   */
+  public Optional<LagHistogram> getLagHistogram(final String pathTemplate) {
+    return Optional.ofNullable(this.histograms.get(pathTemplate));
+  }
+
+  /**
+   * Returns the lag histograms of all endpoints with adaptive backpressure.
+   *
+   * @return unmodifiable view of the histograms keyed by path template
+   */
+  public Map<String, LagHistogram> getLagHistograms() {
+    return Collections.unmodifiableMap(this.histograms);
+  }
+}
@@ -0,0 +1,100 @@
+package io.github.elpis.reactive.websockets.handler.backpressure;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Lock-free histogram of the outbound lag of one endpoint, the time an outbound element waited
+ * before the session socket asked for it.
+ *
+ * <p>Samples fall into power-of-two buckets of microseconds, so a percentile is exact to a factor
+ * of two, which is enough to tell a LAN client from a mobile one. Recording is a single atomic
+ * increment.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+public final class LagHistogram {
+  private static final int BUCKETS = 40;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+  /**
+   * Records one lag sample.
+   *
+   * @param lagNanos the lag in nanoseconds
+   */
+  public void record(final long lagNanos) {
+    final long micros = Math.max(0L, TimeUnit.NANOSECONDS.toMicros(lagNanos));
+
+    this.counts.incrementAndGet(bucket(micros));
+    this.max.accumulate(micros);
+  }
+
+  /**
+   * Returns the number of recorded samples.
+   *
+   * @return recorded samples
+   */
+  public long getCount() {
+    long count = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      count += this.counts.get(i);
+    }
+
+    return count;
+  }
+
+  /**
+   * Returns the upper bound of the bucket holding the given percentile of the samples.
+   *
+   * @param percentile the percentile between 0 and 100
+   * @return the lag at the percentile, zero if nothing was recorded
+   */
+  public Duration getPercentile(final double percentile) {
+    final long[] snapshot = new long[BUCKETS];
+    long count = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = this.counts.get(i);
+      count += snapshot[i];
+    }
+
+    if (count == 0) {
+      return Duration.ZERO;
+    }
+
+    final long rank = (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * count);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= Math.max(1L, rank)) {
+        final long micros = Math.min(upperBound(i), this.max.get());
+
+        return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(micros));
+      }
+    }
+
+    return this.getMax();
+  }
+
+  /**
+   * Returns the largest recorded lag.
+   *
+   * @return the maximum lag
+   */
+  public Duration getMax() {
+    return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(this.max.get()));
+  }
+
+  /** Bucket {@code i} holds lags below {@code 2^i} microseconds. */
+  private static int bucket(final long micros) {
+    return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+  }
+
+  private static long upperBound(final int bucket) {
+    return (1L << bucket) - 1;
+  }
+}
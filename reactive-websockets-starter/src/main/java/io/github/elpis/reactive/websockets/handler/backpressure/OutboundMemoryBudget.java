@@ -0,0 +1,77 @@
+package io.github.elpis.reactive.websockets.handler.backpressure;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memory ceiling shared by the byte-accounted outbound buffers of all sessions.
+ *
+ * <p>A session reserves the encoded size of every message it buffers and releases it once the
+ * message is handed to the socket or dropped. A reservation that would exceed the ceiling fails and
+ * the session applies its overflow strategy, so the outbound buffers of all sessions together never
+ * hold more than the ceiling. Define a bean of this type to change the default ceiling of a quarter
+ * of the maximum heap.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+public class OutboundMemoryBudget {
+  private final long maxBytes;
+  private final AtomicLong reservedBytes = new AtomicLong();
+
+  public OutboundMemoryBudget() {
+    this(Runtime.getRuntime().maxMemory() / 4);
+  }
+
+  /**
+   * Creates a budget with a custom ceiling.
+   *
+   * @param maxBytes the bytes all outbound buffers may hold together
+   */
+  public OutboundMemoryBudget(final long maxBytes) {
+    if (maxBytes < 1) {
+      throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+    }
+
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Reserves bytes if the ceiling allows it.
+   *
+   * @param bytes the bytes to reserve
+   * @return {@code true} if the bytes were reserved
+   */
+  public boolean tryReserve(final long bytes) {
+    long current;
+    do {
+      current = this.reservedBytes.get();
+      if (current + bytes > this.maxBytes) {
+        return false;
+      }
+    } while (!this.reservedBytes.compareAndSet(current, current + bytes));
+
+    return true;
+  }
+
+  /**
+   * Releases bytes reserved by {@link #tryReserve}.
+   *
+   * @param bytes the bytes to release
+   */
+  public void release(final long bytes) {
+    this.reservedBytes.addAndGet(-bytes);
+  }
+
+  /**
+   * Returns the bytes currently reserved by all sessions.
+   *
+   * @return reserved bytes
+   */
+  public long getReservedBytes() {
+    return this.reservedBytes.get();
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+}
@@ -1,6 +1,7 @@
 package io.github.elpis.reactive.websockets.handler.config;
 
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Configuration for WebSocket backpressure handling.
@@ -10,14 +11,27 @@ import java.util.Optional;
  * @since 1.0.0
  */
 public record BackpressureConfig(Optional<BackpressureConfigData> config) {
+  private static final int DEFAULT_CLOSE_CODE = 1008;
+  private static final long DEFAULT_MAX_LAG_MILLIS = 250L;
 
   /**
    * Backpressure configuration data.
    *
-   * @param strategy the backpressure strategy (BUFFER, DROP_OLDEST, DROP_LATEST, ERROR)
+   * @param strategy the backpressure strategy (BUFFER, DROP_OLDEST, DROP_LATEST, ERROR,
+   *     DISCONNECT, CONFLATE, ADAPTIVE)
    * @param bufferSize the buffer size for BUFFER strategy
+   * @param closeCode the close code sent to sessions disconnected on overflow
+   * @param conflationKey extracts the conflation key of an outbound element, may be {@code null}
+   * @param maxLagMillis the outbound lag tolerated by the ADAPTIVE strategy, in milliseconds
+   * @param maxBufferedBytes the byte budget of a session buffer, {@code 0} to count messages
    */
-  public record BackpressureConfigData(String strategy, int bufferSize) {}
+  public record BackpressureConfigData(
+      String strategy,
+      int bufferSize,
+      int closeCode,
+      Function<Object, ?> conflationKey,
+      long maxLagMillis,
+      long maxBufferedBytes) {}
 
   /** Creates a BackpressureConfig with backpressure handling disabled. */
   public static BackpressureConfig disabled() {
@@ -32,7 +46,85 @@ public record BackpressureConfig(Optional<BackpressureConfigData> config) {
    * @return configured BackpressureConfig
    */
   public static BackpressureConfig of(String strategy, int bufferSize) {
-    return new BackpressureConfig(Optional.of(new BackpressureConfigData(strategy, bufferSize)));
+    return of(strategy, bufferSize, DEFAULT_CLOSE_CODE);
+  }
+
+  /**
+   * Creates a BackpressureConfig with the specified parameters.
+   *
+   * @param strategy the backpressure strategy
+   * @param bufferSize the buffer size for BUFFER strategy
+   * @param closeCode the close code sent to sessions disconnected on overflow
+   * @return configured BackpressureConfig
+   */
+  public static BackpressureConfig of(String strategy, int bufferSize, int closeCode) {
+    return new BackpressureConfig(
+        Optional.of(
+            new BackpressureConfigData(
+                strategy, bufferSize, closeCode, null, DEFAULT_MAX_LAG_MILLIS, 0L)));
+  }
+
+  /**
+   * Creates a BackpressureConfig with the specified parameters.
+   *
+   * @param strategy the backpressure strategy
+   * @param bufferSize the buffer size, or the maximum number of pending keys for CONFLATE
+   * @param closeCode the close code sent to sessions disconnected on overflow
+   * @param conflationKey extracts the conflation key of an outbound element
+   * @return configured BackpressureConfig
+   */
+  public static BackpressureConfig of(
+      String strategy, int bufferSize, int closeCode, Function<?, ?> conflationKey) {
+    return of(strategy, bufferSize, closeCode, conflationKey, DEFAULT_MAX_LAG_MILLIS);
+  }
+
+  /**
+   * Creates a BackpressureConfig with the specified parameters.
+   *
+   * @param strategy the backpressure strategy
+   * @param bufferSize the buffer size, or the maximum number of pending keys for CONFLATE
+   * @param closeCode the close code sent to sessions disconnected on overflow
+   * @param conflationKey extracts the conflation key of an outbound element, may be {@code null}
+   * @param maxLagMillis the outbound lag tolerated by the ADAPTIVE strategy, in milliseconds
+   * @return configured BackpressureConfig
+   */
+  public static BackpressureConfig of(
+      String strategy,
+      int bufferSize,
+      int closeCode,
+      Function<?, ?> conflationKey,
+      long maxLagMillis) {
+    return of(strategy, bufferSize, closeCode, conflationKey, maxLagMillis, 0L);
+  }
+
+  /**
+   * Creates a BackpressureConfig with the specified parameters.
+   *
+   * @param strategy the backpressure strategy
+   * @param bufferSize the buffer size, or the maximum number of pending keys for CONFLATE
+   * @param closeCode the close code sent to sessions disconnected on overflow
+   * @param conflationKey extracts the conflation key of an outbound element, may be {@code null}
+   * @param maxLagMillis the outbound lag tolerated by the ADAPTIVE strategy, in milliseconds
+   * @param maxBufferedBytes the byte budget of a session buffer, {@code 0} to count messages
+   * @return configured BackpressureConfig
+   */
+  @SuppressWarnings("unchecked")
+  public static BackpressureConfig of(
+      String strategy,
+      int bufferSize,
+      int closeCode,
+      Function<?, ?> conflationKey,
+      long maxLagMillis,
+      long maxBufferedBytes) {
+    return new BackpressureConfig(
+        Optional.of(
+            new BackpressureConfigData(
+                strategy,
+                bufferSize,
+                closeCode,
+                (Function<Object, ?>) conflationKey,
+                maxLagMillis,
+                maxBufferedBytes)));
   }
 
   /** Checks if backpressure handling is enabled. */
@@ -49,4 +141,24 @@ public record BackpressureConfig(Optional<BackpressureConfigData> config) {
   public int getBufferSize() {
     return config.map(BackpressureConfigData::bufferSize).orElse(256);
   }
+
+  /** Gets the conflation key extractor, or {@code null} if none is configured. */
+  public Function<Object, ?> getConflationKey() {
+    return config.map(BackpressureConfigData::conflationKey).orElse(null);
+  }
+
+  /** Gets the outbound lag tolerated by the ADAPTIVE strategy, in milliseconds. */
+  public long getMaxLagMillis() {
+    return config.map(BackpressureConfigData::maxLagMillis).orElse(DEFAULT_MAX_LAG_MILLIS);
+  }
+
+  /** Gets the byte budget of a session buffer, {@code 0} if the buffer counts messages. */
+  public long getMaxBufferedBytes() {
+    return config.map(BackpressureConfigData::maxBufferedBytes).orElse(0L);
+  }
+
+  /** Gets the close code sent to sessions disconnected on overflow. */
+  public int getCloseCode() {
+    return config.map(BackpressureConfigData::closeCode).orElse(DEFAULT_CLOSE_CODE);
+  }
 }
@@ -19,9 +19,15 @@ public record RateLimitConfig(Optional<RateLimitConfigData> config) {
    * @param timeUnit time unit for the refresh period
    * @param timeout timeout duration in milliseconds
    * @param scope scope of rate limiting (SESSION, USER, IP)
+   * @param engine rate limiter implementation (RESILIENCE4J, TOKEN_BUCKET)
    */
   public record RateLimitConfigData(
-      int limitForPeriod, long limitRefreshPeriod, String timeUnit, long timeout, String scope) {}
+      int limitForPeriod,
+      long limitRefreshPeriod,
+      String timeUnit,
+      long timeout,
+      String scope,
+      String engine) {}
 
   /** Creates a RateLimitConfig with rate limiting disabled. */
   public static RateLimitConfig disabled() {
@@ -40,9 +46,31 @@ public record RateLimitConfig(Optional<RateLimitConfigData> config) {
    */
   public static RateLimitConfig of(
       int limitForPeriod, long limitRefreshPeriod, String timeUnit, long timeout, String scope) {
+    return of(limitForPeriod, limitRefreshPeriod, timeUnit, timeout, scope, "RESILIENCE4J");
+  }
+
+  /**
+   * Creates a RateLimitConfig with the specified parameters and rate limiter implementation.
+   *
+   * @param limitForPeriod maximum requests allowed in the period
+   * @param limitRefreshPeriod duration of the refresh period
+   * @param timeUnit time unit for the refresh period
+   * @param timeout timeout duration in milliseconds
+   * @param scope scope of rate limiting (SESSION, USER, IP)
+   * @param engine rate limiter implementation (RESILIENCE4J, TOKEN_BUCKET)
+   * @return configured RateLimitConfig
+   */
+  public static RateLimitConfig of(
+      int limitForPeriod,
+      long limitRefreshPeriod,
+      String timeUnit,
+      long timeout,
+      String scope,
+      String engine) {
     return new RateLimitConfig(
         Optional.of(
-            new RateLimitConfigData(limitForPeriod, limitRefreshPeriod, timeUnit, timeout, scope)));
+            new RateLimitConfigData(
+                limitForPeriod, limitRefreshPeriod, timeUnit, timeout, scope, engine)));
   }
 
   /** Checks if rate limiting is enabled. */
@@ -74,4 +102,9 @@ public record RateLimitConfig(Optional<RateLimitConfigData> config) {
   public String getScope() {
     return config.map(RateLimitConfigData::scope).orElse("SESSION");
   }
+
+  /** Gets the rate limiter implementation. */
+  public String getEngine() {
+    return config.map(RateLimitConfigData::engine).orElse("RESILIENCE4J");
+  }
 }
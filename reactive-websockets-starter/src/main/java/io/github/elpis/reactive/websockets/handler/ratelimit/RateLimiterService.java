@@ -1,11 +1,12 @@
 package io.github.elpis.reactive.websockets.handler.ratelimit;
 
+import io.github.elpis.reactive.websockets.web.annotation.RateLimit;
 import io.github.resilience4j.ratelimiter.RateLimiter;
 import io.github.resilience4j.ratelimiter.RateLimiterConfig;
-import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
 import java.time.Duration;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -14,7 +15,9 @@ import org.springframework.stereotype.Service;
  * Service for managing rate limiters for WebSocket endpoints.
  *
  * <p>This service creates and manages individual rate limiters based on endpoint configuration and
- * scope (session, user, or IP).
+ * scope (session, user, or IP). Limiters of one endpoint configuration are kept in a bounded
+ * {@link RateLimiterStore}: limiters of the {@code SESSION} scope are removed when the session
+ * closes, limiters of the other scopes once they have stayed unused for the idle timeout.
  *
  * @author Phillip J. Fry
  * @since 1.0.0
@@ -23,11 +26,125 @@ import org.springframework.stereotype.Service;
 public class RateLimiterService {
   private static final Logger log = LoggerFactory.getLogger(RateLimiterService.class);
 
-  private final ConcurrentHashMap<String, RateLimiterRegistry> registryCache =
+  private static final int DEFAULT_MAX_LIMITERS = 100_000;
+  private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(10);
+
+  private final int maxLimitersPerEndpoint;
+  private final Duration idleTimeout;
+
+  private final ConcurrentHashMap<String, RateLimiterStore<RateLimiter>> registryCache =
       new ConcurrentHashMap<>();
 
+  private final ConcurrentHashMap<String, RateLimiterStore<TokenBucketRateLimiter>>
+      tokenBucketCache = new ConcurrentHashMap<>();
+
+  public RateLimiterService() {
+    this(DEFAULT_MAX_LIMITERS, DEFAULT_IDLE_TIMEOUT);
+  }
+
+  /**
+   * Creates the service with custom store bounds.
+   *
+   * @param maxLimitersPerEndpoint the number of limiters kept per endpoint configuration before
+   *     the least recently used unused ones are evicted
+   * @param idleTimeout the time an unused limiter is kept, at least two refresh periods are used
+   */
+  public RateLimiterService(final int maxLimitersPerEndpoint, final Duration idleTimeout) {
+    this.maxLimitersPerEndpoint = maxLimitersPerEndpoint;
+    this.idleTimeout = idleTimeout;
+  }
+
   /**
-   * Gets or creates a rate limiter for the specified endpoint and identifier.
+   * Gets or creates the store of Resilience4j rate limiters of one endpoint configuration. Meant
+   * to be resolved once per handler.
+   *
+   * @param pathTemplate the WebSocket endpoint path template
+   * @param limitForPeriod the maximum number of requests allowed within the refresh period
+   * @param limitRefreshPeriod the duration of the refresh period
+   * @param timeUnit the time unit for the refresh period
+   * @param timeoutDuration the timeout duration in milliseconds
+   * @param scope the rate limit scope
+   * @return the rate limiter store
+   */
+  public RateLimiterStore<RateLimiter> getRateLimiterStore(
+      final String pathTemplate,
+      final int limitForPeriod,
+      final long limitRefreshPeriod,
+      final TimeUnit timeUnit,
+      final long timeoutDuration,
+      final RateLimit.RateLimitScope scope) {
+
+    final String registryKey =
+        buildRegistryKey(
+            pathTemplate, limitForPeriod, limitRefreshPeriod, timeUnit, timeoutDuration, scope);
+
+    return registryCache.computeIfAbsent(
+        registryKey,
+        key -> {
+          final RateLimiterConfig config =
+              RateLimiterConfig.custom()
+                  .limitRefreshPeriod(Duration.ofMillis(timeUnit.toMillis(limitRefreshPeriod)))
+                  .limitForPeriod(limitForPeriod)
+                  .timeoutDuration(Duration.ofMillis(timeoutDuration))
+                  .build();
+
+          log.debug(
+              "Creating new RateLimiterStore for path: {}, limitForPeriod: {}, refreshPeriod: {} {}",
+              pathTemplate,
+              limitForPeriod,
+              limitRefreshPeriod,
+              timeUnit);
+
+          return this.createStore(
+              identifier -> RateLimiter.of(identifier, config),
+              timeUnit.toNanos(limitRefreshPeriod),
+              scope);
+        });
+  }
+
+  /**
+   * Gets or creates the store of built-in {@link TokenBucketRateLimiter} of one endpoint
+   * configuration. Meant to be resolved once per handler.
+   *
+   * @param pathTemplate the WebSocket endpoint path template
+   * @param limitForPeriod the maximum number of requests allowed within the refresh period
+   * @param limitRefreshPeriod the duration of the refresh period
+   * @param timeUnit the time unit for the refresh period
+   * @param scope the rate limit scope
+   * @return the token bucket store
+   */
+  public RateLimiterStore<TokenBucketRateLimiter> getTokenBucketStore(
+      final String pathTemplate,
+      final int limitForPeriod,
+      final long limitRefreshPeriod,
+      final TimeUnit timeUnit,
+      final RateLimit.RateLimitScope scope) {
+
+    final String registryKey =
+        buildRegistryKey(pathTemplate, limitForPeriod, limitRefreshPeriod, timeUnit, 0L, scope);
+
+    return tokenBucketCache.computeIfAbsent(
+        registryKey,
+        key -> {
+          log.debug(
+              "Creating new token bucket store for path: {}, limitForPeriod: {}, refreshPeriod: {} {}",
+              pathTemplate,
+              limitForPeriod,
+              limitRefreshPeriod,
+              timeUnit);
+
+          final Duration refreshPeriod = Duration.ofNanos(timeUnit.toNanos(limitRefreshPeriod));
+
+          return this.createStore(
+              identifier -> new TokenBucketRateLimiter(limitForPeriod, refreshPeriod),
+              refreshPeriod.toNanos(),
+              scope);
+        });
+  }
+
+  /**
+   * Gets or creates a rate limiter for the specified endpoint and identifier. The limiter is not
+   * referenced by any session, so it is reclaimed once it stays unused for the idle timeout.
    *
    * @param pathTemplate the WebSocket endpoint path template
    * @param limitForPeriod the maximum number of requests allowed within the refresh period
@@ -45,32 +162,28 @@ public class RateLimiterService {
       final long timeoutDuration,
       final String identifier) {
 
-    final String registryKey =
-        buildRegistryKey(
-            pathTemplate, limitForPeriod, limitRefreshPeriod, timeUnit, timeoutDuration);
-
-    final RateLimiterRegistry registry =
-        registryCache.computeIfAbsent(
-            registryKey,
-            key -> {
-              final RateLimiterConfig config =
-                  RateLimiterConfig.custom()
-                      .limitRefreshPeriod(Duration.ofMillis(timeUnit.toMillis(limitRefreshPeriod)))
-                      .limitForPeriod(limitForPeriod)
-                      .timeoutDuration(Duration.ofMillis(timeoutDuration))
-                      .build();
-
-              log.debug(
-                  "Creating new RateLimiterRegistry for path: {}, limitForPeriod: {}, refreshPeriod: {} {}",
-                  pathTemplate,
-                  limitForPeriod,
-                  limitRefreshPeriod,
-                  timeUnit);
-
-              return RateLimiterRegistry.of(config);
-            });
-
-    return registry.rateLimiter(identifier);
+    return this.getRateLimiterStore(
+            pathTemplate,
+            limitForPeriod,
+            limitRefreshPeriod,
+            timeUnit,
+            timeoutDuration,
+            RateLimit.RateLimitScope.SESSION)
+        .get(identifier);
+  }
+
+  private <T> RateLimiterStore<T> createStore(
+      final Function<String, T> factory,
+      final long refreshPeriodNanos,
+      final RateLimit.RateLimitScope scope) {
+    final Duration storeIdleTimeout =
+        Duration.ofNanos(Math.max(this.idleTimeout.toNanos(), refreshPeriodNanos * 2));
+
+    return new RateLimiterStore<>(
+        factory,
+        this.maxLimitersPerEndpoint,
+        storeIdleTimeout,
+        scope == RateLimit.RateLimitScope.SESSION);
   }
 
   /** Builds a unique key for the registry cache based on rate limiter configuration. */
@@ -79,14 +192,24 @@ public class RateLimiterService {
       final int limitForPeriod,
       final long limitRefreshPeriod,
       final TimeUnit timeUnit,
-      final long timeoutDuration) {
-    return String.format(
-        "%s:%d:%d:%s:%d",
-        pathTemplate, limitForPeriod, limitRefreshPeriod, timeUnit, timeoutDuration);
+      final long timeoutDuration,
+      final RateLimit.RateLimitScope scope) {
+    return pathTemplate
+        + ':'
+        + limitForPeriod
+        + ':'
+        + limitRefreshPeriod
+        + ':'
+        + timeUnit
+        + ':'
+        + timeoutDuration
+        + ':'
+        + scope;
   }
 
   /** Clears all cached rate limiter registries. Useful for testing. */
   public void clearCache() {
     registryCache.clear();
+    tokenBucketCache.clear();
   }
 }
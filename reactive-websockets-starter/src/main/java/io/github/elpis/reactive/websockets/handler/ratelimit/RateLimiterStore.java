@@ -0,0 +1,179 @@
+package io.github.elpis.reactive.websockets.handler.ratelimit;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Bounded store of the rate limiters of one endpoint configuration, keyed by session id, user or
+ * IP address.
+ *
+ * <p>Every session that uses a limiter holds a reference on it from {@link #acquire} until {@link
+ * #release}. A limiter nobody references is reclaimed right away when the store evicts on release
+ * ({@code SESSION} scope), otherwise once it has stayed unused for the idle timeout. Idle limiters
+ * are swept at most once per idle timeout from the calling thread, so the store needs no timer. If
+ * the store still exceeds its maximum size, the least recently used tenth of the unused limiters is
+ * dropped.
+ *
+ * @param <T> the rate limiter type
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+public final class RateLimiterStore<T> {
+  private final ConcurrentHashMap<String, Entry<T>> limiters = new ConcurrentHashMap<>();
+  private final Function<String, T> factory;
+  private final int maxSize;
+  private final long idleTimeoutNanos;
+  private final boolean evictOnRelease;
+
+  private final AtomicBoolean sweeping = new AtomicBoolean();
+  private volatile long nextSweep;
+  private volatile int sweepAbove;
+
+  RateLimiterStore(
+      final Function<String, T> factory,
+      final int maxSize,
+      final Duration idleTimeout,
+      final boolean evictOnRelease) {
+    this.factory = factory;
+    this.maxSize = maxSize;
+    this.idleTimeoutNanos = idleTimeout.toNanos();
+    this.evictOnRelease = evictOnRelease;
+    this.nextSweep = System.nanoTime() + this.idleTimeoutNanos;
+    this.sweepAbove = maxSize;
+  }
+
+  /**
+   * Returns the rate limiter of the identifier, creating it if absent, and takes a reference on it.
+   *
+   * @param identifier the unique identifier (session ID, user ID, or IP address)
+   * @return the rate limiter
+   */
+  public T acquire(final String identifier) {
+    final long now = System.nanoTime();
+    final Entry<T> entry =
+        this.limiters.compute(
+            identifier,
+            (id, current) -> {
+              final Entry<T> value =
+                  current != null ? current : new Entry<>(this.factory.apply(id));
+              value.references++;
+              value.lastAccess = now;
+
+              return value;
+            });
+
+    this.maintain(now);
+
+    return entry.limiter;
+  }
+
+  /**
+   * Returns the rate limiter of the identifier, creating it if absent, without taking a reference
+   * on it. Such a limiter is only reclaimed by the idle sweep.
+   *
+   * @param identifier the unique identifier (session ID, user ID, or IP address)
+   * @return the rate limiter
+   */
+  public T get(final String identifier) {
+    final long now = System.nanoTime();
+    final Entry<T> entry =
+        this.limiters.computeIfAbsent(identifier, id -> new Entry<>(this.factory.apply(id)));
+    entry.lastAccess = now;
+
+    this.maintain(now);
+
+    return entry.limiter;
+  }
+
+  /**
+   * Drops a reference taken by {@link #acquire}. The limiter is removed at once if nobody else
+   * references it and the store evicts on release.
+   *
+   * @param identifier the unique identifier (session ID, user ID, or IP address)
+   */
+  public void release(final String identifier) {
+    final long now = System.nanoTime();
+    this.limiters.computeIfPresent(
+        identifier,
+        (id, current) -> {
+          current.references = Math.max(0, current.references - 1);
+          current.lastAccess = now;
+
+          return current.references == 0 && this.evictOnRelease ? null : current;
+        });
+  }
+
+  /**
+   * Returns the number of stored rate limiters.
+   *
+   * @return stored rate limiters
+   */
+  public int size() {
+    return this.limiters.size();
+  }
+
+  private void maintain(final long now) {
+    final boolean overflow = this.limiters.size() > this.sweepAbove;
+    if ((!overflow && now - this.nextSweep < 0) || !this.sweeping.compareAndSet(false, true)) {
+      return;
+    }
+
+    try {
+      this.nextSweep = now + this.idleTimeoutNanos;
+      this.evictUnused(now - this.idleTimeoutNanos);
+
+      if (this.limiters.size() > this.maxSize) {
+        this.evictUnused(this.lruThreshold());
+      }
+
+      // Limiters in use cannot be evicted, do not sweep again until the store grows noticeably
+      this.sweepAbove = Math.max(this.maxSize, this.limiters.size() + this.maxSize / 10);
+    } finally {
+      this.sweeping.set(false);
+    }
+  }
+
+  /** Removes the unused limiters last accessed at or before the threshold. */
+  private void evictUnused(final long threshold) {
+    this.limiters.forEach(
+        (identifier, entry) -> {
+          if (entry.references == 0 && entry.lastAccess - threshold <= 0) {
+            this.limiters.computeIfPresent(
+                identifier,
+                (id, current) ->
+                    current.references == 0 && current.lastAccess - threshold <= 0
+                        ? null
+                        : current);
+          }
+        });
+  }
+
+  /** Returns the access time below which a tenth of the stored limiters lie. */
+  private long lruThreshold() {
+    final long[] accessTimes =
+        this.limiters.values().stream().mapToLong(entry -> entry.lastAccess).toArray();
+    if (accessTimes.length == 0) {
+      return Long.MIN_VALUE;
+    }
+
+    final long origin = accessTimes[0];
+    final long[] ages = Arrays.stream(accessTimes).map(time -> time - origin).sorted().toArray();
+
+    return origin + ages[ages.length / 10];
+  }
+
+  private static final class Entry<T> {
+    private final T limiter;
+
+    // Written under the map lock of the entry, read without it while sweeping
+    private volatile int references;
+    private volatile long lastAccess;
+
+    private Entry(final T limiter) {
+      this.limiter = limiter;
+    }
+  }
+}
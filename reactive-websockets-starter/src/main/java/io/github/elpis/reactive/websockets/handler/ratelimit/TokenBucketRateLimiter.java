@@ -0,0 +1,92 @@
+package io.github.elpis.reactive.websockets.handler.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket that holds up to {@code limitForPeriod} permits and refills them
+ * continuously, one permit every {@code refreshPeriod / limitForPeriod}.
+ *
+ * <p>The bucket is kept as a generic cell rate algorithm: the whole state is one {@code long}, the
+ * theoretical arrival time of the next permit. A call is permitted while that time is less than one
+ * refresh period ahead of now, so a full bucket allows a burst of {@code limitForPeriod} calls and
+ * permits come back one by one as time passes, without the doubled burst a fixed window allows
+ * around its boundary. A permit is taken with a single compare-and-set, a rejected call does not
+ * write at all and nothing is allocated on either path. Unlike the Resilience4j backend a call
+ * never waits for the next permit - it is either permitted or rejected right away.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+public final class TokenBucketRateLimiter {
+  private final int limitForPeriod;
+  private final long refreshPeriodNanos;
+  private final long emissionIntervalNanos;
+  private final long origin = System.nanoTime();
+
+  /** Theoretical arrival time of the next permit in nanoseconds since {@link #origin}. */
+  private final AtomicLong theoreticalArrival = new AtomicLong();
+
+  /**
+   * Creates a rate limiter with a full bucket.
+   *
+   * @param limitForPeriod permits granted per refresh period, also the bucket capacity
+   * @param refreshPeriod the refresh period
+   */
+  public TokenBucketRateLimiter(final int limitForPeriod, final Duration refreshPeriod) {
+    if (limitForPeriod < 1) {
+      throw new IllegalArgumentException("limitForPeriod must be positive: " + limitForPeriod);
+    }
+
+    if (refreshPeriod.isZero() || refreshPeriod.isNegative()) {
+      throw new IllegalArgumentException("refreshPeriod must be positive: " + refreshPeriod);
+    }
+
+    this.limitForPeriod = limitForPeriod;
+    this.refreshPeriodNanos = refreshPeriod.toNanos();
+    this.emissionIntervalNanos = Math.max(1L, this.refreshPeriodNanos / limitForPeriod);
+  }
+
+  /**
+   * Takes one permit if the bucket holds any.
+   *
+   * @return {@code true} if the permit was granted
+   */
+  public boolean tryAcquire() {
+    final long now = this.now();
+
+    long current;
+    long next;
+    do {
+      current = this.theoreticalArrival.get();
+      next = Math.max(current, now) + this.emissionIntervalNanos;
+
+      if (next - now > this.refreshPeriodNanos) {
+        return false;
+      }
+    } while (!this.theoreticalArrival.compareAndSet(current, next));
+
+    return true;
+  }
+
+  /**
+   * Returns the permits the bucket holds now.
+   *
+   * @return available permits
+   */
+  public int getAvailablePermits() {
+    final long now = this.now();
+    final long ahead = Math.max(0L, this.theoreticalArrival.get() - now);
+    final long permits = (this.refreshPeriodNanos - ahead) / this.emissionIntervalNanos;
+
+    return (int) Math.min(this.limitForPeriod, permits);
+  }
+
+  public int getLimitForPeriod() {
+    return limitForPeriod;
+  }
+
+  private long now() {
+    return System.nanoTime() - this.origin;
+  }
+}
@@ -0,0 +1,182 @@
+package io.github.elpis.reactive.websockets.handler.route;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.web.util.UriTemplate;
+
+/**
+ * Path template compiled once per endpoint and used to extract path variables on every connection.
+ * Templates made of literal segments and whole-segment {@code {variable}} captures are matched by
+ * walking the path without regular expressions. Any other template (partial segment captures,
+ * regular expression or wildcard segments) falls back to a {@link UriTemplate} compiled once.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+public final class PathTemplateMatcher {
+  private final String template;
+  private final Segment[] segments;
+  private final int variables;
+  private final UriTemplate fallback;
+
+  private PathTemplateMatcher(
+      final String template, final Segment[] segments, final UriTemplate fallback) {
+    this.template = template;
+    this.segments = segments;
+    this.fallback = fallback;
+
+    int variables = 0;
+    if (segments != null) {
+      for (final Segment segment : segments) {
+        if (segment.isVariable()) {
+          variables++;
+        }
+      }
+    }
+
+    this.variables = variables;
+  }
+
+  /**
+   * Compiles the given path template.
+   *
+   * @param template the path template, e.g. {@code /chat/{room}}
+   * @return compiled matcher
+   */
+  public static PathTemplateMatcher compile(final String template) {
+    final List<Segment> segments = parse(template);
+
+    return segments != null
+        ? new PathTemplateMatcher(template, segments.toArray(new Segment[0]), null)
+        : new PathTemplateMatcher(template, null, new UriTemplate(template));
+  }
+
+  /**
+   * Splits the template into segments. Returns {@code null} if the template contains anything but
+   * literals and whole-segment variable captures.
+   *
+   * @param template the path template
+   * @return template segments or {@code null}
+   */
+  public static List<Segment> parse(final String template) {
+    if (!template.startsWith("/")) {
+      return null;
+    }
+
+    final List<Segment> segments = new ArrayList<>();
+    int start = 1;
+    while (start <= template.length()) {
+      int end = template.indexOf('/', start);
+      if (end < 0) {
+        end = template.length();
+      }
+
+      final String value = template.substring(start, end);
+      if (value.startsWith("{") && value.endsWith("}")) {
+        final String name = value.substring(1, value.length() - 1);
+        if (name.isEmpty() || !isPlainName(name)) {
+          return null;
+        }
+
+        segments.add(new Segment(name, true));
+      } else if (value.indexOf('{') >= 0 || value.indexOf('}') >= 0 || value.indexOf('*') >= 0) {
+        return null;
+      } else {
+        segments.add(new Segment(value, false));
+      }
+
+      start = end + 1;
+    }
+
+    return segments;
+  }
+
+  /**
+   * Matches the path against the template.
+   *
+   * @param path the request path
+   * @return path variables by name, empty if the path does not match the template
+   */
+  public Map<String, String> match(final String path) {
+    if (this.fallback != null) {
+      return this.fallback.match(path);
+    }
+
+    if (path.isEmpty() || path.charAt(0) != '/') {
+      return Collections.emptyMap();
+    }
+
+    Map<String, String> result = null;
+    int position = 1;
+    for (int i = 0; i < this.segments.length; i++) {
+      final Segment segment = this.segments[i];
+      if (position > path.length()) {
+        return Collections.emptyMap();
+      }
+
+      int end = path.indexOf('/', position);
+      if (end < 0) {
+        end = path.length();
+      }
+
+      if (segment.isVariable()) {
+        if (result == null) {
+          result = new LinkedHashMap<>(this.variables * 2);
+        }
+
+        result.put(segment.value(), path.substring(position, end));
+      } else if (end - position != segment.value().length()
+          || !path.regionMatches(position, segment.value(), 0, end - position)) {
+        return Collections.emptyMap();
+      }
+
+      position = end + 1;
+    }
+
+    if (position <= path.length()) {
+      return Collections.emptyMap();
+    }
+
+    return result != null ? result : Collections.emptyMap();
+  }
+
+  /**
+   * Checks if the path matches the template.
+   *
+   * @param path the request path
+   * @return {@code true} if the path matches
+   */
+  public boolean matches(final String path) {
+    if (this.fallback != null) {
+      return this.fallback.matches(path);
+    }
+
+    return this.variables == 0 ? this.template.equals(path) : !this.match(path).isEmpty();
+  }
+
+  public String getTemplate() {
+    return template;
+  }
+
+  private static boolean isPlainName(final String name) {
+    for (int i = 0; i < name.length(); i++) {
+      final char c = name.charAt(i);
+      if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.') {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Single path segment of a template, either a literal or a variable capture.
+   *
+   * @param value literal value or variable name
+   * @param isVariable {@code true} for a variable capture
+   */
+  public record Segment(String value, boolean isVariable) {}
+}
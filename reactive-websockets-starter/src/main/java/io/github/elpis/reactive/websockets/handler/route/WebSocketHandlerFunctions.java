@@ -4,6 +4,7 @@ import io.github.elpis.reactive.websockets.config.Mode;
 import io.github.elpis.reactive.websockets.event.manager.WebSocketEventManagerFactory;
 import io.github.elpis.reactive.websockets.handler.BaseWebSocketHandler;
 import io.github.elpis.reactive.websockets.handler.BroadcastWebSocketResourceHandler;
+import io.github.elpis.reactive.websockets.handler.SessionWebSocketResourceHandler;
 import io.github.elpis.reactive.websockets.handler.config.BackpressureConfig;
 import io.github.elpis.reactive.websockets.handler.config.HeartbeatConfig;
 import io.github.elpis.reactive.websockets.handler.config.RateLimitConfig;
@@ -92,6 +93,12 @@ public final class WebSocketHandlerFunctions {
       this.mode = mode;
     }
 
+    HeartbeatConfig getHeartbeatConfig() {
+      return this.heartbeatEnabled
+          ? HeartbeatConfig.of(this.heartbeatInterval, this.heartbeatTimeout)
+          : HeartbeatConfig.disabled();
+    }
+
     WebSocketHandlerFunction getNext() {
       return next;
     }
@@ -130,7 +137,22 @@ public final class WebSocketHandlerFunctions {
                 sessionRegistry,
                 rateLimiterService,
                 path,
-                HeartbeatConfig.of(heartbeatInterval, heartbeatTimeout),
+                this.getHeartbeatConfig(),
+                RateLimitConfig.disabled(),
+                BackpressureConfig.disabled()) {
+              @Override
+              public Publisher<?> apply(
+                  WebSocketSessionContext context, Flux<WebSocketMessage> messages) {
+                return handlerFunction.apply(context, messages);
+              }
+            };
+        case SESSION ->
+            new SessionWebSocketResourceHandler(
+                eventManagerFactory,
+                sessionRegistry,
+                rateLimiterService,
+                path,
+                this.getHeartbeatConfig(),
                 RateLimitConfig.disabled(),
                 BackpressureConfig.disabled()) {
               @Override
@@ -139,7 +161,6 @@ public final class WebSocketHandlerFunctions {
                 return handlerFunction.apply(context, messages);
               }
             };
-        case SESSION -> null;
       };
     }
   }
@@ -171,7 +192,21 @@ public final class WebSocketHandlerFunctions {
                 sessionRegistry,
                 rateLimiterService,
                 path,
-                HeartbeatConfig.of(heartbeatInterval, heartbeatTimeout),
+                this.getHeartbeatConfig(),
+                RateLimitConfig.disabled(),
+                BackpressureConfig.disabled()) {
+              @Override
+              public void run(WebSocketSessionContext context, Flux<WebSocketMessage> messages) {
+                handlerFunction.accept(context, messages);
+              }
+            };
+        case SESSION ->
+            new SessionWebSocketResourceHandler(
+                eventManagerFactory,
+                sessionRegistry,
+                rateLimiterService,
+                path,
+                this.getHeartbeatConfig(),
                 RateLimitConfig.disabled(),
                 BackpressureConfig.disabled()) {
               @Override
@@ -179,7 +214,6 @@ public final class WebSocketHandlerFunctions {
                 handlerFunction.accept(context, messages);
               }
             };
-        case SESSION -> null;
       };
     }
   }
@@ -0,0 +1,195 @@
+package io.github.elpis.reactive.websockets.handler.route;
+
+import io.github.elpis.reactive.websockets.exception.WebSocketMappingException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.AbstractHandlerMapping;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link HandlerMapping} of WebSocket endpoints backed by a segment trie. Literal segments and
+ * {@code {variable}} captures are kept in separate branches of each node, so a lookup costs one
+ * step per path segment regardless of the number of registered endpoints. Templates the trie
+ * cannot represent (partial segment captures, regular expressions, wildcards) are matched with
+ * {@link PathPattern} after a trie miss.
+ *
+ * <p>Like the Spring URL handler mappings, a match exposes the best matching pattern, the path
+ * within the mapping and the URI template variables as exchange attributes.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+public class WebSocketHandlerMapping extends AbstractHandlerMapping {
+  private final Node root = new Node();
+  private final List<PatternRoute> patternRoutes = new ArrayList<>();
+  private final Map<String, WebSocketHandler> handlerMap = new LinkedHashMap<>();
+
+  public WebSocketHandlerMapping(
+      final Map<String, ? extends WebSocketHandler> handlers, int order) {
+    handlers.forEach(this::register);
+    this.setOrder(order);
+  }
+
+  /**
+   * Registers the handler for the path template.
+   *
+   * @param pathTemplate path template of the endpoint
+   * @param handler endpoint handler
+   * @throws WebSocketMappingException if the path is already mapped, or mapped with the same
+   *     shape but different variable names
+   */
+  private void register(final String pathTemplate, final WebSocketHandler handler) {
+    if (this.handlerMap.putIfAbsent(pathTemplate, handler) != null) {
+      throw new WebSocketMappingException(
+          "WebSocketHandler with path %s was already registered", pathTemplate);
+    }
+
+    final PatternRoute route =
+        new PatternRoute(this.getPathPatternParser().parse(pathTemplate), handler);
+    final List<PathTemplateMatcher.Segment> segments = PathTemplateMatcher.parse(pathTemplate);
+    if (segments == null) {
+      this.patternRoutes.add(route);
+
+      return;
+    }
+
+    Node node = this.root;
+    for (final PathTemplateMatcher.Segment segment : segments) {
+      if (segment.isVariable()) {
+        if (node.variable == null) {
+          node.variable = new Node();
+        }
+
+        node = node.variable;
+      } else {
+        node = node.literals.computeIfAbsent(segment.value(), key -> new Node());
+      }
+    }
+
+    if (node.route != null) {
+      throw new WebSocketMappingException(
+          "WebSocketHandler with path %s is ambiguous with already registered path %s",
+          pathTemplate, node.route.pattern().getPatternString());
+    }
+
+    node.route = route;
+  }
+
+  @Override
+  protected Mono<?> getHandlerInternal(final ServerWebExchange exchange) {
+    final PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+    final PatternRoute route = this.lookupRoute(path);
+    if (route == null) {
+      return Mono.empty();
+    }
+
+    final PathPattern.PathMatchInfo matchInfo = route.pattern().matchAndExtract(path);
+    final Map<String, Object> attributes = exchange.getAttributes();
+    attributes.put(BEST_MATCHING_HANDLER_ATTRIBUTE, route.handler());
+    attributes.put(BEST_MATCHING_PATTERN_ATTRIBUTE, route.pattern());
+    attributes.put(
+        PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, route.pattern().extractPathWithinPattern(path));
+    if (matchInfo != null) {
+      attributes.put(URI_TEMPLATE_VARIABLES_ATTRIBUTE, matchInfo.getUriVariables());
+    }
+
+    return Mono.just(route.handler());
+  }
+
+  /**
+   * Looks up the handler mapped to the path.
+   *
+   * @param path path within the application
+   * @return mapped handler or {@code null}
+   */
+  public WebSocketHandler lookupHandler(final PathContainer path) {
+    final PatternRoute route = this.lookupRoute(path);
+
+    return route != null ? route.handler() : null;
+  }
+
+  private PatternRoute lookupRoute(final PathContainer path) {
+    final Node node = find(this.root, segments(path), 0);
+    if (node != null) {
+      return node.route;
+    }
+
+    for (final PatternRoute patternRoute : this.patternRoutes) {
+      if (patternRoute.pattern().matches(path)) {
+        return patternRoute;
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Returns all registered handlers by path template.
+   *
+   * @return read-only map of handlers
+   */
+  public Map<String, WebSocketHandler> getHandlerMap() {
+    return Collections.unmodifiableMap(this.handlerMap);
+  }
+
+  private static Node find(final Node node, final List<String> segments, final int index) {
+    if (index == segments.size()) {
+      return node.route != null ? node : null;
+    }
+
+    final String segment = segments.get(index);
+    final Node literal = node.literals.get(segment);
+    if (literal != null) {
+      final Node found = find(literal, segments, index + 1);
+      if (found != null) {
+        return found;
+      }
+    }
+
+    return node.variable != null && !segment.isEmpty()
+        ? find(node.variable, segments, index + 1)
+        : null;
+  }
+
+  private static List<String> segments(final PathContainer path) {
+    final List<PathContainer.Element> elements = path.elements();
+    final List<String> segments = new ArrayList<>(elements.size() / 2 + 1);
+
+    boolean expectSegment = false;
+    for (final PathContainer.Element element : elements) {
+      if (element instanceof PathContainer.PathSegment pathSegment) {
+        segments.add(pathSegment.valueToMatch());
+        expectSegment = false;
+      } else {
+        if (expectSegment) {
+          segments.add("");
+        }
+
+        expectSegment = true;
+      }
+    }
+
+    if (expectSegment) {
+      segments.add("");
+    }
+
+    return segments;
+  }
+
+  private static final class Node {
+    private final Map<String, Node> literals = new HashMap<>(4);
+    private Node variable;
+    private PatternRoute route;
+  }
+
+  private record PatternRoute(PathPattern pattern, WebSocketHandler handler) {}
+}
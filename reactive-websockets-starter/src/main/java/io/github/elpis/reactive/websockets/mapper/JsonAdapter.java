@@ -0,0 +1,50 @@
+package io.github.elpis.reactive.websockets.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import java.io.IOException;
+
+/**
+ * Specialized, reflection-free JSON reader and writer of one type, working straight on the Jackson
+ * streaming API.
+ *
+ * <p>Adapters are generated at compile time for the request body and return types of {@link
+ * io.github.elpis.reactive.websockets.web.annotation.OnMessage @OnMessage} methods and registered
+ * with {@link JsonMapper#registerAdapter} when their handler is loaded. {@link JsonMapper} uses an
+ * adapter in place of its {@link com.fasterxml.jackson.databind.ObjectMapper} for the adapted type,
+ * values the adapter cannot handle itself are passed back to {@link
+ * JsonMapper#readValue(JsonParser, Class)} and {@link JsonMapper#writeValue(JsonGenerator,
+ * Object)}.
+ *
+ * @param <T> the adapted type
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+public interface JsonAdapter<T> {
+
+  /**
+   * Returns the adapted type.
+   *
+   * @return the adapted type
+   */
+  Class<T> getType();
+
+  /**
+   * Writes the value as one JSON value.
+   *
+   * @param generator the generator to write to
+   * @param value the value to write, never {@code null}
+   * @throws IOException if writing fails
+   */
+  void write(JsonGenerator generator, T value) throws IOException;
+
+  /**
+   * Reads one JSON value starting at the current token of the parser and leaves the parser at the
+   * last token of the value.
+   *
+   * @param parser the parser positioned at the first token of the value
+   * @return the read value, {@code null} for a JSON {@code null}
+   * @throws IOException if the value cannot be read
+   */
+  T read(JsonParser parser) throws IOException;
+}
@@ -1,23 +1,233 @@
 package io.github.elpis.reactive.websockets.mapper;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.deser.BeanDeserializer;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.fasterxml.jackson.databind.ser.BeanSerializer;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.lang.reflect.RecordComponent;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * Utility class that combines Jackson mapper features with reactive stack.
  *
+ * <p>Mapping is done with the {@link ObjectMapper} of the application context once {@link
+ * io.github.elpis.reactive.websockets.config.WebSocketConfiguration} has wired it in, so modules
+ * and features configured through {@code spring.jackson.*} or a {@code
+ * Jackson2ObjectMapperBuilderCustomizer} apply to WebSocket payloads as well. Until then a plain
+ * {@link ObjectMapper} is used. Readers and writers are cached per type, the serializer and
+ * deserializer of a type are resolved once per mapper.
+ *
  * @author Phillip J. Fry
  * @see ObjectMapper
  * @since 1.0.0
  */
 public class JsonMapper {
-  private static final ObjectMapper objectMapper = new ObjectMapper();
+  private static final int INITIAL_BUFFER_CAPACITY = 256;
+
+  private static final Map<Class<?>, JsonAdapter<?>> adapters = new ConcurrentHashMap<>();
+
+  /** Mapper with the default configuration, the reference adapters are checked against. */
+  private static final ObjectMapper PLAIN_MAPPER = new ObjectMapper();
+
+  /** Component types generated adapters read and write themselves, not through the mapper. */
+  private static final Set<Class<?>> INLINE_TYPES =
+      Set.of(
+          String.class,
+          int.class,
+          Integer.class,
+          long.class,
+          Long.class,
+          double.class,
+          Double.class,
+          boolean.class,
+          Boolean.class);
+
+  private static volatile Mapping mapping = new Mapping(new ObjectMapper());
 
   private JsonMapper() {}
 
+  /**
+   * Replaces the mapper all conversions are done with and drops the readers and writers cached for
+   * the previous one. Generated adapters are only used while the mapper writes and reads their
+   * types the same way a plain {@link ObjectMapper} does, i.e. without a property naming strategy,
+   * mix-ins, non-default property inclusion, sorted properties, case-insensitive properties, root
+   * wrapping or stricter creator property checks. An adapter is also bypassed if the mapper does
+   * not map its record as a bean, e.g. through a serializer or deserializer of a module, or has a
+   * serializer, deserializer, format or inclusion of its own for a component the adapter handles
+   * inline.
+   *
+   * @param objectMapper the mapper to use from now on
+   * @since 1.0.0
+   */
+  public static void setObjectMapper(final ObjectMapper objectMapper) {
+    mapping = new Mapping(Objects.requireNonNull(objectMapper, "objectMapper"));
+  }
+
+  /**
+   * Returns the mapper all conversions are done with.
+   *
+   * @return the current mapper
+   * @since 1.0.0
+   */
+  public static ObjectMapper getObjectMapper() {
+    return mapping.objectMapper;
+  }
+
+  /**
+   * Returns the cached reader bound to the given type.
+   *
+   * @param type the target class type
+   * @return the reader of the type
+   * @since 1.0.0
+   */
+  public static ObjectReader readerFor(final Class<?> type) {
+    return mapping.readers.get(type);
+  }
+
+  /**
+   * Returns the cached writer bound to the given type.
+   *
+   * @param type the source class type
+   * @return the writer of the type
+   * @since 1.0.0
+   */
+  public static ObjectWriter writerFor(final Class<?> type) {
+    return mapping.writers.get(type);
+  }
+
+  /**
+   * Registers a generated adapter, which is used in place of the reflective mapping of its type
+   * from then on. The first adapter registered for a type wins.
+   *
+   * @param adapter the adapter to register
+   * @since 1.0.0
+   */
+  public static void registerAdapter(final JsonAdapter<?> adapter) {
+    adapters.putIfAbsent(adapter.getType(), adapter);
+  }
+
+  /**
+   * Writes the value as one JSON value, through its registered adapter if any, otherwise through
+   * the mapper. Used by generated adapters for values they do not write themselves.
+   *
+   * @param generator the generator to write to
+   * @param value the value to write, may be {@code null}
+   * @throws IOException if writing fails
+   * @since 1.0.0
+   */
+  public static void writeValue(final JsonGenerator generator, final Object value)
+      throws IOException {
+    if (value == null) {
+      generator.writeNull();
+      return;
+    }
+
+    final JsonAdapter<Object> adapter = findAdapter(value.getClass());
+    if (adapter != null) {
+      adapter.write(generator, value);
+    } else {
+      mapping.valueWriter.writeValue(generator, value);
+    }
+  }
+
+  /**
+   * Reads one JSON value of the given type starting at the current token of the parser, through
+   * the registered adapter of the type if any, otherwise through the mapper. Used by generated
+   * adapters for values they do not read themselves.
+   *
+   * @param parser the parser positioned at the first token of the value
+   * @param type the value type
+   * @param <T> the value type
+   * @return the read value
+   * @throws IOException if the value cannot be read
+   * @since 1.0.0
+   */
+  public static <T> T readValue(final JsonParser parser, final Class<T> type) throws IOException {
+    final JsonAdapter<T> adapter = findAdapter(type);
+
+    return adapter != null ? adapter.read(parser) : readerFor(type).readValue(parser);
+  }
+
+  /**
+   * Reads one JSON value of the given generic type starting at the current token of the parser.
+   *
+   * @param parser the parser positioned at the first token of the value
+   * @param type the value type, see {@link #constructType}
+   * @param <T> the value type
+   * @return the read value
+   * @throws IOException if the value cannot be read
+   * @since 1.0.0
+   */
+  public static <T> T readValue(final JsonParser parser, final JavaType type) throws IOException {
+    return mapping.objectMapper.readValue(parser, type);
+  }
+
+  /**
+   * Resolves a generic type once, so generated adapters can keep it in a constant.
+   *
+   * @param type the type reference
+   * @return the resolved type
+   * @since 1.0.0
+   */
+  public static JavaType constructType(final TypeReference<?> type) {
+    return mapping.objectMapper.getTypeFactory().constructType(type);
+  }
+
+  /**
+   * Handles a property a generated adapter does not know: fails if the mapper fails on unknown
+   * properties, otherwise skips the value.
+   *
+   * @param parser the parser positioned at the first token of the property value
+   * @param type the adapted type
+   * @param property the property name
+   * @throws IOException if unknown properties are not allowed
+   * @since 1.0.0
+   */
+  public static void handleUnknownProperty(
+      final JsonParser parser, final Class<?> type, final String property) throws IOException {
+    if (mapping.objectMapper.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)) {
+      throw UnrecognizedPropertyException.from(parser, type, property, null);
+    }
+
+    parser.skipChildren();
+  }
+
   /**
    * Converts object to JSON string. If not possible to convert - throws {@link
    * RuntimeJsonMappingException}. {@link String} type parameters are returned as they are.
@@ -28,13 +238,74 @@ public class JsonMapper {
     try {
       return String.class.isAssignableFrom(object.getClass())
           ? (String) object
-          : objectMapper.writeValueAsString(object);
+          : writerFor(object.getClass()).writeValueAsString(object);
     } catch (JsonProcessingException e) {
       throw new RuntimeJsonMappingException(
           "Unable to translate " + object.getClass() + " instance to String.class");
     }
   }
 
+  /**
+   * Converts object to UTF-8 encoded JSON bytes. If not possible to convert - throws {@link
+   * RuntimeJsonMappingException}. {@link String} type parameters are encoded as they are.
+   *
+   * @since 1.0.0
+   */
+  public static byte[] applyAsBytes(final Object object) {
+    try {
+      if (String.class.isAssignableFrom(object.getClass())) {
+        return ((String) object).getBytes(StandardCharsets.UTF_8);
+      }
+
+      final JsonAdapter<Object> adapter = findAdapter(object.getClass());
+      if (adapter == null) {
+        return writerFor(object.getClass()).writeValueAsBytes(object);
+      }
+
+      final ByteArrayOutputStream output = new ByteArrayOutputStream(INITIAL_BUFFER_CAPACITY);
+      write(adapter, output, object);
+
+      return output.toByteArray();
+    } catch (IOException e) {
+      throw new RuntimeJsonMappingException(
+          "Unable to translate " + object.getClass() + " instance to byte[]");
+    }
+  }
+
+  /**
+   * Serializes object as UTF-8 encoded JSON straight into a buffer allocated from the given
+   * factory, without an intermediate {@link String} or byte array. If not possible to convert -
+   * releases the buffer and throws {@link RuntimeJsonMappingException}. {@link String} type
+   * parameters are encoded as they are.
+   *
+   * @param object the object to serialize
+   * @param bufferFactory the factory to allocate the buffer from, pooled for Netty sessions
+   * @return the buffer holding the encoded object, owned by the caller
+   * @since 1.0.0
+   */
+  public static DataBuffer applyAsDataBuffer(
+      final Object object, final DataBufferFactory bufferFactory) {
+    final DataBuffer buffer = bufferFactory.allocateBuffer(INITIAL_BUFFER_CAPACITY);
+    try {
+      if (object instanceof CharSequence text) {
+        buffer.write(text, StandardCharsets.UTF_8);
+      } else {
+        final JsonAdapter<Object> adapter = findAdapter(object.getClass());
+        if (adapter != null) {
+          write(adapter, buffer.asOutputStream(), object);
+        } else {
+          writerFor(object.getClass()).writeValue(buffer.asOutputStream(), object);
+        }
+      }
+
+      return buffer;
+    } catch (IOException | RuntimeException e) {
+      DataBufferUtils.release(buffer);
+      throw new RuntimeJsonMappingException(
+          "Unable to translate " + object.getClass() + " instance to DataBuffer");
+    }
+  }
+
   /**
    * Converts object to JSON string. If not possible to convert - returns default value. {@link
    * String} type parameters are returned as they are.
@@ -45,7 +316,7 @@ public class JsonMapper {
     try {
       return String.class.isAssignableFrom(object.getClass())
           ? (String) object
-          : objectMapper.writeValueAsString(object);
+          : writerFor(object.getClass()).writeValueAsString(object);
     } catch (JsonProcessingException e) {
       return defaultValue;
     }
@@ -63,7 +334,7 @@ public class JsonMapper {
       final String value =
           String.class.isAssignableFrom(object.getClass())
               ? (String) object
-              : objectMapper.writeValueAsString(object);
+              : writerFor(object.getClass()).writeValueAsString(object);
 
       return Mono.just(value);
     } catch (JsonProcessingException e) {
@@ -83,7 +354,7 @@ public class JsonMapper {
       final String value =
           String.class.isAssignableFrom(object.getClass())
               ? (String) object
-              : objectMapper.writeValueAsString(object);
+              : writerFor(object.getClass()).writeValueAsString(object);
 
       return Flux.just(value);
     } catch (JsonProcessingException e) {
@@ -103,14 +374,251 @@ public class JsonMapper {
    * @since 1.0.0
    */
   public static <T> T deserialize(final String json, final Class<T> clazz) {
+    if (String.class.equals(clazz)) {
+      return clazz.cast(json);
+    }
+
+    final JsonAdapter<T> adapter = findAdapter(clazz);
     try {
-      return String.class.equals(clazz) ? clazz.cast(json) : objectMapper.readValue(json, clazz);
-    } catch (JsonProcessingException e) {
+      if (adapter == null) {
+        return readerFor(clazz).readValue(json);
+      }
+
+      try (JsonParser parser = mapping.rootReader.createParser(json)) {
+        return read(adapter, parser);
+      }
+    } catch (IOException e) {
+      throw new RuntimeJsonMappingException(
+          "Unable to deserialize JSON to " + clazz.getSimpleName() + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Deserializes UTF-8 encoded JSON straight from a {@link DataBuffer} to the specified type,
+   * without decoding it into an intermediate {@link String}. The readable bytes are parsed in place
+   * through a cached {@link ObjectReader}, the read position of the buffer is left untouched, so a
+   * buffer shared by several subscribers can be parsed by each of them. If not possible to
+   * deserialize - throws {@link RuntimeJsonMappingException}. {@link String} type parameters are
+   * decoded as they are.
+   *
+   * @param buffer the buffer holding the JSON document
+   * @param clazz the target class type
+   * @param <T> the type of the deserialized object
+   * @return the deserialized object
+   * @throws RuntimeJsonMappingException if deserialization fails
+   * @since 1.0.0
+   */
+  public static <T> T deserialize(final DataBuffer buffer, final Class<T> clazz) {
+    if (String.class.equals(clazz)) {
+      final String text =
+          buffer.toString(
+              buffer.readPosition(), buffer.readableByteCount(), StandardCharsets.UTF_8);
+
+      return clazz.cast(text);
+    }
+
+    final JsonAdapter<T> adapter = findAdapter(clazz);
+    try {
+      return adapter != null
+          ? parse(mapping.rootReader, buffer, parser -> read(adapter, parser))
+          : readValue(readerFor(clazz), buffer);
+    } catch (IOException e) {
       throw new RuntimeJsonMappingException(
           "Unable to deserialize JSON to " + clazz.getSimpleName() + ": " + e.getMessage());
     }
   }
 
+  /**
+   * Parses the readable bytes of a {@link DataBuffer} in place with the given reader, whatever data
+   * format its mapper is built for. A single heap chunk is parsed straight from its backing array,
+   * other buffers are streamed chunk by chunk. The read position of the buffer is left untouched.
+   *
+   * @param reader the reader bound to the target type
+   * @param buffer the buffer holding the encoded document
+   * @param <T> the type of the deserialized object
+   * @return the deserialized object
+   * @throws IOException if the document cannot be parsed
+   * @since 1.0.0
+   */
+  public static <T> T readValue(final ObjectReader reader, final DataBuffer buffer)
+      throws IOException {
+    return parse(reader, buffer, reader::readValue);
+  }
+
+  private static <T> T parse(
+      final ObjectReader reader, final DataBuffer buffer, final ParserCallback<T> callback)
+      throws IOException {
+    try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+      final List<ByteBuffer> chunks = new ArrayList<>(1);
+      iterator.forEachRemaining(chunks::add);
+
+      final JsonParser parser;
+      if (chunks.size() == 1 && chunks.get(0).hasArray()) {
+        final ByteBuffer chunk = chunks.get(0);
+        parser =
+            reader.createParser(
+                chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+      } else {
+        final Enumeration<InputStream> streams =
+            Collections.enumeration(
+                chunks.stream().<InputStream>map(ByteBufferBackedInputStream::new).toList());
+        parser = reader.createParser(new SequenceInputStream(streams));
+      }
+
+      try (parser) {
+        return callback.apply(parser);
+      }
+    }
+  }
+
+  private static <T> T read(final JsonAdapter<T> adapter, final JsonParser parser)
+      throws IOException {
+    parser.nextToken();
+
+    return adapter.read(parser);
+  }
+
+  private static void write(
+      final JsonAdapter<Object> adapter, final OutputStream output, final Object object)
+      throws IOException {
+    try (JsonGenerator generator = mapping.objectMapper.createGenerator(output)) {
+      adapter.write(generator, object);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> JsonAdapter<T> findAdapter(final Class<?> type) {
+    final Mapping current = mapping;
+    if (adapters.isEmpty() || !current.adaptersSupported) {
+      return null;
+    }
+
+    final JsonAdapter<?> adapter = adapters.get(type);
+
+    return adapter != null && current.adaptable.get(type) ? (JsonAdapter<T>) adapter : null;
+  }
+
+  private static boolean supportsAdapters(final ObjectMapper objectMapper) {
+    final JsonInclude.Include inclusion =
+        objectMapper.getSerializationConfig().getDefaultPropertyInclusion().getValueInclusion();
+
+    return objectMapper.getPropertyNamingStrategy() == null
+        && objectMapper.mixInCount() == 0
+        && (inclusion == JsonInclude.Include.ALWAYS
+            || inclusion == JsonInclude.Include.USE_DEFAULTS)
+        && !objectMapper.isEnabled(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+        && !objectMapper.isEnabled(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES)
+        && !objectMapper.isEnabled(SerializationFeature.WRAP_ROOT_VALUE)
+        && !objectMapper.isEnabled(DeserializationFeature.UNWRAP_ROOT_VALUE)
+        && !objectMapper.isEnabled(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES)
+        && !objectMapper.isEnabled(DeserializationFeature.FAIL_ON_MISSING_CREATOR_PROPERTIES)
+        && !objectMapper.isEnabled(DeserializationFeature.FAIL_ON_NULL_CREATOR_PROPERTIES);
+  }
+
+  /**
+   * Checks that the mapper maps an adapted record the way a plain {@link ObjectMapper} does: as a
+   * bean, with no serializer or deserializer of a module and no configured format or inclusion for
+   * the record or for the components its adapter reads and writes inline.
+   */
+  private static boolean supportsAdapter(final ObjectMapper objectMapper, final Class<?> type) {
+    try {
+      final JavaType javaType = objectMapper.constructType(type);
+      if (serializerOf(objectMapper, javaType) != BeanSerializer.class
+          || deserializerOf(objectMapper, javaType) != BeanDeserializer.class
+          || !hasDefaultConfig(objectMapper, type)) {
+        return false;
+      }
+
+      for (final RecordComponent component : type.getRecordComponents()) {
+        final Class<?> componentType = component.getType();
+        if (INLINE_TYPES.contains(componentType)
+            && (!hasDefaultConfig(objectMapper, componentType)
+                || !hasDefaultMapping(objectMapper, objectMapper.constructType(componentType)))) {
+          return false;
+        }
+      }
+
+      return true;
+    } catch (JsonMappingException | RuntimeException e) {
+      return false;
+    }
+  }
+
+  private static boolean hasDefaultMapping(final ObjectMapper objectMapper, final JavaType type)
+      throws JsonMappingException {
+    return serializerOf(objectMapper, type) == serializerOf(PLAIN_MAPPER, type)
+        && deserializerOf(objectMapper, type) == deserializerOf(PLAIN_MAPPER, type);
+  }
+
+  private static boolean hasDefaultConfig(final ObjectMapper objectMapper, final Class<?> type) {
+    final SerializationConfig config = objectMapper.getSerializationConfig();
+    final SerializationConfig plainConfig = PLAIN_MAPPER.getSerializationConfig();
+
+    return config.getDefaultPropertyFormat(type).equals(plainConfig.getDefaultPropertyFormat(type))
+        && config
+            .getDefaultPropertyInclusion(type)
+            .equals(plainConfig.getDefaultPropertyInclusion(type));
+  }
+
+  private static Class<?> serializerOf(final ObjectMapper objectMapper, final JavaType type)
+      throws JsonMappingException {
+    return objectMapper.getSerializerProviderInstance().findValueSerializer(type).getClass();
+  }
+
+  private static Class<?> deserializerOf(final ObjectMapper objectMapper, final JavaType type)
+      throws JsonMappingException {
+    final DeserializationContext context =
+        ((DefaultDeserializationContext) objectMapper.getDeserializationContext())
+            .createDummyInstance(objectMapper.getDeserializationConfig());
+
+    return context.findRootValueDeserializer(type).getClass();
+  }
+
+  /** The mapper together with everything derived from it, replaced as a whole. */
+  private static final class Mapping {
+    private final ObjectMapper objectMapper;
+    private final ObjectReader rootReader;
+    private final ObjectWriter valueWriter;
+    private final boolean adaptersSupported;
+
+    private final ClassValue<ObjectReader> readers =
+        new ClassValue<>() {
+          @Override
+          protected ObjectReader computeValue(final Class<?> type) {
+            return Mapping.this.objectMapper.readerFor(type);
+          }
+        };
+
+    private final ClassValue<Boolean> adaptable =
+        new ClassValue<>() {
+          @Override
+          protected Boolean computeValue(final Class<?> type) {
+            return type.isRecord() && supportsAdapter(Mapping.this.objectMapper, type);
+          }
+        };
+
+    private final ClassValue<ObjectWriter> writers =
+        new ClassValue<>() {
+          @Override
+          protected ObjectWriter computeValue(final Class<?> type) {
+            return Mapping.this.objectMapper.writerFor(type);
+          }
+        };
+
+    private Mapping(final ObjectMapper objectMapper) {
+      this.objectMapper = objectMapper;
+      this.rootReader = objectMapper.reader();
+      this.valueWriter =
+          objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+      this.adaptersSupported = supportsAdapters(objectMapper);
+    }
+  }
+
+  @FunctionalInterface
+  private interface ParserCallback<T> {
+    T apply(JsonParser parser) throws IOException;
+  }
+
   /**
    * Deserializes JSON string to the specified type and returns a {@link Mono}. If not possible to
    * deserialize - returns {@link Mono#error(Throwable)}. {@link String} type parameters are
@@ -125,7 +633,7 @@ public class JsonMapper {
   public static <T> Mono<T> deserializeWithMono(final String json, final Class<T> clazz) {
     try {
       final T value =
-          String.class.equals(clazz) ? clazz.cast(json) : objectMapper.readValue(json, clazz);
+          String.class.equals(clazz) ? clazz.cast(json) : readerFor(clazz).<T>readValue(json);
       return Mono.just(value);
     } catch (JsonProcessingException e) {
       return Mono.error(
@@ -148,7 +656,7 @@ public class JsonMapper {
   public static <T> Flux<T> deserializeWithFlux(final String json, final Class<T> clazz) {
     try {
       final T value =
-          String.class.equals(clazz) ? clazz.cast(json) : objectMapper.readValue(json, clazz);
+          String.class.equals(clazz) ? clazz.cast(json) : readerFor(clazz).<T>readValue(json);
       return Flux.just(value);
     } catch (JsonProcessingException e) {
       return Flux.error(
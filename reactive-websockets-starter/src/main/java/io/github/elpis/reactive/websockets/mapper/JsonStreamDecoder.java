@@ -0,0 +1,161 @@
+package io.github.elpis.reactive.websockets.mapper;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.core.io.buffer.DataBuffer;
+
+/**
+ * Incremental decoder of one JSON stream spread over several buffers, built on the non-blocking
+ * parser of Jackson. Bytes are tokenized as they are fed and the buffers are not referenced once
+ * {@link #decode} returns, only the tokens of the value being read are held in memory.
+ *
+ * <p>Every element of a top-level JSON array is decoded as soon as its last token arrived, and so
+ * is every root-level value of a stream of concatenated or newline delimited values. A decoder is
+ * not thread-safe, it reads the stream of one subscriber.
+ *
+ * @param <T> the element type
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
+public final class JsonStreamDecoder<T> {
+  private final Class<T> type;
+  private final JsonParser parser;
+  private final ByteArrayFeeder feeder;
+
+  private TokenBuffer tokens;
+  private int objectDepth;
+  private int arrayDepth;
+  private boolean topLevelArray;
+
+  /**
+   * Creates a decoder reading with the current mapper of {@link JsonMapper}.
+   *
+   * @param type the element type
+   * @throws RuntimeJsonMappingException if the mapper cannot parse JSON incrementally
+   */
+  public JsonStreamDecoder(final Class<T> type) {
+    this.type = type;
+    try {
+      this.parser = JsonMapper.getObjectMapper().getFactory().createNonBlockingByteArrayParser();
+    } catch (IOException | UnsupportedOperationException e) {
+      throw new RuntimeJsonMappingException(
+          "Unable to create non-blocking JSON parser: " + e.getMessage());
+    }
+
+    this.feeder = (ByteArrayFeeder) this.parser.getNonBlockingInputFeeder();
+    this.tokens = new TokenBuffer(this.parser);
+  }
+
+  /**
+   * Feeds the readable bytes of the buffer and decodes the elements completed by them. The read
+   * position of the buffer is left untouched.
+   *
+   * @param buffer the next bytes of the stream
+   * @return the completed elements, empty if the buffer holds no element end
+   * @throws RuntimeJsonMappingException if the stream is not valid JSON or an element cannot be
+   *     mapped to the element type
+   */
+  public List<T> decode(final DataBuffer buffer) {
+    final List<T> values = new ArrayList<>(1);
+    try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+      while (iterator.hasNext()) {
+        final ByteBuffer chunk = iterator.next();
+        if (chunk.hasArray()) {
+          final int offset = chunk.arrayOffset() + chunk.position();
+          this.feeder.feedInput(chunk.array(), offset, offset + chunk.remaining());
+        } else {
+          final byte[] bytes = new byte[chunk.remaining()];
+          chunk.get(bytes);
+          this.feeder.feedInput(bytes, 0, bytes.length);
+        }
+
+        // The parser keeps the fed array until it is consumed, so drain it before moving on
+        this.parseAvailable(values);
+      }
+    } catch (IOException e) {
+      throw this.failure(e.getMessage());
+    }
+
+    return values;
+  }
+
+  /**
+   * Signals the end of the stream and decodes the elements completed by it, such as a trailing
+   * root-level number.
+   *
+   * @return the completed elements
+   * @throws RuntimeJsonMappingException if the stream ends inside a value
+   */
+  public List<T> complete() {
+    final List<T> values = new ArrayList<>(1);
+    try (JsonParser ignored = this.parser) {
+      this.feeder.endOfInput();
+      this.parseAvailable(values);
+    } catch (IOException e) {
+      throw this.failure(e.getMessage());
+    }
+
+    if (this.objectDepth != 0 || this.arrayDepth != 0) {
+      throw this.failure("unexpected end of stream");
+    }
+
+    return values;
+  }
+
+  private void parseAvailable(final List<T> values) throws IOException {
+    JsonToken token;
+    while ((token = this.parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+      switch (token) {
+        case START_OBJECT -> this.objectDepth++;
+        case END_OBJECT -> this.objectDepth--;
+        case START_ARRAY -> this.arrayDepth++;
+        case END_ARRAY -> this.arrayDepth--;
+        default -> {
+          // scalars and field names do not change the nesting
+        }
+      }
+
+      // The brackets of a top-level array are not part of any element
+      if (this.objectDepth == 0) {
+        if (token == JsonToken.START_ARRAY && this.arrayDepth == 1 && !this.topLevelArray) {
+          this.topLevelArray = true;
+          continue;
+        }
+
+        if (token == JsonToken.END_ARRAY && this.arrayDepth == 0 && this.topLevelArray) {
+          this.topLevelArray = false;
+          continue;
+        }
+      }
+
+      this.tokens.copyCurrentEvent(this.parser);
+
+      final boolean valueEnd =
+          token.isScalarValue() || token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY;
+      if (valueEnd && this.objectDepth == 0 && this.arrayDepth == (this.topLevelArray ? 1 : 0)) {
+        values.add(this.read(this.tokens));
+        this.tokens = new TokenBuffer(this.parser);
+      }
+    }
+  }
+
+  private T read(final TokenBuffer element) throws IOException {
+    try (JsonParser elementParser = element.asParser()) {
+      elementParser.nextToken();
+
+      return JsonMapper.readValue(elementParser, this.type);
+    }
+  }
+
+  private RuntimeJsonMappingException failure(final String reason) {
+    return new RuntimeJsonMappingException(
+        "Unable to deserialize JSON stream to " + this.type.getSimpleName() + ": " + reason);
+  }
+}
@@ -1,22 +1,346 @@
 package io.github.elpis.reactive.websockets.session;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import reactor.core.publisher.Sinks;
 
+/**
+ * Registry of open {@link ReactiveWebSocketSession sessions}. Sessions are spread over a fixed
+ * number of shards by session id, so growth and iteration of one shard never touches the others.
+ * Secondary indexes by principal name, remote address and path template give direct access to
+ * groups of sessions without scanning the whole registry.
+ *
+ * <p>A message sent to many sessions at once is encoded once per endpoint with the {@link
+ * ReactiveWebSocketSession#getEncoder() encoder} of its sessions, every session then only wraps
+ * the encoded bytes.
+ *
+ * @author Phillip J. Fry
+ * @since 1.0.0
+ */
 public final class WebSocketSessionRegistry {
+  private static final int DEFAULT_SHARDS = 64;
 
-  private final Map<String, ReactiveWebSocketSession> sessionRegistry = new ConcurrentHashMap<>();
+  private final Map<String, ReactiveWebSocketSession>[] shards;
+  private final int mask;
+
+  private final Map<String, Map<String, ReactiveWebSocketSession>> principalIndex =
+      new ConcurrentHashMap<>();
+  private final Map<String, Map<String, ReactiveWebSocketSession>> remoteAddressIndex =
+      new ConcurrentHashMap<>();
+  private final Map<String, Map<String, ReactiveWebSocketSession>> pathTemplateIndex =
+      new ConcurrentHashMap<>();
+
+  public WebSocketSessionRegistry() {
+    this(DEFAULT_SHARDS);
+  }
+
+  /**
+   * Creates a registry with the given number of shards, rounded up to the next power of two.
+   *
+   * @param shards number of shards
+   */
+  @SuppressWarnings("unchecked")
+  public WebSocketSessionRegistry(final int shards) {
+    if (shards < 1) {
+      throw new IllegalArgumentException("Number of shards should be positive, got " + shards);
+    }
+
+    final int size = shards == 1 ? 1 : Integer.highestOneBit(shards - 1) << 1;
+    this.shards = new Map[size];
+    this.mask = size - 1;
+    Arrays.setAll(this.shards, i -> new ConcurrentHashMap<>());
+  }
 
   public ReactiveWebSocketSession save(final ReactiveWebSocketSession session) {
-    return this.sessionRegistry.put(session.getSessionId(), session);
+    final ReactiveWebSocketSession previous =
+        this.shard(session.getSessionId()).put(session.getSessionId(), session);
+
+    if (previous != null) {
+      this.unindex(previous);
+    }
+
+    this.index(session);
+
+    return previous;
   }
 
   public Optional<ReactiveWebSocketSession> get(final String sessionId) {
-    return Optional.ofNullable(this.sessionRegistry.get(sessionId));
+    return Optional.ofNullable(this.shard(sessionId).get(sessionId));
+  }
+
+  public Optional<ReactiveWebSocketSession> remove(final String sessionId) {
+    final ReactiveWebSocketSession removed = this.shard(sessionId).remove(sessionId);
+
+    if (removed != null) {
+      this.unindex(removed);
+    }
+
+    return Optional.ofNullable(removed);
+  }
+
+  /**
+   * Returns a snapshot of the sessions opened by the given principal.
+   *
+   * @param principalName name of the principal
+   * @return sessions of the principal, empty if there are none
+   */
+  public Collection<ReactiveWebSocketSession> getByPrincipal(final String principalName) {
+    return lookup(this.principalIndex, principalName);
+  }
+
+  /**
+   * Returns a snapshot of the sessions opened from the given remote address.
+   *
+   * @param remoteAddress host address of the client
+   * @return sessions of the address, empty if there are none
+   */
+  public Collection<ReactiveWebSocketSession> getByRemoteAddress(final String remoteAddress) {
+    return lookup(this.remoteAddressIndex, remoteAddress);
+  }
+
+  /**
+   * Returns a snapshot of the sessions opened on the given endpoint.
+   *
+   * @param pathTemplate path template of the endpoint
+   * @return sessions of the endpoint, empty if there are none
+   */
+  public Collection<ReactiveWebSocketSession> getByPathTemplate(final String pathTemplate) {
+    return lookup(this.pathTemplateIndex, pathTemplate);
+  }
+
+  /**
+   * Sends the message to one session.
+   *
+   * @param sessionId id of the target session
+   * @param message message to send
+   * @return {@link Sinks.EmitResult} - result of queueing the message, {@link
+   *     Sinks.EmitResult#FAIL_TERMINATED} if the session is not registered
+   */
+  public Sinks.EmitResult send(final String sessionId, final Object message) {
+    return this.get(sessionId)
+        .map(session -> session.send(message))
+        .orElse(Sinks.EmitResult.FAIL_TERMINATED);
+  }
+
+  /**
+   * Sends the message to every session of the given principal.
+   *
+   * @param principalName name of the principal
+   * @param message message to send
+   * @return number of sessions that accepted the message
+   */
+  public long sendToPrincipal(final String principalName, final Object message) {
+    return send(this.principalIndex, principalName, message);
+  }
+
+  /**
+   * Sends the message to every session opened from the given remote address.
+   *
+   * @param remoteAddress host address of the client
+   * @param message message to send
+   * @return number of sessions that accepted the message
+   */
+  public long sendToRemoteAddress(final String remoteAddress, final Object message) {
+    return send(this.remoteAddressIndex, remoteAddress, message);
+  }
+
+  /**
+   * Sends the message to every session opened on the given endpoint.
+   *
+   * @param pathTemplate path template of the endpoint
+   * @param message message to send
+   * @return number of sessions that accepted the message
+   */
+  public long sendToPathTemplate(final String pathTemplate, final Object message) {
+    return send(this.pathTemplateIndex, pathTemplate, message);
+  }
+
+  /**
+   * Sends the message to every registered session.
+   *
+   * @param message message to send
+   * @return number of sessions that accepted the message
+   */
+  public long sendAll(final Object message) {
+    final SharedEncoding encoding = new SharedEncoding(message);
+
+    long accepted = 0;
+    for (final Map<String, ReactiveWebSocketSession> shard : this.shards) {
+      accepted += send(shard.values(), encoding);
+    }
+
+    return accepted;
+  }
+
+  /**
+   * Sends the message to the given sessions.
+   *
+   * @param sessionIds ids of the target sessions
+   * @param message message to send
+   * @return number of sessions that accepted the message
+   */
+  public long sendAll(final Collection<String> sessionIds, final Object message) {
+    final SharedEncoding encoding = new SharedEncoding(message);
+
+    long accepted = 0;
+    for (final String sessionId : sessionIds) {
+      final ReactiveWebSocketSession session = this.get(sessionId).orElse(null);
+      if (session != null && session.send(encoding.of(session)) == Sinks.EmitResult.OK) {
+        accepted++;
+      }
+    }
+
+    return accepted;
+  }
+
+  /**
+   * Visits every registered session shard by shard, without copying the registry.
+   *
+   * @param action action performed for each session
+   */
+  public void forEach(final Consumer<ReactiveWebSocketSession> action) {
+    for (final Map<String, ReactiveWebSocketSession> shard : this.shards) {
+      shard.values().forEach(action);
+    }
   }
 
-  public Optional<ReactiveWebSocketSession> remove(String sessionId) {
-    return Optional.ofNullable(this.sessionRegistry.get(sessionId));
+  /**
+   * Returns a lazy {@link Stream} over every registered session, shard by shard.
+   *
+   * @return stream of sessions
+   */
+  public Stream<ReactiveWebSocketSession> stream() {
+    return Arrays.stream(this.shards).flatMap(shard -> shard.values().stream());
+  }
+
+  public int size() {
+    int size = 0;
+    for (final Map<String, ReactiveWebSocketSession> shard : this.shards) {
+      size += shard.size();
+    }
+
+    return size;
+  }
+
+  private Map<String, ReactiveWebSocketSession> shard(final String sessionId) {
+    final int hash = sessionId.hashCode();
+
+    return this.shards[(hash ^ (hash >>> 16)) & this.mask];
+  }
+
+  private void index(final ReactiveWebSocketSession session) {
+    add(this.principalIndex, session.getPrincipalName(), session);
+    add(this.remoteAddressIndex, session.getRemoteAddress(), session);
+    add(this.pathTemplateIndex, session.getPathTemplate(), session);
+  }
+
+  private void unindex(final ReactiveWebSocketSession session) {
+    remove(this.principalIndex, session.getPrincipalName(), session);
+    remove(this.remoteAddressIndex, session.getRemoteAddress(), session);
+    remove(this.pathTemplateIndex, session.getPathTemplate(), session);
+  }
+
+  private static void add(
+      final Map<String, Map<String, ReactiveWebSocketSession>> index,
+      final String key,
+      final ReactiveWebSocketSession session) {
+
+    if (key != null) {
+      index.compute(
+          key,
+          (k, sessions) -> {
+            final Map<String, ReactiveWebSocketSession> group =
+                sessions != null ? sessions : new ConcurrentHashMap<>();
+            group.put(session.getSessionId(), session);
+
+            return group;
+          });
+    }
+  }
+
+  private static void remove(
+      final Map<String, Map<String, ReactiveWebSocketSession>> index,
+      final String key,
+      final ReactiveWebSocketSession session) {
+
+    if (key != null) {
+      index.computeIfPresent(
+          key,
+          (k, sessions) -> {
+            sessions.remove(session.getSessionId(), session);
+
+            return sessions.isEmpty() ? null : sessions;
+          });
+    }
+  }
+
+  private static long send(
+      final Map<String, Map<String, ReactiveWebSocketSession>> index,
+      final String key,
+      final Object message) {
+
+    final Map<String, ReactiveWebSocketSession> sessions = key != null ? index.get(key) : null;
+
+    return sessions != null ? send(sessions.values(), new SharedEncoding(message)) : 0;
+  }
+
+  private static long send(
+      final Collection<ReactiveWebSocketSession> sessions, final SharedEncoding encoding) {
+    long accepted = 0;
+    for (final ReactiveWebSocketSession session : sessions) {
+      if (session.send(encoding.of(session)) == Sinks.EmitResult.OK) {
+        accepted++;
+      }
+    }
+
+    return accepted;
+  }
+
+  private static Collection<ReactiveWebSocketSession> lookup(
+      final Map<String, Map<String, ReactiveWebSocketSession>> index, final String key) {
+
+    final Map<String, ReactiveWebSocketSession> sessions = key != null ? index.get(key) : null;
+
+    return sessions != null ? List.copyOf(sessions.values()) : List.of();
+  }
+
+  /**
+   * One message sent to many sessions, encoded once per endpoint encoder. The sessions of one
+   * endpoint share their encoder, so a send to many sessions usually encodes the message once.
+   */
+  private static final class SharedEncoding {
+    private final Object message;
+
+    private Function<Object, Object> lastEncoder;
+    private Object lastEncoded;
+    private Map<Function<Object, Object>, Object> encoded;
+
+    private SharedEncoding(final Object message) {
+      this.message = message;
+    }
+
+    private Object of(final ReactiveWebSocketSession session) {
+      final Function<Object, Object> encoder = session.getEncoder();
+      if (encoder == this.lastEncoder) {
+        return this.lastEncoded;
+      }
+
+      if (this.encoded == null) {
+        this.encoded = new IdentityHashMap<>();
+      }
+
+      this.lastEncoded = this.encoded.computeIfAbsent(encoder, key -> key.apply(this.message));
+      this.lastEncoder = encoder;
+
+      return this.lastEncoded;
+    }
   }
 }